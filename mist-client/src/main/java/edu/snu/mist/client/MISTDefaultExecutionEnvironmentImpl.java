@@ -25,13 +25,14 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * The default implementation class for MISTExecutionEnvironment.
  * It uses avro RPC for communication with the Driver and the Task.
- * First, it communicates with MIST Driver to get a list of MIST Tasks.
- * After retrieving Tasks, it chooses a Task, and uploads its jar files to the MIST Task.
+ * First, it communicates with MIST Driver to get a list of MIST Tasks ranked for the queries.
+ * After retrieving Tasks, it chooses the first Task, and uploads its jar files to the MIST Task.
  * Then, the Task returns the paths of the stored jar files.
  * If the upload succeeds, it converts the query into AvroLogicalPlan, and submits the logical plan to the task.
  */
@@ -60,13 +61,29 @@ public final class MISTDefaultExecutionEnvironmentImpl implements MISTExecutionE
    */
   public MISTDefaultExecutionEnvironmentImpl(final String serverAddr,
                                              final int serverPort) throws IOException {
+    this(serverAddr, serverPort, Collections.emptyList());
+  }
+
+  /**
+   * Constructor for MISTDefaultExecutionEnvironmentImpl.
+   * The driver ranks the Tasks so that the Tasks already having the sources of the queries come first.
+   * @param serverAddr MIST Driver server address.
+   * @param serverPort MIST Driver server port.
+   * @param sourceFingerprints fingerprints of the source configurations of the queries to submit
+   * @throws IOException
+   */
+  public MISTDefaultExecutionEnvironmentImpl(final String serverAddr,
+                                             final int serverPort,
+                                             final List<String> sourceFingerprints) throws IOException {
     // Step 1: Get a task list from Driver
     clientToDriver = new NettyTransceiver(new InetSocketAddress(serverAddr, serverPort));
     this.proxyToDriver = SpecificRequestor.getClient(MistTaskProvider.class, clientToDriver);
-    final TaskList taskList = proxyToDriver.getTasks(new QueryInfo());
+    final TaskList taskList = proxyToDriver.getTasks(QueryInfo.newBuilder()
+        .setSourceFingerprints(sourceFingerprints)
+        .build());
 
     final List<IPAddress> tasks = taskList.getTasks();
-    // Choose a task (TODO: Randomly select a task)
+    // Choose the first task, which is the most preferred one
     taskIPAddress = tasks.get(0);
     clientToTask = new NettyTransceiver(
         new InetSocketAddress(taskIPAddress.getHostAddress().toString(), taskIPAddress.getPort()));
@@ -81,22 +98,48 @@ public final class MISTDefaultExecutionEnvironmentImpl implements MISTExecutionE
    */
   @Override
   public APIQueryControlResult submitQuery(final MISTQuery queryToSubmit) throws AvroRemoteException {
+    final QueryControlResult queryControlResult = proxyToTask.sendQueries(toAvroDag(queryToSubmit));
 
-    // Build logical plan using serialized vertices and edges.
+    // Transform QueryControlResult to APIQueryControlResult
+    final APIQueryControlResult apiQueryControlResult =
+        new APIQueryControlResultImpl(queryControlResult.getQueryId(), taskIPAddress,
+            queryControlResult.getMsg(), queryControlResult.getIsSuccess());
+    return apiQueryControlResult;
+  }
+
+  /**
+   * Submit the queries to the MIST Task with a single request.
+   * @param queriesToSubmit the queries to be submitted.
+   * @return the results of the submitted queries.
+   */
+  @Override
+  public List<APIQueryControlResult> submitQueries(final List<MISTQuery> queriesToSubmit)
+      throws AvroRemoteException {
+    final List<AvroDag> avroDags = new ArrayList<>(queriesToSubmit.size());
+    for (final MISTQuery queryToSubmit : queriesToSubmit) {
+      avroDags.add(toAvroDag(queryToSubmit));
+    }
+    final List<QueryControlResult> queryControlResults = proxyToTask.sendQueryBatch(avroDags);
+
+    final List<APIQueryControlResult> apiQueryControlResults = new ArrayList<>(queryControlResults.size());
+    for (final QueryControlResult queryControlResult : queryControlResults) {
+      apiQueryControlResults.add(new APIQueryControlResultImpl(queryControlResult.getQueryId(), taskIPAddress,
+          queryControlResult.getMsg(), queryControlResult.getIsSuccess()));
+    }
+    return apiQueryControlResults;
+  }
+
+  /**
+   * Build logical plan using serialized vertices and edges.
+   */
+  private AvroDag toAvroDag(final MISTQuery queryToSubmit) {
     final Tuple<List<AvroVertex>, List<Edge>> serializedDag = queryToSubmit.getAvroOperatorDag();
     final AvroDag.Builder avroDagBuilder = AvroDag.newBuilder();
-    final AvroDag avroDag = avroDagBuilder
+    return avroDagBuilder
         .setAppId(queryToSubmit.getApplicationId())
         .setAvroVertices(serializedDag.getKey())
         .setEdges(serializedDag.getValue())
         .build();
-    final QueryControlResult queryControlResult = proxyToTask.sendQueries(avroDag);
-
-    // Transform QueryControlResult to APIQueryControlResult
-    final APIQueryControlResult apiQueryControlResult =
-        new APIQueryControlResultImpl(queryControlResult.getQueryId(), taskIPAddress,
-            queryControlResult.getMsg(), queryControlResult.getIsSuccess());
-    return apiQueryControlResult;
   }
 
   @Override
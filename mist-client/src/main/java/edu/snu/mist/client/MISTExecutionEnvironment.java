@@ -34,6 +34,14 @@ public interface MISTExecutionEnvironment extends AutoCloseable {
    */
   APIQueryControlResult submitQuery(MISTQuery queryToSubmit)  throws AvroRemoteException;
 
+  /**
+   * Submit the queries to MIST at once.
+   * @param queriesToSubmit queries to be submitted.
+   * @return the results of the query submissions in the order of the queries.
+   * @throws AvroRemoteException an exception occurs when connecting with MIST.
+   */
+  List<APIQueryControlResult> submitQueries(List<MISTQuery> queriesToSubmit) throws AvroRemoteException;
+
   /**
    * Submit jar files for the application.
    * It returns the identifier of the jar file and the client can submit multiple queries of the application.
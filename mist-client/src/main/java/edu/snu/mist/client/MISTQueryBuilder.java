@@ -21,14 +21,19 @@ import edu.snu.mist.client.datastreams.MISTStream;
 import edu.snu.mist.client.datastreams.configurations.PeriodicWatermarkConfiguration;
 import edu.snu.mist.client.datastreams.configurations.SourceConfiguration;
 import edu.snu.mist.client.datastreams.configurations.WatermarkConfiguration;
+import edu.snu.mist.common.ConfigFingerprint;
 import edu.snu.mist.common.graph.AdjacentListDAG;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Configurations;
+import org.apache.reef.tang.formats.AvroConfigurationSerializer;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * This class builds MIST query.
  */
@@ -154,6 +159,20 @@ public final class MISTQueryBuilder {
     return buildStream(srcConf.getConfiguration(), watermarkConf.getConfiguration());
   }
 
+  /**
+   * Get the fingerprints of the source configurations, which are sent to the driver
+   * to find the tasks that already have the same sources.
+   * @return the fingerprints of the source configurations
+   */
+  public List<String> getSourceFingerprints() {
+    final AvroConfigurationSerializer serializer = new AvroConfigurationSerializer();
+    final List<String> fingerprints = new ArrayList<>();
+    for (final MISTStream source : dag.getRootVertices()) {
+      fingerprints.add(ConfigFingerprint.of(serializer.toString(source.getConfiguration())).toString());
+    }
+    return fingerprints;
+  }
+
   /**
    * Build the query.
    * @return the query
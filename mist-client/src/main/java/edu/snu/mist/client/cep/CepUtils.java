@@ -48,12 +48,15 @@ public final class CepUtils {
         final List<CepEventPattern<T>> cepEventPatterns = query.getCepEventPatternSequence();
         final CepQualifier<T> cepQualifier = query.getCepQualifier();
         final long windowTime = query.getWindowTime();
+        final MISTFunction<T, ?> keySelector = query.getKeySelector();
         final CepAction cepAction = query.getCepAction();
 
         final MISTQueryBuilder queryBuilder = new MISTQueryBuilder();
         final ContinuousStream<T> inputMapStream = convertCepInputToSourceStream(queryBuilder, cepInput);
-        final ContinuousStream<Map<String, List<T>>> qualifierFilterStream =
-                inputMapStream.cepOperator(cepEventPatterns, windowTime).filter(cepQualifier);
+        final ContinuousStream<Map<String, List<T>>> cepStream = keySelector == null
+                ? inputMapStream.cepOperator(cepEventPatterns, windowTime)
+                : inputMapStream.cepOperator(cepEventPatterns, windowTime, keySelector);
+        final ContinuousStream<Map<String, List<T>>> qualifierFilterStream = cepStream.filter(cepQualifier);
         cepActionTranslator(qualifierFilterStream, cepAction);
         return queryBuilder;
     }
@@ -15,6 +15,7 @@
  */
 package edu.snu.mist.client.cep;
 
+import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.common.operators.CepEventPattern;
 
 import java.util.Arrays;
@@ -32,6 +33,7 @@ public final class MISTCepQuery<T> {
     private final List<CepEventPattern<T>> cepEventPatternSequence;
     private final CepQualifier<T> cepQualifier;
     private final long windowTime;
+    private final MISTFunction<T, ?> keySelector;
     private final CepAction cepAction;
 
     /**
@@ -41,6 +43,8 @@ public final class MISTCepQuery<T> {
      * @param cepInput cep input
      * @param cepEventPatternSequence sequence of event
      * @param cepQualifier pattern qualification
+     * @param windowTime window time
+     * @param keySelector key selector which partitions the events, or null
      * @param cepAction cep action
      */
     private MISTCepQuery(
@@ -50,6 +54,7 @@ public final class MISTCepQuery<T> {
             final List<CepEventPattern<T>> cepEventPatternSequence,
             final CepQualifier<T> cepQualifier,
             final long windowTime,
+            final MISTFunction<T, ?> keySelector,
             final CepAction cepAction) {
         this.superGroupId = superGroupId;
         this.subGroupId = subGroupId;
@@ -57,6 +62,7 @@ public final class MISTCepQuery<T> {
         this.cepEventPatternSequence = cepEventPatternSequence;
         this.cepQualifier = cepQualifier;
         this.windowTime = windowTime;
+        this.keySelector = keySelector;
         this.cepAction = cepAction;
     }
 
@@ -84,6 +90,13 @@ public final class MISTCepQuery<T> {
         return windowTime;
     }
 
+    /**
+     * @return key selector, or null if the events are not partitioned by key
+     */
+    public MISTFunction<T, ?> getKeySelector() {
+        return keySelector;
+    }
+
     public CepAction getCepAction() {
         return cepAction;
     }
@@ -98,6 +111,7 @@ public final class MISTCepQuery<T> {
         private List<CepEventPattern<T>> cepEventPatternSequence;
         private CepQualifier<T> cepQualifier;
         private long windowTime;
+        private MISTFunction<T, ?> keySelector;
         private CepAction cepAction;
 
         public Builder(final String superGroupId, final String subGroupId) {
@@ -107,6 +121,7 @@ public final class MISTCepQuery<T> {
             this.cepEventPatternSequence = null;
             this.cepQualifier = null;
             this.windowTime = -1L;
+            this.keySelector = null;
             this.cepAction = null;
         }
 
@@ -153,6 +168,19 @@ public final class MISTCepQuery<T> {
             return this;
         }
 
+        /**
+         * Partition the events by key, so that the sequence is matched within the events of the same key.
+         * @param selector function that extracts the key from the event
+         * @return builder
+         */
+        public Builder keyBy(final MISTFunction<T, ?> selector) {
+            if (this.keySelector != null) {
+                throw new IllegalStateException("Key selector couldn't be declared twice!");
+            }
+            keySelector = selector;
+            return this;
+        }
+
         /**
          * Define an Action of CEP query.
          * @param action input cep query
@@ -190,7 +218,7 @@ public final class MISTCepQuery<T> {
                 throw new IllegalStateException("Each event should have a different event name!");
             }
             return new MISTCepQuery(superGroupId, subGroupId, cepInput,
-                    cepEventPatternSequence, cepQualifier, windowTime, cepAction);
+                    cepEventPatternSequence, cepQualifier, windowTime, keySelector, cepAction);
         }
     }
 }
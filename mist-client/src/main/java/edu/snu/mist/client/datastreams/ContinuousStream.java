@@ -18,6 +18,7 @@ package edu.snu.mist.client.datastreams;
 import edu.snu.mist.common.functions.*;
 import edu.snu.mist.common.operators.CepEventPattern;
 import edu.snu.mist.common.types.Tuple2;
+import edu.snu.mist.common.windows.FixedSizeWindowInformation;
 import edu.snu.mist.common.windows.WindowInformation;
 import org.apache.reef.tang.Configuration;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
@@ -121,6 +122,35 @@ public interface ContinuousStream<T> extends MISTStream<T> {
   <K, V> ContinuousStream<Map<K, V>> reduceByKey(int keyFieldIndex, Class<K> keyType,
                                                  Class<? extends MISTBiFunction<V, V, V>> clazz,
                                                  Configuration funcConf);
+
+  /**
+   * Applies incremental reduceByKey operation to the current stream.
+   * Unlike reduceByKey, the state is updated in place and only the updated key and its reduced value
+   * are emitted on every input, so the cost per input does not depend on the number of keys.
+   * @param keyFieldIndex the field index of key field
+   * @param keyType the type of key. This parameter is used for type inference and dynamic type checking
+   * @param reduceFunc function used for reduce operation
+   * @param <K> the type of key in resulting stream
+   * @param <V> the type of value in resulting stream
+   * @return new transformed stream after applying the operation
+   */
+  <K, V> ContinuousStream<Tuple2<K, V>> reduceByKeyIncremental(
+      int keyFieldIndex, Class<K> keyType, MISTBiFunction<V, V, V> reduceFunc);
+
+  /**
+   * Applies incremental reduceByKey operation to the current stream.
+   * @param keyFieldIndex the field index of key field
+   * @param keyType the type of key. This parameter is used for type inference and dynamic type checking
+   * @param clazz the class of reduce by key function used for the transformation.
+   * @param funcConf a configuration to instantiate the reduce by key function from the provided class
+   * @param <K> the type of key in resulting stream
+   * @param <V> the type of value in resulting stream
+   * @return new transformed stream after applying the operation
+   */
+  <K, V> ContinuousStream<Tuple2<K, V>> reduceByKeyIncremental(int keyFieldIndex, Class<K> keyType,
+                                                               Class<? extends MISTBiFunction<V, V, V>> clazz,
+                                                               Configuration funcConf);
+
   /**
    * Applies user-defined stateful operator to the current stream.
    * This stream will produce outputs on every stream input.
@@ -164,6 +194,21 @@ public interface ContinuousStream<T> extends MISTStream<T> {
   ContinuousStream<Map<String, List<T>>> cepOperator(final List<CepEventPattern<T>> cepEventPatterns,
                                                      final long windowTime) throws IOException;
 
+  /**
+   * Applies keyed cep operator to the current stream.
+   * The input events are partitioned by the key, and the patterns are matched within each key.
+   * @param cepEventPatterns sequence of cep events
+   * @param windowTime window time
+   * @param keySelector function that extracts the key from the input event
+   * @param <K> the type of key
+   * @return new transformed stream after applying cep operation
+   * The return value, map structure contains matched pattern of input events.
+   * It consists of state name as key and input event list as value.
+   */
+  <K> ContinuousStream<Map<String, List<T>>> cepOperator(final List<CepEventPattern<T>> cepEventPatterns,
+                                                         final long windowTime,
+                                                         final MISTFunction<T, K> keySelector) throws IOException;
+
   /**
    * Applies union operation to the current stream and input continuous stream passed as a parameter.
    * Both two streams for union should be continuous stream type.
@@ -179,6 +224,15 @@ public interface ContinuousStream<T> extends MISTStream<T> {
    */
   WindowedStream<T> window(WindowInformation windowInfo);
 
+  /**
+   * Creates a new WindowsStream according to the fixed-size WindowInformation.
+   * Unlike window(), the overlapping windows are composed from non-overlapping panes,
+   * so each input is stored only once regardless of the ratio of the window size and interval.
+   * @param windowInfo the WindowInformation contains some information used during windowing operation
+   * @return new windowed stream after applying the windowing operation
+   */
+  WindowedStream<T> slicedWindow(FixedSizeWindowInformation windowInfo);
+
   /**
    * Joins current stream with the input stream.
    * Two streams are windowed according to the WindowInfo and joined within the window.
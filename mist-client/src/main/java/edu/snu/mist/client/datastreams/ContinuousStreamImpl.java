@@ -25,6 +25,7 @@ import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.common.operators.*;
 import edu.snu.mist.common.types.Tuple2;
 import edu.snu.mist.common.windows.CountWindowInformation;
+import edu.snu.mist.common.windows.FixedSizeWindowInformation;
 import edu.snu.mist.common.windows.TimeWindowInformation;
 import edu.snu.mist.common.windows.WindowInformation;
 import edu.snu.mist.formats.avro.Direction;
@@ -251,6 +252,26 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
     }
   }
 
+  @Override
+  public <K> ContinuousStream<Map<String, List<T>>> cepOperator(final List<CepEventPattern<T>> cepEventPatterns,
+                                                                final long windowTime,
+                                                                final MISTFunction<T, K> keySelector)
+      throws IOException {
+    try {
+      final Configuration opConf = CepOperatorConfiguration.CONF
+              .set(CepOperatorConfiguration.CEP_EVENTS,
+                      SerializeUtils.serializeToString((Serializable) cepEventPatterns))
+              .set(CepOperatorConfiguration.WINDOW_TIME, windowTime)
+              .set(CepOperatorConfiguration.KEY_SELECTOR, SerializeUtils.serializeToString(keySelector))
+              .set(CepOperatorConfiguration.OPERATOR, CepOperator.class)
+              .build();
+      return transformToSingleInputContinuousStream(opConf, this);
+    } catch (final IOException e) {
+      e.printStackTrace();
+      throw new RuntimeException(e);
+    }
+  }
+
   @Override
   public <K, V> ContinuousStream<Map<K, V>> reduceByKey(final int keyFieldNum,
                                                         final Class<K> keyType,
@@ -280,6 +301,37 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
     return checkUdfAndTransform(clazz, conf, this);
   }
 
+  @Override
+  public <K, V> ContinuousStream<Tuple2<K, V>> reduceByKeyIncremental(final int keyFieldNum,
+                                                                      final Class<K> keyType,
+                                                                      final MISTBiFunction<V, V, V> reduceFunc) {
+    try {
+      final Configuration opConf = ReduceByKeyOperatorUDFConfiguration.CONF
+          .set(ReduceByKeyOperatorUDFConfiguration.KEY_INDEX, keyFieldNum)
+          .set(ReduceByKeyOperatorUDFConfiguration.INCREMENTAL, true)
+          .set(ReduceByKeyOperatorUDFConfiguration.UDF_STRING, SerializeUtils.serializeToString(reduceFunc))
+          .build();
+      return transformToSingleInputContinuousStream(opConf, this);
+    } catch (final IOException e) {
+      e.printStackTrace();
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public <K, V> ContinuousStream<Tuple2<K, V>> reduceByKeyIncremental(
+      final int keyFieldNum,
+      final Class<K> keyType,
+      final Class<? extends MISTBiFunction<V, V, V>> clazz,
+      final Configuration funcConf) {
+    final Configuration conf = Configurations.merge(ReduceByKeyOperatorConfiguration.CONF
+        .set(ReduceByKeyOperatorConfiguration.KEY_INDEX, keyFieldNum)
+        .set(ReduceByKeyOperatorConfiguration.INCREMENTAL, true)
+        .set(ReduceByKeyOperatorConfiguration.MIST_BI_FUNC, clazz)
+        .build(), funcConf);
+    return checkUdfAndTransform(clazz, conf, this);
+  }
+
   @Override
   public ContinuousStream<T> union(final ContinuousStream<T> inputStream) {
     // TODO[MIST-245]: Improve type checking.
@@ -310,6 +362,26 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
     return transformToWindowedStream(opConf, this);
   }
 
+  @Override
+  public WindowedStream<T> slicedWindow(final FixedSizeWindowInformation windowInfo) {
+    final ConfigurationModule confModule = WindowOperatorConfiguration.CONF
+        .set(WindowOperatorConfiguration.WINDOW_SIZE, windowInfo.getWindowSize())
+        .set(WindowOperatorConfiguration.WINDOW_INTERVAL, windowInfo.getWindowInterval())
+        .set(WindowOperatorConfiguration.SLICED, true);
+
+    final Configuration opConf;
+    if (windowInfo instanceof TimeWindowInformation) {
+      opConf = confModule
+          .set(WindowOperatorConfiguration.OPERATOR, TimeWindowOperator.class)
+          .build();
+    } else {
+      opConf = confModule
+          .set(WindowOperatorConfiguration.OPERATOR, CountWindowOperator.class)
+          .build();
+    }
+    return transformToWindowedStream(opConf, this);
+  }
+
   /**
    * Before joining, maps two streams into a Tuple2 form, unifies them, and
    * applies windowing operation with user-defined WindowInformation.
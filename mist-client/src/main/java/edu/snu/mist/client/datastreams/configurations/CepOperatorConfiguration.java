@@ -17,9 +17,11 @@ package edu.snu.mist.client.datastreams.configurations;
 
 import edu.snu.mist.common.operators.Operator;
 import edu.snu.mist.common.parameters.CepEventPatterns;
+import edu.snu.mist.common.parameters.CepKeySelector;
 import edu.snu.mist.common.parameters.WindowTime;
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
+import org.apache.reef.tang.formats.OptionalParameter;
 import org.apache.reef.tang.formats.RequiredImpl;
 import org.apache.reef.tang.formats.RequiredParameter;
 
@@ -38,6 +40,11 @@ public final class CepOperatorConfiguration extends ConfigurationModuleBuilder {
      */
     public static final RequiredParameter<Long> WINDOW_TIME = new RequiredParameter<>();
 
+    /**
+     * Optional serialized key selector which partitions the runs.
+     */
+    public static final OptionalParameter<String> KEY_SELECTOR = new OptionalParameter<>();
+
     /**
      * Required operator class.
      */
@@ -49,6 +56,7 @@ public final class CepOperatorConfiguration extends ConfigurationModuleBuilder {
     public static final ConfigurationModule CONF = new CepOperatorConfiguration()
             .bindNamedParameter(CepEventPatterns.class, CEP_EVENTS)
             .bindNamedParameter(WindowTime.class, WINDOW_TIME)
+            .bindNamedParameter(CepKeySelector.class, KEY_SELECTOR)
             .bindImplementation(Operator.class, OPERATOR)
             .build();
 }
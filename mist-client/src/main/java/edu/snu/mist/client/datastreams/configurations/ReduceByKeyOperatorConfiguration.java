@@ -18,9 +18,11 @@ package edu.snu.mist.client.datastreams.configurations;
 import edu.snu.mist.common.functions.MISTBiFunction;
 import edu.snu.mist.common.operators.Operator;
 import edu.snu.mist.common.operators.ReduceByKeyOperator;
+import edu.snu.mist.common.parameters.IncrementalReduce;
 import edu.snu.mist.common.parameters.KeyIndex;
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
+import org.apache.reef.tang.formats.OptionalParameter;
 import org.apache.reef.tang.formats.RequiredImpl;
 import org.apache.reef.tang.formats.RequiredParameter;
 
@@ -33,6 +35,11 @@ public final class ReduceByKeyOperatorConfiguration extends ConfigurationModuleB
    */
   public static final RequiredParameter<Integer> KEY_INDEX = new RequiredParameter<>();
 
+  /**
+   * Optional Parameter for updating the state in place and emitting only the changed key-value pair.
+   */
+  public static final OptionalParameter<Boolean> INCREMENTAL = new OptionalParameter<>();
+
   /**
    * Required Implementation of MISTBiFunction.
    */
@@ -44,6 +51,7 @@ public final class ReduceByKeyOperatorConfiguration extends ConfigurationModuleB
   public static final ConfigurationModule CONF = new ReduceByKeyOperatorConfiguration()
       .bindImplementation(Operator.class, ReduceByKeyOperator.class)
       .bindNamedParameter(KeyIndex.class, KEY_INDEX)
+      .bindNamedParameter(IncrementalReduce.class, INCREMENTAL)
       .bindImplementation(MISTBiFunction.class, MIST_BI_FUNC)
       .build();
 }
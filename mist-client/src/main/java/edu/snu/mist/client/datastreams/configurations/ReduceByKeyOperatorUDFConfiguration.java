@@ -17,10 +17,12 @@ package edu.snu.mist.client.datastreams.configurations;
 
 import edu.snu.mist.common.operators.Operator;
 import edu.snu.mist.common.operators.ReduceByKeyOperator;
+import edu.snu.mist.common.parameters.IncrementalReduce;
 import edu.snu.mist.common.parameters.KeyIndex;
 import edu.snu.mist.common.parameters.SerializedUdf;
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
+import org.apache.reef.tang.formats.OptionalParameter;
 import org.apache.reef.tang.formats.RequiredParameter;
 
 /**
@@ -38,12 +40,18 @@ public final class ReduceByKeyOperatorUDFConfiguration extends ConfigurationModu
    */
   public static final RequiredParameter<Integer> KEY_INDEX = new RequiredParameter<>();
 
+  /**
+   * Optional Parameter for updating the state in place and emitting only the changed key-value pair.
+   */
+  public static final OptionalParameter<Boolean> INCREMENTAL = new OptionalParameter<>();
+
   /**
    * A configuration for binding the serialized objects of the user-defined function.
    */
   public static final ConfigurationModule CONF = new ReduceByKeyOperatorUDFConfiguration()
       .bindNamedParameter(SerializedUdf.class, UDF_STRING)
       .bindNamedParameter(KeyIndex.class, KEY_INDEX)
+      .bindNamedParameter(IncrementalReduce.class, INCREMENTAL)
       .bindImplementation(Operator.class, ReduceByKeyOperator.class)
       .build();
 }
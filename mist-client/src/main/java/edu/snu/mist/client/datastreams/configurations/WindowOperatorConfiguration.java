@@ -16,10 +16,12 @@
 package edu.snu.mist.client.datastreams.configurations;
 
 import edu.snu.mist.common.operators.Operator;
+import edu.snu.mist.common.parameters.SlicedWindow;
 import edu.snu.mist.common.parameters.WindowInterval;
 import edu.snu.mist.common.parameters.WindowSize;
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
+import org.apache.reef.tang.formats.OptionalParameter;
 import org.apache.reef.tang.formats.RequiredImpl;
 import org.apache.reef.tang.formats.RequiredParameter;
 
@@ -30,11 +32,13 @@ public final class WindowOperatorConfiguration extends ConfigurationModuleBuilde
 
   public static final RequiredParameter<Integer> WINDOW_SIZE = new RequiredParameter<Integer>();
   public static final RequiredParameter<Integer> WINDOW_INTERVAL = new RequiredParameter<Integer>();
+  public static final OptionalParameter<Boolean> SLICED = new OptionalParameter<Boolean>();
   public static final RequiredImpl<Operator> OPERATOR = new RequiredImpl<>();
 
   public static final ConfigurationModule CONF = new WindowOperatorConfiguration()
       .bindNamedParameter(WindowSize.class, WINDOW_SIZE)
       .bindNamedParameter(WindowInterval.class, WINDOW_INTERVAL)
+      .bindNamedParameter(SlicedWindow.class, SLICED)
       .bindImplementation(Operator.class, OPERATOR)
       .build();
 }
@@ -16,61 +16,221 @@
 package edu.snu.mist.client.rulebased;
 
 import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.types.RuleBasedRecord;
+import edu.snu.mist.common.types.RuleBasedSchema;
 import edu.snu.mist.common.types.Tuple2;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * Class for Translate input String into Map.
+ * The declared fields are compiled into a RuleBasedSchema, and each input is parsed into a RuleBasedRecord
+ * that keeps the values in primitive arrays instead of a HashMap of boxed values.
+ * If the separator does not have any regex metacharacter, the input is tokenized by searching the separator
+ * instead of splitting it with a regex, and the integer and long fields are parsed without substrings.
+ * The results are the same as splitting the input with the separator as a regex.
  */
 public final class RuleBasedStringToMapFunction implements MISTFunction<String, Map<String, Object>> {
+    private static final String REGEX_METACHARACTERS = ".$|()[]{}^?*+\\";
+
     private final List<Tuple2<String, RuleBasedValueType>> fields;
     private final String separator;
 
+    /**
+     * The schema of the records.
+     */
+    private final RuleBasedSchema schema;
+
+    /**
+     * The types of the fields in the declared order.
+     */
+    private final RuleBasedValueType[] types;
+
+    /**
+     * The compiled separator, or null if the separator is a literal string.
+     */
+    private final Pattern pattern;
+
     public RuleBasedStringToMapFunction(final List<Tuple2<String, RuleBasedValueType>> fieldsParam,
                                         final String separatorParam) {
         this.fields = fieldsParam;
         this.separator = separatorParam;
+        final List<String> fieldNames = new ArrayList<>(fieldsParam.size());
+        final List<Class<?>> fieldTypes = new ArrayList<>(fieldsParam.size());
+        this.types = new RuleBasedValueType[fieldsParam.size()];
+        for (int i = 0; i < fieldsParam.size(); i++) {
+            final Tuple2<String, RuleBasedValueType> tuple = fieldsParam.get(i);
+            types[i] = (RuleBasedValueType)tuple.get(1);
+            fieldNames.add((String)tuple.get(0));
+            fieldTypes.add(toClass(types[i]));
+        }
+        this.schema = new RuleBasedSchema(fieldNames, fieldTypes);
+        this.pattern = isLiteral(separatorParam) ? null : Pattern.compile(separatorParam);
+    }
+
+    private static Class<?> toClass(final RuleBasedValueType type) {
+        switch (type) {
+            case DOUBLE:
+                return Double.class;
+            case INTEGER:
+                return Integer.class;
+            case LONG:
+                return Long.class;
+            case STRING:
+                return String.class;
+            default:
+                throw new IllegalStateException("Fields value type is wrong!");
+        }
+    }
+
+    private static boolean isLiteral(final String regex) {
+        if (regex.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < regex.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(regex.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public Map<String, Object> apply(final String s) {
-        final String[] inputParse = s.split(separator);
-        final int inputSize = inputParse.length;
+        final RuleBasedRecord result = new RuleBasedRecord(schema);
+        if (pattern != null) {
+            final String[] inputParse = pattern.split(s);
+            if (inputParse.length < types.length) {
+                throw new IllegalStateException("Cannot match input string to tuple since the size is different!");
+            }
+            //if inputSize is larger than fields size, then the spare parts are eliminated.
+            for (int i = 0; i < types.length; i++) {
+                setField(result, i, inputParse[i], 0, inputParse[i].length());
+            }
+            return result;
+        }
 
-        if (inputSize < fields.size()) {
+        if (countTokens(s) < types.length) {
             throw new IllegalStateException("Cannot match input string to tuple since the size is different!");
         }
-
-        final Map<String, Object> result = new HashMap<>();
-        Object value;
-
-        //if inputSize is larger than fields size, then the spare parts are eliminated.
-        for (int i = 0; i < fields.size(); i++) {
-            final Tuple2<String, RuleBasedValueType> tuple = fields.get(i);
-            switch ((RuleBasedValueType)tuple.get(1)) {
-                case DOUBLE:
-                    value = Double.parseDouble(inputParse[i].trim());
-                    break;
-                case INTEGER:
-                    value = Integer.parseInt(inputParse[i].trim());
-                    break;
-                case LONG:
-                    value = Long.parseLong(inputParse[i].trim());
-                    break;
-                case STRING:
-                    value = inputParse[i].trim();
-                    break;
-                default:
-                    throw new IllegalStateException("Fields value type is wrong!");
+        int begin = 0;
+        for (int i = 0; i < types.length; i++) {
+            int end = s.indexOf(separator, begin);
+            if (end < 0) {
+                end = s.length();
             }
-            result.put((String)tuple.get(0), value);
+            setField(result, i, s, begin, end);
+            begin = end + separator.length();
         }
         return result;
     }
 
+    /**
+     * Count the tokens of the input like String.split, which removes the trailing empty tokens.
+     * It stops counting when the number of the tokens reaches the number of the fields.
+     */
+    private int countTokens(final String s) {
+        if (s.indexOf(separator) < 0) {
+            return 1;
+        }
+        int count = 0;
+        int nonEmptyCount = 0;
+        int begin = 0;
+        while (begin <= s.length() && nonEmptyCount < types.length) {
+            int end = s.indexOf(separator, begin);
+            if (end < 0) {
+                end = s.length();
+            }
+            count++;
+            if (end > begin) {
+                nonEmptyCount = count;
+            }
+            begin = end + separator.length();
+        }
+        return nonEmptyCount;
+    }
+
+    /**
+     * Parse the trimmed range of the input into the field of the record.
+     */
+    private void setField(final RuleBasedRecord record, final int position,
+                          final String s, final int begin, final int end) {
+        int from = begin;
+        int to = end;
+        while (from < to && s.charAt(from) <= ' ') {
+            from++;
+        }
+        while (from < to && s.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        switch (types[position]) {
+            case DOUBLE:
+                record.setDouble(position, Double.parseDouble(s.substring(from, to)));
+                break;
+            case INTEGER: {
+                final long value = parseLong(s, from, to);
+                if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                    throw forInputString(s, from, to);
+                }
+                record.setLong(position, value);
+                break;
+            }
+            case LONG:
+                record.setLong(position, parseLong(s, from, to));
+                break;
+            case STRING:
+                record.setString(position, s.substring(from, to));
+                break;
+            default:
+                throw new IllegalStateException("Fields value type is wrong!");
+        }
+    }
+
+    /**
+     * Parse the range of the input as a decimal long like Long.parseLong.
+     */
+    private static long parseLong(final String s, final int begin, final int end) {
+        if (begin >= end) {
+            throw forInputString(s, begin, end);
+        }
+        int i = begin;
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        final char first = s.charAt(i);
+        if (first == '-' || first == '+') {
+            if (first == '-') {
+                negative = true;
+                limit = Long.MIN_VALUE;
+            }
+            i++;
+            if (i == end) {
+                throw forInputString(s, begin, end);
+            }
+        }
+        final long multiplyMin = limit / 10;
+        // Accumulate negatively to parse Long.MIN_VALUE
+        long result = 0;
+        while (i < end) {
+            final int digit = Character.digit(s.charAt(i++), 10);
+            if (digit < 0 || result < multiplyMin) {
+                throw forInputString(s, begin, end);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw forInputString(s, begin, end);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static NumberFormatException forInputString(final String s, final int begin, final int end) {
+        return new NumberFormatException("For input string: \"" + s.substring(begin, end) + "\"");
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
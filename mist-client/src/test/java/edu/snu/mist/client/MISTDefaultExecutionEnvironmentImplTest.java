@@ -90,6 +90,13 @@ public class MISTDefaultExecutionEnvironmentImplTest {
     // Step 4: Send a query and check whether the query comes to the task correctly
     final APIQueryControlResult result = executionEnvironment.submitQuery(query);
     Assert.assertEquals(result.getQueryId(), testQueryResult);
+
+    // Step 5: Send the queries at once and check whether the results come in order
+    final List<APIQueryControlResult> results = executionEnvironment.submitQueries(Arrays.asList(query, query));
+    Assert.assertEquals(2, results.size());
+    for (final APIQueryControlResult batchResult : results) {
+      Assert.assertEquals(batchResult.getQueryId(), testQueryResult);
+    }
     driverServer.close();
     taskServer.close();
     Files.delete(tempJarFile);
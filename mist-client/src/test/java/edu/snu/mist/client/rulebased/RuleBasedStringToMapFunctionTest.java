@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.client.rulebased;
+
+import edu.snu.mist.common.operators.predicates.*;
+import edu.snu.mist.common.types.RuleBasedRecord;
+import edu.snu.mist.common.types.Tuple2;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test whether RuleBasedStringToMapFunction parses the inputs into the records
+ * that are the same as the maps of the fields.
+ */
+public final class RuleBasedStringToMapFunctionTest {
+
+  private final List<Tuple2<String, RuleBasedValueType>> fields = Arrays.asList(
+      new Tuple2<>("id", RuleBasedValueType.LONG),
+      new Tuple2<>("temperature", RuleBasedValueType.INTEGER),
+      new Tuple2<>("humidity", RuleBasedValueType.DOUBLE),
+      new Tuple2<>("location", RuleBasedValueType.STRING));
+
+  private Map<String, Object> newMap(final long id, final int temperature,
+                                     final double humidity, final String location) {
+    final Map<String, Object> map = new HashMap<>();
+    map.put("id", id);
+    map.put("temperature", temperature);
+    map.put("humidity", humidity);
+    map.put("location", location);
+    return map;
+  }
+
+  /**
+   * Test whether the literal and the regex separators produce the same records as the maps.
+   */
+  @Test
+  public void testParse() {
+    final Map<String, Object> expected = newMap(-9223372036854775808L, 25, 0.5, "Seoul");
+    final RuleBasedStringToMapFunction literal = new RuleBasedStringToMapFunction(fields, ",");
+    final Map<String, Object> result = literal.apply("-9223372036854775808, 25 ,0.5,  Seoul ,spare");
+    Assert.assertTrue(result instanceof RuleBasedRecord);
+    Assert.assertEquals(expected, result);
+    Assert.assertEquals(expected.hashCode(), result.hashCode());
+    Assert.assertEquals(Integer.valueOf(25), result.get("temperature"));
+
+    final RuleBasedStringToMapFunction regex = new RuleBasedStringToMapFunction(fields, "\\s*\\|\\s*");
+    Assert.assertEquals(expected, regex.apply("-9223372036854775808 | +25|0.5 |Seoul"));
+  }
+
+  /**
+   * Test whether the invalid inputs are rejected as splitting them with the separator.
+   */
+  @Test
+  public void testInvalidInputs() {
+    final RuleBasedStringToMapFunction function = new RuleBasedStringToMapFunction(fields, ",");
+    for (final String input : Arrays.asList("1,2,0.5", "1,2,0.5,,,", "1,2,0.5,")) {
+      try {
+        function.apply(input);
+        Assert.fail("The input should be rejected: " + input);
+      } catch (final IllegalStateException e) {
+        // expected
+      }
+    }
+    // An empty string field is allowed if it is not trailing
+    Assert.assertEquals(newMap(1L, 2, 0.5, ""), function.apply("1,2,0.5, ,"));
+    for (final String input : Arrays.asList("1,2147483648,0.5,a", "9223372036854775808,2,0.5,a", "1,-,0.5,a")) {
+      try {
+        function.apply(input);
+        Assert.fail("The input should be rejected: " + input);
+      } catch (final NumberFormatException e) {
+        // expected
+      }
+    }
+  }
+
+  /**
+   * Test whether the rule-based predicates return the same results with the records and the maps.
+   */
+  @Test
+  public void testPredicatesOnRecords() {
+    final RuleBasedStringToMapFunction function = new RuleBasedStringToMapFunction(fields, ",");
+    final Map<String, Object> record = function.apply("7,25,0.5,Seoul");
+    final Map<String, Object> map = newMap(7L, 25, 0.5, "Seoul");
+    final List<RuleBasedCCPredicate> predicates = Arrays.asList(
+        new RuleBasedGTPredicate("temperature", 20),
+        new RuleBasedLEPredicate("temperature", 20),
+        new RuleBasedGEPredicate("id", 7L),
+        new RuleBasedLTPredicate("humidity", 0.5),
+        new RuleBasedEQPredicate("location", "Seoul"),
+        new RuleBasedNEQPredicate("humidity", 0.5),
+        new RuleBasedEQPredicate("temperature", 25L));
+    for (final RuleBasedCCPredicate predicate : predicates) {
+      Assert.assertEquals(predicate.test(map), predicate.test(record));
+    }
+    try {
+      new RuleBasedGTPredicate("temperature", 20L).test(record);
+      Assert.fail("The types of the field and the value are different");
+    } catch (final IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Test whether the records can be modified as the maps, and the predicates see the modified values.
+   */
+  @Test
+  public void testModifyRecords() {
+    final RuleBasedStringToMapFunction function = new RuleBasedStringToMapFunction(fields, ",");
+    final Map<String, Object> record = function.apply("7,25,0.5,Seoul");
+    final Map<String, Object> map = newMap(7L, 25, 0.5, "Seoul");
+    Assert.assertEquals(25, record.put("temperature", 30));
+    map.put("temperature", 30);
+    record.put("unit", "celsius");
+    map.put("unit", "celsius");
+    Assert.assertEquals("Seoul", record.remove("location"));
+    map.remove("location");
+    Assert.assertEquals(map, record);
+    Assert.assertEquals(map.hashCode(), record.hashCode());
+
+    final List<RuleBasedCCPredicate> predicates = Arrays.asList(
+        new RuleBasedGTPredicate("temperature", 25),
+        new RuleBasedEQPredicate("temperature", 30),
+        new RuleBasedEQPredicate("unit", "celsius"),
+        new RuleBasedNEQPredicate("id", 7L));
+    for (final RuleBasedCCPredicate predicate : predicates) {
+      Assert.assertEquals(predicate.test(map), predicate.test(record));
+    }
+  }
+}
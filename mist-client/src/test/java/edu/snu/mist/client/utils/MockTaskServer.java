@@ -18,10 +18,12 @@ package edu.snu.mist.client.utils;
 import edu.snu.mist.formats.avro.AvroDag;
 import edu.snu.mist.formats.avro.ClientToTaskMessage;
 import edu.snu.mist.formats.avro.JarUploadResult;
+import edu.snu.mist.formats.avro.MigrationReport;
 import edu.snu.mist.formats.avro.QueryControlResult;
 import org.apache.avro.AvroRemoteException;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -45,8 +47,30 @@ public class MockTaskServer implements ClientToTaskMessage {
     return new QueryControlResult(testQueryResult, true, testQueryResult);
   }
 
+  @Override
+  public List<QueryControlResult> sendQueryBatch(final List<AvroDag> avroDags) throws AvroRemoteException {
+    final List<QueryControlResult> results = new ArrayList<>(avroDags.size());
+    for (final AvroDag avroDag : avroDags) {
+      results.add(sendQueries(avroDag));
+    }
+    return results;
+  }
+
   @Override
   public QueryControlResult deleteQueries(final String groupId, final String queryId) throws AvroRemoteException {
     return new QueryControlResult(testQueryResult, true, testQueryResult);
   }
-}
\ No newline at end of file
+
+  @Override
+  public MigrationReport migrateApplication(final String appId,
+                                           final String targetHost,
+                                           final int targetPort) throws AvroRemoteException {
+    return new MigrationReport(true, "success", 0, 0L, 0L, 0L, 0L);
+  }
+
+  @Override
+  public JarUploadResult restoreApplication(final ByteBuffer checkpoint,
+                                            final List<ByteBuffer> jarFiles) throws AvroRemoteException {
+    return new JarUploadResult(true, "success", "test1");
+  }
+}
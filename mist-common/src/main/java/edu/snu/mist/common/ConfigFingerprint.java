@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common;
+
+/**
+ * This class is a 128-bit fingerprint of a vertex configuration.
+ * It is used as the key of the vertex index instead of the serialized configuration,
+ * so the lookup does not compare the whole configuration strings.
+ * It is also used to find the tasks having the same sources without sending the whole configurations.
+ */
+public final class ConfigFingerprint {
+
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  /**
+   * The upper 64 bits of the fingerprint.
+   */
+  private final long high;
+
+  /**
+   * The lower 64 bits of the fingerprint.
+   */
+  private final long low;
+
+  private ConfigFingerprint(final long high, final long low) {
+    this.high = high;
+    this.low = low;
+  }
+
+  /**
+   * Compute the fingerprint of the configuration.
+   * It mixes the characters in two independent 64-bit lanes, and finalizes the lanes like MurmurHash3.
+   * @param configuration vertex configuration
+   * @return fingerprint
+   */
+  public static ConfigFingerprint of(final String configuration) {
+    long h1 = 0x9e3779b97f4a7c15L;
+    long h2 = 0xc2b2ae3d27d4eb4fL;
+    final int length = configuration.length();
+    for (int i = 0; i < length; i++) {
+      final char c = configuration.charAt(i);
+      h1 = (h1 ^ c) * C1;
+      h1 = Long.rotateLeft(h1, 31);
+      h2 = (h2 + c) * C2;
+      h2 = Long.rotateLeft(h2, 27) ^ h1;
+    }
+    h1 ^= length;
+    h2 ^= length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix64(h1);
+    h2 = fmix64(h2);
+    h1 += h2;
+    h2 += h1;
+    return new ConfigFingerprint(h1, h2);
+  }
+
+  private static long fmix64(final long k) {
+    long h = k;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final ConfigFingerprint that = (ConfigFingerprint) o;
+    return high == that.high && low == that.low;
+  }
+
+  @Override
+  public int hashCode() {
+    return (int) (low ^ (low >>> 32));
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%016x%016x", high, low);
+  }
+}
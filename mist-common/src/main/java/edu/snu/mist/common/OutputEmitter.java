@@ -15,6 +15,8 @@
  */
 package edu.snu.mist.common;
 
+import java.util.List;
+
 /**
  * This interface forwards the emitted output as a input of next operators.
  */
@@ -34,6 +36,17 @@ public interface OutputEmitter {
    */
   void emitData(MistDataEvent data, int index);
 
+  /**
+   * Emits a batch of outputs as inputs of next operators.
+   * The batch should not be modified nor kept after this method returns, as it could be reused by the caller.
+   * @param batch batch of data
+   */
+  default void emitDataBatch(final List<MistDataEvent> batch) {
+    for (final MistDataEvent data : batch) {
+      emitData(data);
+    }
+  }
+
   /**
    * Emits an output as an input of next operators.
    * @param watermark watermark
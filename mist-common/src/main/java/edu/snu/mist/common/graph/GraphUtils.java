@@ -19,7 +19,7 @@ import java.util.*;
 
 /**
  * This is a utility class for graph.
- * This supports graph copy and traversal.
+ * This supports graph copy, traversal, and finding connected components.
  */
 public final class GraphUtils {
 
@@ -58,6 +58,45 @@ public final class GraphUtils {
     }
   }
 
+  /**
+   * Finds the weakly connected components of a DAG, ignoring the direction of the edges.
+   * @param dag a DAG
+   * @param <V> type of vertex
+   * @return the sets of the vertices in each component
+   */
+  public static <V, I> List<Set<V>> getConnectedComponents(final DAG<V, I> dag) {
+    // Build the undirected adjacency of the vertices
+    final Map<V, List<V>> neighbors = new HashMap<>();
+    for (final V vertex : dag.getVertices()) {
+      neighbors.computeIfAbsent(vertex, v -> new ArrayList<>());
+      for (final V child : dag.getEdges(vertex).keySet()) {
+        neighbors.get(vertex).add(child);
+        neighbors.computeIfAbsent(child, v -> new ArrayList<>()).add(vertex);
+      }
+    }
+
+    final List<Set<V>> components = new ArrayList<>();
+    final Set<V> visited = new HashSet<>(neighbors.size());
+    final Deque<V> stack = new ArrayDeque<>();
+    for (final V vertex : neighbors.keySet()) {
+      if (visited.add(vertex)) {
+        final Set<V> component = new HashSet<>();
+        stack.push(vertex);
+        while (!stack.isEmpty()) {
+          final V curr = stack.pop();
+          component.add(curr);
+          for (final V neighbor : neighbors.get(curr)) {
+            if (visited.add(neighbor)) {
+              stack.push(neighbor);
+            }
+          }
+        }
+        components.add(component);
+      }
+    }
+    return components;
+  }
+
   /**
    * Returns an iterator in topological order of a DAG.
    * @param dag a dDAG
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.operators;
+
+/**
+ * A node of the shared match buffer of cep operator.
+ * It saves an event with its state index and points to the node of the previous event.
+ * The nodes are immutable, so the partial matches which are derived from the same partial match
+ * share the nodes of the common prefix instead of copying them.
+ * @param <T> user-defined class
+ */
+final class CepMatchNode<T> {
+
+    /**
+     * The event of this node.
+     */
+    private final T event;
+
+    /**
+     * The state index of the event.
+     */
+    private final int stateIndex;
+
+    /**
+     * The number of events of the same state until this node, including this node.
+     */
+    private final int times;
+
+    /**
+     * The node of the previous event, or null if this node is the first event of the match.
+     */
+    private final CepMatchNode<T> prev;
+
+    CepMatchNode(final T event,
+                 final int stateIndex,
+                 final int times,
+                 final CepMatchNode<T> prev) {
+        this.event = event;
+        this.stateIndex = stateIndex;
+        this.times = times;
+        this.prev = prev;
+    }
+
+    public T getEvent() {
+        return event;
+    }
+
+    public int getStateIndex() {
+        return stateIndex;
+    }
+
+    public int getTimes() {
+        return times;
+    }
+
+    public CepMatchNode<T> getPrev() {
+        return prev;
+    }
+}
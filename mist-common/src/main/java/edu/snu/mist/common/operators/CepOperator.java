@@ -18,7 +18,9 @@ package edu.snu.mist.common.operators;
 import edu.snu.mist.common.MistDataEvent;
 import edu.snu.mist.common.MistWatermarkEvent;
 import edu.snu.mist.common.SerializeUtils;
+import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.common.parameters.CepEventPatterns;
+import edu.snu.mist.common.parameters.CepKeySelector;
 import edu.snu.mist.common.parameters.WindowTime;
 import edu.snu.mist.common.types.Tuple2;
 import org.apache.reef.tang.annotations.Parameter;
@@ -32,6 +34,10 @@ import java.util.logging.Logger;
 
 /**
  * This operator applies complex event pattern to the the data received and emit the matched patterns.
+ * The partial matches share the events of their common prefixes through the shared match buffer,
+ * so a partial match is derived from another one without copying the events.
+ * If a key selector is given, the runs are partitioned by the key of the events,
+ * so that an event only proceeds the runs of its own key.
  * @param <T> the type of user-defined event
  */
 public final class CepOperator<T> extends OneStreamOperator {
@@ -59,9 +65,17 @@ public final class CepOperator<T> extends OneStreamOperator {
     private final List<Tuple2<Integer, Integer>> proceedIndexList;
 
     /**
-     * List of event stacks which are the candidates of matched pattern until current input.
+     * The runs which are the candidates of matched pattern until current input, partitioned by key.
+     * For each key, the runs are indexed by the time of their first events,
+     * so the timed-out runs can be discarded without scanning all the runs.
+     * The keys are ordered by the time of their latest runs, so the idle keys are evicted from the head.
      */
-    private final List<EventStack<T>> matchedEventStackList;
+    private final LinkedHashMap<Object, TreeMap<Long, List<CepRun<T>>>> keyedRunIndex;
+
+    /**
+     * The key selector which partitions the runs. It is null if the runs are not partitioned.
+     */
+    private final MISTFunction<T, ?> keySelector;
 
     /**
      * Window time of cep query.
@@ -76,6 +90,16 @@ public final class CepOperator<T> extends OneStreamOperator {
         this(SerializeUtils.deserializeFromString(serializedEvents, classLoader), windowTime);
     }
 
+    @Inject
+    private CepOperator(
+            @Parameter(CepEventPatterns.class) final String serializedEvents,
+            @Parameter(WindowTime.class) final long windowTime,
+            @Parameter(CepKeySelector.class) final String serializedKeySelector,
+            final ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        this(SerializeUtils.deserializeFromString(serializedEvents, classLoader), windowTime,
+                SerializeUtils.<MISTFunction<T, ?>>deserializeFromString(serializedKeySelector, classLoader));
+    }
+
     /**
      * Constructor of cep operator.
      * @param cepEventPatterns cep event list
@@ -84,6 +108,19 @@ public final class CepOperator<T> extends OneStreamOperator {
     public CepOperator(
             final List<CepEventPattern<T>> cepEventPatterns,
             final long windowTime) {
+        this(cepEventPatterns, windowTime, null);
+    }
+
+    /**
+     * Constructor of keyed cep operator.
+     * @param cepEventPatterns cep event list
+     * @param windowTime window time
+     * @param keySelector key selector which partitions the runs, or null for no partitioning
+     */
+    public CepOperator(
+            final List<CepEventPattern<T>> cepEventPatterns,
+            final long windowTime,
+            final MISTFunction<T, ?> keySelector) {
 
         // Add all the event sequence.
         this.eventPatternList = new ArrayList<>();
@@ -94,7 +131,8 @@ public final class CepOperator<T> extends OneStreamOperator {
 
         // Set window time.
         this.windowTime = windowTime;
-        this.matchedEventStackList = new ArrayList<>();
+        this.keySelector = keySelector;
+        this.keyedRunIndex = new LinkedHashMap<>();
 
         // Find minimum index of final state.
         for (int eventIndex = eventPatternList.size() - 1; true; eventIndex--) {
@@ -150,162 +188,192 @@ public final class CepOperator<T> extends OneStreamOperator {
 
         final T input = (T) data.getValue();
         final long timeStamp = data.getTimestamp();
+        final Object key = keySelector == null ? null : keySelector.apply(input);
 
-        // Save the index of delete stack.
-        final List<EventStack<T>> newMatchedEventStackList = new ArrayList<>();
-        for (int iterStackIndex = 0; iterStackIndex < matchedEventStackList.size(); iterStackIndex++) {
-            final EventStack<T> stack = matchedEventStackList.get(iterStackIndex);
+        // Evict the idle keys whose runs are all timed out.
+        evictIdleKeys(timeStamp);
 
-            // Flag whether discard original event stack or not.
-            boolean isDiscard = true;
+        final TreeMap<Long, List<CepRun<T>>> runIndex = keyedRunIndex.computeIfAbsent(key, k -> new TreeMap<>());
 
-            if (stack.getFirstEventTime() + windowTime >= timeStamp) {
-                final int stateIndex = stack.getStack().peek().getIndex();
-                final int minProceedIndex = (int) proceedIndexList.get(stateIndex).get(0);
-                final int maxProceedIndex = (int) proceedIndexList.get(stateIndex).get(1);
+        // Discard the timed-out runs.
+        runIndex.headMap(timeStamp - windowTime, false).clear();
 
-                // Current state is final state and has no transition condition.
-                if (minProceedIndex == -1 && maxProceedIndex == -1) {
-                    continue;
+        final Iterator<Map.Entry<Long, List<CepRun<T>>>> bucketIterator = runIndex.entrySet().iterator();
+        while (bucketIterator.hasNext()) {
+            final Map.Entry<Long, List<CepRun<T>>> bucket = bucketIterator.next();
+            final List<CepRun<T>> newRunList = new ArrayList<>();
+            for (final CepRun<T> run : bucket.getValue()) {
+                proceedRun(data, input, run, newRunList);
+            }
+            if (newRunList.isEmpty()) {
+                bucketIterator.remove();
+            } else {
+                bucket.setValue(newRunList);
+            }
+        }
+
+        // The condition for initial state to first state.
+        final int minProceedIndex = (int) proceedIndexList.get(0).get(0);
+        final int maxProceedIndex = (int) proceedIndexList.get(0).get(1);
+        for (int proceedIndex = minProceedIndex; proceedIndex <= maxProceedIndex; proceedIndex++) {
+            final CepEventPattern<T> cepEventPattern = eventPatternList.get(proceedIndex);
+            if (cepEventPattern.getCondition().test(input)) {
+                final CepMatchNode<T> newNode = new CepMatchNode<>(input, proceedIndex, 1, null);
+
+                // If final state, emit the run.
+                if (proceedIndex >= minFinalStateIndex) {
+                    emit(data, newNode);
                 }
+                runIndex.computeIfAbsent(timeStamp, k -> new ArrayList<>())
+                        .add(new CepRun<>(newNode, timeStamp, true));
+            }
+        }
 
-                // Current state.
-                final CepEventPattern<T> currEventPattern = eventPatternList.get(stateIndex);
-
-                for (int proceedIndex = minProceedIndex; proceedIndex <= maxProceedIndex; proceedIndex++) {
-
-                    // If the current state is loop state.
-                    if (proceedIndex == stateIndex && proceedIndex != 0) {
-                        if (currEventPattern.isRepeated() && !stack.getStack().peek().isStopped()) {
-
-                            // Current looping state's iteration times.
-                            final int times = stack.getStack().peek().getlist().size();
-
-                            // Stop condition is triggered.
-                            if (currEventPattern.getStopCondition().test(input)) {
-                                stack.getStack().peek().setStopped();
-
-                                // If the current event does not satisfy the min times, continue the iteration.
-                                if (times < currEventPattern.getMinRepetition()) {
-                                    continue;
-                                }
-
-                            } else if (currEventPattern.getCondition().test(input)) {
-                                // If the current continguity is strict, but the stack does not include the last event,
-                                // then it would be eliminated.
-                                if (currEventPattern.getInnerContiguity() == CepEventContiguity.STRICT
-                                        && !stack.isIncludingLast()) {
-                                    continue;
-                                }
-
-                                 // If current entry satisfies times condition.
-                                 if (currEventPattern.getMaxRepetition() == -1
-                                         || times < currEventPattern.getMaxRepetition()) {
-                                    final EventStack<T> newStack = new EventStack<>(stack.getFirstEventTime());
-                                    newStack.setStack(stack.deepCopy().getStack());
-                                    newStack.getStack().peek().addEvent(input);
-                                    newMatchedEventStackList.add(newStack);
-
-                                    // Emit the final state's stack.
-                                    if (proceedIndex >= minFinalStateIndex && newStack.isEmitted()) {
-                                        emit(data, newStack);
-                                    }
-
-                                    // If the current contiguity is NDR, then the stack should not be discarded.
-                                    if (currEventPattern.getInnerContiguity()
-                                            == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
-                                        isDiscard = false;
-                                    }
-                                 }
-
-                            // If the current input does not satisfy the transition condition.
-                            } else {
-                                if (currEventPattern.getInnerContiguity() == CepEventContiguity.STRICT) {
-                                    stack.getStack().peek().setStopped();
-                                }
-
-                                // If transition condition of relaxed contiguity is not satisfied,
-                                // the current original stack should not be discarded.
-                                if (currEventPattern.getInnerContiguity() == CepEventContiguity.RELAXED ||
-                                        currEventPattern.getInnerContiguity()
-                                                == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
-                                    isDiscard = false;
-                                }
-                            }
-                        }
-                    } else {
-                        final CepEventPattern<T> cepEventPattern = eventPatternList.get(proceedIndex);
-                        final int times = stack.getStack().peek().getlist().size();
+        // Remove the key if it has no run, and move the key to the tail if it has a new run.
+        if (runIndex.isEmpty()) {
+            keyedRunIndex.remove(key);
+        } else if (runIndex.containsKey(timeStamp)) {
+            keyedRunIndex.remove(key);
+            keyedRunIndex.put(key, runIndex);
+        }
+    }
+
+    /**
+     * Evict the keys whose latest runs are timed out.
+     * As the keys are ordered by the time of their latest runs, the eviction stops at the first live key.
+     * @param timeStamp the timestamp of the current input
+     */
+    private void evictIdleKeys(final long timeStamp) {
+        final Iterator<TreeMap<Long, List<CepRun<T>>>> keyIterator = keyedRunIndex.values().iterator();
+        while (keyIterator.hasNext()) {
+            if (keyIterator.next().lastKey() < timeStamp - windowTime) {
+                keyIterator.remove();
+            } else {
+                break;
+            }
+        }
+    }
 
-                            if (cepEventPattern.getCondition().test(input)) {
+    /**
+     * Proceeds the run with the current input, and adds the derived runs to the new run list.
+     * @param data current mist data event
+     * @param input the value of the current event
+     * @param run the run to proceed
+     * @param newRunList the list of runs after the current input
+     */
+    private void proceedRun(final MistDataEvent data,
+                            final T input,
+                            final CepRun<T> run,
+                            final List<CepRun<T>> newRunList) {
+        final CepMatchNode<T> lastNode = run.getLastNode();
+        final int stateIndex = lastNode.getStateIndex();
+        final int minProceedIndex = (int) proceedIndexList.get(stateIndex).get(0);
+        final int maxProceedIndex = (int) proceedIndexList.get(stateIndex).get(1);
+
+        // Current state is final state and has no transition condition.
+        if (minProceedIndex == -1 && maxProceedIndex == -1) {
+            return;
+        }
 
-                            // If the current continguity is strict, but the stack does not include the last event,
-                            // then it would be eliminated.
-                            if (cepEventPattern.getContiguity() == CepEventContiguity.STRICT
-                                    && !stack.isIncludingLast()) {
-                                continue;
-                            }
+        // Flag whether discard original run or not.
+        boolean isDiscard = true;
+
+        // Current state.
+        final CepEventPattern<T> currEventPattern = eventPatternList.get(stateIndex);
+
+        for (int proceedIndex = minProceedIndex; proceedIndex <= maxProceedIndex; proceedIndex++) {
+
+            // If the current state is loop state.
+            if (proceedIndex == stateIndex && proceedIndex != 0) {
+                if (currEventPattern.isRepeated()) {
 
-                            final EventStack<T> newStack = new EventStack<>(stack.getFirstEventTime());
-                            newStack.setStack(stack.deepCopy().getStack());
-                            final EventStackEntry<T> newEntry = new EventStackEntry<>(proceedIndex);
-                            newEntry.addEvent(input);
-                            newStack.getStack().push(newEntry);
-                            newMatchedEventStackList.add(newStack);
+                    // Current looping state's iteration times.
+                    final int times = lastNode.getTimes();
 
-                            // Emit the stack at the final state.
+                    // Stop condition is triggered.
+                    if (currEventPattern.getStopCondition().test(input)) {
+                        // If the current event does not satisfy the min times, continue the iteration.
+                        if (times < currEventPattern.getMinRepetition()) {
+                            continue;
+                        }
+
+                    } else if (currEventPattern.getCondition().test(input)) {
+                        // If the current continguity is strict, but the run does not include the last event,
+                        // then it would be eliminated.
+                        if (currEventPattern.getInnerContiguity() == CepEventContiguity.STRICT
+                                && !run.isIncludingLast()) {
+                            continue;
+                        }
+
+                        // If current entry satisfies times condition.
+                        if (currEventPattern.getMaxRepetition() == -1
+                                || times < currEventPattern.getMaxRepetition()) {
+                            final CepMatchNode<T> newNode =
+                                    new CepMatchNode<>(input, proceedIndex, times + 1, lastNode);
+
+                            // Emit the final state's run.
                             if (proceedIndex >= minFinalStateIndex) {
-                                emit(data, newStack);
+                                emit(data, newNode);
                             }
-                            // Do not discard the stack of ndr contiguity.
-                            if (cepEventPattern.getContiguity() == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
-                                isDiscard = false;
-                            }
-                        } else {
-                             // If transition condition of ndr contiguity is not satisfied,
-                             // the current original stack should not be discarded.
-                            if (cepEventPattern.getContiguity() == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
+                            newRunList.add(new CepRun<>(newNode, run.getFirstEventTime(), true));
+
+                            // If the current contiguity is NDR, then the run should not be discarded.
+                            if (currEventPattern.getInnerContiguity()
+                                    == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
                                 isDiscard = false;
                             }
                         }
+
+                    // If the current input does not satisfy the transition condition.
+                    } else {
+                        // If transition condition of relaxed contiguity is not satisfied,
+                        // the current original run should not be discarded.
+                        if (currEventPattern.getInnerContiguity() == CepEventContiguity.RELAXED ||
+                                currEventPattern.getInnerContiguity()
+                                        == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
+                            isDiscard = false;
+                        }
                     }
                 }
-            }
+            } else {
+                final CepEventPattern<T> cepEventPattern = eventPatternList.get(proceedIndex);
 
-            // Check whether current stack should be discard or not.
-            if (!isDiscard) {
-                final EventStack<T> newStack = stack.deepCopy();
-                newStack.setIncludeLast(false);
-                if (!stack.isEmitted()) {
-                    newStack.setAlreadyEmitted();
-                }
-                newMatchedEventStackList.add(newStack);
-            }
-        }
+                if (cepEventPattern.getCondition().test(input)) {
 
+                    // If the current continguity is strict, but the run does not include the last event,
+                    // then it would be eliminated.
+                    if (cepEventPattern.getContiguity() == CepEventContiguity.STRICT
+                            && !run.isIncludingLast()) {
+                        continue;
+                    }
 
-        // The condition for initial state to first state.
-        final int minProceedIndex = (int) proceedIndexList.get(0).get(0);
-        final int maxProceedIndex = (int) proceedIndexList.get(0).get(1);
-        for (int proceedIndex = minProceedIndex; proceedIndex <= maxProceedIndex; proceedIndex++) {
-            final CepEventPattern<T> cepEventPattern = eventPatternList.get(proceedIndex);
-            if (cepEventPattern.getCondition().test(input)) {
-                final EventStack<T> newStack = new EventStack<>(timeStamp);
-                final EventStackEntry<T> newEntry = new EventStackEntry<>(proceedIndex);
-                newEntry.addEvent(input);
-                newStack.getStack().push(newEntry);
-                newMatchedEventStackList.add(newStack);
+                    final CepMatchNode<T> newNode = new CepMatchNode<>(input, proceedIndex, 1, lastNode);
 
-                // If final state, emit the stack.
-                if (proceedIndex >= minFinalStateIndex) {
-                    emit(data, newStack);
+                    // Emit the run at the final state.
+                    if (proceedIndex >= minFinalStateIndex) {
+                        emit(data, newNode);
+                    }
+                    newRunList.add(new CepRun<>(newNode, run.getFirstEventTime(), true));
+
+                    // Do not discard the run of ndr contiguity.
+                    if (cepEventPattern.getContiguity() == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
+                        isDiscard = false;
+                    }
+                } else {
+                    // If transition condition of ndr contiguity is not satisfied,
+                    // the current original run should not be discarded.
+                    if (cepEventPattern.getContiguity() == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
+                        isDiscard = false;
+                    }
                 }
             }
         }
 
-        // Update matched event stack list.
-        matchedEventStackList.clear();
-        matchedEventStackList.addAll(newMatchedEventStackList);
+        // Keep the current run, which does not include the current input, if it should not be discarded.
+        // It shares all the nodes with the original run.
+        if (!isDiscard) {
+            newRunList.add(new CepRun<>(lastNode, run.getFirstEventTime(), false));
+        }
     }
 
     @Override
@@ -314,35 +382,38 @@ public final class CepOperator<T> extends OneStreamOperator {
     }
 
     /**
-     * Emit the event stack which is in final state.
+     * Emit the run which is in final state.
+     * The output is made by following the nodes of the shared match buffer from the last node.
      * @param input current mist data event
-     * @param eventStack event stack
+     * @param lastNode the last node of the run
      */
-    private void emit(final MistDataEvent input, final EventStack<T> eventStack) {
+    private void emit(final MistDataEvent input, final CepMatchNode<T> lastNode) {
 
-        final Map<String, List<T>> output = new HashMap<>();
-        final long timeStamp = input.getTimestamp();
-
-        // Check whether current event stack satisfies the loop condition.
-        final int finalStateIndex = eventStack.getStack().peek().getIndex();
-        final EventStackEntry<T> finalEntry = eventStack.getStack().peek();
-        final int times = finalEntry.getlist().size();
-        final CepEventPattern<T> finalState = eventPatternList.get(finalStateIndex);
+        // Check whether current run satisfies the loop condition.
+        final int times = lastNode.getTimes();
+        final CepEventPattern<T> finalState = eventPatternList.get(lastNode.getStateIndex());
         if (!finalState.isRepeated()
                 || (times >= finalState.getMinRepetition()
                 && (finalState.getMaxRepetition() == -1 || times <= finalState.getMaxRepetition()))) {
 
-            // Make an output data.
-            for (final EventStackEntry<T> iterEntry : eventStack.getStack()) {
-                output.put(eventPatternList.get(iterEntry.getIndex()).getEventPatternName(), iterEntry.getlist());
+            // Make an output data. The later state has priority for the same event pattern name.
+            final Map<String, List<T>> output = new HashMap<>();
+            CepMatchNode<T> node = lastNode;
+            while (node != null) {
+                final int stateIndex = node.getStateIndex();
+                final List<T> events = new ArrayList<>(Collections.nCopies(node.getTimes(), null));
+                for (int i = events.size() - 1; i >= 0; i--) {
+                    events.set(i, node.getEvent());
+                    node = node.getPrev();
+                }
+                output.putIfAbsent(eventPatternList.get(stateIndex).getEventPatternName(), events);
             }
 
             if (LOG.isLoggable(Level.FINE)) {
                 LOG.log(Level.FINE, "{0} processes {1} to {2}",
                         new Object[]{this.getClass().getName(), input, output});
             }
-            outputEmitter.emitData(new MistDataEvent(output, timeStamp));
-            eventStack.setAlreadyEmitted();
+            outputEmitter.emitData(new MistDataEvent(output, input.getTimestamp()));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.operators;
+
+/**
+ * A partial match (run) of cep operator.
+ * It points to the last node of the match in the shared match buffer.
+ * @param <T> user-defined class
+ */
+final class CepRun<T> {
+
+    /**
+     * The last node of this run.
+     */
+    private final CepMatchNode<T> lastNode;
+
+    /**
+     * Save the first event time to support discarding timeout.
+     */
+    private final long firstEventTime;
+
+    /**
+     * Checks whether this run includes the last event or not.
+     */
+    private final boolean includeLast;
+
+    CepRun(final CepMatchNode<T> lastNode,
+           final long firstEventTime,
+           final boolean includeLast) {
+        this.lastNode = lastNode;
+        this.firstEventTime = firstEventTime;
+        this.includeLast = includeLast;
+    }
+
+    public CepMatchNode<T> getLastNode() {
+        return lastNode;
+    }
+
+    public long getFirstEventTime() {
+        return firstEventTime;
+    }
+
+    public boolean isIncludingLast() {
+        return includeLast;
+    }
+}
@@ -17,9 +17,9 @@ package edu.snu.mist.common.operators;
 
 import edu.snu.mist.common.MistDataEvent;
 import edu.snu.mist.common.MistWatermarkEvent;
-import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.functions.MISTPredicate;
 import edu.snu.mist.common.parameters.SerializedUdfList;
+import edu.snu.mist.common.shared.DeserializationCache;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
@@ -40,10 +40,11 @@ public final class ConditionalBranchOperator<I> extends OneStreamOperator {
   @Inject
   private ConditionalBranchOperator(
       @Parameter(SerializedUdfList.class) final List<String> serializedUdfList,
-      final ClassLoader classLoader) throws IOException, ClassNotFoundException {
+      final ClassLoader classLoader,
+      final DeserializationCache deserializationCache) throws IOException, ClassNotFoundException {
     predicates = new ArrayList<>(serializedUdfList.size());
     for (final String serializedUdf : serializedUdfList) {
-      predicates.add(SerializeUtils.deserializeFromString(serializedUdf, classLoader));
+      predicates.add(deserializationCache.getUdf(serializedUdf, classLoader));
     }
   }
 
@@ -17,6 +17,7 @@ package edu.snu.mist.common.operators;
 
 import edu.snu.mist.common.MistDataEvent;
 import edu.snu.mist.common.MistWatermarkEvent;
+import edu.snu.mist.common.parameters.SlicedWindow;
 import edu.snu.mist.common.parameters.WindowInterval;
 import edu.snu.mist.common.parameters.WindowSize;
 import org.apache.reef.tang.annotations.Parameter;
@@ -37,10 +38,16 @@ public final class CountWindowOperator<T> extends FixedSizeWindowOperator<T> imp
    */
   private long count;
 
+  public CountWindowOperator(final int windowSize,
+                             final int windowEmissionInterval) {
+    this(windowSize, windowEmissionInterval, false);
+  }
+
   @Inject
   public CountWindowOperator(@Parameter(WindowSize.class) final int windowSize,
-                             @Parameter(WindowInterval.class) final int windowEmissionInterval) {
-    super(windowSize, windowEmissionInterval);
+                             @Parameter(WindowInterval.class) final int windowEmissionInterval,
+                             @Parameter(SlicedWindow.class) final boolean sliced) {
+    super(windowSize, windowEmissionInterval, sliced);
     this.count = 1L;
   }
 
@@ -17,13 +17,15 @@ package edu.snu.mist.common.operators;
 
 import edu.snu.mist.common.MistDataEvent;
 import edu.snu.mist.common.MistWatermarkEvent;
-import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.functions.MISTPredicate;
 import edu.snu.mist.common.parameters.SerializedUdf;
+import edu.snu.mist.common.shared.DeserializationCache;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,8 +44,9 @@ public final class FilterOperator<I> extends OneStreamOperator {
   @Inject
   private FilterOperator(
       @Parameter(SerializedUdf.class) final String serializedObject,
-      final ClassLoader classLoader) throws IOException, ClassNotFoundException {
-    this(SerializeUtils.deserializeFromString(serializedObject, classLoader));
+      final ClassLoader classLoader,
+      final DeserializationCache deserializationCache) throws IOException, ClassNotFoundException {
+    this(deserializationCache.getUdf(serializedObject, classLoader));
   }
 
   @Inject
@@ -51,6 +54,13 @@ public final class FilterOperator<I> extends OneStreamOperator {
     this.filterFunc = filterFunc;
   }
 
+  /**
+   * Gets the filter function.
+   */
+  public MISTPredicate<I> getFilterFunc() {
+    return filterFunc;
+  }
+
   /**
    * Filters the input.
    */
@@ -68,6 +78,28 @@ public final class FilterOperator<I> extends OneStreamOperator {
     }
   }
 
+  /**
+   * Filters the batch of inputs, and emits the filtered inputs at once.
+   */
+  @Override
+  public void processLeftDataBatch(final List<MistDataEvent> batch) {
+    final List<MistDataEvent> outputs = new ArrayList<>(batch.size());
+    for (final MistDataEvent input : batch) {
+      if (filterFunc.test((I)input.getValue())) {
+        outputs.add(input);
+      }
+    }
+
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} Filters {1} of {2} inputs",
+          new Object[]{FilterOperator.class, outputs.size(), batch.size()});
+    }
+
+    if (!outputs.isEmpty()) {
+      outputEmitter.emitDataBatch(outputs);
+    }
+  }
+
   @Override
   public void processLeftWatermark(final MistWatermarkEvent input) {
     outputEmitter.emitWatermark(input);
@@ -29,6 +29,9 @@ import java.util.logging.Logger;
  * This abstract class represents a basic operator makes windows and emits a collection of data.
  * When a sub-class receives a watermark or data, it requests FixedSizeWindowOperator to
  * reorganize the queue to have available windows and put the watermark or data into the windows.
+ * If the operator is sliced and the windows overlap (the window size is larger than the emission interval),
+ * the queue holds non-overlapping panes of gcd(size, interval) instead of the overlapping windows.
+ * Each input is stored in a single pane, and the windows are composed from the panes on emission.
  * @param <T> the type of data
  */
 abstract class FixedSizeWindowOperator<T> extends OneStreamOperator implements StateHandler {
@@ -52,8 +55,30 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamOperator implements S
 
   /**
    * The queue of windows in this operator.
+   * If the operator is sliced, it holds the panes instead of the windows.
    */
-  private final Queue<Window<T>> windowQueue;
+  private final Deque<Window<T>> windowQueue;
+
+  /**
+   * True if the windows are composed from non-overlapping panes.
+   * It follows the loaded state on recovery, because the queue holds either the panes or the windows.
+   */
+  private boolean sliced;
+
+  /**
+   * The size of a pane, which is gcd(windowSize, windowEmissionInterval).
+   */
+  private final long paneSize;
+
+  /**
+   * The end of the window that will be emitted next. It is only used in sliced mode.
+   */
+  private long windowEmissionPoint;
+
+  /**
+   * The start of the first window. It is only used in sliced mode.
+   */
+  private long windowStartPoint;
 
   /**
    * The latest Checkpoint Timestamp.
@@ -62,18 +87,42 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamOperator implements S
 
   protected FixedSizeWindowOperator(final int windowSize,
                                     final int windowEmissionInterval) {
+    this(windowSize, windowEmissionInterval, false);
+  }
+
+  /**
+   * @param windowSize the size of window
+   * @param windowEmissionInterval the interval of emission
+   * @param sliced true if the overlapping windows should be composed from non-overlapping panes
+   */
+  protected FixedSizeWindowOperator(final int windowSize,
+                                    final int windowEmissionInterval,
+                                    final boolean sliced) {
     this.windowSize = windowSize;
     this.windowEmissionInterval = windowEmissionInterval;
+    // Panes are only beneficial when the windows overlap
+    this.sliced = sliced && windowSize > windowEmissionInterval;
+    this.paneSize = gcd(windowSize, windowEmissionInterval);
     this.windowQueue = new LinkedList<>();
     this.windowCreationPoint = Long.MIN_VALUE;
+    this.windowEmissionPoint = Long.MIN_VALUE;
+    this.windowStartPoint = Long.MIN_VALUE;
     this.latestCheckpointTimestamp = 0L;
   }
 
+  private static long gcd(final long a, final long b) {
+    return b == 0 ? a : gcd(b, a % b);
+  }
+
   /**
    * Checks whether the window creation time or count is elapsed, and creates some windows if so.
    * @param currentEventPoint the point of received event
    */
   protected void createWindow(final long currentEventPoint) {
+    if (sliced) {
+      createPane(currentEventPoint);
+      return;
+    }
     if (windowCreationPoint == Long.MIN_VALUE) {
       // Creates some initial windows
       long temporalWindowSize = windowEmissionInterval;
@@ -101,6 +150,10 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamOperator implements S
    * @param currentEventPoint the point of received event
    */
   protected void emitElapsedWindow(final long currentEventPoint) {
+    if (sliced) {
+      emitElapsedPaneWindow(currentEventPoint);
+      return;
+    }
     // Checks the window emission time is elapsed
     while (!windowQueue.isEmpty() && ((Window) windowQueue.peek()).getEnd() < currentEventPoint) {
       final Window<T> window = windowQueue.poll();
@@ -117,6 +170,14 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamOperator implements S
    * @param input the input data
    */
   protected void putData(final MistDataEvent input) {
+    if (sliced) {
+      // Each input belongs to the latest pane only
+      final Window<T> pane = windowQueue.peekLast();
+      if (pane != null) {
+        pane.putData(input);
+      }
+      return;
+    }
     // Iterates the windowQueue and puts the input MistEvent into some windows
     final Iterator<Window<T>> itr = windowQueue.iterator();
     while (itr.hasNext()) {
@@ -136,6 +197,13 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamOperator implements S
    * @param input the input watermark
    */
   protected void putWatermark(final MistWatermarkEvent input) {
+    if (sliced) {
+      final Window<T> pane = windowQueue.peekLast();
+      if (pane != null) {
+        pane.putWatermark(input);
+      }
+      return;
+    }
     // Iterates the windowQueue and puts the input MistEvent into some windows
     final Iterator<Window<T>> itr = windowQueue.iterator();
     while (itr.hasNext()) {
@@ -144,11 +212,93 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamOperator implements S
     }
   }
 
+  /**
+   * Creates the panes until the pane that contains the current event point.
+   * @param currentEventPoint the point of received event
+   */
+  private void createPane(final long currentEventPoint) {
+    if (windowCreationPoint == Long.MIN_VALUE) {
+      windowStartPoint = currentEventPoint;
+      windowCreationPoint = currentEventPoint;
+      windowEmissionPoint = currentEventPoint + windowEmissionInterval - 1;
+    }
+    while (windowCreationPoint <= currentEventPoint) {
+      windowQueue.add(new WindowImpl<>(windowCreationPoint, paneSize));
+      windowCreationPoint += paneSize;
+    }
+  }
+
+  /**
+   * @param end the end of a window
+   * @return the start of the window that ends at the end point
+   */
+  private long getWindowStart(final long end) {
+    return Math.max(windowStartPoint, end - windowSize + 1);
+  }
+
+  /**
+   * Composes the elapsed windows from the panes and emits them.
+   * The panes that are not covered by the remaining windows are discarded.
+   * @param currentEventPoint the point of received event
+   */
+  private void emitElapsedPaneWindow(final long currentEventPoint) {
+    if (windowEmissionPoint == Long.MIN_VALUE) {
+      return;
+    }
+    while (windowEmissionPoint < currentEventPoint
+        && getWindowStart(windowEmissionPoint) < windowCreationPoint) {
+      final long start = getWindowStart(windowEmissionPoint);
+      final Collection<T> dataCollection = new LinkedList<>();
+      long latestTimestamp = 0L;
+      MistWatermarkEvent latestWatermark = null;
+      for (final Window<T> pane : windowQueue) {
+        if (pane.getStart() > windowEmissionPoint) {
+          break;
+        }
+        if (pane.getStart() >= start) {
+          dataCollection.addAll(pane.getDataCollection());
+          if (pane.getLatestTimestamp() != 0L) {
+            latestTimestamp = pane.getLatestTimestamp();
+          }
+          if (latestWatermark == null
+              || latestWatermark.getTimestamp() < pane.getLatestWatermark().getTimestamp()) {
+            latestWatermark = pane.getLatestWatermark();
+          }
+        }
+      }
+
+      final Window<T> window =
+          new WindowImpl<>(start, windowEmissionPoint - start + 1, dataCollection);
+      outputEmitter.emitData(new MistDataEvent(window, latestTimestamp));
+      if (latestWatermark != null && latestWatermark.getTimestamp() != 0L) {
+        outputEmitter.emitWatermark(latestWatermark);
+      }
+
+      windowEmissionPoint += windowEmissionInterval;
+      final long nextStart = getWindowStart(windowEmissionPoint);
+      while (!windowQueue.isEmpty() && windowQueue.peek().getEnd() < nextStart) {
+        windowQueue.poll();
+      }
+    }
+
+    if (windowEmissionPoint < currentEventPoint) {
+      // The remaining elapsed windows do not have any pane, so skips them without creating empty panes
+      final long numSkipped =
+          (currentEventPoint - windowEmissionPoint + windowEmissionInterval - 1) / windowEmissionInterval;
+      windowEmissionPoint += numSkipped * windowEmissionInterval;
+      windowCreationPoint = Math.max(windowCreationPoint, getWindowStart(windowEmissionPoint));
+    }
+  }
+
   @Override
   public Map<String, Object> getOperatorState() {
     final Map<String, Object> stateMap = new HashMap<>();
     stateMap.put("windowCreationPoint", windowCreationPoint);
     stateMap.put("windowQueue", windowQueue);
+    if (sliced) {
+      stateMap.put("windowEmissionPoint", windowEmissionPoint);
+      stateMap.put("windowStartPoint", windowStartPoint);
+    }
     return stateMap;
   }
 
@@ -157,6 +307,12 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamOperator implements S
   public void setState(final Map<String, Object> loadedState) {
     windowCreationPoint = (long)loadedState.get("windowCreationPoint");
     windowQueue.addAll((Queue<Window<T>>)loadedState.get("windowQueue"));
+    // The state saved by a non-sliced operator holds the windows instead of the panes
+    sliced = loadedState.get("windowEmissionPoint") != null;
+    if (sliced) {
+      windowEmissionPoint = (long)loadedState.get("windowEmissionPoint");
+      windowStartPoint = (long)loadedState.get("windowStartPoint");
+    }
   }
 
   @Override
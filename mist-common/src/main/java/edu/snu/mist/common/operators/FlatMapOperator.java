@@ -17,13 +17,14 @@ package edu.snu.mist.common.operators;
 
 import edu.snu.mist.common.MistDataEvent;
 import edu.snu.mist.common.MistWatermarkEvent;
-import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.common.parameters.SerializedUdf;
+import edu.snu.mist.common.shared.DeserializationCache;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -42,8 +43,9 @@ public final class FlatMapOperator<I, O> extends OneStreamOperator {
   @Inject
   private FlatMapOperator(
       @Parameter(SerializedUdf.class) final String serializedObject,
-      final ClassLoader classLoader) throws IOException, ClassNotFoundException {
-    this(SerializeUtils.deserializeFromString(serializedObject, classLoader));
+      final ClassLoader classLoader,
+      final DeserializationCache deserializationCache) throws IOException, ClassNotFoundException {
+    this(deserializationCache.getUdf(serializedObject, classLoader));
   }
 
   @Inject
@@ -71,6 +73,28 @@ public final class FlatMapOperator<I, O> extends OneStreamOperator {
     }
   }
 
+  /**
+   * FlatMaps the batch of inputs, and emits the outputs at once.
+   */
+  @Override
+  public void processLeftDataBatch(final List<MistDataEvent> batch) {
+    final List<MistDataEvent> events = new ArrayList<>(batch.size());
+    for (final MistDataEvent input : batch) {
+      for (final O output : flatMapFunc.apply((I)input.getValue())) {
+        events.add(new MistDataEvent(output, input.getTimestamp()));
+      }
+    }
+
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} FlatMaps a batch of {1} inputs to {2} outputs",
+          new Object[]{FlatMapOperator.class, batch.size(), events.size()});
+    }
+
+    if (!events.isEmpty()) {
+      outputEmitter.emitDataBatch(events);
+    }
+  }
+
   @Override
   public void processLeftWatermark(final MistWatermarkEvent input) {
     outputEmitter.emitWatermark(input);
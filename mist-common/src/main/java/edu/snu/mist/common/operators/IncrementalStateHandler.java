@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.operators;
+
+import java.util.Map;
+
+/**
+ * This is an interface that is implemented by stateful operators which can report the changes of their states,
+ * so that a checkpoint stores only the changes since the previous checkpoint instead of the whole state.
+ */
+public interface IncrementalStateHandler extends StateHandler {
+
+  /**
+   * Gets the changes of the state since the previous call, and starts tracking the next changes.
+   * The returned delta is not modified by the operator afterwards.
+   */
+  Map<String, Object> getStateDelta();
+
+  /**
+   * Applies a delta which is taken by getStateDelta to the current state.
+   * @param loadedDelta
+   */
+  void applyStateDelta(Map<String, Object> loadedDelta);
+}
@@ -17,13 +17,14 @@ package edu.snu.mist.common.operators;
 
 import edu.snu.mist.common.MistDataEvent;
 import edu.snu.mist.common.MistWatermarkEvent;
-import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.common.parameters.SerializedUdf;
+import edu.snu.mist.common.shared.DeserializationCache;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -43,8 +44,9 @@ public final class MapOperator<I, O> extends OneStreamOperator {
   @Inject
   private MapOperator(
       @Parameter(SerializedUdf.class) final String serializedObject,
-      final ClassLoader classLoader) throws IOException, ClassNotFoundException {
-    this(SerializeUtils.deserializeFromString(serializedObject, classLoader));
+      final ClassLoader classLoader,
+      final DeserializationCache deserializationCache) throws IOException, ClassNotFoundException {
+    this(deserializationCache.getUdf(serializedObject, classLoader));
   }
 
   @Inject
@@ -67,6 +69,22 @@ public final class MapOperator<I, O> extends OneStreamOperator {
     outputEmitter.emitData(data);
   }
 
+  /**
+   * Maps the batch of inputs in place, and emits the batch at once.
+   */
+  @Override
+  public void processLeftDataBatch(final List<MistDataEvent> batch) {
+    for (final MistDataEvent data : batch) {
+      data.setValue(mapFunc.apply((I)data.getValue()));
+    }
+
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} maps a batch of {1} inputs", new Object[]{MapOperator.class, batch.size()});
+    }
+
+    outputEmitter.emitDataBatch(batch);
+  }
+
   @Override
   public void processLeftWatermark(final MistWatermarkEvent watermark) {
     outputEmitter.emitWatermark(watermark);
@@ -20,6 +20,8 @@ import edu.snu.mist.common.MistDataEvent;
 import edu.snu.mist.common.MistWatermarkEvent;
 import edu.snu.mist.common.OutputEmittable;
 
+import java.util.List;
+
 /**
  * This is an interface of mist physical operator which runs actual computation.
  * Operator receives an input, does computation, and emits an output to OutputEmitter.
@@ -32,6 +34,18 @@ public interface Operator extends OutputEmittable {
    */
   void processLeftData(final MistDataEvent data);
 
+  /**
+   * Process a batch of data of left upstream.
+   * The operators that can process the batch at once override this method.
+   * The batch should not be modified nor kept after this method returns, as it could be reused by the upstream.
+   * @param batch batch of data
+   */
+  default void processLeftDataBatch(final List<MistDataEvent> batch) {
+    for (final MistDataEvent data : batch) {
+      processLeftData(data);
+    }
+  }
+
   /**
    * Process data of right upstream.
    * @param data data
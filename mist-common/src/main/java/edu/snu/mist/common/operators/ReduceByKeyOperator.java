@@ -20,6 +20,7 @@ import edu.snu.mist.common.MistDataEvent;
 import edu.snu.mist.common.MistWatermarkEvent;
 import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.functions.MISTBiFunction;
+import edu.snu.mist.common.parameters.IncrementalReduce;
 import edu.snu.mist.common.parameters.KeyIndex;
 import edu.snu.mist.common.parameters.SerializedUdf;
 import edu.snu.mist.common.types.Tuple2;
@@ -35,6 +36,12 @@ import java.util.logging.Logger;
 
 /**
  * This operator reduces the value by key.
+ * By default, it copies the state whenever it updates the state, and emits the whole state.
+ * In incremental mode, it updates the state in place and emits only the changed key-value pair as a Tuple2,
+ * so the state is copied only when a checkpoint takes it.
+ * Once a checkpoint takes the state delta, it also tracks the changed keys until the next checkpoint.
+ * The checkpoints are taken by another thread, so the updates of the state and the changed keys
+ * are guarded by a lock that is held only while the maps are changed or swapped.
  * @param <K> key type
  * @param <V> value type
  * TODO[MIST-#]: Support non-serializable key and value.
@@ -42,7 +49,7 @@ import java.util.logging.Logger;
  * This can be changed to Map when we support non-serializable state.
  */
 public final class ReduceByKeyOperator<K extends Serializable, V extends Serializable>
-    extends OneStreamOperator implements StateHandler {
+    extends OneStreamOperator implements IncrementalStateHandler {
   private static final Logger LOG = Logger.getLogger(ReduceByKeyOperator.class.getName());
 
   /**
@@ -55,11 +62,27 @@ public final class ReduceByKeyOperator<K extends Serializable, V extends Seriali
    */
   private final int keyIndex;
 
+  /**
+   * True if the state is updated in place and only the changed key-value pair is emitted.
+   */
+  private final boolean incremental;
+
   /**
    * KeyValue state.
    */
   private HashMap<K, V> state;
 
+  /**
+   * The latest values of the keys changed since the previous state delta.
+   * It is null until a checkpoint takes the state delta first.
+   */
+  private HashMap<K, V> dirtyState;
+
+  /**
+   * The lock that guards the state and the changed keys against the checkpoint thread.
+   */
+  private final Object stateLock;
+
   /**
    * The latest Checkpoint Timestamp.
    */
@@ -68,21 +91,36 @@ public final class ReduceByKeyOperator<K extends Serializable, V extends Seriali
   @Inject
   private ReduceByKeyOperator(
       @Parameter(KeyIndex.class) final int keyIndex,
+      @Parameter(IncrementalReduce.class) final boolean incremental,
       @Parameter(SerializedUdf.class) final String serializedObject,
       final ClassLoader classLoader) throws IOException, ClassNotFoundException {
-    this(keyIndex, SerializeUtils.deserializeFromString(serializedObject, classLoader));
+    this(keyIndex, incremental, SerializeUtils.deserializeFromString(serializedObject, classLoader));
   }
 
   /**
    * @param reduceFunc reduce function
    * @param keyIndex index of key
    */
+  public ReduceByKeyOperator(final int keyIndex,
+                             final MISTBiFunction<V, V, V> reduceFunc) {
+    this(keyIndex, false, reduceFunc);
+  }
+
+  /**
+   * @param keyIndex index of key
+   * @param incremental true if the state is updated in place and only the changed key-value pair is emitted
+   * @param reduceFunc reduce function
+   */
   @Inject
   public ReduceByKeyOperator(@Parameter(KeyIndex.class) final int keyIndex,
+                             @Parameter(IncrementalReduce.class) final boolean incremental,
                              final MISTBiFunction<V, V, V> reduceFunc) {
     this.reduceFunc = reduceFunc;
     this.keyIndex = keyIndex;
+    this.incremental = incremental;
     this.state = createInitialState();
+    this.dirtyState = null;
+    this.stateLock = new Object();
     this.latestCheckpointTimestamp = 0L;
   }
 
@@ -92,7 +130,7 @@ public final class ReduceByKeyOperator<K extends Serializable, V extends Seriali
 
   /**
    * Reduces the value by key.
-   * It creates a new map whenever it updates the state.
+   * It creates a new map whenever it updates the state, and replaces the state with the new map.
    * This produces immutable output.
    * @param input input tuple
    * @param st previous state
@@ -104,10 +142,11 @@ public final class ReduceByKeyOperator<K extends Serializable, V extends Seriali
     final K key = (K)input.get(keyIndex);
     final V val = (V)input.get(1 - keyIndex);
     final V oldVal = newState.get(key);
-    if (oldVal == null) {
-      newState.put(key, val);
-    } else {
-      newState.put(key, reduceFunc.apply(oldVal, val));
+    final V newVal = oldVal == null ? val : reduceFunc.apply(oldVal, val);
+    newState.put(key, newVal);
+    synchronized (stateLock) {
+      state = newState;
+      markDirty(key, newVal);
     }
     return newState;
   }
@@ -121,19 +160,60 @@ public final class ReduceByKeyOperator<K extends Serializable, V extends Seriali
     return finalState;
   }
 
+  /**
+   * Reduces the value by key in place.
+   * @param input input tuple
+   * @return the changed key-value pair
+   */
+  @SuppressWarnings("unchecked")
+  private Tuple2<K, V> updateStateInPlace(final Tuple2 input) {
+    final K key = (K)input.get(keyIndex);
+    final V val = (V)input.get(1 - keyIndex);
+    final V oldVal = state.get(key);
+    final V newVal = oldVal == null ? val : reduceFunc.apply(oldVal, val);
+    synchronized (stateLock) {
+      state.put(key, newVal);
+      markDirty(key, newVal);
+    }
+    return new Tuple2<>(key, newVal);
+  }
+
+  /**
+   * Records the changed key-value pair if the changes are tracked.
+   * It should be called with the state lock.
+   */
+  private void markDirty(final K key, final V val) {
+    if (dirtyState != null) {
+      dirtyState.put(key, val);
+    }
+  }
+
   @Override
   public void processLeftData(final MistDataEvent input) {
-    final HashMap<K, V> intermediateState = updateState((Tuple2)input.getValue(), state);
+    if (incremental) {
+      final Tuple2<K, V> output = updateStateInPlace((Tuple2)input.getValue());
+
+      if (LOG.isLoggable(Level.FINE)) {
+        LOG.log(Level.FINE, "{0} updates the state with input {1}, and generates {2}",
+            new Object[]{this.getClass().getName(), input, output});
+      }
+
+      input.setValue(output);
+      outputEmitter.emitData(input);
+      return;
+    }
+
+    final HashMap<K, V> previousState = state;
+    final HashMap<K, V> intermediateState = updateState((Tuple2)input.getValue(), previousState);
     final HashMap<K, V> output = generateOutput(intermediateState);
 
     if (LOG.isLoggable(Level.FINE)) {
       LOG.log(Level.FINE, "{0} updates the state {1} with input {2} to {3}, and generates {4}",
-          new Object[]{this.getClass().getName(), state, input, intermediateState, output});
+          new Object[]{this.getClass().getName(), previousState, input, intermediateState, output});
     }
 
     input.setValue(output);
     outputEmitter.emitData(input);
-    state = intermediateState;
   }
 
   @Override
@@ -150,14 +230,54 @@ public final class ReduceByKeyOperator<K extends Serializable, V extends Seriali
   @Override
   public Map<String, Object> getOperatorState() {
     final Map<String, Object> stateMap = new HashMap<>();
-    stateMap.put("reduceByKeyState", state);
+    synchronized (stateLock) {
+      // The state is updated in place in incremental mode, so a snapshot is taken here
+      stateMap.put("reduceByKeyState", incremental ? new HashMap<>(state) : state);
+    }
     return stateMap;
   }
 
   @SuppressWarnings("unchecked")
   @Override
   public void setState(final Map<String, Object> loadedState) {
-    state = (HashMap<K, V>)loadedState.get("reduceByKeyState");
+    final HashMap<K, V> loadedMap = (HashMap<K, V>)loadedState.get("reduceByKeyState");
+    synchronized (stateLock) {
+      state = incremental ? new HashMap<>(loadedMap) : loadedMap;
+      if (dirtyState != null) {
+        dirtyState.putAll(state);
+      }
+    }
+  }
+
+  @Override
+  public Map<String, Object> getStateDelta() {
+    // The tracked changes are handed over, and the next changes are tracked in a new map
+    final HashMap<K, V> delta;
+    synchronized (stateLock) {
+      delta = dirtyState == null ? new HashMap<>() : dirtyState;
+      dirtyState = new HashMap<>();
+    }
+    final Map<String, Object> deltaMap = new HashMap<>();
+    deltaMap.put("reduceByKeyDelta", delta);
+    return deltaMap;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void applyStateDelta(final Map<String, Object> loadedDelta) {
+    final HashMap<K, V> delta = (HashMap<K, V>)loadedDelta.get("reduceByKeyDelta");
+    synchronized (stateLock) {
+      if (incremental) {
+        state.putAll(delta);
+      } else {
+        final HashMap<K, V> newState = new HashMap<>(state);
+        newState.putAll(delta);
+        state = newState;
+      }
+      if (dirtyState != null) {
+        dirtyState.putAll(delta);
+      }
+    }
   }
 
   @Override
@@ -17,6 +17,7 @@ package edu.snu.mist.common.operators;
 
 import edu.snu.mist.common.MistDataEvent;
 import edu.snu.mist.common.MistWatermarkEvent;
+import edu.snu.mist.common.parameters.SlicedWindow;
 import edu.snu.mist.common.parameters.WindowInterval;
 import edu.snu.mist.common.parameters.WindowSize;
 import org.apache.reef.tang.annotations.Parameter;
@@ -31,10 +32,16 @@ import java.util.logging.Logger;
 public final class TimeWindowOperator<T> extends FixedSizeWindowOperator<T> {
   private static final Logger LOG = Logger.getLogger(TimeWindowOperator.class.getName());
 
+  public TimeWindowOperator(final int windowSize,
+                            final int windowEmissionInterval) {
+    this(windowSize, windowEmissionInterval, false);
+  }
+
   @Inject
   public TimeWindowOperator(@Parameter(WindowSize.class) final int windowSize,
-                            @Parameter(WindowInterval.class) final int windowEmissionInterval) {
-    super(windowSize, windowEmissionInterval);
+                            @Parameter(WindowInterval.class) final int windowEmissionInterval,
+                            @Parameter(SlicedWindow.class) final boolean sliced) {
+    super(windowSize, windowEmissionInterval, sliced);
   }
 
   @Override
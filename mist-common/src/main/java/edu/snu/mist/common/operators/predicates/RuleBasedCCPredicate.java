@@ -17,6 +17,8 @@
 package edu.snu.mist.common.operators.predicates;
 
 import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.types.RuleBasedRecord;
+import edu.snu.mist.common.types.RuleBasedSchema;
 
 import java.util.Map;
 
@@ -27,6 +29,13 @@ public abstract class RuleBasedCCPredicate implements MISTPredicate<Map<String,
     private final String field;
     private final Object value;
 
+    /**
+     * The position of the field in the schema of the last tested record.
+     * The predicates are shared by the events of a stream, whose records have the same schema,
+     * so the field name is looked up once per schema.
+     */
+    private transient volatile FieldPosition fieldPosition;
+
     public RuleBasedCCPredicate(final String field, final Object value) {
         this.field = field;
         this.value = value;
@@ -43,6 +52,50 @@ public abstract class RuleBasedCCPredicate implements MISTPredicate<Map<String,
     @Override
     public abstract boolean test(final Map<String, Object> stringObjectMap);
 
+    /**
+     * Compare the field of the event with the value of the predicate.
+     * The field of a RuleBasedRecord is compared by its position without boxing.
+     * @param event input event
+     * @return the result of ruleBasedCompare
+     */
+    protected int compareField(final Map<String, Object> event) {
+        if (event instanceof RuleBasedRecord) {
+            final RuleBasedRecord record = (RuleBasedRecord) event;
+            final int position = positionOf(record.getSchema());
+            if (position >= 0) {
+                return record.compare(position, value);
+            }
+        }
+        return ruleBasedCompare(event.get(field), value);
+    }
+
+    /**
+     * Check whether the field of the event equals the value of the predicate.
+     * The field of a RuleBasedRecord is compared by its position without boxing.
+     * @param event input event
+     * @return true if the field equals the value
+     */
+    protected boolean fieldEquals(final Map<String, Object> event) {
+        if (event instanceof RuleBasedRecord) {
+            final RuleBasedRecord record = (RuleBasedRecord) event;
+            final int position = positionOf(record.getSchema());
+            if (position >= 0) {
+                return record.valueEquals(position, value);
+            }
+        }
+        return event.get(field).equals(value);
+    }
+
+    private int positionOf(final RuleBasedSchema schema) {
+        final FieldPosition cached = fieldPosition;
+        if (cached != null && cached.schema == schema) {
+            return cached.position;
+        }
+        final int position = schema.indexOf(field);
+        fieldPosition = new FieldPosition(schema, position);
+        return position;
+    }
+
     /**
      * Check type of compared object and return the int for comparison condition.
      * @param eventObj input stream object
@@ -91,4 +144,17 @@ public abstract class RuleBasedCCPredicate implements MISTPredicate<Map<String,
         result = 31 * result + value.hashCode();
         return result;
     }
+
+    /**
+     * The position of the field in a schema.
+     */
+    private static final class FieldPosition {
+        private final RuleBasedSchema schema;
+        private final int position;
+
+        FieldPosition(final RuleBasedSchema schema, final int position) {
+            this.schema = schema;
+            this.position = position;
+        }
+    }
 }
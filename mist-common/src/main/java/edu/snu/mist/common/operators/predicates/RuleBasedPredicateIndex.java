@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.operators.predicates;
+
+import edu.snu.mist.common.functions.MISTPredicate;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Index of rule-based comparison predicates, which finds the candidate targets that an event may satisfy.
+ * The EQ predicates are indexed by hash tables, and the GT, GE, LT and LE predicates are indexed
+ * by the sorted thresholds of each field, so one event finds its matches in O(log n + matches)
+ * instead of testing all the n predicates.
+ * An event is delivered to all the targets of a field if the value of the field is missing
+ * or has a different type from the thresholds, so that the targets handle it in the same way as before.
+ * The index is immutable after construction.
+ * @param <T> type of the target of the predicates
+ */
+public final class RuleBasedPredicateIndex<T> {
+
+    /**
+     * The indices of the fields.
+     */
+    private final Map<String, FieldIndex<T>> fieldIndices;
+
+    public RuleBasedPredicateIndex(final Map<T, RuleBasedCCPredicate> predicates) {
+        final Map<String, FieldIndexBuilder<T>> builders = new HashMap<>();
+        for (final Map.Entry<T, RuleBasedCCPredicate> entry : predicates.entrySet()) {
+            final RuleBasedCCPredicate predicate = entry.getValue();
+            if (!isIndexable(predicate)) {
+                throw new IllegalArgumentException("The predicate cannot be indexed: " + predicate.getClass());
+            }
+            builders.computeIfAbsent(predicate.getField(), field -> new FieldIndexBuilder<>())
+                .add(predicate, entry.getKey());
+        }
+        this.fieldIndices = new HashMap<>(builders.size());
+        for (final Map.Entry<String, FieldIndexBuilder<T>> entry : builders.entrySet()) {
+            fieldIndices.put(entry.getKey(), entry.getValue().build());
+        }
+    }
+
+    /**
+     * Check whether the predicate can be indexed.
+     * @param predicate predicate
+     * @return true if it is an EQ predicate, or a GT, GE, LT or LE predicate on numbers or strings
+     */
+    public static boolean isIndexable(final MISTPredicate<?> predicate) {
+        if (predicate instanceof RuleBasedEQPredicate) {
+            return ((RuleBasedEQPredicate) predicate).getValue() != null;
+        } else if (predicate instanceof RuleBasedGTPredicate || predicate instanceof RuleBasedGEPredicate
+            || predicate instanceof RuleBasedLTPredicate || predicate instanceof RuleBasedLEPredicate) {
+            final Object value = ((RuleBasedCCPredicate) predicate).getValue();
+            return value instanceof Double || value instanceof Integer
+                || value instanceof Long || value instanceof String;
+        }
+        return false;
+    }
+
+    /**
+     * Find the targets whose predicates may be satisfied by the event.
+     * Each target is passed to the consumer at most once.
+     * @param event event
+     * @param consumer consumer of the targets
+     */
+    public void match(final Map<String, Object> event, final Consumer<T> consumer) {
+        for (final Map.Entry<String, FieldIndex<T>> entry : fieldIndices.entrySet()) {
+            entry.getValue().match(event.get(entry.getKey()), consumer);
+        }
+    }
+
+    /**
+     * Index of the predicates on a field.
+     */
+    private static final class FieldIndex<T> {
+
+        /**
+         * The targets of the EQ predicates, which have the compared value as a key.
+         */
+        private final Map<Object, List<T>> eqTargets;
+
+        /**
+         * All the targets of the EQ predicates.
+         */
+        private final List<T> allEqTargets;
+
+        /**
+         * The range predicates, which have the type of the thresholds as a key.
+         */
+        private final Map<Class<?>, RangeIndex<T>> rangeIndices;
+
+        FieldIndex(final Map<Object, List<T>> eqTargets,
+                   final List<T> allEqTargets,
+                   final Map<Class<?>, RangeIndex<T>> rangeIndices) {
+            this.eqTargets = eqTargets;
+            this.allEqTargets = allEqTargets;
+            this.rangeIndices = rangeIndices;
+        }
+
+        void match(final Object value, final Consumer<T> consumer) {
+            if (value == null) {
+                allEqTargets.forEach(consumer);
+            } else {
+                final List<T> targets = eqTargets.get(value);
+                if (targets != null) {
+                    targets.forEach(consumer);
+                }
+            }
+            for (final Map.Entry<Class<?>, RangeIndex<T>> entry : rangeIndices.entrySet()) {
+                if (value != null && value.getClass() == entry.getKey()) {
+                    entry.getValue().match((Comparable) value, consumer);
+                } else {
+                    entry.getValue().all(consumer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Index of the range predicates on a field whose thresholds have the same type.
+     */
+    private static final class RangeIndex<T> {
+
+        /**
+         * The thresholds of the GT predicates.
+         */
+        private final SortedThresholds<T> gt;
+
+        /**
+         * The thresholds of the GE predicates.
+         */
+        private final SortedThresholds<T> ge;
+
+        /**
+         * The thresholds of the LT predicates.
+         */
+        private final SortedThresholds<T> lt;
+
+        /**
+         * The thresholds of the LE predicates.
+         */
+        private final SortedThresholds<T> le;
+
+        RangeIndex(final SortedThresholds<T> gt,
+                   final SortedThresholds<T> ge,
+                   final SortedThresholds<T> lt,
+                   final SortedThresholds<T> le) {
+            this.gt = gt;
+            this.ge = ge;
+            this.lt = lt;
+            this.le = le;
+        }
+
+        void match(final Comparable value, final Consumer<T> consumer) {
+            // value > threshold
+            gt.range(0, gt.lowerBound(value), consumer);
+            // value >= threshold
+            ge.range(0, ge.upperBound(value), consumer);
+            // value < threshold
+            lt.range(lt.upperBound(value), lt.size(), consumer);
+            // value <= threshold
+            le.range(le.lowerBound(value), le.size(), consumer);
+        }
+
+        void all(final Consumer<T> consumer) {
+            gt.range(0, gt.size(), consumer);
+            ge.range(0, ge.size(), consumer);
+            lt.range(0, lt.size(), consumer);
+            le.range(0, le.size(), consumer);
+        }
+    }
+
+    /**
+     * The thresholds sorted in ascending order, and their targets.
+     */
+    private static final class SortedThresholds<T> {
+        private final Comparable[] thresholds;
+        private final List<T> targets;
+
+        SortedThresholds(final List<Map.Entry<Comparable, T>> entries) {
+            entries.sort((e1, e2) -> e1.getKey().compareTo(e2.getKey()));
+            this.thresholds = new Comparable[entries.size()];
+            this.targets = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                thresholds[i] = entries.get(i).getKey();
+                targets.add(entries.get(i).getValue());
+            }
+        }
+
+        int size() {
+            return thresholds.length;
+        }
+
+        /**
+         * Find the index of the first threshold that is not less than the value.
+         */
+        int lowerBound(final Comparable value) {
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (thresholds[mid].compareTo(value) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Find the index of the first threshold that is greater than the value.
+         */
+        int upperBound(final Comparable value) {
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (thresholds[mid].compareTo(value) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void range(final int from, final int to, final Consumer<T> consumer) {
+            for (int i = from; i < to; i++) {
+                consumer.accept(targets.get(i));
+            }
+        }
+    }
+
+    /**
+     * Builder of the index of a field.
+     */
+    private static final class FieldIndexBuilder<T> {
+        private final Map<Object, List<T>> eqTargets = new HashMap<>();
+        private final List<T> allEqTargets = new ArrayList<>();
+        private final Map<Class<?>, RangeIndexBuilder<T>> rangeBuilders = new HashMap<>();
+
+        void add(final RuleBasedCCPredicate predicate, final T target) {
+            final Object value = predicate.getValue();
+            if (predicate instanceof RuleBasedEQPredicate) {
+                eqTargets.computeIfAbsent(value, key -> new ArrayList<>()).add(target);
+                allEqTargets.add(target);
+                return;
+            }
+            final RangeIndexBuilder<T> rangeBuilder =
+                rangeBuilders.computeIfAbsent(value.getClass(), type -> new RangeIndexBuilder<>());
+            final Map.Entry<Comparable, T> entry = new AbstractMap.SimpleImmutableEntry<>((Comparable) value, target);
+            if (predicate instanceof RuleBasedGTPredicate) {
+                rangeBuilder.gt.add(entry);
+            } else if (predicate instanceof RuleBasedGEPredicate) {
+                rangeBuilder.ge.add(entry);
+            } else if (predicate instanceof RuleBasedLTPredicate) {
+                rangeBuilder.lt.add(entry);
+            } else {
+                rangeBuilder.le.add(entry);
+            }
+        }
+
+        FieldIndex<T> build() {
+            final Map<Class<?>, RangeIndex<T>> rangeIndices = new HashMap<>(rangeBuilders.size());
+            for (final Map.Entry<Class<?>, RangeIndexBuilder<T>> entry : rangeBuilders.entrySet()) {
+                final RangeIndexBuilder<T> rangeBuilder = entry.getValue();
+                rangeIndices.put(entry.getKey(), new RangeIndex<>(new SortedThresholds<>(rangeBuilder.gt),
+                    new SortedThresholds<>(rangeBuilder.ge), new SortedThresholds<>(rangeBuilder.lt),
+                    new SortedThresholds<>(rangeBuilder.le)));
+            }
+            return new FieldIndex<>(eqTargets, allEqTargets, rangeIndices);
+        }
+    }
+
+    /**
+     * The thresholds and the targets of the range predicates before they are sorted.
+     */
+    private static final class RangeIndexBuilder<T> {
+        private final List<Map.Entry<Comparable, T>> gt = new ArrayList<>();
+        private final List<Map.Entry<Comparable, T>> ge = new ArrayList<>();
+        private final List<Map.Entry<Comparable, T>> lt = new ArrayList<>();
+        private final List<Map.Entry<Comparable, T>> le = new ArrayList<>();
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.shared;
+
+import edu.snu.mist.common.SerializeUtils;
+import edu.snu.mist.common.shared.parameters.DeserializationCacheSize;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class caches the deserialized vertex configurations and udfs,
+ * because the queries of an application usually have the same configurations and udfs.
+ * The entries are keyed by the serialized string and the class loader that deserializes it,
+ * and the least recently used entries are evicted when the cache is full.
+ * The entries of an application are evicted when the application is removed.
+ * The cached udfs are shared by the operators, and called by multiple event processors concurrently,
+ * so the cache is disabled by default and should be enabled only if the udfs are stateless.
+ */
+public final class DeserializationCache {
+
+  /**
+   * The cached configurations.
+   */
+  private final BoundedMap<Configuration> configurations;
+
+  /**
+   * The cached udfs.
+   */
+  private final BoundedMap<Object> udfs;
+
+  /**
+   * True if the cache is enabled.
+   */
+  private final boolean enabled;
+
+  @Inject
+  private DeserializationCache(@Parameter(DeserializationCacheSize.class) final int maxSize) {
+    this.configurations = new BoundedMap<>(maxSize);
+    this.udfs = new BoundedMap<>(maxSize);
+    this.enabled = maxSize > 0;
+  }
+
+  /**
+   * Get the configuration, or parse it if it is not cached.
+   * @param serializedConf serialized configuration
+   * @param classLoader class loader of the application
+   * @param parser parser of the configuration
+   * @return configuration
+   */
+  public Configuration getConfiguration(final String serializedConf,
+                                        final ClassLoader classLoader,
+                                        final Deserializer<Configuration> parser)
+      throws IOException, ClassNotFoundException {
+    return get(configurations, serializedConf, classLoader, parser);
+  }
+
+  /**
+   * Get the udf, or deserialize it if it is not cached.
+   * @param serializedUdf serialized udf
+   * @param classLoader class loader of the application
+   * @param <T> udf type
+   * @return udf
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T getUdf(final String serializedUdf,
+                      final ClassLoader classLoader) throws IOException, ClassNotFoundException {
+    return (T) get(udfs, serializedUdf, classLoader, s -> SerializeUtils.deserializeFromString(s, classLoader));
+  }
+
+  private <V> V get(final BoundedMap<V> map,
+                    final String serialized,
+                    final ClassLoader classLoader,
+                    final Deserializer<? extends V> deserializer) throws IOException, ClassNotFoundException {
+    if (!enabled) {
+      return deserializer.deserialize(serialized);
+    }
+    final Key key = new Key(serialized, classLoader);
+    final V cached = map.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    // Deserialize it out of the lock. The first one is cached if it is deserialized concurrently.
+    return map.putIfAbsent(key, deserializer.deserialize(serialized));
+  }
+
+  /**
+   * Evict the entries that are deserialized by the class loader of the jar files.
+   * @param urls urls of the jar files of the removed application
+   */
+  public void evict(final URL[] urls) {
+    final Set<URL> urlSet = new HashSet<>(Arrays.asList(urls));
+    configurations.evict(urlSet);
+    udfs.evict(urlSet);
+  }
+
+  /**
+   * Deserializer of the cached objects.
+   * @param <V> deserialized type
+   */
+  @FunctionalInterface
+  public interface Deserializer<V> {
+    V deserialize(String serialized) throws IOException, ClassNotFoundException;
+  }
+
+  /**
+   * The key of the cache.
+   */
+  private static final class Key {
+    private final String serialized;
+    private final ClassLoader classLoader;
+
+    Key(final String serialized, final ClassLoader classLoader) {
+      this.serialized = serialized;
+      this.classLoader = classLoader;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key that = (Key) o;
+      return classLoader == that.classLoader && serialized.equals(that.serialized);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * serialized.hashCode() + System.identityHashCode(classLoader);
+    }
+  }
+
+  /**
+   * LRU map that has the limited number of entries.
+   */
+  private static final class BoundedMap<V> {
+    private final LinkedHashMap<Key, V> map;
+
+    BoundedMap(final int maxSize) {
+      this.map = new LinkedHashMap<Key, V>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, V> eldest) {
+          return size() > maxSize;
+        }
+      };
+    }
+
+    synchronized V get(final Key key) {
+      return map.get(key);
+    }
+
+    synchronized V putIfAbsent(final Key key, final V value) {
+      final V prev = map.putIfAbsent(key, value);
+      return prev == null ? value : prev;
+    }
+
+    synchronized void evict(final Set<URL> urls) {
+      final Iterator<Key> iterator = map.keySet().iterator();
+      while (iterator.hasNext()) {
+        final ClassLoader classLoader = iterator.next().classLoader;
+        if (classLoader instanceof URLClassLoader
+            && urls.equals(new HashSet<>(Arrays.asList(((URLClassLoader) classLoader).getURLs())))) {
+          iterator.remove();
+        }
+      }
+    }
+  }
+}
@@ -15,16 +15,24 @@
  */
 package edu.snu.mist.common.shared;
 
+import edu.snu.mist.common.sources.KafkaDataGenerator;
+import edu.snu.mist.common.sources.SharedKafkaConsumer;
 import edu.snu.mist.common.sources.parameters.NumKafkaThreads;
+import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 /**
  * This class is shared by multiple kafka data generators
  * in order to share a thread pool among kafka sources to reduce the number of I/O threads.
+ * The data generators that read the same topic with the same consumer configuration
+ * (bootstrap servers, group id, deserializers, etc.) share a single KafkaConsumer and polling thread,
+ * which demultiplexes the fetched records to all of them.
  */
 public final class KafkaSharedResource implements AutoCloseable {
 
@@ -38,12 +46,71 @@ public final class KafkaSharedResource implements AutoCloseable {
    */
   private ExecutorService executorService;
 
+  /**
+   * The shared consumers keyed by the topic and consumer configuration.
+   */
+  private final Map<Tuple<String, Map<String, Object>>, SharedKafkaConsumer> consumerMap;
+
   /**
    * @param threads the number of I/O threads
    */
   @Inject
   private KafkaSharedResource(@Parameter(NumKafkaThreads.class) final int threads) {
     this.executorService = Executors.newFixedThreadPool(threads);
+    this.consumerMap = new HashMap<>();
+  }
+
+  /**
+   * Register the data generator to the shared consumer of the topic and configuration.
+   * A new consumer is created if there is no consumer for them, or the existing one has failed.
+   * @param topic kafka topic
+   * @param kafkaConsumerConf kafka consumer configuration
+   * @param dataGenerator data generator
+   * @throws org.apache.kafka.common.KafkaException if the KafkaConsumer cannot be constructed
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <K, V> void subscribe(final String topic,
+                                           final Map<String, Object> kafkaConsumerConf,
+                                           final KafkaDataGenerator<K, V> dataGenerator) {
+    final Tuple<String, Map<String, Object>> key = new Tuple<>(topic, new HashMap<>(kafkaConsumerConf));
+    SharedKafkaConsumer<K, V> consumer = consumerMap.get(key);
+    if (consumer == null || consumer.isClosed()) {
+      consumer = new SharedKafkaConsumer<>(topic, kafkaConsumerConf, getPollTimeout(), executorService);
+      consumerMap.put(key, consumer);
+    }
+    try {
+      consumer.addSubscriber(dataGenerator);
+    } catch (final RuntimeException e) {
+      // Do not keep the consumer that failed to start, so that the later subscribers retry
+      consumerMap.remove(key);
+      throw e;
+    }
+  }
+
+  /**
+   * Unregister the data generator from the shared consumer.
+   * The consumer is closed if it does not have any data generator.
+   * @param topic kafka topic
+   * @param kafkaConsumerConf kafka consumer configuration
+   * @param dataGenerator data generator
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <K, V> void unsubscribe(final String topic,
+                                             final Map<String, Object> kafkaConsumerConf,
+                                             final KafkaDataGenerator<K, V> dataGenerator) {
+    final Tuple<String, Map<String, Object>> key = new Tuple<>(topic, new HashMap<>(kafkaConsumerConf));
+    final SharedKafkaConsumer<K, V> consumer = consumerMap.get(key);
+    if (consumer != null && consumer.removeSubscriber(dataGenerator)) {
+      consumerMap.remove(key, consumer);
+      consumer.close();
+    }
+  }
+
+  /**
+   * @return the number of shared consumers
+   */
+  public synchronized int getNumConsumers() {
+    return consumerMap.size();
   }
 
   public ExecutorService getExecutorService() {
@@ -56,6 +123,12 @@ public final class KafkaSharedResource implements AutoCloseable {
 
   @Override
   public void close() throws Exception {
+    synchronized (this) {
+      for (final SharedKafkaConsumer consumer : consumerMap.values()) {
+        consumer.close();
+      }
+      consumerMap.clear();
+    }
     executorService.shutdown();
   }
 }
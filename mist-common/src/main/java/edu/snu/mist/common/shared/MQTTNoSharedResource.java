@@ -28,6 +28,8 @@ import org.eclipse.paho.client.mqttv3.MqttException;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -55,6 +57,8 @@ public final class MQTTNoSharedResource implements MQTTResource {
 
   private final int mqttSinkKeepAliveSec;
 
+  private final Map<IMqttAsyncClient, MqttDeliveryNotifier> deliveryNotifierMap;
+
   @Inject
   private MQTTNoSharedResource(
       @Parameter(MaxInflightMqttEventNum.class) final int maxInflightMqttEventNumParam,
@@ -65,6 +69,7 @@ public final class MQTTNoSharedResource implements MQTTResource {
     this.mqttSinkKeepAliveSec = mqttSinkKeepAliveSec;
     this.sourceClientCounter = new AtomicInteger(0);
     this.sinkClientCounter = new AtomicInteger(0);
+    this.deliveryNotifierMap = new ConcurrentHashMap<>();
   }
 
   @Override
@@ -75,10 +80,23 @@ public final class MQTTNoSharedResource implements MQTTResource {
     final MqttConnectOptions connectOptions = new MqttConnectOptions();
     connectOptions.setMaxInflight(maxInflightMqttEventNum);
     connectOptions.setKeepAliveInterval(mqttSinkKeepAliveSec);
+    final MqttDeliveryNotifier deliveryNotifier = new MqttDeliveryNotifier();
+    client.setCallback(deliveryNotifier);
     client.connect(connectOptions).waitForCompletion();
+    deliveryNotifierMap.put(client, deliveryNotifier);
     return client;
   }
 
+  @Override
+  public void addDeliveryListener(final IMqttAsyncClient client, final Runnable listener) {
+    deliveryNotifierMap.get(client).addListener(listener);
+  }
+
+  @Override
+  public void removeDeliveryListener(final IMqttAsyncClient client, final Runnable listener) {
+    deliveryNotifierMap.get(client).removeListener(listener);
+  }
+
   @Override
   public MQTTDataGenerator getDataGenerator(final String brokerURI, final String topic) {
     final MQTTSubscribeClient client = new MQTTSubscribeClient(brokerURI, MQTT_SUBSCRIBER_ID_PREFIX +
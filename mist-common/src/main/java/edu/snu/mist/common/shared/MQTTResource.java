@@ -31,5 +31,14 @@ public interface MQTTResource extends AutoCloseable {
   IMqttAsyncClient getMqttSinkClient(String brokerURI, String topic)
       throws MqttException, IOException;
 
+  /**
+   * Add a listener which is notified whenever a message of the sink client is delivered.
+   * @param client the client returned by getMqttSinkClient
+   * @param listener listener
+   */
+  void addDeliveryListener(IMqttAsyncClient client, Runnable listener);
+
+  void removeDeliveryListener(IMqttAsyncClient client, Runnable listener);
+
   MQTTDataGenerator getDataGenerator(String brokerURI, String topic);
 }
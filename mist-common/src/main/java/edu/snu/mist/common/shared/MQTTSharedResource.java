@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
@@ -80,6 +81,11 @@ public final class MQTTSharedResource implements MQTTResource {
    */
   private final Map<IMqttAsyncClient, Integer> publisherSinkNumMap;
 
+  /**
+   * The map that has the delivery notifier of each mqtt sink client.
+   */
+  private final Map<IMqttAsyncClient, MqttDeliveryNotifier> deliveryNotifierMap;
+
   /**
    * The number of maximum mqtt sources per client.
    */
@@ -126,6 +132,7 @@ public final class MQTTSharedResource implements MQTTResource {
     this.subscriberSourceNumMap = new HashMap<>();
     this.brokerPublisherMap = new HashMap<>();
     this.publisherSinkNumMap = new HashMap<>();
+    this.deliveryNotifierMap = new ConcurrentHashMap<>();
     this.topicPublisherMap = new HashMap<>();
     this.topicSubscriberMap = new HashMap<>();
     this.subscriberLock = new ReentrantLock();
@@ -203,9 +210,22 @@ public final class MQTTSharedResource implements MQTTResource {
     final MqttConnectOptions connectOptions = new MqttConnectOptions();
     connectOptions.setMaxInflight(maxInflightMqttEventNum);
     connectOptions.setKeepAliveInterval(mqttSinkKeepAliveSec);
+    final MqttDeliveryNotifier deliveryNotifier = new MqttDeliveryNotifier();
+    client.setCallback(deliveryNotifier);
     client.connect(connectOptions).waitForCompletion();
     mqttAsyncClientList.add(client);
     publisherSinkNumMap.put(client, 0);
+    deliveryNotifierMap.put(client, deliveryNotifier);
+  }
+
+  @Override
+  public void addDeliveryListener(final IMqttAsyncClient client, final Runnable listener) {
+    deliveryNotifierMap.get(client).addListener(listener);
+  }
+
+  @Override
+  public void removeDeliveryListener(final IMqttAsyncClient client, final Runnable listener) {
+    deliveryNotifierMap.get(client).removeListener(listener);
   }
 
   private String getGroupName(final String mqttTopic) {
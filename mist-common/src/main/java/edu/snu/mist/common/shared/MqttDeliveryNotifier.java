@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.shared;
+
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.MqttCallback;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class is the callback of a publisher client, which can be shared by multiple mqtt sinks.
+ * It notifies all the sinks of the client whenever a message is delivered,
+ * so that a sink waiting for the inflight window publishes its backlog
+ * even if the window was filled by the messages of the other sinks.
+ */
+final class MqttDeliveryNotifier implements MqttCallback {
+  private static final Logger LOG = Logger.getLogger(MqttDeliveryNotifier.class.getName());
+
+  /**
+   * The listeners of the deliveries.
+   */
+  private final List<Runnable> listeners;
+
+  MqttDeliveryNotifier() {
+    this.listeners = new CopyOnWriteArrayList<>();
+  }
+
+  void addListener(final Runnable listener) {
+    listeners.add(listener);
+  }
+
+  void removeListener(final Runnable listener) {
+    listeners.remove(listener);
+  }
+
+  @Override
+  public void connectionLost(final Throwable cause) {
+    LOG.log(Level.SEVERE, "The connection of an mqtt publisher is lost", cause);
+  }
+
+  @Override
+  public void messageArrived(final String topic, final MqttMessage message) {
+    // publisher does not subscribe
+  }
+
+  @Override
+  public void deliveryComplete(final IMqttDeliveryToken token) {
+    for (final Runnable listener : listeners) {
+      listener.run();
+    }
+  }
+}
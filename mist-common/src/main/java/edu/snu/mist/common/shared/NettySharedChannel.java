@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.shared;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.EventLoop;
+import org.apache.reef.wake.EventHandler;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class is a reference-counted netty channel to a remote endpoint,
+ * which can be shared by multiple netty data generators or multiple netty sinks.
+ * The connection is established once by the first user, and the other users wait for the same connection.
+ * If the connection fails, all of them get the failure and the channel is not reused.
+ * The received lines are demultiplexed to all the registered handlers,
+ * and the channel stops reading while any of the handlers is paused.
+ */
+public final class NettySharedChannel {
+  private static final Logger LOG = Logger.getLogger(NettySharedChannel.class.getName());
+
+  /**
+   * The address of the remote endpoint.
+   */
+  private final SocketAddress remoteAddress;
+
+  /**
+   * Map of channel and handler, which is used by the message forwarder.
+   */
+  private final ConcurrentMap<Channel, EventHandler<String>> channelMap;
+
+  /**
+   * The event loop that runs the scheduled tasks of the users.
+   */
+  private final EventLoop eventLoop;
+
+  /**
+   * The handlers of the received lines.
+   */
+  private final List<EventHandler<String>> handlers;
+
+  /**
+   * The latch which is released when the connection is established or failed.
+   */
+  private final CountDownLatch connectLatch;
+
+  /**
+   * The netty channel, which is set when the connection is established.
+   */
+  private volatile Channel channel;
+
+  /**
+   * The cause of the connection failure, or null.
+   */
+  private volatile Throwable failure;
+
+  /**
+   * True if the connection failed or the channel is closed.
+   */
+  private volatile boolean closed;
+
+  /**
+   * The number of users of this channel.
+   */
+  private int refCount;
+
+  /**
+   * The number of paused handlers.
+   */
+  private int numPaused;
+
+  NettySharedChannel(final Bootstrap clientBootstrap,
+                     final SocketAddress remoteAddress,
+                     final ConcurrentMap<Channel, EventHandler<String>> channelMap,
+                     final EventLoop eventLoop) {
+    this.remoteAddress = remoteAddress;
+    this.channelMap = channelMap;
+    this.eventLoop = eventLoop;
+    this.handlers = new CopyOnWriteArrayList<>();
+    this.connectLatch = new CountDownLatch(1);
+    this.failure = null;
+    this.closed = false;
+    this.refCount = 0;
+    this.numPaused = 0;
+    clientBootstrap.connect(remoteAddress).addListener(
+        (ChannelFuture channelFuture) -> onConnect(channelFuture));
+  }
+
+  /**
+   * Registers the channel to the channel map, and releases the users waiting for the connection.
+   * It is called in the event loop of the channel before any message is read.
+   * @param channelFuture the future of connection
+   */
+  private synchronized void onConnect(final ChannelFuture channelFuture) {
+    try {
+      if (!channelFuture.isSuccess()) {
+        LOG.log(Level.SEVERE, "A connection failed to " + remoteAddress, channelFuture.cause());
+        failure = channelFuture.cause();
+        closed = true;
+        return;
+      }
+      final Channel connectedChannel = channelFuture.channel();
+      if (closed) {
+        connectedChannel.close();
+        return;
+      }
+      channel = connectedChannel;
+      channelMap.put(connectedChannel, this::dispatch);
+      if (numPaused > 0) {
+        connectedChannel.config().setAutoRead(false);
+      }
+    } finally {
+      connectLatch.countDown();
+    }
+  }
+
+  /**
+   * Waits until the connection is established.
+   * @throws IOException if the connection failed or the channel is closed before the connection
+   */
+  void awaitConnection() throws IOException {
+    try {
+      connectLatch.await();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while connecting to " + remoteAddress, e);
+    }
+    if (failure != null) {
+      throw new IOException("A connection failed to " + remoteAddress, failure);
+    }
+    if (channel == null) {
+      throw new IOException("The channel to " + remoteAddress + " is closed");
+    }
+  }
+
+  /**
+   * @return true if the connection failed or the channel is closed, so that it should not be shared anymore
+   */
+  boolean isClosed() {
+    return closed || (channel != null && !channel.isActive());
+  }
+
+  /**
+   * Forwards the received line to all the handlers.
+   * @param line received line
+   */
+  private void dispatch(final String line) {
+    for (final EventHandler<String> handler : handlers) {
+      handler.onNext(line);
+    }
+  }
+
+  synchronized void retain() {
+    refCount += 1;
+  }
+
+  /**
+   * Decreases the reference count, and closes the channel if nobody uses it.
+   * @return true if the channel is closed
+   */
+  synchronized boolean release() {
+    refCount -= 1;
+    if (refCount > 0) {
+      return false;
+    }
+    closed = true;
+    if (channel != null) {
+      channelMap.remove(channel);
+      channel.close();
+    }
+    return true;
+  }
+
+  SocketAddress getRemoteAddress() {
+    return remoteAddress;
+  }
+
+  public void addHandler(final EventHandler<String> handler) {
+    handlers.add(handler);
+  }
+
+  public void removeHandler(final EventHandler<String> handler) {
+    handlers.remove(handler);
+  }
+
+  /**
+   * Stops reading from the socket, so that the tcp flow control slows down the server.
+   * The channel does not read until all the paused handlers resume.
+   */
+  public synchronized void pause() {
+    numPaused += 1;
+    if (numPaused == 1 && channel != null) {
+      channel.config().setAutoRead(false);
+    }
+  }
+
+  public synchronized void resume() {
+    numPaused -= 1;
+    if (numPaused == 0 && channel != null) {
+      channel.config().setAutoRead(true);
+    }
+  }
+
+  /**
+   * Writes the message without flushing.
+   * The messages written by different users are serialized in the channel.
+   * The channel is handed out after the connection, so nothing is buffered here.
+   * @param message message
+   */
+  public void write(final String message) {
+    channel.write(message);
+  }
+
+  /**
+   * Flushes the written messages.
+   */
+  public void flush() {
+    channel.flush();
+  }
+
+  /**
+   * Runs the task in the event loop.
+   * @param task task
+   * @param delay delay in milliseconds. The task runs at the next turn of the event loop if it is zero.
+   */
+  public void schedule(final Runnable task, final long delay) {
+    if (delay > 0L) {
+      eventLoop.schedule(task, delay, TimeUnit.MILLISECONDS);
+    } else {
+      eventLoop.execute(task);
+    }
+  }
+
+  /**
+   * @return true if the connection is established
+   */
+  public boolean isConnected() {
+    return channel != null;
+  }
+}
@@ -16,6 +16,7 @@
 package edu.snu.mist.common.shared;
 
 import edu.snu.mist.common.NettyMessageForwarder;
+import edu.snu.mist.common.shared.parameters.ShareNettyChannels;
 import edu.snu.mist.common.sources.parameters.NumNettyThreads;
 import edu.snu.mist.common.stream.textmessage.NettyTextMessageChannelInitializer;
 import io.netty.bootstrap.Bootstrap;
@@ -30,12 +31,19 @@ import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.impl.DefaultThreadFactory;
 
 import javax.inject.Inject;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * This class is shared by multiple netty data generators and netty sinks.
  * It is designed to share a client bootstrap to reduce the number of I/O threads.
+ * If the channels are shared, the data generators (or sinks) connecting to the same endpoint
+ * share a single reference-counted channel to reduce the number of connections.
  */
 public final class NettySharedResource implements AutoCloseable {
   private static final String CLASS_NAME = NettySharedResource.class.getName();
@@ -65,15 +73,35 @@ public final class NettySharedResource implements AutoCloseable {
    */
   private Bootstrap clientBootstrap;
 
+  /**
+   * True if the channels are shared among the data generators (or sinks) of the same endpoint.
+   */
+  private final boolean shareChannels;
+
+  /**
+   * The shared channels of data generators keyed by the remote address.
+   */
+  private final Map<SocketAddress, NettySharedChannel> sourceChannels;
+
+  /**
+   * The shared channels of sinks keyed by the remote address.
+   */
+  private final Map<SocketAddress, NettySharedChannel> sinkChannels;
+
   /**
    * @param identifierFactory an identifier factory
    * @param threads the number of I/O threads
+   * @param shareChannels share the channels of the same endpoint or not
    */
   @Inject
   private NettySharedResource(
       final StringIdentifierFactory identifierFactory,
-      @Parameter(NumNettyThreads.class) final int threads) {
+      @Parameter(NumNettyThreads.class) final int threads,
+      @Parameter(ShareNettyChannels.class) final boolean shareChannels) {
     this.threads = threads;
+    this.shareChannels = shareChannels;
+    this.sourceChannels = new HashMap<>();
+    this.sinkChannels = new HashMap<>();
     this.channelMap = new ConcurrentHashMap<>();
     this.clientWorkerGroup = new NioEventLoopGroup(threads,
         new DefaultThreadFactory(CLASS_NAME + "-ClientWorker"));
@@ -94,6 +122,79 @@ public final class NettySharedResource implements AutoCloseable {
     return channelMap;
   }
 
+  /**
+   * Get the channel of a data generator connecting to the server.
+   * It waits until the connection is established.
+   * @param serverAddr server address
+   * @param port server port
+   * @return the channel, which should be released by releaseSourceChannel
+   * @throws IOException if the connection failed
+   */
+  public NettySharedChannel getSourceChannel(final String serverAddr, final int port) throws IOException {
+    return connect(sourceChannels, new InetSocketAddress(serverAddr, port));
+  }
+
+  /**
+   * Get the channel of a sink connecting to the server.
+   * It waits until the connection is established.
+   * @param serverAddr server address
+   * @param port server port
+   * @return the channel, which should be released by releaseSinkChannel
+   * @throws IOException if the connection failed
+   */
+  public NettySharedChannel getSinkChannel(final String serverAddr, final int port) throws IOException {
+    return connect(sinkChannels, new InetSocketAddress(serverAddr, port));
+  }
+
+  public void releaseSourceChannel(final NettySharedChannel channel) {
+    releaseChannel(sourceChannels, channel);
+  }
+
+  public void releaseSinkChannel(final NettySharedChannel channel) {
+    releaseChannel(sinkChannels, channel);
+  }
+
+  /**
+   * Waits for the connection out of the lock, so that a slow endpoint does not block the others.
+   * The failed channel is released, and it is not handed out anymore.
+   */
+  private NettySharedChannel connect(final Map<SocketAddress, NettySharedChannel> channels,
+                                     final SocketAddress remoteAddress) throws IOException {
+    final NettySharedChannel channel = getChannel(channels, remoteAddress);
+    try {
+      channel.awaitConnection();
+    } catch (final IOException e) {
+      releaseChannel(channels, channel);
+      throw e;
+    }
+    return channel;
+  }
+
+  private synchronized NettySharedChannel getChannel(final Map<SocketAddress, NettySharedChannel> channels,
+                                                     final SocketAddress remoteAddress) {
+    NettySharedChannel channel = shareChannels ? channels.get(remoteAddress) : null;
+    if (channel != null && channel.isClosed()) {
+      // Evict the failed or disconnected channel, and its remaining users release it later
+      channels.remove(remoteAddress);
+      channel = null;
+    }
+    if (channel == null) {
+      channel = new NettySharedChannel(clientBootstrap, remoteAddress, channelMap, clientWorkerGroup.next());
+      if (shareChannels) {
+        channels.put(remoteAddress, channel);
+      }
+    }
+    channel.retain();
+    return channel;
+  }
+
+  private synchronized void releaseChannel(final Map<SocketAddress, NettySharedChannel> channels,
+                                           final NettySharedChannel channel) {
+    if (channel.release()) {
+      channels.remove(channel.getRemoteAddress(), channel);
+    }
+  }
+
   @Override
   public void close() throws Exception {
     clientWorkerGroup.shutdownGracefully();
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.shared.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * The maximum number of deserialized configurations (and udfs) that are cached per kind.
+ * The cache is disabled if it is zero, which is the default.
+ * The cached udfs are shared by the operators of the queries that have the same udfs,
+ * so it should be enabled only if the udfs of the map, filter, flatMap and conditional branch operators
+ * are stateless.
+ */
+@NamedParameter(doc = "The maximum number of cached deserialized configurations and udfs (0 disables the cache)",
+    short_name = "deserialization_cache_size", default_value = "0")
+public final class DeserializationCacheSize implements Name<Integer> {
+}
@@ -18,18 +18,32 @@ package edu.snu.mist.common.sinks;
 import edu.snu.mist.common.parameters.MQTTBrokerURI;
 import edu.snu.mist.common.parameters.MQTTTopic;
 import edu.snu.mist.common.shared.MQTTResource;
+import edu.snu.mist.common.sinks.parameters.MqttSinkMaxBacklog;
+import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.annotations.Parameter;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
 import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
 import org.eclipse.paho.client.mqttv3.MqttException;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * This class publishes MQTT messages to MQTT broker.
+ * The messages are published asynchronously, so they are pipelined within the inflight window of the client.
+ * When the window is full, the messages are kept in the bounded backlog instead of being dropped,
+ * and published in order when any inflight message of the client, which can be shared by other sinks, is delivered.
+ * The messages arriving at the full backlog and the messages failed to be published are counted as failures.
  */
 public final class MqttSink implements Sink<MqttMessage> {
+  private static final Logger LOG = Logger.getLogger(MqttSink.class.getName());
 
   /**
    * MQTT publisher client.
@@ -41,26 +55,138 @@ public final class MqttSink implements Sink<MqttMessage> {
    */
   private final String topic;
 
+  /**
+   * The messages that are not published yet with their arrival times in nanoseconds.
+   */
+  private final Queue<Tuple<MqttMessage, Long>> backlog;
+
+  /**
+   * The maximum number of messages in the backlog.
+   */
+  private final int maxBacklog;
+
+  /**
+   * The listener that counts the delivered and failed messages.
+   * The arrival time of the message is the user context of the token.
+   */
+  private final IMqttActionListener publishListener;
+
+  /**
+   * The listener that publishes the backlog when a message of the client is delivered.
+   */
+  private final Runnable deliveryListener;
+
+  /**
+   * The shared resource which notifies the deliveries of the client.
+   */
+  private final MQTTResource sharedResource;
+
+  /**
+   * The counters of outputs and publishes.
+   */
+  private final SinkCounters counters;
+
+  /**
+   * True if the backlog is not empty, which is read by the delivery listener without the lock.
+   */
+  private volatile boolean hasBacklog;
+
   @Inject
   public MqttSink(
       @Parameter(MQTTBrokerURI.class) final String brokerURI,
       @Parameter(MQTTTopic.class) final String topic,
+      @Parameter(MqttSinkMaxBacklog.class) final int maxBacklog,
       final MQTTResource sharedResource) throws IOException, MqttException {
     this.topic = topic;
     this.mqttClient = sharedResource.getMqttSinkClient(brokerURI, topic);
+    this.sharedResource = sharedResource;
+    this.backlog = new ArrayDeque<>();
+    this.maxBacklog = maxBacklog;
+    this.counters = new SinkCounters();
+    this.hasBacklog = false;
+    this.publishListener = new IMqttActionListener() {
+      @Override
+      public void onSuccess(final IMqttToken asyncActionToken) {
+        counters.recordFlush(1, System.nanoTime() - (Long) asyncActionToken.getUserContext());
+      }
+
+      @Override
+      public void onFailure(final IMqttToken asyncActionToken, final Throwable exception) {
+        LOG.log(Level.WARNING, "Failed to publish a message to " + topic, exception);
+        counters.recordFailure(1);
+      }
+    };
+    this.deliveryListener = () -> {
+      if (hasBacklog) {
+        drain();
+      }
+    };
+    sharedResource.addDeliveryListener(mqttClient, deliveryListener);
   }
 
   @Override
   public void close() throws Exception {
     // TODO:[MIST-494] Safely close MQTT publisher client.
+    sharedResource.removeDeliveryListener(mqttClient, deliveryListener);
   }
 
   @Override
-  public void handle(final MqttMessage input) {
-    try {
-      mqttClient.publish(topic, input);
-    } catch (MqttException e) {
-      e.printStackTrace();
+  public synchronized void handle(final MqttMessage input) {
+    addToBacklog(input, System.nanoTime());
+    drain();
+  }
+
+  /**
+   * Publishes all the messages in a row.
+   */
+  @Override
+  public synchronized void handleBatch(final List<MqttMessage> inputs) {
+    final long arrivalTime = System.nanoTime();
+    for (final MqttMessage input : inputs) {
+      addToBacklog(input, arrivalTime);
+    }
+    drain();
+  }
+
+  /**
+   * Adds the message to the backlog, or drops it if the backlog is full.
+   * @param input message
+   * @param arrivalTime arrival time in nanoseconds
+   */
+  private void addToBacklog(final MqttMessage input, final long arrivalTime) {
+    if (backlog.size() >= maxBacklog) {
+      counters.recordFailure(1);
+      return;
+    }
+    backlog.add(new Tuple<>(input, arrivalTime));
+    hasBacklog = true;
+  }
+
+  /**
+   * Publishes the messages in the backlog until the inflight window of the client is full.
+   */
+  private synchronized void drain() {
+    while (!backlog.isEmpty()) {
+      final Tuple<MqttMessage, Long> message = backlog.peek();
+      try {
+        mqttClient.publish(topic, message.getKey(), message.getValue(), publishListener);
+      } catch (final MqttException e) {
+        if (e.getReasonCode() == MqttException.REASON_CODE_MAX_INFLIGHT) {
+          // The backlog is published again when a message of the client is delivered
+          return;
+        }
+        LOG.log(Level.WARNING, "Failed to publish a message to " + topic, e);
+        counters.recordFailure(1);
+      }
+      backlog.poll();
     }
+    hasBacklog = false;
+  }
+
+  /**
+   * @return the counters of outputs and publishes
+   */
+  public SinkCounters getCounters() {
+    return counters;
   }
 }
@@ -18,18 +18,23 @@ package edu.snu.mist.common.sinks;
 import edu.snu.mist.common.OutputEmitter;
 import edu.snu.mist.common.parameters.SocketServerIp;
 import edu.snu.mist.common.parameters.SocketServerPort;
+import edu.snu.mist.common.shared.NettySharedChannel;
 import edu.snu.mist.common.shared.NettySharedResource;
-import io.netty.bootstrap.Bootstrap;
-import io.netty.channel.Channel;
-import io.netty.channel.ChannelFuture;
+import edu.snu.mist.common.sinks.parameters.SinkMaxBatchSize;
+import edu.snu.mist.common.sinks.parameters.SinkMaxLingerTime;
 import org.apache.reef.io.network.util.StringIdentifierFactory;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.List;
 
 /**
  * This class receives text data stream via Netty.
+ * The outputs are written to the channel without flushing, and flushed once
+ * when the number of unflushed outputs reaches the max batch size or the max linger time passes.
+ * If the max linger time is zero, the unflushed outputs are flushed at the next turn of the event loop.
+ * The sinks connecting to the same server can share a channel, which serializes the outputs of them.
  */
 public final class NettyTextSink implements Sink<String> {
 
@@ -38,50 +43,164 @@ public final class NettyTextSink implements Sink<String> {
    */
   private OutputEmitter outputEmitter;
 
+  /**
+   * Netty shared resource.
+   */
+  private final NettySharedResource sharedResource;
+
   /**
    * Netty channel.
    */
-  private final Channel channel;
+  private final NettySharedChannel channel;
 
   /**
    * Newline delimeter.
    */
   private final String newline = System.getProperty("line.separator");
 
+  /**
+   * The maximum number of unflushed outputs.
+   */
+  private final int maxBatchSize;
+
+  /**
+   * The maximum time in milliseconds that an output is not flushed.
+   */
+  private final long maxLingerTime;
+
+  /**
+   * The counters of outputs and flushes.
+   */
+  private final SinkCounters counters;
+
+  /**
+   * The task that flushes the unflushed outputs.
+   */
+  private final Runnable flushTask;
+
+  /**
+   * The number of unflushed outputs.
+   */
+  private int numPending;
+
+  /**
+   * The sum of arrival times of the unflushed outputs in nanoseconds.
+   */
+  private long pendingArrivalTimeSum;
+
+  /**
+   * True if the flush task is scheduled.
+   */
+  private boolean flushScheduled;
+
   @Inject
   public NettyTextSink(
       @Parameter(SocketServerIp.class) final String serverAddress,
       @Parameter(SocketServerPort.class) final int port,
+      @Parameter(SinkMaxBatchSize.class) final int maxBatchSize,
+      @Parameter(SinkMaxLingerTime.class) final long maxLingerTime,
       final NettySharedResource sharedResource,
       final StringIdentifierFactory identifierFactory) throws IOException {
-    final Bootstrap clientBootstrap = sharedResource.getClientBootstrap();
-    final ChannelFuture channelFuture = clientBootstrap.connect(serverAddress, port);
-    channelFuture.awaitUninterruptibly();
-    assert channelFuture.isDone();
-    if (!channelFuture.isSuccess()) {
-      final StringBuilder sb = new StringBuilder("A connection failed at Sink - ");
-      sb.append(channelFuture.cause());
-      throw new RuntimeException(sb.toString());
+    this.sharedResource = sharedResource;
+    try {
+      this.channel = sharedResource.getSinkChannel(serverAddress, port);
+    } catch (final IOException e) {
+      throw new RuntimeException("A connection failed at Sink - " + e.getCause(), e);
     }
-    this.channel = channelFuture.channel();
+    this.maxBatchSize = maxBatchSize;
+    this.maxLingerTime = maxLingerTime;
+    this.counters = new SinkCounters();
+    this.flushTask = this::flushPending;
+    this.numPending = 0;
+    this.pendingArrivalTimeSum = 0L;
+    this.flushScheduled = false;
   }
 
   @Override
   public void close() throws Exception {
     if (channel != null) {
-      channel.close();
+      flushPending();
+      sharedResource.releaseSinkChannel(channel);
     }
   }
 
   @Override
   public void handle(final String input) {
+    if (maxBatchSize <= 1) {
+      channel.write(toLine(input));
+      channel.flush();
+      counters.recordFlush(1, 0L);
+      return;
+    }
+
+    channel.write(toLine(input));
+    final boolean flushNow;
+    synchronized (this) {
+      numPending += 1;
+      pendingArrivalTimeSum += System.nanoTime();
+      flushNow = numPending >= maxBatchSize;
+      if (!flushNow && !flushScheduled) {
+        flushScheduled = true;
+        channel.schedule(flushTask, maxLingerTime);
+      }
+    }
+    if (flushNow) {
+      flushPending();
+    }
+  }
+
+  /**
+   * Writes all the inputs and flushes the channel once.
+   */
+  @Override
+  public void handleBatch(final List<String> inputs) {
+    for (final String input : inputs) {
+      channel.write(toLine(input));
+    }
+    synchronized (this) {
+      numPending += inputs.size();
+      pendingArrivalTimeSum += System.nanoTime() * inputs.size();
+    }
+    flushPending();
+  }
+
+  /**
+   * Flushes the unflushed outputs.
+   */
+  private void flushPending() {
+    final int numFlushed;
+    final long flushDelay;
+    synchronized (this) {
+      flushScheduled = false;
+      if (numPending == 0) {
+        return;
+      }
+      numFlushed = numPending;
+      flushDelay = System.nanoTime() * numPending - pendingArrivalTimeSum;
+      numPending = 0;
+      pendingArrivalTimeSum = 0L;
+    }
+    counters.recordFlush(numFlushed, flushDelay);
+    channel.flush();
+  }
+
+  /**
+   * @return the counters of outputs and flushes
+   */
+  public SinkCounters getCounters() {
+    return counters;
+  }
+
+  /**
+   * Appends the newline to the input if it does not contain the newline.
+   * @param input input
+   * @return line
+   */
+  private String toLine(final String input) {
     if (input.contains(newline)) {
-      channel.writeAndFlush(input);
+      return input;
     } else {
-      final StringBuilder sb = new StringBuilder();
-      sb.append(input);
-      sb.append("\n");
-      channel.writeAndFlush(sb.toString());
+      return input.concat("\n");
     }
   }
 }
@@ -17,9 +17,20 @@ package edu.snu.mist.common.sinks;
 
 import edu.snu.mist.common.InputHandler;
 
+import java.util.List;
+
 /**
  * Sink consumes inputs and does final process, such as print, save input to database and so on.
  */
 public interface Sink<I> extends InputHandler<I>, AutoCloseable {
 
+  /**
+   * It handles a batch of inputs.
+   * @param inputs inputs
+   */
+  default void handleBatch(final List<I> inputs) {
+    for (final I input : inputs) {
+      handle(input);
+    }
+  }
 }
\ No newline at end of file
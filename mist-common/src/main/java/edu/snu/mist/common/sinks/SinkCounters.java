@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.sinks;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class counts the outputs and flushes of a sink.
+ * The flush delay is the time between the arrival of an output at the sink and the flush of the output.
+ * The outputs that are dropped or failed to be written are counted as failures, not as outputs.
+ */
+public final class SinkCounters {
+
+  /**
+   * The number of outputs.
+   */
+  private final LongAdder numOutputs;
+
+  /**
+   * The number of flushes.
+   */
+  private final LongAdder numFlushes;
+
+  /**
+   * The sum of flush delays of the outputs in nanoseconds.
+   */
+  private final LongAdder totalFlushDelay;
+
+  /**
+   * The number of failed outputs.
+   */
+  private final LongAdder numFailures;
+
+  public SinkCounters() {
+    this.numOutputs = new LongAdder();
+    this.numFlushes = new LongAdder();
+    this.totalFlushDelay = new LongAdder();
+    this.numFailures = new LongAdder();
+  }
+
+  /**
+   * Record a flush.
+   * @param numFlushedOutputs the number of flushed outputs
+   * @param flushDelay the sum of flush delays of the flushed outputs in nanoseconds
+   */
+  void recordFlush(final int numFlushedOutputs, final long flushDelay) {
+    numOutputs.add(numFlushedOutputs);
+    numFlushes.increment();
+    totalFlushDelay.add(flushDelay);
+  }
+
+  /**
+   * Record the outputs that are dropped or failed to be written.
+   * @param numFailedOutputs the number of failed outputs
+   */
+  void recordFailure(final int numFailedOutputs) {
+    numFailures.add(numFailedOutputs);
+  }
+
+  public long getNumOutputs() {
+    return numOutputs.sum();
+  }
+
+  public long getNumFlushes() {
+    return numFlushes.sum();
+  }
+
+  public long getNumFailures() {
+    return numFailures.sum();
+  }
+
+  /**
+   * @return the average flush delay of the outputs in nanoseconds
+   */
+  public double getAverageFlushDelay() {
+    final long outputs = numOutputs.sum();
+    return outputs == 0 ? 0.0 : (double) totalFlushDelay.sum() / outputs;
+  }
+}
@@ -34,4 +34,24 @@ public interface DataGenerator<T> extends AutoCloseable {
    * @param eventGenerator event generator which is the destination of data
    */
   void setEventGenerator(EventGenerator eventGenerator);
+
+  /**
+   * Pauses generating data, in order to apply backpressure from the downstream.
+   * The data which are already received might be emitted after the pause.
+   */
+  void pause();
+
+  /**
+   * Resumes generating data which is paused by pause().
+   */
+  void resume();
+
+  /**
+   * Returns true if the data are emitted in an I/O thread shared with other data generators,
+   * which should not be blocked by the backpressure of a single source.
+   * @return true if the data are emitted in a shared thread
+   */
+  default boolean isSharedThread() {
+    return false;
+  }
 }
@@ -31,6 +31,17 @@ public interface EventGenerator<T> extends OutputEmittable, AutoCloseable {
    */
   void emitData(T input);
 
+  /**
+   * Receives data whose arrival time is already taken by the data source.
+   * The arrival time is used as the timestamp of the data when the timestamp is not extracted from the input,
+   * so a data source that fans out an input to multiple event generators reads the clock only once.
+   * @param input the input passed from data source
+   * @param arrivalTimestamp the time when the input arrived at the data source
+   */
+  default void emitData(final T input, final long arrivalTimestamp) {
+    emitData(input);
+  }
+
   /**
    * Start the event generator.
    */
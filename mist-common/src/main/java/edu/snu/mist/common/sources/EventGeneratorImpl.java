@@ -94,10 +94,21 @@ public abstract class EventGeneratorImpl<I, V> implements EventGenerator<I> {
    * @return the MistDataEvent consists of the timestamp and input object without it
    */
   protected MistDataEvent generateEvent(final I input) {
+    return generateEvent(input, extractTimestampFunc == null ? getCurrentTimestamp() : 0L);
+  }
+
+  /**
+   * Extracts the data and timestamp for MistDataEvent to generate and generate MistDataEvent.
+   * If there is a timestamp extractor, then use it.
+   * If not, use the given arrival time.
+   * @param input the input from DataGenerator
+   * @param arrivalTimestamp the time when the input arrived at the DataGenerator
+   * @return the MistDataEvent consists of the timestamp and input object without it
+   */
+  protected MistDataEvent generateEvent(final I input, final long arrivalTimestamp) {
     if (extractTimestampFunc == null) {
-      long currentTimestamp = getCurrentTimestamp();
-      if (currentTimestamp > latestWatermarkTimestamp) {
-        return new MistDataEvent(input, currentTimestamp);
+      if (arrivalTimestamp > latestWatermarkTimestamp) {
+        return new MistDataEvent(input, arrivalTimestamp);
       } else {
         return null;
       }
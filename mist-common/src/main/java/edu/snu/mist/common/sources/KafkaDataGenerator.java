@@ -20,20 +20,20 @@ import edu.snu.mist.common.parameters.KafkaTopic;
 import edu.snu.mist.common.parameters.SerializedKafkaConfig;
 import edu.snu.mist.common.shared.KafkaSharedResource;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.Collection;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class receives data stream via Kafka.
+ * The records are fetched by the SharedKafkaConsumer of KafkaSharedResource,
+ * which is shared by the data generators reading the same topic with the same configuration.
+ * Each data generator keeps its own offsets, so that it does not receive a record twice
+ * when the partitions of the shared consumer are re-assigned.
  * @param <K> the type of kafka record's key
  * @param <V> the type of kafka record's value
  */
@@ -50,14 +50,14 @@ public final class KafkaDataGenerator<K, V> implements DataGenerator<ConsumerRec
   private final AtomicBoolean closed;
 
   /**
-   * The kafka topic to monitor.
+   * A flag for pause.
    */
-  private final String topic;
+  private final AtomicBoolean paused;
 
   /**
-   * The timeout for consumer polling represented in milliseconds.
+   * The kafka topic to monitor.
    */
-  private final int pollTimeout;
+  private final String topic;
 
   /**
    * The KafkaConsumer configuration.
@@ -65,14 +65,15 @@ public final class KafkaDataGenerator<K, V> implements DataGenerator<ConsumerRec
   private final Map<String, Object> kafkaConsumerConf;
 
   /**
-   * The actual KafkaConsumer which subscribes the target topic.
+   * The shared resource that has the shared consumers.
    */
-  private KafkaConsumer<K, V> consumer;
+  private final KafkaSharedResource kafkaSharedResource;
 
   /**
-   * The executor service used to restrict the number of threads for kafka sources.
+   * The next offset of each partition to emit.
+   * This is only accessed by the polling thread of the shared consumer.
    */
-  private final ExecutorService executorService;
+  private final Map<Integer, Long> nextOffsets;
 
   /**
    * Event generator which is the destination of fetched data.
@@ -95,10 +96,11 @@ public final class KafkaDataGenerator<K, V> implements DataGenerator<ConsumerRec
       final KafkaSharedResource kafkaSharedResource) {
     this.started = new AtomicBoolean(false);
     this.closed = new AtomicBoolean(false);
+    this.paused = new AtomicBoolean(false);
     this.topic = topic;
     this.kafkaConsumerConf = kafkaConsumerConf;
-    this.executorService = kafkaSharedResource.getExecutorService();
-    this.pollTimeout = kafkaSharedResource.getPollTimeout();
+    this.kafkaSharedResource = kafkaSharedResource;
+    this.nextOffsets = new HashMap<>();
   }
 
   @Override
@@ -106,40 +108,61 @@ public final class KafkaDataGenerator<K, V> implements DataGenerator<ConsumerRec
     if (started.compareAndSet(false, true)) {
       if (eventGenerator != null) {
         try {
-          // TODO: [MIST-355] support topic having multiple partitions in kafka source
-          consumer = new KafkaConsumer<>(kafkaConsumerConf);
-          final Collection<String> topicCollection = new LinkedList<>();
-          topicCollection.add(topic);
-          consumer.subscribe(topicCollection);
-
-          executorService.submit(new Runnable() {
-            @Override
-            public void run() {
-              try {
-                while (!closed.get()) {
-                  final ConsumerRecords<K, V> consumerRecords = consumer.poll(pollTimeout);
-                  for (final ConsumerRecord<K, V> record : consumerRecords) {
-                    eventGenerator.emitData(record);
-                  }
-                }
-              } catch (final Exception e) {
-                e.printStackTrace();
-              } finally {
-                consumer.close();
-              }
-            }
-          });
-        } catch (final Exception e) {
-          e.printStackTrace();
-          throw new RuntimeException("Failed to construct kafka consumer", e);
+          kafkaSharedResource.subscribe(topic, kafkaConsumerConf, this);
+        } catch (final RuntimeException e) {
+          started.set(false);
+          throw new RuntimeException("A connection failed at Source - " + e.getMessage(), e);
         }
       }
     }
   }
 
+  /**
+   * Emit the record fetched by the shared consumer toward the EventGenerator.
+   * The record is skipped if it is already emitted.
+   * @param record the record to emit
+   */
+  void emitRecord(final ConsumerRecord<K, V> record) {
+    if (closed.get()) {
+      return;
+    }
+    final Long nextOffset = nextOffsets.get(record.partition());
+    if (nextOffset == null || record.offset() >= nextOffset) {
+      nextOffsets.put(record.partition(), record.offset() + 1);
+      eventGenerator.emitData(record);
+    }
+  }
+
+  /**
+   * @return true if the data generator is paused
+   */
+  boolean isPaused() {
+    return paused.get();
+  }
+
+  @Override
+  public void pause() {
+    paused.set(true);
+  }
+
+  @Override
+  public void resume() {
+    paused.set(false);
+  }
+
+  /**
+   * The data are emitted in the polling thread of the shared consumer.
+   */
+  @Override
+  public boolean isSharedThread() {
+    return true;
+  }
+
   @Override
   public void close() {
-    closed.compareAndSet(false, true);
+    if (closed.compareAndSet(false, true) && started.get()) {
+      kafkaSharedResource.unsubscribe(topic, kafkaConsumerConf, this);
+    }
   }
 
   @Override
@@ -38,6 +38,11 @@ public final class MQTTDataGenerator implements DataGenerator<MqttMessage> {
    */
   private final AtomicBoolean closed;
 
+  /**
+   * True if the topic is subscribed by the client.
+   */
+  private volatile boolean subscribed;
+
   /**
    * The topic of connected MQTT broker to subscribe.
    */
@@ -59,16 +64,18 @@ public final class MQTTDataGenerator implements DataGenerator<MqttMessage> {
     this.topic = topic;
     this.started = new AtomicBoolean(false);
     this.closed = new AtomicBoolean(false);
+    this.subscribed = false;
   }
 
   /**
    * Emit the given MQTT message toward the EventGenerator.
    * This function would be called by MQTTSubscribeClient when it received message of the target topic from it's broker.
    * @param message the message to emit
+   * @param arrivalTimestamp the time when the message arrived at the client
    */
-  void emitData(final MqttMessage message) {
+  void emitData(final MqttMessage message, final long arrivalTimestamp) {
     if (!closed.get() && eventGenerator != null) {
-      eventGenerator.emitData(message);
+      eventGenerator.emitData(message, arrivalTimestamp);
     }
   }
 
@@ -77,6 +84,7 @@ public final class MQTTDataGenerator implements DataGenerator<MqttMessage> {
     if (started.compareAndSet(false, true)) {
       try {
         subClient.subscribe(topic);
+        subscribed = true;
       } catch (final MqttException e) {
         LOG.log(Level.SEVERE, "{0} failed to subscribe topic {1}",
             new Object[]{this.getClass().getName(), topic});
@@ -85,9 +93,42 @@ public final class MQTTDataGenerator implements DataGenerator<MqttMessage> {
     }
   }
 
+  /**
+   * The messages of all the topics are pushed by the shared subscribe client,
+   * so a topic cannot be paused without stalling the others.
+   * The received messages are buffered in the downstream instead.
+   */
+  @Override
+  public void pause() {
+    // do nothing
+  }
+
+  @Override
+  public void resume() {
+    // do nothing
+  }
+
+  /**
+   * The data are emitted in the callback thread of the shared subscribe client.
+   */
+  @Override
+  public boolean isSharedThread() {
+    return true;
+  }
+
   @Override
   public void close() {
-    closed.compareAndSet(false, true);
+    if (closed.compareAndSet(false, true)) {
+      subClient.disconnectFromTopic(topic, this);
+      if (subscribed) {
+        try {
+          subClient.unsubscribe(topic);
+        } catch (final MqttException e) {
+          LOG.log(Level.SEVERE, "{0} failed to unsubscribe topic {1}",
+              new Object[]{this.getClass().getName(), topic});
+        }
+      }
+    }
     // TODO: [MIST-489] Deal with close and connection problem in MQTT source
   }
 
@@ -17,14 +17,21 @@ package edu.snu.mist.common.sources;
 
 import org.eclipse.paho.client.mqttv3.*;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ConcurrentMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * This class represents MQTT clients implemented with eclipse Paho.
  * It will subscribe a MQTT broker and send the received data toward appropriate DataGenerator.
+ * The DataGenerators are indexed by their topic filters in a topic trie, so the wildcard topics are supported.
+ * A received message is fanned out once to all the matching DataGenerators with a shared arrival timestamp.
+ * The broker delivers a copy of a message for each matching subscription,
+ * so the topic filters covered by another subscribed filter (e.g., a/+ by a/#) are not subscribed to the broker.
+ * The topic filters are reference-counted and unsubscribed when no DataGenerator uses them.
  */
 public final class MQTTSubscribeClient implements MqttCallback {
   /**
@@ -44,9 +51,19 @@ public final class MQTTSubscribeClient implements MqttCallback {
    */
   private final String clientId;
   /**
-   * The map coupling MQTT topic name and list of MQTTDataGenerators.
+   * The trie coupling MQTT topic filters and MQTTDataGenerators.
    */
-  private final ConcurrentMap<String, Queue<MQTTDataGenerator>> dataGeneratorListMap;
+  private final MQTTTopicTrie<MQTTDataGenerator> dataGeneratorTrie;
+  /**
+   * The number of started DataGenerators for each topic filter.
+   * This is only accessed with the subscribe lock.
+   */
+  private final Map<String, Integer> topicRefCounts;
+  /**
+   * The topic filters that are subscribed to the broker.
+   * This is only accessed with the subscribe lock.
+   */
+  private final Set<String> brokerTopics;
   /**
    * The lock used when a DataGenerator want to start subscription.
    */
@@ -67,7 +84,9 @@ public final class MQTTSubscribeClient implements MqttCallback {
     this.started = false;
     this.brokerURI = brokerURI;
     this.clientId = clientId;
-    this.dataGeneratorListMap = new ConcurrentHashMap<>();
+    this.dataGeneratorTrie = new MQTTTopicTrie<>();
+    this.topicRefCounts = new HashMap<>();
+    this.brokerTopics = new HashSet<>();
     this.subscribeLock = new Object();
     this.mqttSourceKeepAliveSec = mqttSourceKeepAliveSec;
   }
@@ -77,22 +96,27 @@ public final class MQTTSubscribeClient implements MqttCallback {
    * When the start() method of the DataGenerator is called, the client will start to subscribe the requested topic.
    * If a DataGenerator having topic of connected broker is requested multiple-time,
    * already constructed DataGenerator will be returned.
-   * @param topic the topic of connected broker to subscribe
+   * @param topic the topic of connected broker to subscribe, which can have wildcards
    * @return requested MQTTDataGenerator connected with the target broker and topic
    */
   public MQTTDataGenerator connectToTopic(final String topic) {
-    Queue<MQTTDataGenerator> dataGeneratorList = dataGeneratorListMap.get(topic);
-    if (dataGeneratorList == null) {
-      dataGeneratorList = new ConcurrentLinkedQueue<>();
-      dataGeneratorListMap.put(topic, dataGeneratorList);
-    }
     final MQTTDataGenerator dataGenerator = new MQTTDataGenerator(this, topic);
-    dataGeneratorListMap.get(topic).add(dataGenerator);
+    dataGeneratorTrie.add(topic, dataGenerator);
     return dataGenerator;
   }
 
+  /**
+   * Remove the closed DataGenerator, so that it does not receive messages anymore.
+   * @param topic the topic of the data generator
+   * @param dataGenerator data generator
+   */
+  void disconnectFromTopic(final String topic, final MQTTDataGenerator dataGenerator) {
+    dataGeneratorTrie.remove(topic, dataGenerator);
+  }
+
   /**
    * Start to subscribe a topic.
+   * The topic is subscribed only once even though multiple DataGenerators request it.
    */
   void subscribe(final String topic) throws MqttException {
     synchronized (subscribeLock) {
@@ -104,15 +128,78 @@ public final class MQTTSubscribeClient implements MqttCallback {
         client.setCallback(this);
         started = true;
       }
-      client.subscribe(topic, 0);
+      final int refCount = topicRefCounts.getOrDefault(topic, 0);
+      topicRefCounts.put(topic, refCount + 1);
+      if (refCount == 0) {
+        try {
+          updateBrokerSubscriptions();
+        } catch (final MqttException e) {
+          topicRefCounts.remove(topic);
+          throw e;
+        }
+      }
     }
   }
 
   /**
    * Unsubscribe a topic.
+   * The topic is unsubscribed when no DataGenerator subscribes it anymore.
    */
   void unsubscribe(final String topic) throws MqttException {
-    throw new UnsupportedOperationException("Unsubscribing is not supported now!");
+    synchronized (subscribeLock) {
+      final Integer refCount = topicRefCounts.get(topic);
+      if (refCount == null) {
+        return;
+      }
+      if (refCount > 1) {
+        topicRefCounts.put(topic, refCount - 1);
+      } else {
+        topicRefCounts.remove(topic);
+        updateBrokerSubscriptions();
+      }
+    }
+  }
+
+  /**
+   * Subscribe the topic filters that are not covered by other filters to the broker, and unsubscribe the others.
+   * The new filters are subscribed before the old ones are unsubscribed, so that no message is missed.
+   * This should be called with the subscribe lock.
+   */
+  private void updateBrokerSubscriptions() throws MqttException {
+    final Set<String> topics = new HashSet<>();
+    for (final String topic : topicRefCounts.keySet()) {
+      if (!isCovered(topic)) {
+        topics.add(topic);
+      }
+    }
+    for (final String topic : topics) {
+      if (!brokerTopics.contains(topic)) {
+        client.subscribe(topic, 0);
+        brokerTopics.add(topic);
+      }
+    }
+    final List<String> coveredTopics = new ArrayList<>(brokerTopics);
+    coveredTopics.removeAll(topics);
+    for (final String topic : coveredTopics) {
+      client.unsubscribe(topic);
+      brokerTopics.remove(topic);
+    }
+  }
+
+  /**
+   * Check whether the topic filter is covered by another subscribed filter.
+   * Of the filters covering each other (e.g., # and +/#), the smallest one in lexicographic order is not covered.
+   * @param topic topic filter
+   * @return true if the topic filter does not have to be subscribed to the broker
+   */
+  private boolean isCovered(final String topic) {
+    for (final String other : topicRefCounts.keySet()) {
+      if (!other.equals(topic) && MQTTTopicTrie.covers(other, topic)
+          && (!MQTTTopicTrie.covers(topic, other) || other.compareTo(topic) < 0)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
@@ -129,10 +216,9 @@ public final class MQTTSubscribeClient implements MqttCallback {
 
   @Override
   public void messageArrived(final String topic, final MqttMessage message) {
-    final Queue<MQTTDataGenerator> dataGeneratorList = dataGeneratorListMap.get(topic);
-    if (dataGeneratorList != null) {
-      dataGeneratorList.forEach(dataGenerator -> dataGenerator.emitData(message));
-    }
+    // The arrival time is taken once and shared by all the subscribers of the topic
+    final long arrivalTimestamp = System.currentTimeMillis();
+    dataGeneratorTrie.forEachMatch(topic, dataGenerator -> dataGenerator.emitData(message, arrivalTimestamp));
   }
 
   @Override
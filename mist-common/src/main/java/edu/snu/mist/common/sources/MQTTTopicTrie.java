@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.sources;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * This class is a trie of MQTT topic filters, where each node represents a level of the topic.
+ * It finds the values of all the topic filters that match a topic name,
+ * including the filters that have the single-level (+) and multi-level (#) wildcards.
+ * Lookups can be done concurrently with insertions and deletions.
+ * @param <V> value type
+ */
+final class MQTTTopicTrie<V> {
+
+  /**
+   * The separator of topic levels.
+   */
+  private static final String LEVEL_SEPARATOR = "/";
+
+  /**
+   * The single-level wildcard.
+   */
+  private static final String SINGLE_LEVEL_WILDCARD = "+";
+
+  /**
+   * The multi-level wildcard.
+   */
+  private static final String MULTI_LEVEL_WILDCARD = "#";
+
+  /**
+   * The root node.
+   */
+  private final Node<V> root;
+
+  MQTTTopicTrie() {
+    this.root = new Node<>();
+  }
+
+  /**
+   * Adds the value of the topic filter.
+   * @param topicFilter topic filter
+   * @param value value
+   */
+  void add(final String topicFilter, final V value) {
+    Node<V> node = root;
+    for (final String level : topicFilter.split(LEVEL_SEPARATOR, -1)) {
+      node = node.children.computeIfAbsent(level, k -> new Node<>());
+    }
+    node.values.add(value);
+  }
+
+  /**
+   * Removes the value of the topic filter.
+   * The nodes are not pruned, because the topics of the sources are usually re-subscribed.
+   * @param topicFilter topic filter
+   * @param value value
+   * @return true if the value is removed
+   */
+  boolean remove(final String topicFilter, final V value) {
+    Node<V> node = root;
+    for (final String level : topicFilter.split(LEVEL_SEPARATOR, -1)) {
+      node = node.children.get(level);
+      if (node == null) {
+        return false;
+      }
+    }
+    return node.values.remove(value);
+  }
+
+  /**
+   * Checks whether a topic filter matches all the topic names that the other topic filter matches.
+   * @param topicFilter topic filter
+   * @param otherTopicFilter the other topic filter
+   * @return true if the topic filter covers the other topic filter
+   */
+  static boolean covers(final String topicFilter, final String otherTopicFilter) {
+    final String[] levels = topicFilter.split(LEVEL_SEPARATOR, -1);
+    final String[] otherLevels = otherTopicFilter.split(LEVEL_SEPARATOR, -1);
+    for (int i = 0; i < levels.length; i++) {
+      final boolean isWildcard = levels[i].equals(MULTI_LEVEL_WILDCARD) || levels[i].equals(SINGLE_LEVEL_WILDCARD);
+      if (isWildcard && i == 0 && otherLevels[0].startsWith("$")) {
+        // The topics starting with $ are not matched by the wildcards at the first level
+        return false;
+      }
+      if (levels[i].equals(MULTI_LEVEL_WILDCARD)) {
+        // The multi-level wildcard also matches the parent level
+        return true;
+      }
+      if (i == otherLevels.length) {
+        return false;
+      }
+      if (levels[i].equals(SINGLE_LEVEL_WILDCARD)) {
+        if (otherLevels[i].equals(MULTI_LEVEL_WILDCARD)) {
+          // +/# matches the topic names of # at this level, because # also matches the parent level
+          return i + 2 == levels.length && levels[i + 1].equals(MULTI_LEVEL_WILDCARD);
+        }
+      } else if (!levels[i].equals(otherLevels[i])) {
+        return false;
+      }
+    }
+    return levels.length == otherLevels.length;
+  }
+
+  /**
+   * Applies the consumer to the values of all the topic filters that match the topic name.
+   * @param topicName topic name of a message
+   * @param consumer consumer
+   */
+  void forEachMatch(final String topicName, final Consumer<V> consumer) {
+    match(root, topicName.split(LEVEL_SEPARATOR, -1), 0, consumer);
+  }
+
+  private void match(final Node<V> node,
+                     final String[] levels,
+                     final int index,
+                     final Consumer<V> consumer) {
+    // The topics starting with $ are not matched by the wildcards at the first level
+    final boolean wildcardAllowed = index > 0 || !levels[0].startsWith("$");
+    if (wildcardAllowed) {
+      // The multi-level wildcard also matches the parent level
+      final Node<V> multiLevelNode = node.children.get(MULTI_LEVEL_WILDCARD);
+      if (multiLevelNode != null) {
+        multiLevelNode.values.forEach(consumer);
+      }
+    }
+
+    if (index == levels.length) {
+      node.values.forEach(consumer);
+      return;
+    }
+
+    final Node<V> child = node.children.get(levels[index]);
+    if (child != null) {
+      match(child, levels, index + 1, consumer);
+    }
+    if (wildcardAllowed) {
+      final Node<V> singleLevelNode = node.children.get(SINGLE_LEVEL_WILDCARD);
+      if (singleLevelNode != null) {
+        match(singleLevelNode, levels, index + 1, consumer);
+      }
+    }
+  }
+
+  /**
+   * A node of the trie.
+   */
+  private static final class Node<V> {
+    private final ConcurrentMap<String, Node<V>> children = new ConcurrentHashMap<>();
+    private final Queue<V> values = new ConcurrentLinkedQueue<>();
+  }
+}
@@ -17,22 +17,19 @@ package edu.snu.mist.common.sources;
 
 import edu.snu.mist.common.parameters.SocketServerIp;
 import edu.snu.mist.common.parameters.SocketServerPort;
+import edu.snu.mist.common.shared.NettySharedChannel;
 import edu.snu.mist.common.shared.NettySharedResource;
-import io.netty.bootstrap.Bootstrap;
-import io.netty.channel.Channel;
-import io.netty.channel.ChannelFuture;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.EventHandler;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.net.InetSocketAddress;
-import java.net.SocketAddress;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class receives text data stream via Netty.
+ * The data generators connecting to the same server can share a channel,
+ * which demultiplexes the received lines to all of them.
  */
 public final class NettyTextDataGenerator implements DataGenerator<String> {
 
@@ -42,24 +39,34 @@ public final class NettyTextDataGenerator implements DataGenerator<String> {
   private final AtomicBoolean started;
 
   /**
-   * Map of netty channel and data stream handler.
+   * Paused to receive data stream.
    */
-  private final ConcurrentMap<Channel, EventHandler<String>> channelMap;
+  private final AtomicBoolean paused;
 
   /**
-   * Netty client bootstrap.
+   * Netty shared resource.
    */
-  private final Bootstrap clientBootstrap;
+  private final NettySharedResource resource;
 
   /**
-   * Socket address for data stream server.
+   * Server address for data stream server.
    */
-  private final SocketAddress serverSocketAddress;
+  private final String serverAddr;
+
+  /**
+   * Server port for data stream server.
+   */
+  private final int port;
+
+  /**
+   * The handler of received lines.
+   */
+  private final EventHandler<String> dataHandler;
 
   /**
    * Netty channel.
    */
-  private Channel channel;
+  private NettySharedChannel channel;
 
   /**
    * Event generator which is the destination of fetching data.
@@ -71,38 +78,63 @@ public final class NettyTextDataGenerator implements DataGenerator<String> {
       @Parameter(SocketServerIp.class) final String serverAddr,
       @Parameter(SocketServerPort.class) final int port,
       final NettySharedResource resource) throws IOException {
-    this.clientBootstrap = resource.getClientBootstrap();
-    this.channelMap = resource.getChannelMap();
+    this.resource = resource;
     this.started = new AtomicBoolean(false);
-    this.serverSocketAddress = new InetSocketAddress(serverAddr, port);
+    this.paused = new AtomicBoolean(false);
+    this.serverAddr = serverAddr;
+    this.port = port;
+    this.dataHandler = (input) -> eventGenerator.emitData(input);
   }
 
   @Override
   public void start() {
     if (started.compareAndSet(false, true)) {
       if (eventGenerator != null) {
-        // register the data stream handler
-        final ChannelFuture channelFuture;
-        channelFuture = clientBootstrap.connect(serverSocketAddress);
-        channelFuture.awaitUninterruptibly();
-        assert channelFuture.isDone();
-        if (!channelFuture.isSuccess()) {
-          final StringBuilder sb = new StringBuilder("A connection failed at Source - ");
-          sb.append(channelFuture.cause());
-          throw new RuntimeException(sb.toString());
+        // register the data stream handler after the shared connection is established
+        try {
+          channel = resource.getSourceChannel(serverAddr, port);
+        } catch (final IOException e) {
+          started.set(false);
+          throw new RuntimeException("A connection failed at Source - " + e.getCause(), e);
         }
-        channel = channelFuture.channel();
-        channelMap.putIfAbsent(channel, (input) ->
-            eventGenerator.emitData(input));
+        channel.addHandler(dataHandler);
       }
     }
   }
 
+  @Override
+  public void pause() {
+    if (channel != null && paused.compareAndSet(false, true)) {
+      // Stop reading from the socket, so that the tcp flow control slows down the server
+      channel.pause();
+    }
+  }
+
+  @Override
+  public void resume() {
+    if (channel != null && paused.compareAndSet(true, false)) {
+      channel.resume();
+    }
+  }
+
+  /**
+   * The data are emitted in the event loop of the netty shared resource.
+   */
+  @Override
+  public boolean isSharedThread() {
+    return true;
+  }
+
   @Override
   public void close() throws Exception {
     if (channel != null) {
-      channelMap.remove(channel);
-      channel.close();
+      channel.removeHandler(dataHandler);
+      if (paused.compareAndSet(true, false)) {
+        // Do not block the other data generators sharing the channel
+        channel.resume();
+      }
+      resource.releaseSourceChannel(channel);
+      channel = null;
     }
   }
 
@@ -120,4 +120,12 @@ public final class PeriodicEventGenerator<I, V> extends EventGeneratorImpl<I, V>
       outputEmitter.emitData(newInputEvent);
     }
   }
+
+  @Override
+  public void emitData(final I input, final long arrivalTimestamp) {
+    final MistDataEvent newInputEvent = generateEvent(input, arrivalTimestamp);
+    if (newInputEvent != null) {
+      outputEmitter.emitData(newInputEvent);
+    }
+  }
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.sources;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class is a KafkaConsumer shared by the KafkaDataGenerators that read the same topic with the same configuration.
+ * It polls the topic in a single thread of the shared executor service,
+ * and dispatches each record to all the registered data generators.
+ * The partitions are paused while any of the data generators is paused,
+ * so the slowest data generator decides the fetch rate of the shared consumer.
+ * The KafkaConsumer is constructed when the first data generator subscribes,
+ * so that the failure of the construction is reported to the data generator.
+ * @param <K> the type of kafka record's key
+ * @param <V> the type of kafka record's value
+ */
+public final class SharedKafkaConsumer<K, V> implements AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(SharedKafkaConsumer.class.getName());
+
+  /**
+   * The kafka topic to monitor.
+   */
+  private final String topic;
+
+  /**
+   * The KafkaConsumer configuration.
+   */
+  private final Map<String, Object> kafkaConsumerConf;
+
+  /**
+   * The timeout for consumer polling represented in milliseconds.
+   */
+  private final int pollTimeout;
+
+  /**
+   * The executor service that runs the polling loop.
+   */
+  private final ExecutorService executorService;
+
+  /**
+   * The data generators which are the destination of fetched records.
+   */
+  private final List<KafkaDataGenerator<K, V>> subscribers;
+
+  /**
+   * A flag for start.
+   */
+  private boolean started;
+
+  /**
+   * A flag for close. It is also set when the polling loop fails.
+   */
+  private volatile boolean closed;
+
+  public SharedKafkaConsumer(final String topic,
+                             final Map<String, Object> kafkaConsumerConf,
+                             final int pollTimeout,
+                             final ExecutorService executorService) {
+    this.topic = topic;
+    this.kafkaConsumerConf = kafkaConsumerConf;
+    this.pollTimeout = pollTimeout;
+    this.executorService = executorService;
+    this.subscribers = new CopyOnWriteArrayList<>();
+    this.started = false;
+    this.closed = false;
+  }
+
+  /**
+   * Add the data generator to the subscribers, and start polling if it is the first one.
+   * @param dataGenerator data generator
+   * @throws org.apache.kafka.common.KafkaException if the KafkaConsumer cannot be constructed
+   */
+  public synchronized void addSubscriber(final KafkaDataGenerator<K, V> dataGenerator) {
+    if (!started) {
+      // TODO: [MIST-355] support topic having multiple partitions in kafka source
+      final KafkaConsumer<K, V> consumer = new KafkaConsumer<>(kafkaConsumerConf);
+      try {
+        consumer.subscribe(Collections.singletonList(topic));
+      } catch (final RuntimeException e) {
+        consumer.close();
+        throw e;
+      }
+      started = true;
+      executorService.submit(() -> poll(consumer));
+    }
+    subscribers.add(dataGenerator);
+  }
+
+  /**
+   * Remove the data generator from the subscribers.
+   * @param dataGenerator data generator
+   * @return true if the data generator was the last subscriber
+   */
+  public synchronized boolean removeSubscriber(final KafkaDataGenerator<K, V> dataGenerator) {
+    return subscribers.remove(dataGenerator) && subscribers.isEmpty();
+  }
+
+  /**
+   * @return true if the consumer is closed or the polling loop has failed
+   */
+  public boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * @return the number of subscribers
+   */
+  public int getNumSubscribers() {
+    return subscribers.size();
+  }
+
+  /**
+   * Polling loop that dispatches the records to the subscribers.
+   * @param consumer the consumer subscribing the topic
+   */
+  private void poll(final KafkaConsumer<K, V> consumer) {
+    try {
+      while (!closed) {
+        // KafkaConsumer is not thread-safe, so the partitions are paused and resumed in this thread.
+        // The paused consumer keeps polling to send heartbeats, but fetches no records.
+        if (isAnySubscriberPaused()) {
+          consumer.pause(consumer.assignment());
+        } else if (!consumer.paused().isEmpty()) {
+          consumer.resume(consumer.paused());
+        }
+        final ConsumerRecords<K, V> consumerRecords = consumer.poll(pollTimeout);
+        for (final ConsumerRecord<K, V> record : consumerRecords) {
+          for (final KafkaDataGenerator<K, V> subscriber : subscribers) {
+            subscriber.emitRecord(record);
+          }
+        }
+      }
+    } catch (final Exception e) {
+      LOG.log(Level.SEVERE, "Failed to poll kafka consumer for topic " + topic, e);
+    } finally {
+      // The failed consumer is replaced by a new one for the later subscribers
+      closed = true;
+      consumer.close();
+    }
+  }
+
+  private boolean isAnySubscriberPaused() {
+    for (final KafkaDataGenerator<K, V> subscriber : subscribers) {
+      if (subscriber.isPaused()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.sources;
+
+import edu.snu.mist.common.MistDataEvent;
+import edu.snu.mist.common.MistWatermarkEvent;
+import edu.snu.mist.common.SerializeUtils;
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.parameters.PeriodicWatermarkDelay;
+import edu.snu.mist.common.parameters.PeriodicWatermarkPeriod;
+import edu.snu.mist.common.parameters.SerializedTimestampExtractUdf;
+import org.apache.reef.io.Tuple;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.IOException;
+
+/**
+ * This class represents the watermark source that emits watermark periodically.
+ * Different from PeriodicEventGenerator, it does not schedule its own task,
+ * but registers itself to the shared WatermarkTimerWheel that emits the watermarks.
+ * The period and expected delay are in milliseconds.
+ */
+public final class TimerWheelEventGenerator<I, V> extends EventGeneratorImpl<I, V> {
+
+  /**
+   * The period of watermark emission.
+   */
+  private final long period;
+
+  /**
+   * The expected delay between the time that the data is created and processed.
+   */
+  private final long expectedDelay;
+
+  /**
+   * The timer wheel for periodic watermark emission.
+   */
+  private final WatermarkTimerWheel timerWheel;
+
+  @Inject
+  private TimerWheelEventGenerator(
+      @Parameter(SerializedTimestampExtractUdf.class) final String extractFuncObj,
+      @Parameter(PeriodicWatermarkPeriod.class) final long period,
+      @Parameter(PeriodicWatermarkDelay.class) final long delay,
+      final ClassLoader classLoader,
+      final WatermarkTimerWheel timerWheel) throws IOException, ClassNotFoundException {
+    this(SerializeUtils.deserializeFromString(extractFuncObj, classLoader),
+        period, delay, timerWheel);
+  }
+
+  @Inject
+  public TimerWheelEventGenerator(@Parameter(PeriodicWatermarkPeriod.class) final long period,
+                                  @Parameter(PeriodicWatermarkDelay.class) final long expectedDelay,
+                                  final WatermarkTimerWheel timerWheel) {
+    this(null, period, expectedDelay, timerWheel);
+  }
+
+  @Inject
+  public TimerWheelEventGenerator(final MISTFunction<I, Tuple<V, Long>> extractTimestampFunc,
+                                  @Parameter(PeriodicWatermarkPeriod.class) final long period,
+                                  @Parameter(PeriodicWatermarkDelay.class) final long expectedDelay,
+                                  final WatermarkTimerWheel timerWheel) {
+    super(extractTimestampFunc);
+    if (period <= 0L || expectedDelay < 0L) {
+      throw new RuntimeException("The period " + period + " should be larger than 0," +
+          " and expected delay " + expectedDelay + " should be equal or larger than 0");
+    }
+    this.period = period;
+    this.expectedDelay = expectedDelay;
+    this.timerWheel = timerWheel;
+  }
+
+  @Override
+  protected void startRemain() {
+    timerWheel.register(this, period, expectedDelay);
+  }
+
+  /**
+   * Emits the watermark that is created by the timer wheel.
+   * @param watermark watermark
+   */
+  void emitWatermark(final MistWatermarkEvent watermark) {
+    latestWatermarkTimestamp = watermark.getTimestamp();
+    outputEmitter.emitWatermark(watermark);
+  }
+
+  @Override
+  public void close() {
+    timerWheel.unregister(this, period, expectedDelay);
+  }
+
+  @Override
+  public void emitData(final I input) {
+    MistDataEvent newInputEvent = generateEvent(input);
+    if (newInputEvent != null) {
+      outputEmitter.emitData(newInputEvent);
+    }
+  }
+
+  @Override
+  public void emitData(final I input, final long arrivalTimestamp) {
+    final MistDataEvent newInputEvent = generateEvent(input, arrivalTimestamp);
+    if (newInputEvent != null) {
+      outputEmitter.emitData(newInputEvent);
+    }
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.sources;
+
+import edu.snu.mist.common.MistWatermarkEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class is a task-wide hashed timer wheel that emits periodic watermarks.
+ * The event generators that have the same watermark period and expected delay are coalesced into one timer,
+ * so the wheel holds one entry per distinct (period, delay) pair instead of one entry per source.
+ * When a timer expires, a single watermark event is created and emitted to all the event generators of the timer.
+ * The wheel is driven by a single fixed-rate task on the given scheduler.
+ */
+public final class WatermarkTimerWheel implements AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(WatermarkTimerWheel.class.getName());
+
+  /**
+   * The duration of a tick in milliseconds.
+   */
+  private final long tickDuration;
+
+  /**
+   * The buckets of the wheel.
+   */
+  private final List<List<WatermarkTimer>> wheel;
+
+  /**
+   * The mask for calculating the bucket index of a tick.
+   */
+  private final int mask;
+
+  /**
+   * The timers that have the same period and expected delay.
+   */
+  private final Map<TimerKey, WatermarkTimer> timers;
+
+  /**
+   * The result of the tick task.
+   */
+  private final ScheduledFuture result;
+
+  /**
+   * The number of ticks elapsed so far.
+   * This is only accessed in the synchronized blocks.
+   */
+  private long currentTick;
+
+  /**
+   * @param scheduler scheduler that drives the ticks of the wheel
+   * @param tickDuration the duration of a tick in milliseconds
+   * @param wheelSize the number of buckets, which is rounded up to a power of two
+   */
+  public WatermarkTimerWheel(final ScheduledExecutorService scheduler,
+                             final long tickDuration,
+                             final int wheelSize) {
+    if (tickDuration <= 0L || wheelSize <= 0) {
+      throw new IllegalArgumentException("The tick duration " + tickDuration + " and the wheel size "
+          + wheelSize + " should be larger than 0");
+    }
+    this.tickDuration = tickDuration;
+    final int numBuckets = Integer.highestOneBit(wheelSize) == wheelSize
+        ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+    this.wheel = new ArrayList<>(numBuckets);
+    for (int i = 0; i < numBuckets; i++) {
+      wheel.add(new LinkedList<>());
+    }
+    this.mask = numBuckets - 1;
+    this.timers = new HashMap<>();
+    this.currentTick = 0L;
+    this.result = scheduler.scheduleAtFixedRate(this::tick, tickDuration, tickDuration, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Registers the event generator to the timer of the period and expected delay.
+   * A new timer is inserted into the wheel if there is no timer that has the same period and delay.
+   * @param eventGenerator event generator
+   * @param period watermark period in milliseconds
+   * @param expectedDelay expected delay in milliseconds
+   */
+  synchronized void register(final TimerWheelEventGenerator eventGenerator,
+                             final long period,
+                             final long expectedDelay) {
+    final TimerKey key = new TimerKey(period, expectedDelay);
+    WatermarkTimer timer = timers.get(key);
+    if (timer == null) {
+      timer = new WatermarkTimer(key, Math.max(1L, (period + tickDuration - 1) / tickDuration));
+      timer.deadline = currentTick + timer.periodTicks;
+      timers.put(key, timer);
+      insert(timer);
+    }
+    timer.eventGenerators.add(eventGenerator);
+  }
+
+  /**
+   * Unregisters the event generator.
+   * The timer is removed from the wheel at its next expiration if it does not have any event generator.
+   * @param eventGenerator event generator
+   * @param period watermark period in milliseconds
+   * @param expectedDelay expected delay in milliseconds
+   */
+  synchronized void unregister(final TimerWheelEventGenerator eventGenerator,
+                               final long period,
+                               final long expectedDelay) {
+    final WatermarkTimer timer = timers.get(new TimerKey(period, expectedDelay));
+    if (timer != null) {
+      timer.eventGenerators.remove(eventGenerator);
+    }
+  }
+
+  /**
+   * Gets the number of timers in the wheel.
+   * @return the number of timers
+   */
+  public synchronized int getNumTimers() {
+    return timers.size();
+  }
+
+  private void insert(final WatermarkTimer timer) {
+    wheel.get((int) (timer.deadline & mask)).add(timer);
+  }
+
+  /**
+   * Advances the wheel by one tick and emits watermarks for the expired timers.
+   */
+  private void tick() {
+    final List<WatermarkTimer> expired = new ArrayList<>();
+    synchronized (this) {
+      currentTick += 1;
+      final Iterator<WatermarkTimer> iterator = wheel.get((int) (currentTick & mask)).iterator();
+      while (iterator.hasNext()) {
+        final WatermarkTimer timer = iterator.next();
+        if (timer.deadline <= currentTick) {
+          iterator.remove();
+          if (timer.eventGenerators.isEmpty()) {
+            timers.remove(timer.key);
+          } else {
+            expired.add(timer);
+            timer.deadline += timer.periodTicks;
+            insert(timer);
+          }
+        }
+      }
+    }
+
+    if (!expired.isEmpty()) {
+      final long currentTimestamp = System.currentTimeMillis();
+      for (final WatermarkTimer timer : expired) {
+        // The watermark event is immutable, so it is shared by all the event generators of the timer
+        final MistWatermarkEvent watermark =
+            new MistWatermarkEvent(Math.max(0L, currentTimestamp - timer.key.expectedDelay));
+        for (final TimerWheelEventGenerator eventGenerator : timer.eventGenerators) {
+          try {
+            eventGenerator.emitWatermark(watermark);
+          } catch (final Exception e) {
+            // An exception of a source should not stop the watermarks of the other sources
+            LOG.log(Level.WARNING, "Failed to emit a watermark", e);
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    result.cancel(true);
+  }
+
+  /**
+   * The key of a timer.
+   */
+  private static final class TimerKey {
+    private final long period;
+    private final long expectedDelay;
+
+    TimerKey(final long period, final long expectedDelay) {
+      this.period = period;
+      this.expectedDelay = expectedDelay;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final TimerKey that = (TimerKey) o;
+      return period == that.period && expectedDelay == that.expectedDelay;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Long.hashCode(period) + Long.hashCode(expectedDelay);
+    }
+  }
+
+  /**
+   * A timer that emits watermarks to the event generators of the same period and expected delay.
+   */
+  private static final class WatermarkTimer {
+    private final TimerKey key;
+    private final long periodTicks;
+    private final Set<TimerWheelEventGenerator> eventGenerators;
+    private long deadline;
+
+    WatermarkTimer(final TimerKey key, final long periodTicks) {
+      this.key = key;
+      this.periodTicks = periodTicks;
+      this.eventGenerators = ConcurrentHashMap.newKeySet();
+    }
+  }
+}
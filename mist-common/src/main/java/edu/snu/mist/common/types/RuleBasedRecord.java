@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.types;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A record of rule-based queries, which stores the values of the fields in the slots of primitive arrays
+ * according to its RuleBasedSchema.
+ * It is a map from the field names to the boxed values, so it can be used as the input of
+ * the operators that take Map[String, Object], while the rule-based predicates compare the values
+ * of the fields by their positions without boxing them.
+ * The values are set by the typed setters when the record is parsed.
+ * The first modification through the Map interface copies the fields into a LinkedHashMap,
+ * which backs the record after that, so the record is compared with the boxed values from then on.
+ */
+public final class RuleBasedRecord extends AbstractMap<String, Object> implements Serializable {
+
+  private static final long[] EMPTY_LONGS = new long[0];
+  private static final double[] EMPTY_DOUBLES = new double[0];
+  private static final String[] EMPTY_STRINGS = new String[0];
+
+  private final RuleBasedSchema schema;
+  private final long[] longs;
+  private final double[] doubles;
+  private final String[] strings;
+
+  /**
+   * The copy of the fields, which is created by the first modification through the Map interface.
+   * It is null while the record is backed by the slots.
+   */
+  private Map<String, Object> modifiedFields;
+
+  public RuleBasedRecord(final RuleBasedSchema schema) {
+    this.schema = schema;
+    this.longs = schema.getNumLongs() == 0 ? EMPTY_LONGS : new long[schema.getNumLongs()];
+    this.doubles = schema.getNumDoubles() == 0 ? EMPTY_DOUBLES : new double[schema.getNumDoubles()];
+    this.strings = schema.getNumStrings() == 0 ? EMPTY_STRINGS : new String[schema.getNumStrings()];
+  }
+
+  public RuleBasedSchema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Set the value of an integer or long field.
+   * @param position position of the field
+   * @param value value
+   */
+  public void setLong(final int position, final long value) {
+    longs[schema.getSlot(position)] = value;
+  }
+
+  /**
+   * Set the value of a double field.
+   * @param position position of the field
+   * @param value value
+   */
+  public void setDouble(final int position, final double value) {
+    doubles[schema.getSlot(position)] = value;
+  }
+
+  /**
+   * Set the value of a string field.
+   * @param position position of the field
+   * @param value value
+   */
+  public void setString(final int position, final String value) {
+    strings[schema.getSlot(position)] = value;
+  }
+
+  /**
+   * Get the boxed value of the field.
+   * @param position position of the field
+   * @return the value, whose type is the type of the field in the schema
+   */
+  public Object getValue(final int position) {
+    if (modifiedFields != null) {
+      return modifiedFields.get(schema.getFieldName(position));
+    }
+    final Class<?> type = schema.getFieldType(position);
+    final int slot = schema.getSlot(position);
+    if (type == Integer.class) {
+      return (int) longs[slot];
+    } else if (type == Long.class) {
+      return longs[slot];
+    } else if (type == Double.class) {
+      return doubles[slot];
+    } else {
+      return strings[slot];
+    }
+  }
+
+  /**
+   * Compare the value of the field with the query object, without boxing the value of the field.
+   * It returns the same result as RuleBasedCCPredicate.ruleBasedCompare with the boxed value.
+   * @param position position of the field
+   * @param queryObj query object(compared object)
+   * @return the result of compare method of the type of the field
+   */
+  public int compare(final int position, final Object queryObj) {
+    if (modifiedFields != null) {
+      return compareBoxed(getValue(position), queryObj);
+    }
+    final Class<?> type = schema.getFieldType(position);
+    if (!type.equals(queryObj.getClass())) {
+      throw new IllegalArgumentException(
+          "Event object (" + type.toString() + ") and query object types (" +
+              queryObj.getClass().toString() + ") are different!");
+    }
+    final int slot = schema.getSlot(position);
+    if (type == Integer.class) {
+      return Integer.compare((int) longs[slot], (int) queryObj);
+    } else if (type == Long.class) {
+      return Long.compare(longs[slot], (long) queryObj);
+    } else if (type == Double.class) {
+      return Double.compare(doubles[slot], (double) queryObj);
+    } else {
+      return strings[slot].compareTo((String) queryObj);
+    }
+  }
+
+  /**
+   * Check whether the value of the field equals the query object, without boxing the value of the field.
+   * @param position position of the field
+   * @param queryObj query object(compared object)
+   * @return true if the boxed value of the field equals the query object
+   */
+  public boolean valueEquals(final int position, final Object queryObj) {
+    if (modifiedFields != null) {
+      return queryObj != null && queryObj.equals(getValue(position));
+    }
+    final Class<?> type = schema.getFieldType(position);
+    if (queryObj == null || !type.equals(queryObj.getClass())) {
+      return false;
+    }
+    final int slot = schema.getSlot(position);
+    if (type == Integer.class) {
+      return (int) longs[slot] == (int) queryObj;
+    } else if (type == Long.class) {
+      return longs[slot] == (long) queryObj;
+    } else if (type == Double.class) {
+      // Double.equals compares the bits of the values
+      return Double.doubleToLongBits(doubles[slot]) == Double.doubleToLongBits((double) queryObj);
+    } else {
+      return strings[slot].equals(queryObj);
+    }
+  }
+
+  /**
+   * Compare the boxed value of a modified field with the query object, as RuleBasedCCPredicate.ruleBasedCompare.
+   */
+  @SuppressWarnings("unchecked")
+  private static int compareBoxed(final Object eventObj, final Object queryObj) {
+    if (!eventObj.getClass().equals(queryObj.getClass())) {
+      throw new IllegalArgumentException(
+          "Event object (" + eventObj.getClass().toString() + ") and query object types (" +
+              queryObj.getClass().toString() + ") are different!");
+    }
+    return ((Comparable<Object>) eventObj).compareTo(queryObj);
+  }
+
+  /**
+   * Copy the fields into a LinkedHashMap on the first modification.
+   * @return the modifiable copy of the fields
+   */
+  private Map<String, Object> getModifiedFields() {
+    if (modifiedFields == null) {
+      modifiedFields = new LinkedHashMap<>(this);
+    }
+    return modifiedFields;
+  }
+
+  @Override
+  public Object put(final String key, final Object value) {
+    return getModifiedFields().put(key, value);
+  }
+
+  @Override
+  public Object remove(final Object key) {
+    return getModifiedFields().remove(key);
+  }
+
+  @Override
+  public void clear() {
+    getModifiedFields().clear();
+  }
+
+  @Override
+  public int size() {
+    return modifiedFields == null ? schema.getNumFieldNames() : modifiedFields.size();
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return modifiedFields == null ? schema.indexOf(key) >= 0 : modifiedFields.containsKey(key);
+  }
+
+  @Override
+  public Object get(final Object key) {
+    if (modifiedFields != null) {
+      return modifiedFields.get(key);
+    }
+    final int position = schema.indexOf(key);
+    return position < 0 ? null : getValue(position);
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    if (modifiedFields != null) {
+      return modifiedFields.entrySet();
+    }
+    return new AbstractSet<Entry<String, Object>>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        return new Iterator<Entry<String, Object>>() {
+          private int position = nextPosition(0);
+
+          @Override
+          public boolean hasNext() {
+            return position < schema.size();
+          }
+
+          @Override
+          public Entry<String, Object> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            final Entry<String, Object> entry =
+                new SimpleImmutableEntry<>(schema.getFieldName(position), getValue(position));
+            position = nextPosition(position + 1);
+            return entry;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return RuleBasedRecord.this.size();
+      }
+    };
+  }
+
+  /**
+   * Find the next position of a field that is not hidden by another field of the same name.
+   */
+  private int nextPosition(final int from) {
+    int position = from;
+    while (position < schema.size() && schema.indexOf(schema.getFieldName(position)) != position) {
+      position++;
+    }
+    return position;
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.types;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * The schema of the records of rule-based queries.
+ * It assigns each field a slot of the array for its type,
+ * so a RuleBasedRecord keeps the values in primitive arrays instead of a hash map of boxed values.
+ * The integer and long fields are stored in the long array, the double fields in the double array,
+ * and the string fields in the string array.
+ */
+public final class RuleBasedSchema implements Serializable {
+
+  /**
+   * The names of the fields in the declared order.
+   */
+  private final String[] fieldNames;
+
+  /**
+   * The types of the fields, which are Integer, Long, Double or String.
+   */
+  private final Class<?>[] fieldTypes;
+
+  /**
+   * The slot of each field in the array for its type.
+   */
+  private final int[] slots;
+
+  /**
+   * The positions of the fields, which have the field name as a key.
+   */
+  private final Map<String, Integer> positions;
+
+  private final int numLongs;
+  private final int numDoubles;
+  private final int numStrings;
+
+  /**
+   * Create a schema.
+   * @param fieldNames the names of the fields
+   * @param fieldTypes the types of the fields, which are Integer, Long, Double or String
+   */
+  public RuleBasedSchema(final List<String> fieldNames, final List<Class<?>> fieldTypes) {
+    if (fieldNames.size() != fieldTypes.size()) {
+      throw new IllegalArgumentException("The numbers of the field names and the field types are different!");
+    }
+    final int size = fieldNames.size();
+    this.fieldNames = fieldNames.toArray(new String[size]);
+    this.fieldTypes = fieldTypes.toArray(new Class<?>[size]);
+    this.slots = new int[size];
+    this.positions = new HashMap<>();
+    int longs = 0;
+    int doubles = 0;
+    int strings = 0;
+    for (int i = 0; i < size; i++) {
+      final Class<?> type = this.fieldTypes[i];
+      if (type == Integer.class || type == Long.class) {
+        slots[i] = longs++;
+      } else if (type == Double.class) {
+        slots[i] = doubles++;
+      } else if (type == String.class) {
+        slots[i] = strings++;
+      } else {
+        throw new IllegalArgumentException("The wrong type of field: " + type);
+      }
+      // The last field is used if the names are duplicated
+      positions.put(this.fieldNames[i], i);
+    }
+    this.numLongs = longs;
+    this.numDoubles = doubles;
+    this.numStrings = strings;
+  }
+
+  /**
+   * @return the number of the fields
+   */
+  public int size() {
+    return fieldNames.length;
+  }
+
+  /**
+   * @return the number of the distinct field names
+   */
+  int getNumFieldNames() {
+    return positions.size();
+  }
+
+  /**
+   * Find the position of the field.
+   * @param fieldName field name
+   * @return the position of the field, or -1 if the field does not exist
+   */
+  public int indexOf(final Object fieldName) {
+    final Integer position = positions.get(fieldName);
+    return position == null ? -1 : position;
+  }
+
+  public String getFieldName(final int position) {
+    return fieldNames[position];
+  }
+
+  public Class<?> getFieldType(final int position) {
+    return fieldTypes[position];
+  }
+
+  int getSlot(final int position) {
+    return slots[position];
+  }
+
+  int getNumLongs() {
+    return numLongs;
+  }
+
+  int getNumDoubles() {
+    return numDoubles;
+  }
+
+  int getNumStrings() {
+    return numStrings;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final RuleBasedSchema that = (RuleBasedSchema) o;
+    return Arrays.equals(fieldNames, that.fieldNames) && Arrays.equals(fieldTypes, that.fieldTypes);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(fieldNames) + Arrays.hashCode(fieldTypes);
+  }
+}
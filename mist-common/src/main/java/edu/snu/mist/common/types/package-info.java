@@ -14,6 +14,6 @@
  * limitations under the License.
  */
 /**
- * A package for Tuple interface.
+ * A package for Tuple interface, and the records of rule-based queries.
  */
 package edu.snu.mist.common.types;
\ No newline at end of file
@@ -23,8 +23,10 @@ import junit.framework.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 public final class GraphUtilsTest {
@@ -103,4 +105,29 @@ public final class GraphUtilsTest {
     srcDAG.addVertex(9);
     Assert.assertFalse(GraphUtils.compareTwoDag(srcDAG, dag2));
   }
+
+  /**
+   * Test whether GraphUtils.getConnectedComponents finds the components regardless of the edge direction.
+   */
+  @Test
+  public void testConnectedComponents() {
+    Assert.assertEquals(1, GraphUtils.getConnectedComponents(srcDAG).size());
+
+    // 8 -> 5 joins the component of 1 through the incoming edge of 5, and 9 -> 10 is a new component
+    srcDAG.addVertex(8); srcDAG.addVertex(9); srcDAG.addVertex(10);
+    srcDAG.addEdge(8, 5, Direction.LEFT);
+    srcDAG.addEdge(9, 10, Direction.LEFT);
+    List<Set<Integer>> components = GraphUtils.getConnectedComponents(srcDAG);
+    Assert.assertEquals(2, components.size());
+    Assert.assertTrue(components.contains(new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8))));
+    Assert.assertTrue(components.contains(new HashSet<>(Arrays.asList(9, 10))));
+
+    // Removing 2 splits 1 from 3 -> 6 -> 7 and 8 -> 5 <- 4
+    srcDAG.removeVertex(2);
+    components = GraphUtils.getConnectedComponents(srcDAG);
+    Assert.assertEquals(4, components.size());
+    Assert.assertTrue(components.contains(new HashSet<>(Arrays.asList(1))));
+    Assert.assertTrue(components.contains(new HashSet<>(Arrays.asList(3, 6, 7))));
+    Assert.assertTrue(components.contains(new HashSet<>(Arrays.asList(4, 5, 8))));
+  }
 }
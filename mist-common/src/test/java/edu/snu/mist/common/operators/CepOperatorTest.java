@@ -31,6 +31,8 @@ import java.util.Map;
 public class CepOperatorTest {
 
     private final MISTPredicate<CepExampleClass> conditionA = s -> s.getName().equals("A");
+    private final MISTPredicate<CepExampleClass> conditionB = s -> s.getName().equals("B");
+    private final MISTPredicate<CepExampleClass> conditionC = s -> s.getName().equals("C");
     private final Class exampleClassType = CepExampleClass.class;
     private final CepEventContiguity strictContiguity = CepEventContiguity.STRICT;
     private final CepEventContiguity ndrContiguity = CepEventContiguity.NON_DETERMINISTIC_RELAXED;
@@ -248,6 +250,68 @@ public class CepOperatorTest {
         Assert.assertEquals(4, a14.getAge());
     }
 
+    /**
+     * Test for keyed cep operator.
+     * Key: parity of the age
+     * Pattern: A --(Strict)-- A
+     * Input: A1, A2, A3, A4
+     * Result: A1-A3, A2-A4
+     */
+    @Test
+    public void testKeyedCepOperator() {
+        final CepEventPattern<CepExampleClass> event1 = new CepEventPattern.Builder<CepExampleClass>()
+                .setName("first")
+                .setCondition(conditionA)
+                .setClass(exampleClassType)
+                .setContiguity(strictContiguity)
+                .build();
+        final CepEventPattern<CepExampleClass> event2 = new CepEventPattern.Builder<CepExampleClass>()
+                .setName("second")
+                .setCondition(conditionA)
+                .setClass(exampleClassType)
+                .setContiguity(strictContiguity)
+                .build();
+        final long exampleWindowTime = 10L;
+
+        final List<CepEventPattern<CepExampleClass>> exampleEventSequence = new ArrayList<>();
+        exampleEventSequence.add(event1);
+        exampleEventSequence.add(event2);
+
+        final CepExampleClass value1 = new CepExampleClass("A", 1);
+        final CepExampleClass value2 = new CepExampleClass("A", 2);
+        final CepExampleClass value3 = new CepExampleClass("A", 3);
+        final CepExampleClass value4 = new CepExampleClass("A", 4);
+        final MistDataEvent data1 = new MistDataEvent(value1, 1L);
+        final MistDataEvent data2 = new MistDataEvent(value2, 2L);
+        final MistDataEvent data3 = new MistDataEvent(value3, 3L);
+        final MistDataEvent data4 = new MistDataEvent(value4, 4L);
+
+        final CepOperator<CepExampleClass> cepOperator =
+                new CepOperator<>(exampleEventSequence, exampleWindowTime, s -> s.getAge() % 2);
+        final List<MistEvent> result = new LinkedList<>();
+        cepOperator.setOutputEmitter(new OutputBufferEmitter(result));
+
+        cepOperator.processLeftData(data1);
+        cepOperator.processLeftData(data2);
+        cepOperator.processLeftData(data3);
+        cepOperator.processLeftData(data4);
+
+        // 2
+        Assert.assertEquals(2, result.size());
+
+        // A1-A3
+        final CepExampleClass a01 = getCepExampleClass(result, 0, "first", 0);
+        final CepExampleClass a03 = getCepExampleClass(result, 0, "second", 0);
+        Assert.assertEquals(1, a01.getAge());
+        Assert.assertEquals(3, a03.getAge());
+
+        // A2-A4
+        final CepExampleClass a12 = getCepExampleClass(result, 1, "first", 0);
+        final CepExampleClass a14 = getCepExampleClass(result, 1, "second", 0);
+        Assert.assertEquals(2, a12.getAge());
+        Assert.assertEquals(4, a14.getAge());
+    }
+
     /**
      * Test for cep operator with both strict & non-deterministic contiguity.
      * Pattern: A --(Strict)-- A --(NDR) -- A
@@ -371,4 +435,168 @@ public class CepOperatorTest {
         Assert.assertEquals("A", a55.getName());
         Assert.assertEquals(5, a55.getAge());
     }
+
+    /**
+     * Test for cep operator whose runs share a common prefix.
+     * Pattern: A --(Strict)-- B --(NDR)-- C
+     * Input: A1, B2, C3, C4
+     * Result: A1-B2-C3, A1-B2-C4
+     */
+    @Test
+    public void testCepOperatorSharedPrefix() {
+        final CepEventPattern<CepExampleClass> event1 = new CepEventPattern.Builder<CepExampleClass>()
+                .setName("first")
+                .setCondition(conditionA)
+                .setClass(exampleClassType)
+                .setContiguity(strictContiguity)
+                .build();
+        final CepEventPattern<CepExampleClass> event2 = new CepEventPattern.Builder<CepExampleClass>()
+                .setName("second")
+                .setCondition(conditionB)
+                .setClass(exampleClassType)
+                .setContiguity(strictContiguity)
+                .build();
+        final CepEventPattern<CepExampleClass> event3 = new CepEventPattern.Builder<CepExampleClass>()
+                .setName("third")
+                .setCondition(conditionC)
+                .setClass(exampleClassType)
+                .setContiguity(ndrContiguity)
+                .build();
+        final long exampleWindowTime = 1000L;
+
+        final List<CepEventPattern<CepExampleClass>> exampleEventSequence = new ArrayList<>();
+        exampleEventSequence.add(event1);
+        exampleEventSequence.add(event2);
+        exampleEventSequence.add(event3);
+
+        final MistDataEvent data1 = new MistDataEvent(new CepExampleClass("A", 1), 1L);
+        final MistDataEvent data2 = new MistDataEvent(new CepExampleClass("B", 2), 2L);
+        final MistDataEvent data3 = new MistDataEvent(new CepExampleClass("C", 3), 3L);
+        final MistDataEvent data4 = new MistDataEvent(new CepExampleClass("C", 4), 4L);
+
+        final CepOperator<CepExampleClass> cepOperator = new CepOperator<>(exampleEventSequence, exampleWindowTime);
+        final List<MistEvent> result = new LinkedList<>();
+        cepOperator.setOutputEmitter(new OutputBufferEmitter(result));
+
+        cepOperator.processLeftData(data1);
+        cepOperator.processLeftData(data2);
+        cepOperator.processLeftData(data3);
+        cepOperator.processLeftData(data4);
+
+        // 2
+        Assert.assertEquals(2, result.size());
+
+        // A1-B2-C3
+        Assert.assertEquals(1, getCepExampleClass(result, 0, "first", 0).getAge());
+        Assert.assertEquals(2, getCepExampleClass(result, 0, "second", 0).getAge());
+        Assert.assertEquals(3, getCepExampleClass(result, 0, "third", 0).getAge());
+
+        // A1-B2-C4, whose prefix is not changed by the former match
+        Assert.assertEquals(1, getCepExampleClass(result, 1, "first", 0).getAge());
+        Assert.assertEquals(2, getCepExampleClass(result, 1, "second", 0).getAge());
+        Assert.assertEquals(4, getCepExampleClass(result, 1, "third", 0).getAge());
+    }
+
+    /**
+     * Test for cep operator which discards the timed-out runs.
+     * Window time: 10L
+     * Pattern: A --(NDR)-- B
+     * Input: A1(1L), A2(5L), B3(12L), B4(20L)
+     * Result: A2-B3
+     */
+    @Test
+    public void testCepOperatorDiscardTimedOutRuns() {
+        final CepEventPattern<CepExampleClass> event1 = new CepEventPattern.Builder<CepExampleClass>()
+                .setName("first")
+                .setCondition(conditionA)
+                .setClass(exampleClassType)
+                .setContiguity(strictContiguity)
+                .build();
+        final CepEventPattern<CepExampleClass> event2 = new CepEventPattern.Builder<CepExampleClass>()
+                .setName("second")
+                .setCondition(conditionB)
+                .setClass(exampleClassType)
+                .setContiguity(ndrContiguity)
+                .build();
+        final long exampleWindowTime = 10L;
+
+        final List<CepEventPattern<CepExampleClass>> exampleEventSequence = new ArrayList<>();
+        exampleEventSequence.add(event1);
+        exampleEventSequence.add(event2);
+
+        final MistDataEvent data1 = new MistDataEvent(new CepExampleClass("A", 1), 1L);
+        final MistDataEvent data2 = new MistDataEvent(new CepExampleClass("A", 2), 5L);
+        final MistDataEvent data3 = new MistDataEvent(new CepExampleClass("B", 3), 12L);
+        final MistDataEvent data4 = new MistDataEvent(new CepExampleClass("B", 4), 20L);
+
+        final CepOperator<CepExampleClass> cepOperator = new CepOperator<>(exampleEventSequence, exampleWindowTime);
+        final List<MistEvent> result = new LinkedList<>();
+        cepOperator.setOutputEmitter(new OutputBufferEmitter(result));
+
+        cepOperator.processLeftData(data1);
+        cepOperator.processLeftData(data2);
+        cepOperator.processLeftData(data3);
+        cepOperator.processLeftData(data4);
+
+        // A1 is timed out at B3, and A2 is timed out at B4
+        Assert.assertEquals(1, result.size());
+
+        // A2-B3
+        Assert.assertEquals(2, getCepExampleClass(result, 0, "first", 0).getAge());
+        Assert.assertEquals(3, getCepExampleClass(result, 0, "second", 0).getAge());
+    }
+
+    /**
+     * Test for keyed cep operator whose strict contiguity is not broken by the events of other keys.
+     * Key: the tens digit of the age
+     * Pattern: A --(Strict)-- B
+     * Input: A11, A21, B12, B22
+     * Result: A11-B12, A21-B22
+     */
+    @Test
+    public void testKeyedCepOperatorIsolation() {
+        final CepEventPattern<CepExampleClass> event1 = new CepEventPattern.Builder<CepExampleClass>()
+                .setName("first")
+                .setCondition(conditionA)
+                .setClass(exampleClassType)
+                .setContiguity(strictContiguity)
+                .build();
+        final CepEventPattern<CepExampleClass> event2 = new CepEventPattern.Builder<CepExampleClass>()
+                .setName("second")
+                .setCondition(conditionB)
+                .setClass(exampleClassType)
+                .setContiguity(strictContiguity)
+                .build();
+        final long exampleWindowTime = 10L;
+
+        final List<CepEventPattern<CepExampleClass>> exampleEventSequence = new ArrayList<>();
+        exampleEventSequence.add(event1);
+        exampleEventSequence.add(event2);
+
+        final MistDataEvent data1 = new MistDataEvent(new CepExampleClass("A", 11), 1L);
+        final MistDataEvent data2 = new MistDataEvent(new CepExampleClass("A", 21), 2L);
+        final MistDataEvent data3 = new MistDataEvent(new CepExampleClass("B", 12), 3L);
+        final MistDataEvent data4 = new MistDataEvent(new CepExampleClass("B", 22), 4L);
+
+        final CepOperator<CepExampleClass> cepOperator =
+                new CepOperator<>(exampleEventSequence, exampleWindowTime, s -> s.getAge() / 10);
+        final List<MistEvent> result = new LinkedList<>();
+        cepOperator.setOutputEmitter(new OutputBufferEmitter(result));
+
+        cepOperator.processLeftData(data1);
+        cepOperator.processLeftData(data2);
+        cepOperator.processLeftData(data3);
+        cepOperator.processLeftData(data4);
+
+        // 2
+        Assert.assertEquals(2, result.size());
+
+        // A11-B12
+        Assert.assertEquals(11, getCepExampleClass(result, 0, "first", 0).getAge());
+        Assert.assertEquals(12, getCepExampleClass(result, 0, "second", 0).getAge());
+
+        // A21-B22
+        Assert.assertEquals(21, getCepExampleClass(result, 1, "first", 0).getAge());
+        Assert.assertEquals(22, getCepExampleClass(result, 1, "second", 0).getAge());
+    }
 }
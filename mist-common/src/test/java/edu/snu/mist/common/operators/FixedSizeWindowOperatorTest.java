@@ -445,4 +445,112 @@ public final class FixedSizeWindowOperatorTest {
     checkWindowData(result.get(2), expectedResult2, emissionInterval + 1L, windowSize, d8.getTimestamp());
     Assert.assertEquals(w3, result.get(3));
   }
+
+  /**
+   * Test sliced TimeWindowOperator and CountWindowOperator.
+   * They should emit the same windows with the non-sliced operators with the same inputs.
+   */
+  @Test
+  public void testSlicedWindowOperator() throws InterruptedException {
+    final List<MistEvent> timeInputs = Arrays.asList(d1, d2, d3, w1, d4, w2, d5, w3, d10, w4);
+    assertSameOutputs(timeInputs, new TimeWindowOperator<>(500, 250), new TimeWindowOperator<>(500, 250, true));
+    assertSameOutputs(timeInputs, new TimeWindowOperator<>(1000, 400), new TimeWindowOperator<>(1000, 400, true));
+
+    final List<MistEvent> countInputs = Arrays.asList(d1, d2, d3, d4, w1, d5, d6, d7, w2, d8, d9, d10);
+    assertSameOutputs(countInputs, new CountWindowOperator<>(5, 3), new CountWindowOperator<>(5, 3, true));
+    assertSameOutputs(countInputs, new CountWindowOperator<>(4, 2), new CountWindowOperator<>(4, 2, true));
+  }
+
+  /**
+   * Test getting and setting state of the sliced TimeWindowOperator.
+   * The sliced operator stores each input only once in a pane.
+   */
+  @Test
+  public void testSlicedTimeWindowOperatorState() throws InterruptedException {
+    final int windowSize = 500;
+    final int emissionInterval = 250;
+
+    final TimeWindowOperator<Integer> timeWindowOperator =
+        new TimeWindowOperator<>(windowSize, emissionInterval, true);
+    timeWindowOperator.setOutputEmitter(new OutputBufferEmitter(new LinkedList<>()));
+    timeWindowOperator.processLeftData(d1);
+    timeWindowOperator.processLeftData(d2);
+
+    // Two panes of 250 are created: [1000, 1249] and [1250, 1499]
+    final Map<String, Object> operatorState = timeWindowOperator.getOperatorState();
+    final Queue<Window<Integer>> paneQueue = (Queue<Window<Integer>>)operatorState.get("windowQueue");
+    Assert.assertEquals(2, paneQueue.size());
+    for (final Window<Integer> pane : paneQueue) {
+      Assert.assertEquals(1, pane.getDataCollection().size());
+    }
+
+    // A new operator with the state should emit the same windows
+    final TimeWindowOperator<Integer> newTimeWindowOperator =
+        new TimeWindowOperator<>(windowSize, emissionInterval, true);
+    newTimeWindowOperator.setState(operatorState);
+    final List<MistEvent> result = new LinkedList<>();
+    newTimeWindowOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    newTimeWindowOperator.processLeftData(d3);
+    newTimeWindowOperator.processLeftData(d4);
+    Assert.assertEquals(2, result.size());
+    checkWindowData(result.get(0), Arrays.asList(1, 2), d1.getTimestamp(), windowSize, d2.getTimestamp());
+    checkWindowData(result.get(1), Arrays.asList(2, 3),
+        d1.getTimestamp() + emissionInterval, windowSize, d3.getTimestamp());
+  }
+
+  /**
+   * Test setting the state saved by a non-sliced TimeWindowOperator to a sliced TimeWindowOperator.
+   * The sliced operator should restore the windows and emit the same windows with the non-sliced operator.
+   */
+  @Test
+  public void testSlicedTimeWindowOperatorWithNonSlicedState() throws InterruptedException {
+    final int windowSize = 500;
+    final int emissionInterval = 250;
+
+    final TimeWindowOperator<Integer> timeWindowOperator =
+        new TimeWindowOperator<>(windowSize, emissionInterval);
+    timeWindowOperator.setOutputEmitter(new OutputBufferEmitter(new LinkedList<>()));
+    timeWindowOperator.processLeftData(d1);
+    timeWindowOperator.processLeftData(d2);
+    final Map<String, Object> operatorState = timeWindowOperator.getOperatorState();
+
+    final TimeWindowOperator<Integer> newTimeWindowOperator =
+        new TimeWindowOperator<>(windowSize, emissionInterval, true);
+    newTimeWindowOperator.setState(operatorState);
+    assertSameOutputs(Arrays.asList(d3, d4), timeWindowOperator, newTimeWindowOperator);
+  }
+
+  /**
+   * Checks whether the two operators generate the same outputs with the same inputs.
+   */
+  private void assertSameOutputs(final List<MistEvent> inputs,
+                                 final OneStreamOperator expectedOperator,
+                                 final OneStreamOperator operator) {
+    final List<MistEvent> expectedResult = new LinkedList<>();
+    final List<MistEvent> result = new LinkedList<>();
+    expectedOperator.setOutputEmitter(new OutputBufferEmitter(expectedResult));
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+    for (final MistEvent input : inputs) {
+      if (input.isData()) {
+        expectedOperator.processLeftData((MistDataEvent) input);
+        operator.processLeftData((MistDataEvent) input);
+      } else {
+        expectedOperator.processLeftWatermark((MistWatermarkEvent) input);
+        operator.processLeftWatermark((MistWatermarkEvent) input);
+      }
+    }
+
+    Assert.assertEquals(expectedResult.size(), result.size());
+    for (int i = 0; i < expectedResult.size(); i++) {
+      final MistEvent expected = expectedResult.get(i);
+      if (expected.isData()) {
+        final Window<Integer> expectedWindow = (Window<Integer>) ((MistDataEvent) expected).getValue();
+        checkWindowData(result.get(i), new LinkedList<>(expectedWindow.getDataCollection()),
+            expectedWindow.getStart(), expectedWindow.getEnd() - expectedWindow.getStart() + 1,
+            expected.getTimestamp());
+      } else {
+        Assert.assertEquals(expected, result.get(i));
+      }
+    }
+  }
 }
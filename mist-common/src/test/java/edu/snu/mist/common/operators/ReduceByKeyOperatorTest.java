@@ -184,4 +184,87 @@ public final class ReduceByKeyOperatorTest {
     expected.add(new MistDataEvent(o1, 10L));
     Assert.assertEquals(expected, result);
   }
+
+  /**
+   * Test whether incremental reduceByKeyOperator emits only the changed key-value pairs.
+   * Input: a list of tuples: ("a", 1), ("b", 1), ("a", 1), ("c", 1), ("b", 1)
+   * Expected outputs: ("a", 1), ("b", 1), ("a", 2), ("c", 1), ("b", 2)
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testIncrementalReduceByKeyOperator() throws InterruptedException {
+    final List<MistDataEvent> inputStream = ImmutableList.of(
+        createTupleEvent("a", 1, 1L),
+        createTupleEvent("b", 1, 2L),
+        createTupleEvent("a", 1, 3L),
+        createTupleEvent("c", 1, 4L),
+        createTupleEvent("b", 1, 5L));
+
+    final List<MistEvent> expectedStream = ImmutableList.of(
+        new MistDataEvent(new Tuple2<>("a", 1), 1L),
+        new MistDataEvent(new Tuple2<>("b", 1), 2L),
+        new MistDataEvent(new Tuple2<>("a", 2), 3L),
+        new MistDataEvent(new Tuple2<>("c", 1), 4L),
+        new MistDataEvent(new Tuple2<>("b", 2), 5L));
+
+    final MISTBiFunction<Integer, Integer, Integer> wordCountFunc = (oldVal, val) -> oldVal + val;
+    final ReduceByKeyOperator<String, Integer> wcOperator =
+        new ReduceByKeyOperator<>(0, true, wordCountFunc);
+    final List<MistEvent> result = new LinkedList<>();
+    wcOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    inputStream.stream().forEach(wcOperator::processLeftData);
+    Assert.assertEquals(expectedStream, result);
+
+    // The state snapshot should not be changed by the following inputs
+    final Map<String, Integer> snapshot =
+        (Map<String, Integer>)wcOperator.getOperatorState().get("reduceByKeyState");
+    wcOperator.processLeftData(createTupleEvent("a", 1, 6L));
+    final Map<String, Integer> expectedSnapshot = new HashMap<>();
+    expectedSnapshot.put("a", 2);
+    expectedSnapshot.put("b", 2);
+    expectedSnapshot.put("c", 1);
+    Assert.assertEquals(expectedSnapshot, snapshot);
+  }
+
+  /**
+   * Test whether the state delta of reduceByKeyOperator has only the keys changed since the previous delta,
+   * and whether the state is recovered by applying the deltas to the base state.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testReduceByKeyOperatorStateDelta() throws InterruptedException {
+    final MISTBiFunction<Integer, Integer, Integer> wordCountFunc = (oldVal, val) -> oldVal + val;
+    final ReduceByKeyOperator<String, Integer> wcOperator =
+        new ReduceByKeyOperator<>(0, wordCountFunc);
+    final List<MistEvent> result = new LinkedList<>();
+    wcOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    wcOperator.processLeftData(createTupleEvent("a", 1, 1L));
+    wcOperator.processLeftData(createTupleEvent("b", 1, 2L));
+
+    // Take the base state, and start tracking the changes
+    wcOperator.getStateDelta();
+    final Map<String, Object> baseState = wcOperator.getOperatorState();
+
+    wcOperator.processLeftData(createTupleEvent("a", 1, 3L));
+    wcOperator.processLeftData(createTupleEvent("c", 1, 4L));
+    final Map<String, Object> delta1 = wcOperator.getStateDelta();
+    final Map<String, Integer> expectedDelta1 = new HashMap<>();
+    expectedDelta1.put("a", 2);
+    expectedDelta1.put("c", 1);
+    Assert.assertEquals(expectedDelta1, delta1.get("reduceByKeyDelta"));
+
+    wcOperator.processLeftData(createTupleEvent("a", 1, 5L));
+    final Map<String, Object> delta2 = wcOperator.getStateDelta();
+    final Map<String, Integer> expectedDelta2 = new HashMap<>();
+    expectedDelta2.put("a", 3);
+    Assert.assertEquals(expectedDelta2, delta2.get("reduceByKeyDelta"));
+
+    // Recover the state from the base state and the deltas
+    final ReduceByKeyOperator<String, Integer> recoveredOperator =
+        new ReduceByKeyOperator<>(0, wordCountFunc);
+    recoveredOperator.setState(baseState);
+    recoveredOperator.applyStateDelta(delta1);
+    recoveredOperator.applyStateDelta(delta2);
+    Assert.assertEquals(wcOperator.getOperatorState(), recoveredOperator.getOperatorState());
+  }
 }
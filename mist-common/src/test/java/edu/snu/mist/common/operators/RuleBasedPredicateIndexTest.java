@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.operators;
+
+import edu.snu.mist.common.operators.predicates.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public final class RuleBasedPredicateIndexTest {
+
+  private Map<String, Object> newEvent(final Object temperature, final Object location) {
+    final Map<String, Object> event = new HashMap<>();
+    event.put("temperature", temperature);
+    event.put("location", location);
+    return event;
+  }
+
+  private Set<String> match(final RuleBasedPredicateIndex<String> index, final Map<String, Object> event) {
+    final Set<String> matched = new HashSet<>();
+    index.match(event, matched::add);
+    return matched;
+  }
+
+  /**
+   * Test whether the index finds the same predicates as testing all the predicates.
+   */
+  @Test
+  public void testMatchSameAsPredicates() {
+    final Map<String, RuleBasedCCPredicate> predicates = new HashMap<>();
+    for (int i = 0; i < 10; i++) {
+      predicates.put("gt" + i, new RuleBasedGTPredicate("temperature", i * 10));
+      predicates.put("ge" + i, new RuleBasedGEPredicate("temperature", i * 10));
+      predicates.put("lt" + i, new RuleBasedLTPredicate("temperature", i * 10));
+      predicates.put("le" + i, new RuleBasedLEPredicate("temperature", i * 10));
+    }
+    predicates.put("eqSeoul", new RuleBasedEQPredicate("location", "Seoul"));
+    predicates.put("eqSeoul2", new RuleBasedEQPredicate("location", "Seoul"));
+    predicates.put("eqBusan", new RuleBasedEQPredicate("location", "Busan"));
+    final RuleBasedPredicateIndex<String> index = new RuleBasedPredicateIndex<>(predicates);
+
+    for (final int temperature : Arrays.asList(-5, 0, 5, 10, 45, 90, 95)) {
+      for (final String location : Arrays.asList("Seoul", "Busan", "Daegu")) {
+        final Map<String, Object> event = newEvent(temperature, location);
+        final Set<String> expected = new HashSet<>();
+        for (final Map.Entry<String, RuleBasedCCPredicate> entry : predicates.entrySet()) {
+          if (entry.getValue().test(event)) {
+            expected.add(entry.getKey());
+          }
+        }
+        Assert.assertEquals(expected, match(index, event));
+      }
+    }
+  }
+
+  /**
+   * Test whether the predicates are matched if the value of the event cannot be compared by the index,
+   * so the filters decide the results as before.
+   */
+  @Test
+  public void testMatchIncomparableValues() {
+    final Map<String, RuleBasedCCPredicate> predicates = new HashMap<>();
+    predicates.put("gt", new RuleBasedGTPredicate("temperature", 10));
+    predicates.put("le", new RuleBasedLEPredicate("temperature", 10));
+    predicates.put("eq", new RuleBasedEQPredicate("location", "Seoul"));
+    final RuleBasedPredicateIndex<String> index = new RuleBasedPredicateIndex<>(predicates);
+
+    Assert.assertEquals(new HashSet<>(Arrays.asList("gt", "le")), match(index, newEvent(10.5, "Busan")));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("gt", "le")), match(index, newEvent(null, "Busan")));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("gt", "eq")), match(index, newEvent(20, "Seoul")));
+  }
+
+  /**
+   * Test which predicates can be indexed.
+   */
+  @Test
+  public void testIsIndexable() {
+    Assert.assertTrue(RuleBasedPredicateIndex.isIndexable(new RuleBasedEQPredicate("location", "Seoul")));
+    Assert.assertTrue(RuleBasedPredicateIndex.isIndexable(new RuleBasedGTPredicate("temperature", 1.5)));
+    Assert.assertTrue(RuleBasedPredicateIndex.isIndexable(new RuleBasedLEPredicate("temperature", 10L)));
+    Assert.assertFalse(RuleBasedPredicateIndex.isIndexable(new RuleBasedNEQPredicate("location", "Seoul")));
+    Assert.assertFalse(RuleBasedPredicateIndex.isIndexable(new RuleBasedEQPredicate("location", null)));
+    Assert.assertFalse(RuleBasedPredicateIndex.isIndexable((input) -> true));
+  }
+}
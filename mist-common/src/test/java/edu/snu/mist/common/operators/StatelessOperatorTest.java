@@ -26,6 +26,7 @@ import org.apache.reef.tang.exceptions.InjectionException;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -45,6 +46,15 @@ public final class StatelessOperatorTest {
     Assert.assertEquals(expected, result);
   }
 
+  private void testStatelessOperatorBatch(final List<MistDataEvent> inputStream,
+                                          final List<MistEvent> expected,
+                                          final Operator operator) {
+    final List<MistEvent> result = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+    operator.processLeftDataBatch(new ArrayList<>(inputStream));
+    Assert.assertEquals(expected, result);
+  }
+
   /**
    * Test map operation.
    * It converts string to tuple (string, 1).
@@ -132,4 +142,29 @@ public final class StatelessOperatorTest {
     final FlatMapOperator<String, String> flatMapOperator = new FlatMapOperator<>(flatMapFunc);
     testStatelessOperator(inputStream, expectedStream, flatMapOperator);
   }
+
+  /**
+   * Test whether the stateless operators emit the same outputs when they process the inputs in a batch.
+   */
+  @Test
+  public void testBatchProcessing() throws InjectionException {
+    final MISTFunction<String, Tuple> mapFunc = (mapInput) -> new Tuple<>(mapInput, 1);
+    testStatelessOperatorBatch(
+        ImmutableList.of(new MistDataEvent("a", 1L), new MistDataEvent("b", 2L)),
+        ImmutableList.of(new MistDataEvent(new Tuple<>("a", 1), 1L), new MistDataEvent(new Tuple<>("b", 1), 2L)),
+        new MapOperator<>(mapFunc));
+
+    final MISTPredicate<String> filterFunc = (input) -> input.startsWith("a");
+    testStatelessOperatorBatch(
+        ImmutableList.of(new MistDataEvent("alpha", 1L), new MistDataEvent("bravo", 2L),
+            new MistDataEvent("area", 3L)),
+        ImmutableList.of(new MistDataEvent("alpha", 1L), new MistDataEvent("area", 3L)),
+        new FilterOperator<>(filterFunc));
+
+    final MISTFunction<String, List<String>> flatMapFunc = (mapInput) -> Arrays.asList(mapInput.split(" "));
+    testStatelessOperatorBatch(
+        ImmutableList.of(new MistDataEvent("a b", 1L), new MistDataEvent("c", 2L)),
+        ImmutableList.of(new MistDataEvent("a", 1L), new MistDataEvent("b", 1L), new MistDataEvent("c", 2L)),
+        new FlatMapOperator<>(flatMapFunc));
+  }
 }
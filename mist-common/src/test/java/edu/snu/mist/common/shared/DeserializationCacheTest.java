@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.shared;
+
+import edu.snu.mist.common.SerializeUtils;
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.shared.parameters.DeserializationCacheSize;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Test class for DeserializationCache.
+ */
+public final class DeserializationCacheTest {
+
+  private DeserializationCache newCache(final int size) throws Exception {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(DeserializationCacheSize.class, Integer.toString(size));
+    final Injector injector = Tang.Factory.getTang().newInjector(jcb.build());
+    return injector.getInstance(DeserializationCache.class);
+  }
+
+  /**
+   * Test whether the same udfs are deserialized once per class loader.
+   */
+  @Test
+  public void testUdfCaching() throws Exception {
+    final DeserializationCache cache = newCache(10);
+    final String udf1 = SerializeUtils.serializeToString(new SuffixFunction("a"));
+    final String udf2 = SerializeUtils.serializeToString(new SuffixFunction("b"));
+    final ClassLoader classLoader1 = new URLClassLoader(new URL[0]);
+    final ClassLoader classLoader2 = new URLClassLoader(new URL[0]);
+
+    final Object cached = cache.getUdf(udf1, classLoader1);
+    Assert.assertSame(cached, cache.getUdf(new String(udf1), classLoader1));
+    Assert.assertNotSame(cached, cache.getUdf(udf2, classLoader1));
+    Assert.assertNotSame(cached, cache.getUdf(udf1, classLoader2));
+
+    // Evict the udfs of the class loaders that load no jar file
+    cache.evict(new URL[0]);
+    Assert.assertNotSame(cached, cache.getUdf(udf1, classLoader1));
+  }
+
+  /**
+   * Test whether the least recently used udf is evicted when the cache is full.
+   */
+  @Test
+  public void testBoundedCache() throws Exception {
+    final DeserializationCache cache = newCache(1);
+    final String udf1 = SerializeUtils.serializeToString(new SuffixFunction("a"));
+    final String udf2 = SerializeUtils.serializeToString(new SuffixFunction("b"));
+    final ClassLoader classLoader = new URLClassLoader(new URL[0]);
+
+    final Object cached = cache.getUdf(udf1, classLoader);
+    cache.getUdf(udf2, classLoader);
+    Assert.assertNotSame(cached, cache.getUdf(udf1, classLoader));
+  }
+
+  /**
+   * Test whether the udfs are deserialized every time when the cache is disabled.
+   */
+  @Test
+  public void testDisabledCache() throws Exception {
+    final DeserializationCache cache = newCache(0);
+    final String udf = SerializeUtils.serializeToString(new SuffixFunction("a"));
+    final ClassLoader classLoader = new URLClassLoader(new URL[0]);
+    Assert.assertNotSame(cache.getUdf(udf, classLoader), cache.getUdf(udf, classLoader));
+  }
+
+  /**
+   * A function that appends the suffix.
+   */
+  private static final class SuffixFunction implements MISTFunction<String, String> {
+    private final String suffix;
+
+    SuffixFunction(final String suffix) {
+      this.suffix = suffix;
+    }
+
+    @Override
+    public String apply(final String s) {
+      return s + suffix;
+    }
+  }
+}
@@ -37,6 +37,11 @@ import java.util.concurrent.CountDownLatch;
 
 public final class MqttSinkTest {
 
+  /**
+   * The maximum number of unpublished outputs of a sink.
+   */
+  private static final int MAX_BACKLOG = 100;
+
   /**
    * Shared resource for Mqtt publisher client.
    */
@@ -89,7 +94,8 @@ public final class MqttSinkTest {
     // Create sinks
     final List<Sink<MqttMessage>> sinks = new LinkedList<>();
     for (int i = 0; i < numSinks; i++) {
-      final Sink<MqttMessage> publisher = new MqttSink(MqttUtils.BROKER_URI, topic + i, mqttSharedResource);
+      final Sink<MqttMessage> publisher = new MqttSink(MqttUtils.BROKER_URI, topic + i, MAX_BACKLOG,
+          mqttSharedResource);
       topicListMap.put(topic + i, new LinkedList<>());
       sinks.add(publisher);
       subscriber.subscribe(topic + i);
@@ -109,6 +115,7 @@ public final class MqttSinkTest {
 
     // Closes
     for (final Sink<MqttMessage> sink : sinks) {
+      Assert.assertEquals(0, ((MqttSink) sink).getCounters().getNumFailures());
       sink.close();
     }
   }
@@ -83,7 +83,7 @@ public final class NettyTextSinkTest {
       // result list
       // Create sinks
       for (int i = 0; i < numSinks; i++) {
-        final Sink<String> sink = new NettyTextSink(SERVER_ADDR, SERVER_PORT,
+        final Sink<String> sink = new NettyTextSink(SERVER_ADDR, SERVER_PORT, 1, 0L,
             nettySharedResource, stringIdentifierFactory);
         sinks.add(sink);
       }
@@ -109,6 +109,74 @@ public final class NettyTextSinkTest {
     }
   }
 
+  /**
+   * Test whether the batching sink flushes the outputs when the batch is full.
+   * The linger time is long enough not to pass during the test, so the flushes do not depend on timing.
+   * @throws Exception
+   */
+  @Test(timeout = 4000L)
+  public void testBatchedNettyTextSink() throws Exception {
+    final List<String> outputStream = Arrays.asList(
+        "Lorem ipsum dolor sit amet, consectetur adipiscing elit.",
+        "In in leo nec erat fringilla mattis eu non massa.",
+        "Cras quis diam suscipit, commodo enim id, pulvinar nunc.");
+    final CountDownLatch batchCountDownLatch = new CountDownLatch(2);
+    final CountDownLatch channelCountDown = new CountDownLatch(1);
+    final Map<Channel, List<String>> channelListMap = new ConcurrentHashMap<>();
+    final NettyChannelHandler channelHandler = new TestReceiverChannelHandler(channelCountDown,
+        batchCountDownLatch, channelListMap);
+
+    try (final NettyTextMessageOutputReceiver outputReceiver =
+             new NettyTextMessageOutputReceiver(SERVER_ADDR, SERVER_PORT, channelHandler)) {
+      final NettyTextSink sink = new NettyTextSink(SERVER_ADDR, SERVER_PORT, 2, 60000L,
+          nettySharedResource, stringIdentifierFactory);
+      channelCountDown.await();
+      // The first two outputs are flushed by the batch size
+      sink.handle(outputStream.get(0));
+      sink.handle(outputStream.get(1));
+      batchCountDownLatch.await();
+      Assert.assertEquals(2, sink.getCounters().getNumOutputs());
+      Assert.assertEquals(1, sink.getCounters().getNumFlushes());
+
+      // The last one is not flushed until the sink is closed
+      sink.handle(outputStream.get(2));
+      Assert.assertEquals(2, sink.getCounters().getNumOutputs());
+      sink.close();
+      Assert.assertEquals(outputStream.size(), sink.getCounters().getNumOutputs());
+      Assert.assertEquals(2, sink.getCounters().getNumFlushes());
+    }
+  }
+
+  /**
+   * Test whether the batching sink flushes the outputs when the linger time passes.
+   * @throws Exception
+   */
+  @Test(timeout = 4000L)
+  public void testLingeringNettyTextSink() throws Exception {
+    final String output = "Lorem ipsum dolor sit amet, consectetur adipiscing elit.";
+    final CountDownLatch countDownLatch = new CountDownLatch(1);
+    final CountDownLatch channelCountDown = new CountDownLatch(1);
+    final Map<Channel, List<String>> channelListMap = new ConcurrentHashMap<>();
+    final NettyChannelHandler channelHandler = new TestReceiverChannelHandler(channelCountDown,
+        countDownLatch, channelListMap);
+
+    try (final NettyTextMessageOutputReceiver outputReceiver =
+             new NettyTextMessageOutputReceiver(SERVER_ADDR, SERVER_PORT, channelHandler)) {
+      final NettyTextSink sink = new NettyTextSink(SERVER_ADDR, SERVER_PORT, 100, 10L,
+          nettySharedResource, stringIdentifierFactory);
+      channelCountDown.await();
+      sink.handle(output);
+
+      // The output is received only if the linger time passes, because the batch is not full
+      countDownLatch.await();
+      for (List<String> received : channelListMap.values()) {
+        Assert.assertEquals(Arrays.asList(output), received);
+      }
+      Assert.assertEquals(1, sink.getCounters().getNumFlushes());
+      sink.close();
+    }
+  }
+
   /**
    * A helper class for output receiver.
    */
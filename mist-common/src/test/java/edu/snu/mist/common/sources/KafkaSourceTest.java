@@ -84,6 +84,7 @@ public final class KafkaSourceTest {
   /**
    * Test whether TextKafkaDataGenerator fetches input stream
    * from the Kafka server and generates data correctly.
+   * Two data generators reading the same topic share a kafka consumer, and both of them receive all the data.
    * @throws Exception
    */
   @Test(timeout = 30000L)
@@ -93,7 +94,9 @@ public final class KafkaSourceTest {
     inputStream.put("1", "In in leo nec erat fringilla mattis eu non massa.");
     inputStream.put("2", "Cras quis diam suscipit, commodo enim id, pulvinar nunc.");
     final CountDownLatch dataCountDownLatch = new CountDownLatch(inputStream.size());
+    final CountDownLatch dataCountDownLatch2 = new CountDownLatch(inputStream.size());
     final Map<String, String> result = new HashMap<>();
+    final Map<String, String> result2 = new HashMap<>();
 
     // create local kafka broker
     KafkaLocalBroker kafkaLocalBroker = new KafkaLocalBroker(KAFKA_PORT, KAFKA_ADDRESS, ZK_PORT, ZK_ADDRESS);
@@ -121,6 +124,13 @@ public final class KafkaSourceTest {
     kafkaDataGenerator.setEventGenerator(eventGenerator);
     kafkaDataGenerator.start();
 
+    // create another kafka source of the same topic
+    final KafkaDataGenerator<Integer, String> kafkaDataGenerator2 =
+        new KafkaDataGenerator<>(KAFKA_TOPIC, kafkaConsumerConf, kafkaSharedResource);
+    kafkaDataGenerator2.setEventGenerator(new SourceTestEventGenerator<>(result2, dataCountDownLatch2));
+    kafkaDataGenerator2.start();
+    Assert.assertEquals(1, kafkaSharedResource.getNumConsumers());
+
     // create kafka producer
     final KafkaProducer<String, String> producer = new KafkaProducer<>(kafkaProducerConf);
     final ProducerRecord<String, String> record1 =
@@ -136,7 +146,11 @@ public final class KafkaSourceTest {
 
     // wait for the consumer to receive the inputs.
     dataCountDownLatch.await();
+    dataCountDownLatch2.await();
     kafkaDataGenerator.close();
+    Assert.assertEquals(1, kafkaSharedResource.getNumConsumers());
+    kafkaDataGenerator2.close();
+    Assert.assertEquals(0, kafkaSharedResource.getNumConsumers());
     // KafkaDataGenerator will wait until it's pollTimeout before it is closed.
     // Therefore, we need to wait a bit for KafkaDataGenerator.
     // TODO: [MIST-369] Removing sleep in the `KafkaSourceTest`
@@ -144,6 +158,31 @@ public final class KafkaSourceTest {
     kafkaLocalBroker.stop();
 
     Assert.assertEquals(inputStream, result);
+    Assert.assertEquals(inputStream, result2);
+  }
+
+  /**
+   * Test whether the failure of the kafka consumer construction is reported to the data generator,
+   * and the failed consumer is not kept for the later data generators.
+   */
+  @Test(timeout = 30000L)
+  public void testKafkaConsumerConstructionFailure() {
+    // The deserializers are missing, so the kafka consumer cannot be constructed
+    final HashMap<String, Object> kafkaConsumerConf = new HashMap<>();
+    kafkaConsumerConf.put("bootstrap.servers", "localhost:" + KAFKA_PORT);
+    kafkaConsumerConf.put("group.id", "SourceTestGroup");
+
+    for (int i = 0; i < 2; i++) {
+      final KafkaDataGenerator<Integer, String> kafkaDataGenerator =
+          new KafkaDataGenerator<>(KAFKA_TOPIC, kafkaConsumerConf, kafkaSharedResource);
+      kafkaDataGenerator.setEventGenerator(new SourceTestEventGenerator<>(new HashMap<>(), new CountDownLatch(1)));
+      try {
+        kafkaDataGenerator.start();
+        Assert.fail("The data generator should fail to start");
+      } catch (final RuntimeException e) {
+        Assert.assertEquals(0, kafkaSharedResource.getNumConsumers());
+      }
+    }
   }
 
   /**
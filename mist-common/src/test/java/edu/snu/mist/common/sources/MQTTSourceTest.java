@@ -100,6 +100,52 @@ public final class MQTTSourceTest {
     Assert.assertEquals(inputStream2, result2);
   }
 
+  /**
+   * Test whether the DataGenerators subscribing overlapping topic filters receive each message only once,
+   * and a topic filter can be subscribed again after it is unsubscribed.
+   * @throws Exception
+   */
+  @Test(timeout = 4000L)
+  public void testOverlappingTopics() throws Exception {
+    final List<String> inputStream = new ArrayList<>();
+    inputStream.add("Lorem ipsum dolor sit amet, consectetur adipiscing elit.");
+    inputStream.add("In in leo nec erat fringilla mattis eu non massa.");
+
+    final CountDownLatch dataCountDownLatch1 = new CountDownLatch(inputStream.size());
+    final CountDownLatch dataCountDownLatch2 = new CountDownLatch(inputStream.size());
+    final List<String> result1 = new ArrayList<>();
+    final List<String> result2 = new ArrayList<>();
+
+    final MQTTDataGenerator dataGenerator1 =
+        mqttSharedResource.getDataGenerator(MqttUtils.BROKER_URI, "overlap/#");
+    final MQTTDataGenerator dataGenerator2 =
+        mqttSharedResource.getDataGenerator(MqttUtils.BROKER_URI, "overlap/+");
+    dataGenerator1.setEventGenerator(new SourceTestEventGenerator(result1, dataCountDownLatch1));
+    dataGenerator2.setEventGenerator(new SourceTestEventGenerator(result2, dataCountDownLatch2));
+    dataGenerator1.start();
+    dataGenerator2.start();
+
+    final PublishTestClient publishClient = new PublishTestClient(MqttUtils.BROKER_URI);
+    publishClient.publish(inputStream, "overlap/data");
+    dataCountDownLatch1.await();
+    dataCountDownLatch2.await();
+    Assert.assertEquals(inputStream, result1);
+    Assert.assertEquals(inputStream, result2);
+
+    // The covered topic filter is subscribed to the broker after the covering one is unsubscribed
+    dataGenerator1.close();
+    final CountDownLatch dataCountDownLatch3 = new CountDownLatch(1);
+    final List<String> result3 = new ArrayList<>();
+    dataGenerator2.setEventGenerator(new SourceTestEventGenerator(result3, dataCountDownLatch3));
+    publishClient.publish(inputStream.subList(0, 1), "overlap/data");
+    dataCountDownLatch3.await();
+
+    publishClient.stop();
+    dataGenerator2.close();
+
+    Assert.assertEquals(inputStream.subList(0, 1), result3);
+  }
+
   /**
    * Simple Paho MQTT publishing client for test.
    */
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.sources;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Test for the MQTT topic trie.
+ */
+public final class MQTTTopicTrieTest {
+
+  private Set<String> match(final MQTTTopicTrie<String> trie, final String topicName) {
+    final Set<String> result = new HashSet<>();
+    trie.forEachMatch(topicName, result::add);
+    return result;
+  }
+
+  /**
+   * Test whether the exact and wildcard topic filters match the topic names.
+   */
+  @Test
+  public void testWildcardMatch() {
+    final MQTTTopicTrie<String> trie = new MQTTTopicTrie<>();
+    trie.add("sensor/room1/temp", "exact");
+    trie.add("sensor/+/temp", "single");
+    trie.add("sensor/#", "multi");
+    trie.add("#", "all");
+    trie.add("+/+", "twoLevels");
+
+    Assert.assertEquals(new HashSet<>(Arrays.asList("exact", "single", "multi", "all")),
+        match(trie, "sensor/room1/temp"));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("single", "multi", "all")),
+        match(trie, "sensor/room2/temp"));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("multi", "all", "twoLevels")),
+        match(trie, "sensor/room1"));
+    // The multi-level wildcard also matches the parent level
+    Assert.assertEquals(new HashSet<>(Arrays.asList("multi", "all")),
+        match(trie, "sensor"));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("all")),
+        match(trie, "actuator/room1/light"));
+    // The topics starting with $ are not matched by the wildcards at the first level
+    Assert.assertEquals(new HashSet<>(), match(trie, "$SYS/broker"));
+  }
+
+  /**
+   * Test whether the removed values are not matched anymore.
+   */
+  @Test
+  public void testRemove() {
+    final MQTTTopicTrie<String> trie = new MQTTTopicTrie<>();
+    trie.add("sensor/+", "a");
+    trie.add("sensor/+", "b");
+
+    Assert.assertTrue(trie.remove("sensor/+", "a"));
+    Assert.assertFalse(trie.remove("sensor/+", "a"));
+    Assert.assertFalse(trie.remove("sensor/temp", "b"));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("b")), match(trie, "sensor/temp"));
+  }
+
+  /**
+   * Test whether a topic filter covers the filters whose matching topic names it also matches.
+   */
+  @Test
+  public void testCovers() {
+    Assert.assertTrue(MQTTTopicTrie.covers("sensor/#", "sensor/+"));
+    Assert.assertTrue(MQTTTopicTrie.covers("sensor/#", "sensor"));
+    Assert.assertTrue(MQTTTopicTrie.covers("sensor/+", "sensor/temp"));
+    Assert.assertTrue(MQTTTopicTrie.covers("#", "+/#"));
+    Assert.assertTrue(MQTTTopicTrie.covers("+/#", "#"));
+    Assert.assertTrue(MQTTTopicTrie.covers("sensor/temp", "sensor/temp"));
+    Assert.assertFalse(MQTTTopicTrie.covers("sensor/+", "sensor/#"));
+    Assert.assertFalse(MQTTTopicTrie.covers("sensor/+", "sensor"));
+    Assert.assertFalse(MQTTTopicTrie.covers("sensor/+/temp", "sensor/room1/+"));
+    Assert.assertFalse(MQTTTopicTrie.covers("sensor/temp", "sensor/temp/value"));
+    // The topics starting with $ are not matched by the wildcards at the first level
+    Assert.assertFalse(MQTTTopicTrie.covers("#", "$SYS/broker"));
+  }
+}
@@ -23,6 +23,7 @@ import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.common.functions.MISTPredicate;
 import edu.snu.mist.common.functions.WatermarkTimestampFunction;
 import edu.snu.mist.common.shared.NettySharedResource;
+import edu.snu.mist.common.shared.parameters.ShareNettyChannels;
 import edu.snu.mist.common.stream.NettyChannelHandler;
 import edu.snu.mist.common.stream.textmessage.NettyTextMessageStreamGenerator;
 import io.netty.channel.ChannelHandlerContext;
@@ -224,6 +225,115 @@ public final class NettySourceTest {
     }
   }
 
+  /**
+   * Test whether the sources connecting to the same server share a single channel
+   * and all of them receive the data from the channel.
+   * @throws Exception
+   */
+  @Test(timeout = 4000L)
+  public void testSharedNettyTextSource() throws Exception {
+    final int numSources = 4;
+    final List<String> inputStream = Arrays.asList(
+        "Lorem ipsum dolor sit amet, consectetur adipiscing elit.",
+        "In in leo nec erat fringilla mattis eu non massa.",
+        "Cras quis diam suscipit, commodo enim id, pulvinar nunc.");
+    final CountDownLatch dataCountDownLatch = new CountDownLatch(numSources * inputStream.size());
+    final CountDownLatch channelCountDown = new CountDownLatch(numSources);
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(ShareNettyChannels.class, true);
+    try (final NettySharedResource sharedResource = injector.getInstance(NettySharedResource.class);
+         final NettyTextMessageStreamGenerator textMessageStreamGenerator =
+             new NettyTextMessageStreamGenerator(SERVER_ADDR, SERVER_PORT,
+                 new TestChannelHandler(channelCountDown))) {
+      final List<Tuple<DataGenerator, EventGenerator>> sources = new LinkedList<>();
+      final List<List<String>> results = new LinkedList<>();
+      for (int i = 0; i < numSources; i++) {
+        final DataGenerator<String> dataGenerator =
+            new NettyTextDataGenerator(SERVER_ADDR, SERVER_PORT, sharedResource);
+        final EventGenerator<String> eventGenerator =
+            new PeriodicEventGenerator<>(null, 1000L, 1000L, TimeUnit.MILLISECONDS, scheduler);
+        dataGenerator.setEventGenerator(eventGenerator);
+        final List<String> receivedData = new LinkedList<>();
+        results.add(receivedData);
+        eventGenerator.setOutputEmitter(new SourceTestOutputEmitter<>(receivedData, new LinkedList<>(),
+            dataCountDownLatch, new CountDownLatch(0)));
+        sources.add(new Tuple<>(dataGenerator, eventGenerator));
+      }
+
+      for (final Tuple<DataGenerator, EventGenerator> source : sources) {
+        source.getValue().start();
+        source.getKey().start();
+      }
+
+      // Wait until the shared channel connects to stream generator
+      while (channelCountDown.getCount() == numSources) {
+        Thread.sleep(10L);
+      }
+      inputStream.forEach(textMessageStreamGenerator::write);
+      dataCountDownLatch.await();
+      for (final List<String> received : results) {
+        Assert.assertEquals(inputStream, received);
+      }
+      Assert.assertEquals(numSources - 1, channelCountDown.getCount());
+
+      for (final Tuple<DataGenerator, EventGenerator> source : sources) {
+        source.getKey().close();
+        source.getValue().close();
+      }
+    }
+  }
+
+  /**
+   * Test whether a failed connection is reported to the data generator,
+   * and the failed shared channel is not reused by the next data generator.
+   * @throws Exception
+   */
+  @Test(timeout = 4000L)
+  public void testSharedNettyTextSourceConnectionFailure() throws Exception {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(ShareNettyChannels.class, true);
+    try (final NettySharedResource sharedResource = injector.getInstance(NettySharedResource.class)) {
+      final DataGenerator<String> failedGenerator =
+          new NettyTextDataGenerator(SERVER_ADDR, SERVER_PORT, sharedResource);
+      final EventGenerator<String> failedEventGenerator =
+          new PeriodicEventGenerator<>(null, 1000L, 1000L, TimeUnit.MILLISECONDS, scheduler);
+      failedGenerator.setEventGenerator(failedEventGenerator);
+      try {
+        failedGenerator.start();
+        Assert.fail("The data generator should fail to connect to the absent server");
+      } catch (final RuntimeException e) {
+        // expected
+      }
+
+      final List<String> inputStream = Arrays.asList("Lorem ipsum dolor sit amet, consectetur adipiscing elit.");
+      final CountDownLatch dataCountDownLatch = new CountDownLatch(inputStream.size());
+      final CountDownLatch channelCountDown = new CountDownLatch(1);
+      try (final NettyTextMessageStreamGenerator textMessageStreamGenerator =
+               new NettyTextMessageStreamGenerator(SERVER_ADDR, SERVER_PORT,
+                   new TestChannelHandler(channelCountDown))) {
+        final DataGenerator<String> dataGenerator =
+            new NettyTextDataGenerator(SERVER_ADDR, SERVER_PORT, sharedResource);
+        final EventGenerator<String> eventGenerator =
+            new PeriodicEventGenerator<>(null, 1000L, 1000L, TimeUnit.MILLISECONDS, scheduler);
+        dataGenerator.setEventGenerator(eventGenerator);
+        final List<String> receivedData = new LinkedList<>();
+        eventGenerator.setOutputEmitter(new SourceTestOutputEmitter<>(receivedData, new LinkedList<>(),
+            dataCountDownLatch, new CountDownLatch(0)));
+        eventGenerator.start();
+        dataGenerator.start();
+
+        channelCountDown.await();
+        inputStream.forEach(textMessageStreamGenerator::write);
+        dataCountDownLatch.await();
+        Assert.assertEquals(inputStream, receivedData);
+
+        dataGenerator.close();
+        eventGenerator.close();
+      }
+      failedGenerator.close();
+    }
+  }
+
   /**
    * A test class for channel handler.
    */
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.sources;
+
+import edu.snu.mist.common.MistEvent;
+import edu.snu.mist.common.utils.OutputBufferEmitter;
+import org.apache.reef.io.Tuple;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.logging.Logger;
+
+/**
+ * Test for the watermark timer wheel.
+ */
+public final class WatermarkTimerWheelTest {
+
+  private static final Logger LOG = Logger.getLogger(WatermarkTimerWheelTest.class.getName());
+
+  private ScheduledExecutorService scheduler;
+  private WatermarkTimerWheel timerWheel;
+
+  @Before
+  public void setUp() {
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+    timerWheel = new WatermarkTimerWheel(scheduler, 5L, 16);
+  }
+
+  @After
+  public void tearDown() {
+    timerWheel.close();
+    scheduler.shutdown();
+  }
+
+  private TimerWheelEventGenerator<String, String> newEventGenerator(final long period,
+                                                                     final long delay,
+                                                                     final List<MistEvent> outputs) {
+    final TimerWheelEventGenerator<String, String> eventGenerator =
+        new TimerWheelEventGenerator<>(period, delay, timerWheel);
+    eventGenerator.setOutputEmitter(new OutputBufferEmitter(outputs));
+    return eventGenerator;
+  }
+
+  /**
+   * Test whether the event generators that have the same period and delay share a timer,
+   * and all of them receive the watermarks.
+   */
+  @Test(timeout = 10000L)
+  public void testCoalescedWatermarks() throws Exception {
+    final int numSources = 1000;
+    final List<List<MistEvent>> outputs = new ArrayList<>(numSources);
+    final List<TimerWheelEventGenerator<String, String>> eventGenerators = new ArrayList<>(numSources);
+    for (int i = 0; i < numSources; i++) {
+      final List<MistEvent> output = Collections.synchronizedList(new ArrayList<>());
+      final TimerWheelEventGenerator<String, String> eventGenerator =
+          newEventGenerator(i % 2 == 0 ? 20L : 30L, 10L, output);
+      eventGenerator.start();
+      outputs.add(output);
+      eventGenerators.add(eventGenerator);
+    }
+
+    // The number of timers does not depend on the number of sources
+    Assert.assertEquals(2, timerWheel.getNumTimers());
+
+    for (final List<MistEvent> output : outputs) {
+      while (output.size() < 3) {
+        Thread.sleep(10L);
+      }
+      for (final MistEvent event : output) {
+        Assert.assertFalse(event.isData());
+      }
+    }
+
+    // The timers are removed at their next expiration after all the event generators are closed
+    for (final TimerWheelEventGenerator<String, String> eventGenerator : eventGenerators) {
+      eventGenerator.close();
+    }
+    while (timerWheel.getNumTimers() != 0) {
+      Thread.sleep(10L);
+    }
+  }
+
+  /**
+   * Test whether the data that is later than the watermark from the timer wheel is discarded.
+   */
+  @Test(timeout = 10000L)
+  public void testLateDataAfterWatermark() throws Exception {
+    final List<MistEvent> output = Collections.synchronizedList(new ArrayList<>());
+    final TimerWheelEventGenerator<String, String> eventGenerator =
+        new TimerWheelEventGenerator<>(input -> new Tuple<>(input, 1L), 10L, 0L, timerWheel);
+    eventGenerator.setOutputEmitter(new OutputBufferEmitter(output));
+    eventGenerator.start();
+    while (output.isEmpty()) {
+      Thread.sleep(10L);
+    }
+    eventGenerator.emitData("late");
+    for (final MistEvent event : output) {
+      Assert.assertFalse(event.isData());
+    }
+    eventGenerator.close();
+  }
+
+  /**
+   * Measure the scheduling cost with the increasing number of sources.
+   * The wheel keeps a single timer regardless of the number of sources,
+   * so the registration cost per source stays constant.
+   */
+  @Test(timeout = 60000L)
+  public void testSchedulingOverheadWithNumSources() throws Exception {
+    for (final int numSources : new int[]{1000, 10000, 100000}) {
+      final List<TimerWheelEventGenerator<String, String>> eventGenerators = new ArrayList<>(numSources);
+      final List<MistEvent> output = Collections.synchronizedList(new ArrayList<>());
+      final long startTime = System.nanoTime();
+      for (int i = 0; i < numSources; i++) {
+        final TimerWheelEventGenerator<String, String> eventGenerator = newEventGenerator(20L, 0L, output);
+        eventGenerator.start();
+        eventGenerators.add(eventGenerator);
+      }
+      final long registrationTime = System.nanoTime() - startTime;
+      while (output.size() < numSources) {
+        Thread.sleep(5L);
+      }
+      Assert.assertEquals(1, timerWheel.getNumTimers());
+      LOG.info("Sources: " + numSources + ", registration time per source (ns): "
+          + registrationTime / numSources);
+      for (final TimerWheelEventGenerator<String, String> eventGenerator : eventGenerators) {
+        eventGenerator.close();
+      }
+      while (timerWheel.getNumTimers() != 0) {
+        Thread.sleep(5L);
+      }
+    }
+  }
+}
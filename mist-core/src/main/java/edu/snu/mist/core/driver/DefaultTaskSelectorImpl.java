@@ -29,14 +29,14 @@ import org.apache.reef.wake.IdentifierFactory;
 
 import javax.inject.Inject;
 import java.net.InetSocketAddress;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * A default task selector which returns a list of task ip addresses for client queries.
- * This simply returns the list of tasks without load information about tasks.
+ * It ranks the tasks with the load summaries that the tasks report periodically.
  */
 final class DefaultTaskSelectorImpl implements TaskSelector {
 
@@ -62,17 +62,24 @@ final class DefaultTaskSelectorImpl implements TaskSelector {
    */
   private final int rpcServerPort;
 
+  /**
+   * The table of the task loads, which ranks the tasks.
+   */
+  private final TaskLoadTable taskLoadTable;
+
   @Inject
   private DefaultTaskSelectorImpl(final NetworkConnectionService ncs,
                                   final StringIdentifierFactory idFactory,
                                   final DriverTaskMessageCodec messageCodec,
                                   final DriverTaskMessageHandler messageHandler,
+                                  final TaskLoadTable taskLoadTable,
                                   final MistDriverConfigs mistDriverConfigs) {
     this.taskAddrAndConnMap = new ConcurrentHashMap<>();
     this.idFactory = idFactory;
     this.connFactory = ncs.registerConnectionFactory(idFactory.getNewInstance(MistDriver.MIST_CONN_FACTORY_ID),
         messageCodec, messageHandler, null, idFactory.getNewInstance(MistDriver.MIST_DRIVER_ID));
     this.rpcServerPort = mistDriverConfigs.getRpcServerPort();
+    this.taskLoadTable = taskLoadTable;
   }
 
   @Override
@@ -88,12 +95,14 @@ final class DefaultTaskSelectorImpl implements TaskSelector {
   @Override
   public void unregisterTask(final String taskId) {
     taskAddrAndConnMap.remove(taskId);
+    taskLoadTable.remove(taskId);
   }
 
   /**
    * Returns the list of ip addresses of the MistTasks.
    * This method is called by avro RPC when client calls .getTasks(msg);
-   * Current implementation simply returns the list of tasks.
+   * The tasks are ranked by TaskLoadTable, so the tasks already having the sources of the queries come first,
+   * and the less loaded tasks come first among them. The clients submit the queries to the first task.
    * @param message a message containing query information from clients
    * @return a list of ip addresses of MistTasks
    * @throws AvroRemoteException
@@ -101,8 +110,15 @@ final class DefaultTaskSelectorImpl implements TaskSelector {
   @Override
   public TaskList getTasks(final QueryInfo message) throws AvroRemoteException {
     final TaskList result = new TaskList();
-    final List<IPAddress> taskLists = new LinkedList<>();
-    for (final Tuple<InetSocketAddress, Connection<DriverTaskMessage>> value : taskAddrAndConnMap.values()) {
+    final List<String> rankedTaskIds = taskLoadTable.rank(
+        new ArrayList<>(taskAddrAndConnMap.keySet()), message.getSourceFingerprints());
+    final List<IPAddress> taskLists = new ArrayList<>(rankedTaskIds.size());
+    for (final String taskId : rankedTaskIds) {
+      final Tuple<InetSocketAddress, Connection<DriverTaskMessage>> value = taskAddrAndConnMap.get(taskId);
+      if (value == null) {
+        // The task is unregistered
+        continue;
+      }
       final IPAddress ipAddress = new IPAddress();
       final InetSocketAddress inetSocketAddress = value.getKey();
       ipAddress.setHostAddress(inetSocketAddress.getHostName());
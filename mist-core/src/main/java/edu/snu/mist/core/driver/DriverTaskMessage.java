@@ -18,7 +18,7 @@ package edu.snu.mist.core.driver;
 /**
  * This is an interface of a message which is used to communicate
  * between MistDriver and MistTasks via REEF NCS.
+ * Currently, the tasks send TaskLoadMessage to report their loads periodically.
  */
 public interface DriverTaskMessage {
-  // TODO[MIST-#]: Implement DriverTaskMessage, its codec and handler
 }
@@ -15,30 +15,54 @@
  */
 package edu.snu.mist.core.driver;
 
+import edu.snu.mist.formats.avro.TaskLoadSummary;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.reef.wake.remote.Codec;
 
 import javax.inject.Inject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 
 /**
  * A codec for DriverTaskMessage.
+ * It serializes the load summary of TaskLoadMessage with avro.
  */
-final class DriverTaskMessageCodec implements Codec<DriverTaskMessage> {
+public final class DriverTaskMessageCodec implements Codec<DriverTaskMessage> {
 
   @Inject
   private DriverTaskMessageCodec() {
-    // TODO[MIST-#]: Implement DriverTaskMessage, its codec and handler
   }
 
   @Override
   public DriverTaskMessage decode(final byte[] bytes) {
-    // TODO[MIST-#]: Implement DriverTaskMessage, its codec and handler
-    throw new RuntimeException("ControlMessageCodec.decode is not implemented yet.");
+    try {
+      final BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(bytes, null);
+      final SpecificDatumReader<TaskLoadSummary> reader = new SpecificDatumReader<>(TaskLoadSummary.class);
+      return new TaskLoadMessage(reader.read(null, decoder));
+    } catch (final IOException e) {
+      throw new RuntimeException("Failed to decode the driver task message", e);
+    }
   }
 
   @Override
   public byte[] encode(final DriverTaskMessage driverTaskMessage) {
-    // TODO[MIST-#]: Implement DriverTaskMessage, its codec and handler
-    throw new RuntimeException("ControlMessageCodec.encode is not implemented yet.");
+    if (!(driverTaskMessage instanceof TaskLoadMessage)) {
+      throw new IllegalArgumentException("Unsupported driver task message: " + driverTaskMessage);
+    }
+    try {
+      final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(bos, null);
+      final SpecificDatumWriter<TaskLoadSummary> writer = new SpecificDatumWriter<>(TaskLoadSummary.class);
+      writer.write(((TaskLoadMessage) driverTaskMessage).getSummary(), encoder);
+      encoder.flush();
+      return bos.toByteArray();
+    } catch (final IOException e) {
+      throw new RuntimeException("Failed to encode the driver task message", e);
+    }
   }
 }
-
@@ -24,21 +24,32 @@ import java.util.logging.Logger;
 
 /**
  * This class receives DriverTaskMessages and handles the messages.
- * This can collect MistTask's information.
+ * It collects the load summaries of MistTasks into TaskLoadTable.
  */
 final class DriverTaskMessageHandler implements EventHandler<Message<DriverTaskMessage>> {
   private static final Logger LOG = Logger.getLogger(DriverTaskMessageHandler.class.getName());
 
+  /**
+   * The table of the task loads.
+   */
+  private final TaskLoadTable taskLoadTable;
+
   @Inject
-  private DriverTaskMessageHandler() {
-    // TODO[MIST-#]: Implement DriverTaskMessage, its codec and handler
+  private DriverTaskMessageHandler(final TaskLoadTable taskLoadTable) {
+    this.taskLoadTable = taskLoadTable;
   }
 
   @Override
-  public void onNext(final Message<DriverTaskMessage> controlMessageMessage) {
-    LOG.log(Level.INFO, "Receives a message {0} from {1}",
-        new Object[] {controlMessageMessage.getData(), controlMessageMessage.getSrcId()});
-    // TODO[MIST-#]: Implement DriverTaskMessage, its codec and handler
-    throw new RuntimeException("DriverTaskMessageHandler is not implemented yet");
+  public void onNext(final Message<DriverTaskMessage> message) {
+    for (final DriverTaskMessage driverTaskMessage : message.getData()) {
+      if (driverTaskMessage instanceof TaskLoadMessage) {
+        LOG.log(Level.FINE, "Receives a message {0} from {1}",
+            new Object[] {driverTaskMessage, message.getSrcId()});
+        taskLoadTable.update(((TaskLoadMessage) driverTaskMessage).getSummary());
+      } else {
+        LOG.log(Level.WARNING, "Unknown message {0} from {1}",
+            new Object[] {driverTaskMessage, message.getSrcId()});
+      }
+    }
   }
 }
@@ -17,15 +17,48 @@ package edu.snu.mist.core.driver;
 
 import edu.snu.mist.common.rpc.AvroRPCNettyServerWrapper;
 import edu.snu.mist.common.rpc.RPCServerPort;
+import edu.snu.mist.common.shared.parameters.DeserializationCacheSize;
 import edu.snu.mist.common.shared.parameters.MqttSinkKeepAliveSec;
 import edu.snu.mist.common.shared.parameters.MqttSourceKeepAliveSec;
+import edu.snu.mist.common.shared.parameters.ShareNettyChannels;
+import edu.snu.mist.common.sinks.parameters.MqttSinkMaxBacklog;
+import edu.snu.mist.common.sinks.parameters.SinkMaxBatchSize;
+import edu.snu.mist.common.sinks.parameters.SinkMaxLingerTime;
+import edu.snu.mist.core.parameters.CheckpointCompactionInterval;
+import edu.snu.mist.core.parameters.IncrementalCheckpoint;
+import edu.snu.mist.core.parameters.MigrationDrainTimeout;
+import edu.snu.mist.core.parameters.OperatorFusion;
+import edu.snu.mist.core.parameters.PlanCompactionPeriod;
+import edu.snu.mist.core.parameters.PlanSegmentSize;
+import edu.snu.mist.core.parameters.PlanStorePath;
+import edu.snu.mist.core.parameters.PredicateIndex;
+import edu.snu.mist.core.parameters.RingBufferSourceQueue;
+import edu.snu.mist.core.parameters.SourceEventBatchSize;
+import edu.snu.mist.core.parameters.SourceQueueCapacity;
+import edu.snu.mist.core.parameters.SourceQueueOverflowPolicy;
+import edu.snu.mist.core.parameters.TaskLoadReportPeriod;
 import edu.snu.mist.core.parameters.TempFolderPath;
+import edu.snu.mist.core.parameters.TimerWheelWatermark;
+import edu.snu.mist.core.parameters.WatermarkTimerTickDuration;
 import edu.snu.mist.core.task.DefaultClientToTaskMessageImpl;
+import edu.snu.mist.core.task.RingBufferSourceOutputEmitterFactory;
+import edu.snu.mist.core.task.SourceOutputEmitterFactory;
 import edu.snu.mist.core.task.TaskSpecificResponderWrapper;
+import edu.snu.mist.core.task.groupaware.eventprocessor.NextGroupSelectorFactory;
+import edu.snu.mist.core.task.groupaware.eventprocessor.WorkStealingGroupSelectorFactory;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.DefaultNumEventProcessors;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.EventProcessorAutoscaling;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.GroupRebalancingPeriod;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.QueuedEventsThreshold;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.ScaleDownLoadThreshold;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.ScaleUpLoadThreshold;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.ScalingPatience;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.WorkStealing;
+import edu.snu.mist.core.task.groupaware.parameters.CpuUtilHighThreshold;
 import edu.snu.mist.core.task.groupaware.parameters.GroupPinningTime;
 import edu.snu.mist.core.task.groupaware.parameters.ProcessingTimeout;
+import edu.snu.mist.core.task.groupaware.rebalancer.EventProcessorAutoscaler;
+import edu.snu.mist.core.task.groupaware.rebalancer.LoadBasedEventProcessorAutoscaler;
 import edu.snu.mist.formats.avro.ClientToTaskMessage;
 import org.apache.avro.ipc.Server;
 import org.apache.avro.ipc.specific.SpecificResponder;
@@ -85,6 +118,141 @@ public final class MistTaskConfigs {
    */
   private final long groupPinningTime;
 
+  /**
+   * The capacity of the source queue.
+   */
+  private final int sourceQueueCapacity;
+
+  /**
+   * The policy applied when the source queue is full.
+   */
+  private final String sourceQueueOverflowPolicy;
+
+  /**
+   * Use the ring buffer for the source queue or not.
+   */
+  private final boolean ringBufferSourceQueue;
+
+  /**
+   * The maximum number of data events dispatched from a source at once.
+   */
+  private final int sourceEventBatchSize;
+
+  /**
+   * True if the linear chains of stateless operators are fused.
+   */
+  private final boolean operatorFusion;
+
+  /**
+   * True if the idle event processors steal the active groups of other event processors.
+   */
+  private final boolean workStealing;
+
+  /**
+   * True if the number of event processors is scaled according to the load.
+   */
+  private final boolean eventProcessorAutoscaling;
+
+  /**
+   * The average load of event processors above which the event processors are scaled up.
+   */
+  private final double scaleUpLoadThreshold;
+
+  /**
+   * The average load of event processors below which the event processors are scaled down.
+   */
+  private final double scaleDownLoadThreshold;
+
+  /**
+   * The number of consecutive rebalancing periods that should satisfy the scaling condition.
+   */
+  private final int scalingPatience;
+
+  /**
+   * The number of queued source events per event processor above which the event processors are scaled up.
+   */
+  private final long queuedEventsThreshold;
+
+  /**
+   * The CPU utilization above which the event processors are not scaled up.
+   */
+  private final double cpuUtilHighThreshold;
+
+  /**
+   * True if the periodic watermarks are emitted from the shared timer wheel.
+   */
+  private final boolean timerWheelWatermark;
+
+  /**
+   * The tick duration of the watermark timer wheel.
+   */
+  private final long watermarkTimerTickDuration;
+
+  /**
+   * The maximum number of unflushed outputs of a sink.
+   */
+  private final int sinkMaxBatchSize;
+
+  /**
+   * The maximum time that a sink holds unflushed outputs.
+   */
+  private final long sinkMaxLingerTime;
+
+  /**
+   * The maximum number of unpublished outputs of an mqtt sink.
+   */
+  private final int mqttSinkMaxBacklog;
+
+  /**
+   * Share a netty channel among the text socket sources (or sinks) of the same endpoint.
+   */
+  private final boolean shareNettyChannels;
+
+  /**
+   * The maximum number of cached deserialized configurations and udfs.
+   */
+  private final int deserializationCacheSize;
+
+  /**
+   * The path of the plan store.
+   */
+  private final String planStorePath;
+
+  /**
+   * The maximum size of a segment file of the plan store.
+   */
+  private final long planSegmentSize;
+
+  /**
+   * The period of compacting the plan store.
+   */
+  private final long planCompactionPeriod;
+
+  /**
+   * True if the apps are checkpointed incrementally.
+   */
+  private final boolean incrementalCheckpoint;
+
+  /**
+   * The number of incremental checkpoints between full checkpoints.
+   */
+  private final int checkpointCompactionInterval;
+
+  /**
+   * The period of reporting the task load to the driver.
+   */
+  private final long taskLoadReportPeriod;
+
+  /**
+   * The maximum time to drain the queued events of an app before migrating it.
+   */
+  private final long migrationDrainTimeout;
+
+  /**
+   * Index the rule-based comparison filters that share an upstream operator.
+   */
+  private final boolean predicateIndex;
+
   @Inject
   private MistTaskConfigs(@Parameter(DefaultNumEventProcessors.class) final int numEventProcessors,
                           @Parameter(RPCServerPort.class) final int rpcServerPort,
@@ -93,7 +261,34 @@ public final class MistTaskConfigs {
                           @Parameter(MqttSinkKeepAliveSec.class) final int mqttSinkKeepAliveSec,
                           @Parameter(GroupRebalancingPeriod.class) final long rebalancingPeriod,
                           @Parameter(ProcessingTimeout.class) final long processingTimeout,
-                          @Parameter(GroupPinningTime.class) final long groupPinningTime) {
+                          @Parameter(GroupPinningTime.class) final long groupPinningTime,
+                          @Parameter(SourceQueueCapacity.class) final int sourceQueueCapacity,
+                          @Parameter(SourceQueueOverflowPolicy.class) final String sourceQueueOverflowPolicy,
+                          @Parameter(RingBufferSourceQueue.class) final boolean ringBufferSourceQueue,
+                          @Parameter(SourceEventBatchSize.class) final int sourceEventBatchSize,
+                          @Parameter(OperatorFusion.class) final boolean operatorFusion,
+                          @Parameter(WorkStealing.class) final boolean workStealing,
+                          @Parameter(EventProcessorAutoscaling.class) final boolean eventProcessorAutoscaling,
+                          @Parameter(ScaleUpLoadThreshold.class) final double scaleUpLoadThreshold,
+                          @Parameter(ScaleDownLoadThreshold.class) final double scaleDownLoadThreshold,
+                          @Parameter(ScalingPatience.class) final int scalingPatience,
+                          @Parameter(QueuedEventsThreshold.class) final long queuedEventsThreshold,
+                          @Parameter(CpuUtilHighThreshold.class) final double cpuUtilHighThreshold,
+                          @Parameter(TimerWheelWatermark.class) final boolean timerWheelWatermark,
+                          @Parameter(WatermarkTimerTickDuration.class) final long watermarkTimerTickDuration,
+                          @Parameter(SinkMaxBatchSize.class) final int sinkMaxBatchSize,
+                          @Parameter(SinkMaxLingerTime.class) final long sinkMaxLingerTime,
+                          @Parameter(MqttSinkMaxBacklog.class) final int mqttSinkMaxBacklog,
+                          @Parameter(ShareNettyChannels.class) final boolean shareNettyChannels,
+                          @Parameter(DeserializationCacheSize.class) final int deserializationCacheSize,
+                          @Parameter(PlanStorePath.class) final String planStorePath,
+                          @Parameter(PlanSegmentSize.class) final long planSegmentSize,
+                          @Parameter(PlanCompactionPeriod.class) final long planCompactionPeriod,
+                          @Parameter(IncrementalCheckpoint.class) final boolean incrementalCheckpoint,
+                          @Parameter(CheckpointCompactionInterval.class) final int checkpointCompactionInterval,
+                          @Parameter(TaskLoadReportPeriod.class) final long taskLoadReportPeriod,
+                          @Parameter(MigrationDrainTimeout.class) final long migrationDrainTimeout,
+                          @Parameter(PredicateIndex.class) final boolean predicateIndex) {
     this.numEventProcessors = numEventProcessors;
     this.tempFolderPath = tempFolderPath;
     this.rpcServerPort = rpcServerPort + 10 > MAX_PORT_NUM ? rpcServerPort - 10 : rpcServerPort + 10;
@@ -102,6 +297,33 @@ public final class MistTaskConfigs {
     this.mqttSinkKeepAliveSec = mqttSinkKeepAliveSec;
     this.groupPinningTime = groupPinningTime;
     this.processingTimeout = processingTimeout;
+    this.sourceQueueCapacity = sourceQueueCapacity;
+    this.sourceQueueOverflowPolicy = sourceQueueOverflowPolicy;
+    this.ringBufferSourceQueue = ringBufferSourceQueue;
+    this.sourceEventBatchSize = sourceEventBatchSize;
+    this.operatorFusion = operatorFusion;
+    this.workStealing = workStealing;
+    this.eventProcessorAutoscaling = eventProcessorAutoscaling;
+    this.scaleUpLoadThreshold = scaleUpLoadThreshold;
+    this.scaleDownLoadThreshold = scaleDownLoadThreshold;
+    this.scalingPatience = scalingPatience;
+    this.queuedEventsThreshold = queuedEventsThreshold;
+    this.cpuUtilHighThreshold = cpuUtilHighThreshold;
+    this.timerWheelWatermark = timerWheelWatermark;
+    this.watermarkTimerTickDuration = watermarkTimerTickDuration;
+    this.sinkMaxBatchSize = sinkMaxBatchSize;
+    this.sinkMaxLingerTime = sinkMaxLingerTime;
+    this.mqttSinkMaxBacklog = mqttSinkMaxBacklog;
+    this.shareNettyChannels = shareNettyChannels;
+    this.deserializationCacheSize = deserializationCacheSize;
+    this.planStorePath = planStorePath;
+    this.planSegmentSize = planSegmentSize;
+    this.planCompactionPeriod = planCompactionPeriod;
+    this.incrementalCheckpoint = incrementalCheckpoint;
+    this.checkpointCompactionInterval = checkpointCompactionInterval;
+    this.taskLoadReportPeriod = taskLoadReportPeriod;
+    this.migrationDrainTimeout = migrationDrainTimeout;
+    this.predicateIndex = predicateIndex;
   }
 
   /**
@@ -118,11 +340,44 @@ public final class MistTaskConfigs {
     jcb.bindNamedParameter(MqttSourceKeepAliveSec.class, Integer.toString(mqttSourceKeepAliveSec));
     jcb.bindNamedParameter(MqttSinkKeepAliveSec.class, Integer.toString(mqttSinkKeepAliveSec));
     jcb.bindNamedParameter(GroupRebalancingPeriod.class, Long.toString(rebalancingPeriod));
+    jcb.bindNamedParameter(SourceQueueCapacity.class, Integer.toString(sourceQueueCapacity));
+    jcb.bindNamedParameter(SourceQueueOverflowPolicy.class, sourceQueueOverflowPolicy);
+    jcb.bindNamedParameter(SourceEventBatchSize.class, Integer.toString(sourceEventBatchSize));
+    jcb.bindNamedParameter(OperatorFusion.class, Boolean.toString(operatorFusion));
+    jcb.bindNamedParameter(ScaleUpLoadThreshold.class, Double.toString(scaleUpLoadThreshold));
+    jcb.bindNamedParameter(ScaleDownLoadThreshold.class, Double.toString(scaleDownLoadThreshold));
+    jcb.bindNamedParameter(ScalingPatience.class, Integer.toString(scalingPatience));
+    jcb.bindNamedParameter(QueuedEventsThreshold.class, Long.toString(queuedEventsThreshold));
+    jcb.bindNamedParameter(CpuUtilHighThreshold.class, Double.toString(cpuUtilHighThreshold));
+    jcb.bindNamedParameter(TimerWheelWatermark.class, Boolean.toString(timerWheelWatermark));
+    jcb.bindNamedParameter(WatermarkTimerTickDuration.class, Long.toString(watermarkTimerTickDuration));
+    jcb.bindNamedParameter(SinkMaxBatchSize.class, Integer.toString(sinkMaxBatchSize));
+    jcb.bindNamedParameter(SinkMaxLingerTime.class, Long.toString(sinkMaxLingerTime));
+    jcb.bindNamedParameter(MqttSinkMaxBacklog.class, Integer.toString(mqttSinkMaxBacklog));
+    jcb.bindNamedParameter(ShareNettyChannels.class, Boolean.toString(shareNettyChannels));
+    jcb.bindNamedParameter(DeserializationCacheSize.class, Integer.toString(deserializationCacheSize));
+    jcb.bindNamedParameter(PlanStorePath.class, planStorePath);
+    jcb.bindNamedParameter(PlanSegmentSize.class, Long.toString(planSegmentSize));
+    jcb.bindNamedParameter(PlanCompactionPeriod.class, Long.toString(planCompactionPeriod));
+    jcb.bindNamedParameter(IncrementalCheckpoint.class, Boolean.toString(incrementalCheckpoint));
+    jcb.bindNamedParameter(CheckpointCompactionInterval.class, Integer.toString(checkpointCompactionInterval));
+    jcb.bindNamedParameter(TaskLoadReportPeriod.class, Long.toString(taskLoadReportPeriod));
+    jcb.bindNamedParameter(MigrationDrainTimeout.class, Long.toString(migrationDrainTimeout));
+    jcb.bindNamedParameter(PredicateIndex.class, Boolean.toString(predicateIndex));
 
     // Implementation
     jcb.bindImplementation(ClientToTaskMessage.class, DefaultClientToTaskMessageImpl.class);
     jcb.bindConstructor(Server.class, AvroRPCNettyServerWrapper.class);
     jcb.bindConstructor(SpecificResponder.class, TaskSpecificResponderWrapper.class);
+    if (ringBufferSourceQueue) {
+      jcb.bindImplementation(SourceOutputEmitterFactory.class, RingBufferSourceOutputEmitterFactory.class);
+    }
+    if (workStealing) {
+      jcb.bindImplementation(NextGroupSelectorFactory.class, WorkStealingGroupSelectorFactory.class);
+    }
+    if (eventProcessorAutoscaling) {
+      jcb.bindImplementation(EventProcessorAutoscaler.class, LoadBasedEventProcessorAutoscaler.class);
+    }
 
     return jcb.build();
   }
@@ -140,7 +395,34 @@ public final class MistTaskConfigs {
         .registerShortNameOfClass(MqttSinkKeepAliveSec.class)
         .registerShortNameOfClass(ProcessingTimeout.class)
         .registerShortNameOfClass(GroupPinningTime.class)
-        .registerShortNameOfClass(GroupRebalancingPeriod.class);
+        .registerShortNameOfClass(GroupRebalancingPeriod.class)
+        .registerShortNameOfClass(SourceQueueCapacity.class)
+        .registerShortNameOfClass(SourceQueueOverflowPolicy.class)
+        .registerShortNameOfClass(RingBufferSourceQueue.class)
+        .registerShortNameOfClass(SourceEventBatchSize.class)
+        .registerShortNameOfClass(OperatorFusion.class)
+        .registerShortNameOfClass(WorkStealing.class)
+        .registerShortNameOfClass(EventProcessorAutoscaling.class)
+        .registerShortNameOfClass(ScaleUpLoadThreshold.class)
+        .registerShortNameOfClass(ScaleDownLoadThreshold.class)
+        .registerShortNameOfClass(ScalingPatience.class)
+        .registerShortNameOfClass(QueuedEventsThreshold.class)
+        .registerShortNameOfClass(CpuUtilHighThreshold.class)
+        .registerShortNameOfClass(TimerWheelWatermark.class)
+        .registerShortNameOfClass(WatermarkTimerTickDuration.class)
+        .registerShortNameOfClass(SinkMaxBatchSize.class)
+        .registerShortNameOfClass(SinkMaxLingerTime.class)
+        .registerShortNameOfClass(MqttSinkMaxBacklog.class)
+        .registerShortNameOfClass(ShareNettyChannels.class)
+        .registerShortNameOfClass(DeserializationCacheSize.class)
+        .registerShortNameOfClass(PlanStorePath.class)
+        .registerShortNameOfClass(PlanSegmentSize.class)
+        .registerShortNameOfClass(PlanCompactionPeriod.class)
+        .registerShortNameOfClass(IncrementalCheckpoint.class)
+        .registerShortNameOfClass(CheckpointCompactionInterval.class)
+        .registerShortNameOfClass(TaskLoadReportPeriod.class)
+        .registerShortNameOfClass(MigrationDrainTimeout.class)
+        .registerShortNameOfClass(PredicateIndex.class);
 
     return cmd;
   }
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.driver;
+
+import edu.snu.mist.formats.avro.TaskLoadSummary;
+
+/**
+ * A message that a MistTask sends to MistDriver periodically to report its load.
+ */
+public final class TaskLoadMessage implements DriverTaskMessage {
+
+  /**
+   * The load summary of the task.
+   */
+  private final TaskLoadSummary summary;
+
+  public TaskLoadMessage(final TaskLoadSummary summary) {
+    this.summary = summary;
+  }
+
+  public TaskLoadSummary getSummary() {
+    return summary;
+  }
+
+  @Override
+  public String toString() {
+    return "TaskLoadMessage{" + summary + "}";
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.driver;
+
+import edu.snu.mist.formats.avro.TaskLoadSummary;
+
+import javax.inject.Inject;
+import java.util.*;
+
+/**
+ * This class keeps the latest load summaries reported by MistTasks, and ranks the tasks for a new application.
+ * The tasks that already have more of the application's sources come first,
+ * because the queries of the application can be merged with the resident queries that share the sources.
+ * The ties are broken by the load, which is the sum of the cpu utilization,
+ * the event rate and the number of queries normalized by the maximum values among the tasks.
+ * As the summaries are reported periodically, the placements made after the last report of a task
+ * are counted as its queries until the next report.
+ */
+final class TaskLoadTable {
+
+  /**
+   * The latest load summaries of the tasks.
+   */
+  private final Map<String, TaskLoadSummary> summaries;
+
+  /**
+   * The source fingerprints of the tasks.
+   */
+  private final Map<String, Set<String>> sourceFingerprints;
+
+  /**
+   * The number of placements made after the last report of the tasks.
+   */
+  private final Map<String, Integer> pendingPlacements;
+
+  @Inject
+  private TaskLoadTable() {
+    this.summaries = new HashMap<>();
+    this.sourceFingerprints = new HashMap<>();
+    this.pendingPlacements = new HashMap<>();
+  }
+
+  /**
+   * Update the load of the task with the reported summary.
+   * @param summary load summary
+   */
+  synchronized void update(final TaskLoadSummary summary) {
+    final String taskId = summary.getTaskId();
+    summaries.put(taskId, summary);
+    sourceFingerprints.put(taskId, new HashSet<>(summary.getSourceFingerprints()));
+    pendingPlacements.remove(taskId);
+  }
+
+  /**
+   * Remove the load of the task.
+   * @param taskId task id
+   */
+  synchronized void remove(final String taskId) {
+    summaries.remove(taskId);
+    sourceFingerprints.remove(taskId);
+    pendingPlacements.remove(taskId);
+  }
+
+  /**
+   * Rank the tasks for the application that has the sources,
+   * and count a placement to the first task.
+   * @param taskIds ids of the candidate tasks
+   * @param fingerprints fingerprints of the application's source configurations
+   * @return the task ids in the order of preference
+   */
+  synchronized List<String> rank(final Collection<String> taskIds, final Collection<String> fingerprints) {
+    double maxEventRate = 0;
+    int maxQueries = 0;
+    for (final String taskId : taskIds) {
+      final TaskLoadSummary summary = summaries.get(taskId);
+      if (summary != null) {
+        maxEventRate = Math.max(maxEventRate, summary.getEventRate());
+      }
+      maxQueries = Math.max(maxQueries, getNumQueries(taskId));
+    }
+
+    final Map<String, Integer> affinities = new HashMap<>();
+    final Map<String, Double> loads = new HashMap<>();
+    for (final String taskId : taskIds) {
+      final Set<String> taskFingerprints = sourceFingerprints.getOrDefault(taskId, Collections.emptySet());
+      int affinity = 0;
+      for (final String fingerprint : fingerprints) {
+        if (taskFingerprints.contains(fingerprint)) {
+          affinity += 1;
+        }
+      }
+      affinities.put(taskId, affinity);
+
+      final TaskLoadSummary summary = summaries.get(taskId);
+      double load = maxQueries == 0 ? 0 : (double) getNumQueries(taskId) / maxQueries;
+      if (summary != null) {
+        load += summary.getCpuUtil();
+        load += maxEventRate == 0 ? 0 : summary.getEventRate() / maxEventRate;
+      }
+      loads.put(taskId, load);
+    }
+
+    final List<String> ranked = new ArrayList<>(taskIds);
+    ranked.sort(Comparator.<String>comparingInt(affinities::get).reversed()
+        .thenComparingDouble(loads::get)
+        .thenComparing(Comparator.naturalOrder()));
+    if (!ranked.isEmpty()) {
+      pendingPlacements.merge(ranked.get(0), 1, Integer::sum);
+    }
+    return ranked;
+  }
+
+  private int getNumQueries(final String taskId) {
+    final TaskLoadSummary summary = summaries.get(taskId);
+    final int numQueries = summary == null ? 0 : summary.getNumQueries();
+    return numQueries + pendingPlacements.getOrDefault(taskId, 0);
+  }
+}
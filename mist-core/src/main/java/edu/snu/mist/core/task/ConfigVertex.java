@@ -15,7 +15,9 @@
  */
 package edu.snu.mist.core.task;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -38,6 +40,12 @@ public final class ConfigVertex {
    */
   private final Map<String, Object> state;
 
+  /**
+   * The state deltas of this ConfigVertex, which are applied to the state in order.
+   * They exist only if this vertex is recovered from incremental checkpoints.
+   */
+  private final List<Map<String, Object>> stateDeltas;
+
   /**
    * The latest Checkpoint timestamp.
    * It is initially 0, and stays 0 if this vertex is stateless.
@@ -53,6 +61,7 @@ public final class ConfigVertex {
                       final ExecutionVertex.Type type,
                       final String configuration,
                       final Map<String, Object> state,
+                      final List<Map<String, Object>> stateDeltas,
                       final long latestCheckpointTimestamp) {
     this.id = id;
     this.type = type;
@@ -61,9 +70,21 @@ public final class ConfigVertex {
     if (state != null) {
       this.state.putAll(state);
     }
+    this.stateDeltas = new ArrayList<>();
+    if (stateDeltas != null) {
+      this.stateDeltas.addAll(stateDeltas);
+    }
     this.latestCheckpointTimestamp = latestCheckpointTimestamp;
   }
 
+  public ConfigVertex(final String id,
+                      final ExecutionVertex.Type type,
+                      final String configuration,
+                      final Map<String, Object> state,
+                      final long latestCheckpointTimestamp) {
+    this(id, type, configuration, state, null, latestCheckpointTimestamp);
+  }
+
   public ConfigVertex(final String id,
                       final ExecutionVertex.Type type,
                       final String configuration) {
@@ -86,6 +107,10 @@ public final class ConfigVertex {
     return state;
   }
 
+  public List<Map<String, Object>> getStateDeltas() {
+    return stateDeltas;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
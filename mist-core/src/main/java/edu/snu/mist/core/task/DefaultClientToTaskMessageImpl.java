@@ -15,9 +15,11 @@
  */
 package edu.snu.mist.core.task;
 
+import edu.snu.mist.core.task.migration.ApplicationMigrator;
 import edu.snu.mist.formats.avro.AvroDag;
 import edu.snu.mist.formats.avro.ClientToTaskMessage;
 import edu.snu.mist.formats.avro.JarUploadResult;
+import edu.snu.mist.formats.avro.MigrationReport;
 import edu.snu.mist.formats.avro.QueryControlResult;
 import org.apache.avro.AvroRemoteException;
 import org.apache.reef.io.Tuple;
@@ -26,6 +28,7 @@ import org.apache.reef.tang.exceptions.InjectionException;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -35,6 +38,7 @@ import java.util.logging.Logger;
  * It creates the query id and returns it to users.
  * Also, it submits the tuple of queryId and logical plan to QueryManager in order to execute the query,
  * or submits the queryId to delete, stop and resume the corresponding query.
+ * It also migrates the applications to other tasks, and restores the applications migrated from other tasks.
  */
 public final class DefaultClientToTaskMessageImpl implements ClientToTaskMessage {
   private static final Logger LOG = Logger.getLogger(DefaultClientToTaskMessageImpl.class.getName());
@@ -48,11 +52,18 @@ public final class DefaultClientToTaskMessageImpl implements ClientToTaskMessage
    */
   private final QueryIdGenerator queryIdGenerator;
 
+  /**
+   * A migrator of the applications.
+   */
+  private final ApplicationMigrator applicationMigrator;
+
   @Inject
   private DefaultClientToTaskMessageImpl(final QueryIdGenerator queryIdGenerator,
-                                         final QueryManager queryManager) {
+                                         final QueryManager queryManager,
+                                         final ApplicationMigrator applicationMigrator) {
     this.queryIdGenerator = queryIdGenerator;
     this.queryManager = queryManager;
+    this.applicationMigrator = applicationMigrator;
   }
 
   @Override
@@ -85,8 +96,30 @@ public final class DefaultClientToTaskMessageImpl implements ClientToTaskMessage
     return queryManager.create(new Tuple<>(queryId, avroDag));
   }
 
+  @Override
+  public List<QueryControlResult> sendQueryBatch(final List<AvroDag> avroDags) throws AvroRemoteException {
+    final List<Tuple<String, AvroDag>> tuples = new ArrayList<>(avroDags.size());
+    for (final AvroDag avroDag : avroDags) {
+      tuples.add(new Tuple<>(queryIdGenerator.generate(avroDag), avroDag));
+    }
+    return queryManager.createBatch(tuples);
+  }
+
   @Override
   public QueryControlResult deleteQueries(final String groupId, final String queryId) throws AvroRemoteException {
     return queryManager.delete(groupId, queryId);
   }
+
+  @Override
+  public MigrationReport migrateApplication(final String appId,
+                                           final String targetHost,
+                                           final int targetPort) throws AvroRemoteException {
+    return applicationMigrator.migrate(appId, targetHost, targetPort);
+  }
+
+  @Override
+  public JarUploadResult restoreApplication(final ByteBuffer checkpoint,
+                                            final List<ByteBuffer> jarFiles) throws AvroRemoteException {
+    return applicationMigrator.restore(checkpoint, jarFiles);
+  }
 }
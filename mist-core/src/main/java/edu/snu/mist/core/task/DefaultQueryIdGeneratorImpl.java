@@ -16,15 +16,19 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.parameters.QueryIdPrefix;
+import edu.snu.mist.core.task.stores.QueryInfoStore;
 import edu.snu.mist.formats.avro.AvroDag;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Default implementation of QueryIdGenerator.
  * It appends the number of submitted queries to prefix.
+ * The number starts after the ids of the queries whose dags are recovered by the query info store,
+ * so the new queries do not have the ids of the queries of the previous run.
  */
 final class DefaultQueryIdGeneratorImpl implements QueryIdGenerator {
 
@@ -39,9 +43,27 @@ final class DefaultQueryIdGeneratorImpl implements QueryIdGenerator {
   private final String prefix;
 
   @Inject
-  private DefaultQueryIdGeneratorImpl(@Parameter(QueryIdPrefix.class) final String prefix) {
+  private DefaultQueryIdGeneratorImpl(@Parameter(QueryIdPrefix.class) final String prefix,
+                                      final QueryInfoStore planStore) {
     this.prefix = prefix;
-    this.numSubmittedQueries = new AtomicLong();
+    this.numSubmittedQueries = new AtomicLong(nextQueryNumber(prefix, planStore.getStoredQueryIds()));
+  }
+
+  /**
+   * Find the number after the largest number of the stored query ids that have the prefix.
+   */
+  private static long nextQueryNumber(final String prefix, final Set<String> storedQueryIds) {
+    long next = 0;
+    for (final String queryId : storedQueryIds) {
+      if (queryId.startsWith(prefix)) {
+        try {
+          next = Math.max(next, Long.parseLong(queryId.substring(prefix.length())) + 1);
+        } catch (final NumberFormatException e) {
+          // The query id is not generated by this generator
+        }
+      }
+    }
+    return next;
   }
 
   @Override
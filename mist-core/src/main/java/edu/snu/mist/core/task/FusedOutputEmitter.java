@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.MistCheckpointEvent;
+import edu.snu.mist.common.MistDataEvent;
+import edu.snu.mist.common.MistWatermarkEvent;
+import edu.snu.mist.common.OutputEmitter;
+import edu.snu.mist.common.operators.Operator;
+
+import java.util.List;
+
+/**
+ * This emitter fuses a stateless operator with the next stateless operator in a linear chain.
+ * It forwards the outputs to the next operator directly,
+ * without looking up the type of the next vertex and creating new events.
+ * The fused operators are still separate vertices in the execution dag,
+ * so this emitter is replaced with the OperatorOutputEmitter when a merged query adds a downstream vertex.
+ */
+public final class FusedOutputEmitter implements OutputEmitter {
+
+  /**
+   * The next operator which receives the outputs as the left input.
+   */
+  private final Operator nextOperator;
+
+  /**
+   * The index of the edge to the next operator.
+   */
+  private final int edgeIndex;
+
+  public FusedOutputEmitter(final Operator nextOperator,
+                            final int edgeIndex) {
+    this.nextOperator = nextOperator;
+    this.edgeIndex = edgeIndex;
+  }
+
+  @Override
+  public void emitData(final MistDataEvent data) {
+    nextOperator.processLeftData(data);
+  }
+
+  @Override
+  public void emitData(final MistDataEvent data, final int index) {
+    // send the data only if the index of the edge is equal to the target index
+    if (edgeIndex == index) {
+      nextOperator.processLeftData(data);
+    }
+  }
+
+  @Override
+  public void emitDataBatch(final List<MistDataEvent> batch) {
+    nextOperator.processLeftDataBatch(batch);
+  }
+
+  @Override
+  public void emitWatermark(final MistWatermarkEvent watermark) {
+    nextOperator.processLeftWatermark(watermark);
+  }
+
+  @Override
+  public void emitCheckpoint(final MistCheckpointEvent checkpointEvent) {
+    nextOperator.processLeftCheckpoint(checkpointEvent);
+  }
+}
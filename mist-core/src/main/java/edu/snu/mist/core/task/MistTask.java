@@ -16,6 +16,7 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.task.checkpointing.CheckpointManager;
+import edu.snu.mist.core.task.metrics.TaskLoadReporter;
 import org.apache.avro.ipc.Server;
 import org.apache.reef.tang.annotations.Unit;
 import org.apache.reef.tang.exceptions.InjectionException;
@@ -44,26 +45,32 @@ public final class MistTask implements Task {
   private final Server server;
   private final QueryManager queryManager;
   private final CheckpointManager checkpointManager;
+  private final TaskLoadReporter taskLoadReporter;
 
   /**
    * Default constructor of MistTask.
    * @param server rpc server for receiving queries
+   * @param taskLoadReporter reporter of the task load to the driver
    * @throws InjectionException
    */
   @Inject
   private MistTask(final Server server,
                    final QueryManager queryManager,
-                   final CheckpointManager checkpointManager) throws InjectionException {
+                   final CheckpointManager checkpointManager,
+                   final TaskLoadReporter taskLoadReporter) throws InjectionException {
     this.countDownLatch = new CountDownLatch(1);
     this.server = server;
     this.queryManager = queryManager;
     this.checkpointManager = checkpointManager;
+    this.taskLoadReporter = taskLoadReporter;
   }
 
   @Override
   public byte[] call(final byte[] bytes) throws Exception {
     LOG.log(Level.INFO, "MistTask is started");
+    taskLoadReporter.start();
     countDownLatch.await();
+    taskLoadReporter.close();
     server.close();
     queryManager.close();
     return new byte[0];
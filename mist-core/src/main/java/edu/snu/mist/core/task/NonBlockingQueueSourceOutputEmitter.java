@@ -20,15 +20,28 @@ import edu.snu.mist.common.MistDataEvent;
 import edu.snu.mist.common.MistEvent;
 import edu.snu.mist.common.MistWatermarkEvent;
 import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.sources.DataGenerator;
+import edu.snu.mist.core.task.metrics.GlobalMetrics;
 import edu.snu.mist.formats.avro.Direction;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This emitter enqueues events to the source event queue.
+ * If the capacity is given, the overflow policy is applied to the data events that arrive at the full queue.
+ * Watermarks and checkpoints are always enqueued, so they are not dropped or blocked.
+ * For DROP_OLDEST, the producer enqueues the event and the consumer skips the oldest data event instead,
+ * so that a drop costs O(1). The queue holds at most twice the capacity while the consumer catches up,
+ * and the incoming data events are dropped beyond that.
+ * For PAUSE, the data events received after the pause are enqueued up to twice the capacity as well,
+ * because some data generators (e.g., MQTT) cannot be paused.
+ * If the batch size is larger than one, the consecutive data events are dispatched to the next operators at once.
  *  @param <I>
  */
 public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutputEmitter {
@@ -53,31 +66,147 @@ public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutpu
    */
   private final Query query;
 
+  /**
+   * The capacity of the queue. The queue is unbounded if it is not positive.
+   */
+  private final int capacity;
+
+  /**
+   * The policy applied when the queue is full.
+   */
+  private final QueueOverflowPolicy overflowPolicy;
+
+  /**
+   * Data generator of the source, which is paused when the queue is full. It can be null.
+   */
+  private final DataGenerator dataGenerator;
+
+  /**
+   * The global metrics which count the queued and dropped events.
+   */
+  private final GlobalMetrics globalMetrics;
+
+  /**
+   * The number of the oldest data events that the consumer should drop.
+   * It is only decremented by the consumer.
+   */
+  private final AtomicInteger numOldestToDrop;
+
+  /**
+   * True if a producer might wait for the room of the queue.
+   */
+  private volatile boolean blocked;
+
+  /**
+   * True if the data generator is paused.
+   */
+  private final AtomicBoolean paused;
+
+  /**
+   * The maximum number of data events dispatched to the next operators at once.
+   */
+  private final int batchSize;
+
+  /**
+   * The batch of data events which is reused by the consumer.
+   */
+  private final List<MistDataEvent> batch;
 
   public NonBlockingQueueSourceOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators,
-                                             final Query query) {
+                                             final Query query,
+                                             final int capacity,
+                                             final QueueOverflowPolicy overflowPolicy,
+                                             final DataGenerator dataGenerator,
+                                             final GlobalMetrics globalMetrics,
+                                             final int batchSize) {
     this.queue = new ConcurrentLinkedQueue<>();
     this.nextOperators = nextOperators;
     this.query = query;
     this.numEvents = new AtomicInteger();
+    this.capacity = capacity;
+    this.overflowPolicy = QueueOverflowPolicy.forDataGenerator(overflowPolicy, dataGenerator);
+    this.dataGenerator = dataGenerator;
+    this.numOldestToDrop = new AtomicInteger();
+    this.globalMetrics = globalMetrics;
+    this.blocked = false;
+    this.paused = new AtomicBoolean(false);
+    this.batchSize = batchSize;
+    this.batch = new ArrayList<>(Math.max(batchSize, 1));
   }
 
   @Override
   public int processAllEvent() {
     int numProcessedEvent = 0;
+    int numDroppedEvent = 0;
     MistEvent event = queue.poll();
     while (event != null) {
-      numEvents.decrementAndGet();
+      final int n = numEvents.decrementAndGet();
+      if (capacity > 0) {
+        releaseBackpressure(n);
+      }
 
-      for (final Map.Entry<ExecutionVertex, MISTEdge> entry : nextOperators.entrySet()) {
-        process(event, entry.getValue().getDirection(), (PhysicalOperator)entry.getKey());
+      if (event.isData() && numOldestToDrop.get() > 0) {
+        numOldestToDrop.decrementAndGet();
+        numDroppedEvent += 1;
+      } else {
+        dispatch(event);
+        numProcessedEvent += 1;
       }
-      numProcessedEvent += 1;
       event = queue.poll();
     }
+    dispatchBatch();
+    globalMetrics.getNumQueuedSourceEventsMetric().add(-numProcessedEvent - numDroppedEvent);
+    globalMetrics.getNumProcessedSourceEventsMetric().add(numProcessedEvent);
+    if (numDroppedEvent > 0) {
+      globalMetrics.getNumDroppedSourceEventsMetric().add(numDroppedEvent);
+    }
     return numProcessedEvent;
   }
 
+  /**
+   * Add the event to the batch if it is a data event, otherwise process it after the current batch.
+   * @param event event
+   */
+  private void dispatch(final MistEvent event) {
+    if (batchSize > 1 && event.isData()) {
+      batch.add((MistDataEvent) event);
+      if (batch.size() == batchSize) {
+        dispatchBatch();
+      }
+    } else {
+      // Dispatch the current batch first, in order to keep the order of events
+      dispatchBatch();
+      for (final Map.Entry<ExecutionVertex, MISTEdge> entry : nextOperators.entrySet()) {
+        process(event, entry.getValue().getDirection(), (PhysicalOperator)entry.getKey());
+      }
+    }
+  }
+
+  /**
+   * Dispatch the batch of data events to the next operators at once.
+   */
+  private void dispatchBatch() {
+    if (!batch.isEmpty()) {
+      for (final Map.Entry<ExecutionVertex, MISTEdge> entry : nextOperators.entrySet()) {
+        processBatch(batch, entry.getValue().getDirection(), (PhysicalOperator)entry.getKey());
+      }
+      batch.clear();
+    }
+  }
+
+  private void processBatch(final List<MistDataEvent> dataBatch,
+                            final Direction direction,
+                            final PhysicalOperator operator) {
+    if (direction == Direction.LEFT) {
+      operator.getOperator().processLeftDataBatch(dataBatch);
+    } else {
+      for (final MistDataEvent data : dataBatch) {
+        operator.getOperator().processRightData(data);
+      }
+    }
+    operator.setLatestDataTimestamp(dataBatch.get(dataBatch.size() - 1).getTimestamp());
+  }
+
   private void process(final MistEvent event,
                        final Direction direction,
                        final PhysicalOperator operator) {
@@ -102,9 +231,102 @@ public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutpu
     }
   }
 
+  /**
+   * Wake up the blocked producers and resume the paused data generator,
+   * if the queue has enough room after an event is dequeued.
+   * The data generator is resumed when the queue is half drained, in order to avoid frequent pause and resume.
+   * @param n the number of events after dequeue
+   */
+  private void releaseBackpressure(final int n) {
+    if (blocked && n < capacity) {
+      synchronized (this) {
+        blocked = false;
+        notifyAll();
+      }
+    }
+    if (paused.get() && n <= capacity / 2 && paused.compareAndSet(true, false)) {
+      dataGenerator.resume();
+    }
+  }
+
+  /**
+   * Enqueue the data event according to the overflow policy.
+   * @param data data event
+   */
+  private void enqueueData(final MistDataEvent data) {
+    if (capacity > 0 && numberOfEvents() >= capacity) {
+      switch (overflowPolicy) {
+        case BLOCK:
+          waitForRoom();
+          break;
+        case DROP_NEWEST:
+          globalMetrics.getNumDroppedSourceEventsMetric().add(1);
+          return;
+        case DROP_OLDEST:
+          if (numEvents.get() >= 2 * capacity) {
+            // Too many events are waiting to be dropped by the consumer
+            globalMetrics.getNumDroppedSourceEventsMetric().add(1);
+            return;
+          }
+          // The consumer drops the oldest data event instead of removing it from the middle of the queue
+          numOldestToDrop.incrementAndGet();
+          break;
+        case PAUSE:
+          if (dataGenerator != null && paused.compareAndSet(false, true)) {
+            dataGenerator.pause();
+          }
+          if (numEvents.get() >= 2 * capacity) {
+            // The data generator does not stop emitting the data at once, or cannot be paused at all
+            globalMetrics.getNumDroppedSourceEventsMetric().add(1);
+            return;
+          }
+          break;
+        default:
+          throw new RuntimeException("Invalid overflow policy: " + overflowPolicy);
+      }
+    }
+    enqueue(data);
+  }
+
+  /**
+   * Block the current thread until the queue has a room.
+   * The flag is set before checking the size, so the consumer which dequeues an event
+   * either notifies this thread or lets this thread see the decreased size.
+   */
+  private synchronized void waitForRoom() {
+    while (true) {
+      blocked = true;
+      if (numEvents.get() < capacity) {
+        return;
+      }
+      try {
+        wait();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Enqueue the event and insert this source into the query if it becomes active.
+   * @param event event
+   */
+  private void enqueue(final MistEvent event) {
+    queue.add(event);
+    globalMetrics.getNumQueuedSourceEventsMetric().add(1);
+    final int n = numEvents.getAndIncrement();
+    if (n == 0) {
+      query.insert(this);
+    }
+  }
+
+  /**
+   * @return the number of events except the data events that will be dropped by the consumer
+   */
   @Override
   public int numberOfEvents() {
-    return numEvents.get();
+    return numEvents.get() - numOldestToDrop.get();
   }
 
   @Override
@@ -116,12 +338,7 @@ public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutpu
   @Override
   public void emitData(final MistDataEvent data) {
     try {
-      //System.out.println("Event is added at sourceOutputEmitter: " + data.getValue() + ", # events: " + n);
-      queue.add(data);
-      final int n = numEvents.getAndIncrement();
-      if (n == 0) {
-        query.insert(this);
-      }
+      enqueueData(data);
     } catch (final Exception e) {
       throw new RuntimeException(e);
     }
@@ -131,13 +348,7 @@ public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutpu
   public void emitData(final MistDataEvent data, final int index) {
     try {
       // source output emitter does not emit data according to the index
-      //System.out.println("Event is added at sourceOutputEmitter: " + data.getValue() + ", # events: " + n);
-      queue.add(data);
-      final int n = numEvents.getAndIncrement();
-
-      if (n == 0) {
-        query.insert(this);
-      }
+      enqueueData(data);
     } catch (final Exception e) {
       throw new RuntimeException(e);
     }
@@ -146,12 +357,7 @@ public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutpu
   @Override
   public void emitWatermark(final MistWatermarkEvent watermark) {
     try {
-      queue.add(watermark);
-      final int n = numEvents.getAndIncrement();
-
-      if (n == 0) {
-        query.insert(this);
-      }
+      enqueue(watermark);
     } catch (final Exception e) {
       throw new RuntimeException(e);
     }
@@ -160,14 +366,9 @@ public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutpu
   @Override
   public void emitCheckpoint(final MistCheckpointEvent mistCheckpointEvent) {
     try {
-      queue.add(mistCheckpointEvent);
-      final int n = numEvents.getAndIncrement();
-
-      if (n == 0) {
-        query.insert(this);
-      }
+      enqueue(mistCheckpointEvent);
     } catch (final Exception e) {
       throw new RuntimeException(e);
     }
   }
-}
\ No newline at end of file
+}
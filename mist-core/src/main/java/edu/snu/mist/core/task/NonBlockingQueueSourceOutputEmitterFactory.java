@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.parameters.SourceEventBatchSize;
+import edu.snu.mist.core.parameters.SourceQueueCapacity;
+import edu.snu.mist.core.parameters.SourceQueueOverflowPolicy;
+import edu.snu.mist.core.task.metrics.GlobalMetrics;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.Map;
+
+/**
+ * Non-blocking queue source output emitter factory.
+ */
+public final class NonBlockingQueueSourceOutputEmitterFactory implements SourceOutputEmitterFactory {
+
+  /**
+   * The capacity of the source queue.
+   */
+  private final int capacity;
+
+  /**
+   * The policy applied when the source queue is full.
+   */
+  private final QueueOverflowPolicy overflowPolicy;
+
+  /**
+   * The global metrics.
+   */
+  private final GlobalMetrics globalMetrics;
+
+  /**
+   * The maximum number of data events dispatched at once.
+   */
+  private final int batchSize;
+
+  @Inject
+  private NonBlockingQueueSourceOutputEmitterFactory(
+      @Parameter(SourceQueueCapacity.class) final int capacity,
+      @Parameter(SourceQueueOverflowPolicy.class) final String overflowPolicy,
+      final GlobalMetrics globalMetrics,
+      @Parameter(SourceEventBatchSize.class) final int batchSize) {
+    this.capacity = capacity;
+    this.overflowPolicy = QueueOverflowPolicy.valueOf(overflowPolicy);
+    this.globalMetrics = globalMetrics;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public SourceOutputEmitter newInstance(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                                         final Query query,
+                                         final PhysicalSource source) {
+    return new NonBlockingQueueSourceOutputEmitter<>(nextOperators, query, capacity, overflowPolicy,
+        source.getDataGenerator(), globalMetrics, batchSize);
+  }
+}
@@ -22,6 +22,8 @@ import edu.snu.mist.common.OutputEmitter;
 import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.formats.avro.Direction;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -66,6 +68,40 @@ public final class OperatorOutputEmitter implements OutputEmitter {
     }
   }
 
+  /**
+   * Send a batch of data events to the next operator chain if the next vertex is an operator chain,
+   * otherwise send the values of the events to the sink.
+   * @param batch batch of data outputs
+   * @param direction direction of upstream
+   * @param nextVertex next vertex (operator chain or sink)
+   */
+  private void sendDataBatch(final List<MistDataEvent> batch,
+                             final Direction direction,
+                             final ExecutionVertex nextVertex) {
+    switch (nextVertex.getType()) {
+      case OPERATOR: {
+        if (direction == Direction.LEFT) {
+          ((PhysicalOperator) nextVertex).getOperator().processLeftDataBatch(batch);
+        } else {
+          for (final MistDataEvent output : batch) {
+            ((PhysicalOperator) nextVertex).getOperator().processRightData(output);
+          }
+        }
+        break;
+      }
+      case SINK: {
+        final List<Object> values = new ArrayList<>(batch.size());
+        for (final MistDataEvent output : batch) {
+          values.add(output.getValue());
+        }
+        ((PhysicalSink)nextVertex).getSink().handleBatch(values);
+        break;
+      }
+      default:
+        throw new RuntimeException("Unknown type: " + nextVertex.getType());
+    }
+  }
+
   /**
    * Send watermarks to the next operator chain if the next vertex is an operator chain.
    * @param watermark watermark
@@ -174,6 +210,28 @@ public final class OperatorOutputEmitter implements OutputEmitter {
     }
   }
 
+  @Override
+  public void emitDataBatch(final List<MistDataEvent> batch) {
+    // Optimization: do not create new MistEvents and reuse them if it has one downstream operator chain.
+    if (nextOperators.size() == 1) {
+      for (final Map.Entry<ExecutionVertex, MISTEdge> nextChain :
+          nextOperators.entrySet()) {
+        final Direction direction = nextChain.getValue().getDirection();
+        sendDataBatch(batch, direction, nextChain.getKey());
+      }
+    } else {
+      for (final Map.Entry<ExecutionVertex, MISTEdge> nextChain :
+          nextOperators.entrySet()) {
+        final List<MistDataEvent> events = new ArrayList<>(batch.size());
+        for (final MistDataEvent output : batch) {
+          events.add(new MistDataEvent(output.getValue(), output.getTimestamp()));
+        }
+        final Direction direction = nextChain.getValue().getDirection();
+        sendDataBatch(events, direction, nextChain.getKey());
+      }
+    }
+  }
+
   @Override
   public void emitWatermark(final MistWatermarkEvent output) {
     // Watermark is not changed, so we just forward watermark to next operator chains.
@@ -18,15 +18,25 @@ package edu.snu.mist.core.task;
 import edu.snu.mist.common.operators.Operator;
 import edu.snu.mist.common.parameters.MQTTBrokerURI;
 import edu.snu.mist.common.parameters.MQTTTopic;
+import edu.snu.mist.common.parameters.PeriodicWatermarkPeriod;
+import edu.snu.mist.common.shared.DeserializationCache;
 import edu.snu.mist.common.shared.KafkaSharedResource;
 import edu.snu.mist.common.shared.MQTTResource;
 import edu.snu.mist.common.shared.NettySharedResource;
 import edu.snu.mist.common.sinks.Sink;
+import edu.snu.mist.common.sinks.parameters.MqttSinkMaxBacklog;
+import edu.snu.mist.common.sinks.parameters.SinkMaxBatchSize;
+import edu.snu.mist.common.sinks.parameters.SinkMaxLingerTime;
 import edu.snu.mist.common.sources.DataGenerator;
 import edu.snu.mist.common.sources.EventGenerator;
+import edu.snu.mist.common.sources.TimerWheelEventGenerator;
+import edu.snu.mist.common.sources.WatermarkTimerWheel;
+import edu.snu.mist.core.parameters.TimerWheelWatermark;
+import edu.snu.mist.core.parameters.WatermarkTimerTickDuration;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.InjectionException;
 
 import javax.inject.Inject;
@@ -49,6 +59,32 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
    */
   private final TimeUnit watermarkTimeUnit = TimeUnit.MILLISECONDS;
 
+  /**
+   * The number of buckets of the watermark timer wheel.
+   */
+  private static final int WATERMARK_TIMER_WHEEL_SIZE = 512;
+
+  /**
+   * The shared timer wheel for periodic watermarks.
+   * This is null if the periodic watermarks are scheduled per source.
+   */
+  private final WatermarkTimerWheel watermarkTimerWheel;
+
+  /**
+   * The maximum number of unflushed outputs of a sink.
+   */
+  private final int sinkMaxBatchSize;
+
+  /**
+   * The maximum time that a sink holds unflushed outputs.
+   */
+  private final long sinkMaxLingerTime;
+
+  /**
+   * The maximum number of unpublished outputs of an mqtt sink.
+   */
+  private final int mqttSinkMaxBacklog;
+
   /**
    * Kafka shared resources.
    */
@@ -64,15 +100,32 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
    */
   private final MQTTResource mqttSharedResource;
 
+  /**
+   * The cache of the deserialized udfs.
+   */
+  private final DeserializationCache deserializationCache;
+
   @Inject
   private PhysicalObjectGenerator(final ScheduledExecutorServiceWrapper schedulerWrapper,
                                   final KafkaSharedResource kafkaSharedResource,
                                   final NettySharedResource nettySharedResource,
-                                  final MQTTResource mqttSharedResource) {
+                                  final MQTTResource mqttSharedResource,
+                                  final DeserializationCache deserializationCache,
+                                  @Parameter(TimerWheelWatermark.class) final boolean timerWheelWatermark,
+                                  @Parameter(WatermarkTimerTickDuration.class) final long tickDuration,
+                                  @Parameter(SinkMaxBatchSize.class) final int sinkMaxBatchSize,
+                                  @Parameter(SinkMaxLingerTime.class) final long sinkMaxLingerTime,
+                                  @Parameter(MqttSinkMaxBacklog.class) final int mqttSinkMaxBacklog) {
     this.scheduler = schedulerWrapper.getScheduler();
+    this.watermarkTimerWheel = timerWheelWatermark
+        ? new WatermarkTimerWheel(scheduler, tickDuration, WATERMARK_TIMER_WHEEL_SIZE) : null;
+    this.sinkMaxBatchSize = sinkMaxBatchSize;
+    this.sinkMaxLingerTime = sinkMaxLingerTime;
+    this.mqttSinkMaxBacklog = mqttSinkMaxBacklog;
     this.kafkaSharedResource = kafkaSharedResource;
     this.nettySharedResource = nettySharedResource;
     this.mqttSharedResource = mqttSharedResource;
+    this.deserializationCache = deserializationCache;
   }
 
   /**
@@ -84,6 +137,7 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
                                       final ClassLoader classLoader) {
     final Injector injector = Tang.Factory.getTang().newInjector(conf);
     injector.bindVolatileInstance(ClassLoader.class, classLoader);
+    injector.bindVolatileInstance(DeserializationCache.class, deserializationCache);
     return injector;
   }
 
@@ -101,6 +155,11 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
     final Injector injector = newDefaultInjector(conf, classLoader);
     injector.bindVolatileInstance(TimeUnit.class, watermarkTimeUnit);
     injector.bindVolatileInstance(ScheduledExecutorService.class, scheduler);
+    if (watermarkTimerWheel != null && injector.isParameterSet(PeriodicWatermarkPeriod.class)) {
+      // Periodic watermarks are emitted from the shared timer wheel instead of the per-source scheduled task
+      injector.bindVolatileInstance(WatermarkTimerWheel.class, watermarkTimerWheel);
+      return injector.getInstance(TimerWheelEventGenerator.class);
+    }
     return injector.getInstance(EventGenerator.class);
   }
 
@@ -158,9 +217,12 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
     if (injector.isParameterSet(MQTTBrokerURI.class)) {
       // for MQTT
       injector.bindVolatileInstance(MQTTResource.class, mqttSharedResource);
+      injector.bindVolatileParameter(MqttSinkMaxBacklog.class, mqttSinkMaxBacklog);
     } else {
       // for netty
       injector.bindVolatileInstance(NettySharedResource.class, nettySharedResource);
+      injector.bindVolatileParameter(SinkMaxBatchSize.class, sinkMaxBatchSize);
+      injector.bindVolatileParameter(SinkMaxLingerTime.class, sinkMaxLingerTime);
       // TODO: for kafka
     }
     return injector.getInstance(Sink.class);
@@ -168,6 +230,9 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
 
   @Override
   public void close() throws Exception {
+    if (watermarkTimerWheel != null) {
+      watermarkTimerWheel.close();
+    }
     kafkaSharedResource.close();
     nettySharedResource.close();
     mqttSharedResource.close();
@@ -16,6 +16,7 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.common.OutputEmittable;
+import edu.snu.mist.common.sources.DataGenerator;
 import edu.snu.mist.common.sources.EventGenerator;
 
 /**
@@ -38,6 +39,11 @@ public interface PhysicalSource extends AutoCloseable, OutputEmittable, Physical
    */
   EventGenerator getEventGenerator();
 
+  /**
+   * Gets the current DataGenerator.
+   */
+  DataGenerator getDataGenerator();
+
   /**
    * Get source output emitter.
    * @return source output emitter
@@ -19,6 +19,8 @@ import edu.snu.mist.common.OutputEmitter;
 import edu.snu.mist.common.sources.DataGenerator;
 import edu.snu.mist.common.sources.EventGenerator;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * This class represents the implementation of Source interface.
  * @param <T> the type of input data
@@ -35,12 +37,18 @@ public final class PhysicalSourceImpl<T> extends BasePhysicalVertex implements P
    */
   private final EventGenerator<T> eventGenerator;
 
+  /**
+   * True if the source is closed. The source can be closed before its query is deleted, for migration.
+   */
+  private final AtomicBoolean closed;
+
   public PhysicalSourceImpl(final String sourceId,
                             final String configuration,
                             final DataGenerator<T> dataGenerator, final EventGenerator<T> eventGenerator) {
     super(sourceId, configuration);
     this.dataGenerator = dataGenerator;
     this.eventGenerator = eventGenerator;
+    this.closed = new AtomicBoolean(false);
   }
 
   @Override
@@ -60,6 +68,11 @@ public final class PhysicalSourceImpl<T> extends BasePhysicalVertex implements P
     return eventGenerator;
   }
 
+  @Override
+  public DataGenerator getDataGenerator() {
+    return dataGenerator;
+  }
+
   @Override
   public SourceOutputEmitter getSourceOutputEmitter() {
     return (SourceOutputEmitter)eventGenerator.getOutputEmitter();
@@ -67,8 +80,10 @@ public final class PhysicalSourceImpl<T> extends BasePhysicalVertex implements P
 
   @Override
   public void close() throws Exception {
-    dataGenerator.close();
-    eventGenerator.close();
+    if (closed.compareAndSet(false, true)) {
+      dataGenerator.close();
+      eventGenerator.close();
+    }
   }
 
   @Override
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.MistCheckpointEvent;
+import edu.snu.mist.common.MistDataEvent;
+import edu.snu.mist.common.MistWatermarkEvent;
+import edu.snu.mist.common.OutputEmitter;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.operators.predicates.RuleBasedCCPredicate;
+import edu.snu.mist.common.operators.predicates.RuleBasedPredicateIndex;
+
+import java.util.*;
+
+/**
+ * This emitter forwards the outputs to the rule-based comparison filters through a predicate index,
+ * which is shared by the queries that are merged up to the upstream operator.
+ * An output is delivered only to the filters whose predicates it may satisfy,
+ * and the filters still test their predicates, so the results are the same as those of OperatorOutputEmitter.
+ * The other next vertices receive the outputs through an OperatorOutputEmitter.
+ * The indexed filters are not changed after construction,
+ * so this emitter is replaced when the next vertices of the upstream operator are changed.
+ */
+public final class PredicateIndexOutputEmitter implements OutputEmitter {
+
+  /**
+   * The indexed filters, and the edges to them.
+   */
+  private final Map<PhysicalOperator, MISTEdge> indexedFilters;
+
+  /**
+   * The index of the predicates of the filters.
+   */
+  private final RuleBasedPredicateIndex<PhysicalOperator> predicateIndex;
+
+  /**
+   * The emitter which forwards the outputs to the other next vertices.
+   */
+  private final OutputEmitter otherEmitter;
+
+  public PredicateIndexOutputEmitter(final Map<PhysicalOperator, RuleBasedCCPredicate> predicates,
+                                     final Map<ExecutionVertex, MISTEdge> edges) {
+    this.indexedFilters = new HashMap<>(predicates.size());
+    final Map<ExecutionVertex, MISTEdge> otherEdges = new HashMap<>(edges);
+    for (final PhysicalOperator filter : predicates.keySet()) {
+      indexedFilters.put(filter, otherEdges.remove(filter));
+    }
+    this.predicateIndex = new RuleBasedPredicateIndex<>(predicates);
+    this.otherEmitter = new OperatorOutputEmitter(otherEdges);
+  }
+
+  @Override
+  public void emitData(final MistDataEvent output) {
+    final Object value = output.getValue();
+    if (value instanceof Map) {
+      predicateIndex.match((Map<String, Object>) value, filter ->
+          filter.getOperator().processLeftData(new MistDataEvent(value, output.getTimestamp())));
+    } else {
+      // The filters handle the invalid input as before
+      for (final PhysicalOperator filter : indexedFilters.keySet()) {
+        filter.getOperator().processLeftData(new MistDataEvent(value, output.getTimestamp()));
+      }
+    }
+    otherEmitter.emitData(output);
+  }
+
+  @Override
+  public void emitData(final MistDataEvent output, final int index) {
+    for (final Map.Entry<PhysicalOperator, MISTEdge> entry : indexedFilters.entrySet()) {
+      // send the data only if the index of this edge is equal to the target index
+      if (entry.getValue().getIndex() == index) {
+        entry.getKey().getOperator().processLeftData(new MistDataEvent(output.getValue(), output.getTimestamp()));
+      }
+    }
+    otherEmitter.emitData(output, index);
+  }
+
+  @Override
+  public void emitDataBatch(final List<MistDataEvent> batch) {
+    // Group the outputs by the filters, in order to keep the batches of the filters
+    final Map<PhysicalOperator, List<MistDataEvent>> filterBatches = new IdentityHashMap<>();
+    for (final MistDataEvent output : batch) {
+      final Object value = output.getValue();
+      if (value instanceof Map) {
+        predicateIndex.match((Map<String, Object>) value, filter ->
+            filterBatches.computeIfAbsent(filter, f -> new ArrayList<>())
+                .add(new MistDataEvent(value, output.getTimestamp())));
+      } else {
+        for (final PhysicalOperator filter : indexedFilters.keySet()) {
+          filterBatches.computeIfAbsent(filter, f -> new ArrayList<>())
+              .add(new MistDataEvent(value, output.getTimestamp()));
+        }
+      }
+    }
+    for (final Map.Entry<PhysicalOperator, List<MistDataEvent>> entry : filterBatches.entrySet()) {
+      entry.getKey().getOperator().processLeftDataBatch(entry.getValue());
+    }
+    otherEmitter.emitDataBatch(batch);
+  }
+
+  @Override
+  public void emitWatermark(final MistWatermarkEvent watermark) {
+    for (final PhysicalOperator filter : indexedFilters.keySet()) {
+      filter.getOperator().processLeftWatermark(watermark);
+    }
+    otherEmitter.emitWatermark(watermark);
+  }
+
+  @Override
+  public void emitCheckpoint(final MistCheckpointEvent checkpointEvent) {
+    for (final PhysicalOperator filter : indexedFilters.keySet()) {
+      filter.getOperator().processLeftCheckpoint(checkpointEvent);
+    }
+    otherEmitter.emitCheckpoint(checkpointEvent);
+  }
+}
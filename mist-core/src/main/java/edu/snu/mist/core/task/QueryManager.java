@@ -41,6 +41,13 @@ public interface QueryManager extends AutoCloseable {
    */
   QueryControlResult create(Tuple<String, AvroDag> tuple);
 
+  /**
+   * Start the queries of a batch.
+   * @param tuples the query ids and the avro dags
+   * @return the submission results in the order of the queries
+   */
+  List<QueryControlResult> createBatch(List<Tuple<String, AvroDag>> tuples);
+
   /**
    * Create a query (this is for checkpointing).
    * @param queryId query id
@@ -58,6 +65,12 @@ public interface QueryManager extends AutoCloseable {
    */
   String uploadJarFile(List<ByteBuffer> jar) throws IOException, InjectionException;
 
+  /**
+   * Generate the id of a new application, which is not used by the existing applications.
+   * @return application identifier
+   */
+  String generateApplicationId();
+
   /**
    * Create an application with id and the jar files (this is for checkpointing).
    * @param appId app id
@@ -18,11 +18,14 @@ package edu.snu.mist.core.task;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.core.task.merging.ImmediateQueryMergingStarter;
+import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.annotations.DefaultImplementation;
 import org.apache.reef.tang.exceptions.InjectionException;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This interface represents a component that is responsible for starting and executing queries.
@@ -38,4 +41,27 @@ public interface QueryStarter {
   void start(String queryId,
              Query query, DAG<ConfigVertex, MISTEdge> configDag, List<String> jarFilePaths)
       throws InjectionException, IOException, ClassNotFoundException;
+
+  /**
+   * Start to execute the submitted queries of an application at once.
+   * A query that fails to start does not stop the other queries of the batch.
+   * By default, it starts the queries one by one.
+   * @param queries the queries and their configuration dags
+   * @param jarFilePaths jar file paths of the application
+   * @return the exceptions of the queries that failed to start, keyed by the query id
+   * @throws IOException if none of the queries is started, e.g., the class loader cannot be created
+   */
+  default Map<String, Exception> startBatch(final List<Tuple<Query, DAG<ConfigVertex, MISTEdge>>> queries,
+                                            final List<String> jarFilePaths)
+      throws InjectionException, IOException, ClassNotFoundException {
+    final Map<String, Exception> failures = new HashMap<>();
+    for (final Tuple<Query, DAG<ConfigVertex, MISTEdge>> tuple : queries) {
+      try {
+        start(tuple.getKey().getId(), tuple.getKey(), tuple.getValue(), jarFilePaths);
+      } catch (final Exception e) {
+        failures.put(tuple.getKey().getId(), e);
+      }
+    }
+    return failures;
+  }
 }
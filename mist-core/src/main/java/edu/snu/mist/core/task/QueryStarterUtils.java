@@ -15,10 +15,19 @@
  */
 package edu.snu.mist.core.task;
 
+import edu.snu.mist.common.OutputEmitter;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.GraphUtils;
 import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.operators.FilterOperator;
+import edu.snu.mist.common.operators.FlatMapOperator;
+import edu.snu.mist.common.operators.MapOperator;
+import edu.snu.mist.common.operators.Operator;
+import edu.snu.mist.common.operators.predicates.RuleBasedCCPredicate;
+import edu.snu.mist.common.operators.predicates.RuleBasedPredicateIndex;
+import edu.snu.mist.formats.avro.Direction;
 
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -27,6 +36,11 @@ import java.util.Map;
  */
 public final class QueryStarterUtils {
 
+  /**
+   * The minimum number of the rule-based comparison filters that are indexed.
+   */
+  private static final int MIN_INDEXED_FILTERS = 2;
+
   private QueryStarterUtils() {
     // do nothing
   }
@@ -34,9 +48,16 @@ public final class QueryStarterUtils {
   /**
    * Sets the OutputEmitters of the sources, operators and sinks.
    * @param submittedExecutionDag the dag of the submitted query
+   * @param query the submitted query
+   * @param sourceOutputEmitterFactory the factory which creates the output emitters of the sources
+   * @param operatorFusion true if the linear chains of stateless operators are fused
+   * @param predicateIndex true if the rule-based comparison filters are indexed
    */
   public static void setUpOutputEmitters(final ExecutionDag submittedExecutionDag,
-                                         final Query query) {
+                                         final Query query,
+                                         final SourceOutputEmitterFactory sourceOutputEmitterFactory,
+                                         final boolean operatorFusion,
+                                         final boolean predicateIndex) {
     final DAG<ExecutionVertex, MISTEdge> dag = submittedExecutionDag.getDag();
     final Iterator<ExecutionVertex> iterator = GraphUtils.topologicalSort(dag);
     while (iterator.hasNext()) {
@@ -46,15 +67,14 @@ public final class QueryStarterUtils {
           final PhysicalSource source = (PhysicalSource)executionVertex;
           final Map<ExecutionVertex, MISTEdge> nextOps = dag.getEdges(source);
           // Sets output emitters
-          source.setOutputEmitter(new NonBlockingQueueSourceOutputEmitter<>(nextOps, query));
+          source.setOutputEmitter(sourceOutputEmitterFactory.newInstance(nextOps, query, source));
           break;
         }
         case OPERATOR: {
           final PhysicalOperator operator = (PhysicalOperator)executionVertex;
-          final Map<ExecutionVertex, MISTEdge> edges =
-              dag.getEdges(operator);
           // Sets output emitters and operator chain manager for operator.
-          operator.getOperator().setOutputEmitter(new OperatorOutputEmitter(edges));
+          operator.getOperator().setOutputEmitter(
+              newOperatorOutputEmitter(dag, operator, operatorFusion, predicateIndex));
           break;
         }
         case SINK: {
@@ -65,4 +85,110 @@ public final class QueryStarterUtils {
       }
     }
   }
+
+  /**
+   * Creates the output emitter of an operator in the dag.
+   * If operatorFusion is true and the operator can be fused with the next operator,
+   * the outputs are forwarded directly to the next operator through a FusedOutputEmitter.
+   * The emitter should be created again when the edges of the operator or the next operator are changed.
+   * @param dag execution dag that contains the operator
+   * @param operator operator
+   * @param operatorFusion true if the linear chains of stateless operators are fused
+   * @param predicateIndex true if the rule-based comparison filters are indexed
+   * @return output emitter
+   */
+  public static OutputEmitter newOperatorOutputEmitter(final DAG<ExecutionVertex, MISTEdge> dag,
+                                                       final PhysicalOperator operator,
+                                                       final boolean operatorFusion,
+                                                       final boolean predicateIndex) {
+    final Map<ExecutionVertex, MISTEdge> edges = dag.getEdges(operator);
+    final PhysicalOperator fusibleNextOperator = operatorFusion ? getFusibleNextOperator(dag, operator) : null;
+    if (fusibleNextOperator != null) {
+      // Fuses the operator with the next operator by forwarding the outputs directly
+      return new FusedOutputEmitter(fusibleNextOperator.getOperator(), edges.get(fusibleNextOperator).getIndex());
+    }
+    return newOperatorOutputEmitter(edges, predicateIndex);
+  }
+
+  /**
+   * Creates the output emitter of an operator that is not fused with the next operator.
+   * If predicateIndex is true and the next vertices have multiple rule-based comparison filters,
+   * the filters receive the outputs through a PredicateIndexOutputEmitter.
+   * The emitter should be created again when the next vertices of the operator are changed.
+   * @param edges the edges to the next vertices
+   * @param predicateIndex true if the rule-based comparison filters are indexed
+   * @return output emitter
+   */
+  public static OutputEmitter newOperatorOutputEmitter(final Map<ExecutionVertex, MISTEdge> edges,
+                                                       final boolean predicateIndex) {
+    if (predicateIndex) {
+      final Map<PhysicalOperator, RuleBasedCCPredicate> predicates = new HashMap<>();
+      for (final Map.Entry<ExecutionVertex, MISTEdge> edge : edges.entrySet()) {
+        final RuleBasedCCPredicate predicate = getIndexablePredicate(edge.getKey(), edge.getValue());
+        if (predicate != null) {
+          predicates.put((PhysicalOperator) edge.getKey(), predicate);
+        }
+      }
+      if (predicates.size() >= MIN_INDEXED_FILTERS) {
+        return new PredicateIndexOutputEmitter(predicates, edges);
+      }
+    }
+    return new OperatorOutputEmitter(edges);
+  }
+
+  /**
+   * Gets the predicate of the next vertex if it is a filter of an indexable rule-based comparison predicate.
+   * @return the predicate, or null if the next vertex cannot be indexed
+   */
+  private static RuleBasedCCPredicate getIndexablePredicate(final ExecutionVertex nextVertex,
+                                                            final MISTEdge edge) {
+    if (nextVertex.getType() != ExecutionVertex.Type.OPERATOR || edge.getDirection() != Direction.LEFT) {
+      return null;
+    }
+    final Operator operator = ((PhysicalOperator) nextVertex).getOperator();
+    if (!(operator instanceof FilterOperator)) {
+      return null;
+    }
+    final Object predicate = ((FilterOperator<?>) operator).getFilterFunc();
+    if (predicate instanceof RuleBasedCCPredicate
+        && RuleBasedPredicateIndex.isIndexable((RuleBasedCCPredicate) predicate)) {
+      return (RuleBasedCCPredicate) predicate;
+    }
+    return null;
+  }
+
+  /**
+   * Gets the next operator which can be fused with the operator.
+   * A stateless operator is fused with the next stateless operator only if
+   * the operator has one downstream vertex, and the next operator has one upstream vertex
+   * and receives the outputs as the left input.
+   * @param dag execution dag
+   * @param operator operator
+   * @return the next operator, or null if the operator cannot be fused
+   */
+  public static PhysicalOperator getFusibleNextOperator(final DAG<ExecutionVertex, MISTEdge> dag,
+                                                        final PhysicalOperator operator) {
+    final Map<ExecutionVertex, MISTEdge> edges = dag.getEdges(operator);
+    if (!isStateless(operator.getOperator()) || edges.size() != 1) {
+      return null;
+    }
+    final Map.Entry<ExecutionVertex, MISTEdge> edge = edges.entrySet().iterator().next();
+    final ExecutionVertex nextVertex = edge.getKey();
+    if (nextVertex.getType() != ExecutionVertex.Type.OPERATOR
+        || edge.getValue().getDirection() != Direction.LEFT
+        || dag.getInDegree(nextVertex) != 1
+        || !isStateless(((PhysicalOperator) nextVertex).getOperator())) {
+      return null;
+    }
+    return (PhysicalOperator) nextVertex;
+  }
+
+  /**
+   * Checks whether the operator is a stateless operator that processes a single stream.
+   */
+  private static boolean isStateless(final Operator operator) {
+    return operator instanceof MapOperator
+        || operator instanceof FilterOperator
+        || operator instanceof FlatMapOperator;
+  }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.sources.DataGenerator;
+
+/**
+ * The policy applied when the bounded event queue of a source is full.
+ */
+public enum QueueOverflowPolicy {
+  /**
+   * Blocks the producer thread until the queue has a room.
+   * It is replaced by PAUSE for the data generators emitting the data in shared I/O threads.
+   */
+  BLOCK,
+  /**
+   * Drops the oldest data event in the queue.
+   */
+  DROP_OLDEST,
+  /**
+   * Drops the incoming data event.
+   */
+  DROP_NEWEST,
+  /**
+   * Pauses the data generator of the source until the queue is drained.
+   */
+  PAUSE;
+
+  /**
+   * Returns the policy applied to the source of the data generator.
+   * BLOCK is replaced by PAUSE if the data generator emits the data in a shared I/O thread,
+   * because blocking the thread stalls all the other sources of the thread.
+   * @param policy the configured policy
+   * @param dataGenerator data generator, which can be null
+   * @return the policy applied to the source
+   */
+  public static QueueOverflowPolicy forDataGenerator(final QueueOverflowPolicy policy,
+                                                     final DataGenerator dataGenerator) {
+    if (policy == BLOCK && dataGenerator != null && dataGenerator.isSharedThread()) {
+      return PAUSE;
+    }
+    return policy;
+  }
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.MistCheckpointEvent;
+import edu.snu.mist.common.MistDataEvent;
+import edu.snu.mist.common.MistEvent;
+import edu.snu.mist.common.MistWatermarkEvent;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.sources.DataGenerator;
+import edu.snu.mist.core.task.metrics.GlobalMetrics;
+import edu.snu.mist.formats.avro.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This emitter enqueues events to a preallocated multi-producer single-consumer ring buffer.
+ * A producer claims a slot by incrementing the tail sequence, which also represents the number of events
+ * together with the head sequence of the consumer, so an event costs one atomic increment without allocation.
+ * The source is inserted to the query only when it becomes active, which is tracked by the scheduled flag.
+ * If the ring buffer is full, the overflow policy is applied to the data events.
+ * As the slots cannot be removed from the middle of the ring buffer, DROP_OLDEST is not supported.
+ * Only the producer of BLOCK waits for the consumer, as BLOCK is replaced by PAUSE for the shared I/O threads.
+ * The events that do not fit in the ring buffer without waiting go to an overflow queue,
+ * which is consumed after the ring buffer, and the later events follow them until the overflow queue is drained.
+ * Watermarks and checkpoints are never dropped or blocked, while the overflowed data events of PAUSE
+ * are bounded by the capacity in case the data generator cannot be paused, and the excess is dropped.
+ * If the batch size is larger than one, the consecutive data events are dispatched to the next operators at once.
+ * @param <I>
+ */
+public final class RingBufferSourceOutputEmitter<I> implements SourceOutputEmitter {
+
+  /**
+   * The time for a producer to wait for the consumer when the ring buffer is full.
+   */
+  private static final long WAIT_NANOS = 10000L;
+
+  /**
+   * The slots of the ring buffer.
+   */
+  private final AtomicReferenceArray<MistEvent> buffer;
+
+  /**
+   * The mask for the index of the slot, as the capacity is a power of two.
+   */
+  private final int mask;
+
+  /**
+   * The sequence of the next slot claimed by the producers.
+   */
+  private final AtomicLong tail;
+
+  /**
+   * The sequence of the next slot consumed by the consumer. It is only written by the consumer.
+   */
+  private volatile long head;
+
+  /**
+   * True if this source is inserted to the query and not consumed yet.
+   */
+  private final AtomicBoolean scheduled;
+
+  /**
+   * Next operators.
+   */
+  private final Map<ExecutionVertex, MISTEdge> nextOperators;
+
+  /**
+   * Query that contains this source.
+   */
+  private final Query query;
+
+  /**
+   * The maximum number of data events dispatched to the next operators at once.
+   */
+  private final int batchSize;
+
+  /**
+   * The batch of data events which is reused by the consumer.
+   */
+  private final List<MistDataEvent> batch;
+
+  /**
+   * The global metrics which count the queued and dropped events.
+   */
+  private final GlobalMetrics globalMetrics;
+
+  /**
+   * The policy applied when the ring buffer is full.
+   */
+  private final QueueOverflowPolicy overflowPolicy;
+
+  /**
+   * Data generator of the source, which is paused when the ring buffer is full. It can be null.
+   */
+  private final DataGenerator dataGenerator;
+
+  /**
+   * True if the data generator is paused.
+   */
+  private final AtomicBoolean paused;
+
+  /**
+   * The events which are enqueued when the ring buffer is full and the producer cannot wait.
+   */
+  private final Queue<MistEvent> overflow;
+
+  /**
+   * The number of events in the overflow queue. It is incremented before the event is added to the queue,
+   * so that the later events of the producer follow the event.
+   */
+  private final AtomicInteger numOverflowed;
+
+  public RingBufferSourceOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                                       final Query query,
+                                       final int capacity,
+                                       final QueueOverflowPolicy overflowPolicy,
+                                       final DataGenerator dataGenerator,
+                                       final int batchSize,
+                                       final GlobalMetrics globalMetrics) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The capacity of the ring buffer should be positive: " + capacity);
+    }
+    if (overflowPolicy == QueueOverflowPolicy.DROP_OLDEST) {
+      throw new IllegalArgumentException("The ring buffer source queue does not support " + overflowPolicy);
+    }
+    // Round up the capacity to a power of two
+    final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+    this.buffer = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.tail = new AtomicLong();
+    this.head = 0;
+    this.scheduled = new AtomicBoolean(false);
+    this.nextOperators = nextOperators;
+    this.query = query;
+    this.batchSize = batchSize;
+    this.batch = new ArrayList<>(Math.max(batchSize, 1));
+    this.globalMetrics = globalMetrics;
+    this.overflowPolicy = QueueOverflowPolicy.forDataGenerator(overflowPolicy, dataGenerator);
+    this.dataGenerator = dataGenerator;
+    this.paused = new AtomicBoolean(false);
+    this.overflow = new ConcurrentLinkedQueue<>();
+    this.numOverflowed = new AtomicInteger();
+  }
+
+  @Override
+  public int processAllEvent() {
+    int numProcessedEvent = 0;
+    while (true) {
+      long sequence = head;
+      MistEvent event = buffer.get((int) sequence & mask);
+      while (event != null) {
+        // Free the slot before processing, so that the waiting producer can proceed
+        buffer.lazySet((int) sequence & mask, null);
+        sequence += 1;
+        head = sequence;
+        if (paused.get()) {
+          resumeIfDrained(sequence);
+        }
+
+        dispatch(event);
+        numProcessedEvent += 1;
+        event = buffer.get((int) sequence & mask);
+      }
+
+      // The overflowed events are later than the events in the ring buffer
+      event = overflow.poll();
+      while (event != null) {
+        numOverflowed.decrementAndGet();
+        if (paused.get()) {
+          resumeIfDrained(sequence);
+        }
+        dispatch(event);
+        numProcessedEvent += 1;
+        event = overflow.poll();
+      }
+      dispatchBatch();
+
+      // Deactivate the source, and re-check the events which might be published before the deactivation.
+      // If another thread has already inserted this source to the query, the events are consumed by it.
+      scheduled.set(false);
+      if ((buffer.get((int) sequence & mask) == null && overflow.isEmpty())
+          || !scheduled.compareAndSet(false, true)) {
+        globalMetrics.getNumQueuedSourceEventsMetric().add(-numProcessedEvent);
+        globalMetrics.getNumProcessedSourceEventsMetric().add(numProcessedEvent);
+        return numProcessedEvent;
+      }
+    }
+  }
+
+  /**
+   * Add the event to the batch if it is a data event, otherwise process it after the current batch.
+   * @param event event
+   */
+  private void dispatch(final MistEvent event) {
+    if (batchSize > 1 && event.isData()) {
+      batch.add((MistDataEvent) event);
+      if (batch.size() == batchSize) {
+        dispatchBatch();
+      }
+    } else {
+      // Dispatch the current batch first, in order to keep the order of events
+      dispatchBatch();
+      for (final Map.Entry<ExecutionVertex, MISTEdge> entry : nextOperators.entrySet()) {
+        process(event, entry.getValue().getDirection(), (PhysicalOperator)entry.getKey());
+      }
+    }
+  }
+
+  /**
+   * Dispatch the batch of data events to the next operators at once.
+   */
+  private void dispatchBatch() {
+    if (!batch.isEmpty()) {
+      for (final Map.Entry<ExecutionVertex, MISTEdge> entry : nextOperators.entrySet()) {
+        processBatch(batch, entry.getValue().getDirection(), (PhysicalOperator)entry.getKey());
+      }
+      batch.clear();
+    }
+  }
+
+  private void processBatch(final List<MistDataEvent> dataBatch,
+                            final Direction direction,
+                            final PhysicalOperator operator) {
+    if (direction == Direction.LEFT) {
+      operator.getOperator().processLeftDataBatch(dataBatch);
+    } else {
+      for (final MistDataEvent data : dataBatch) {
+        operator.getOperator().processRightData(data);
+      }
+    }
+    operator.setLatestDataTimestamp(dataBatch.get(dataBatch.size() - 1).getTimestamp());
+  }
+
+  private void process(final MistEvent event,
+                       final Direction direction,
+                       final PhysicalOperator operator) {
+    try {
+      if (event.isData()) {
+        if (direction == Direction.LEFT) {
+          operator.getOperator().processLeftData((MistDataEvent) event);
+        } else {
+          operator.getOperator().processRightData((MistDataEvent) event);
+        }
+        operator.setLatestDataTimestamp(event.getTimestamp());
+      } else {
+        if (direction == Direction.LEFT) {
+          operator.getOperator().processLeftWatermark((MistWatermarkEvent) event);
+        } else {
+          operator.getOperator().processRightWatermark((MistWatermarkEvent) event);
+        }
+        operator.setLatestWatermarkTimestamp(event.getTimestamp());
+      }
+    } catch (final NullPointerException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Resume the paused data generator when the ring buffer is half drained,
+   * in order to avoid frequent pause and resume.
+   * @param sequence the head sequence after dequeue
+   */
+  private void resumeIfDrained(final long sequence) {
+    if (tail.get() - sequence + numOverflowed.get() <= (mask + 1) / 2 && paused.compareAndSet(true, false)) {
+      dataGenerator.resume();
+    }
+  }
+
+  /**
+   * Enqueue the data event according to the overflow policy.
+   * @param data data event
+   */
+  private void enqueueData(final MistDataEvent data) {
+    switch (overflowPolicy) {
+      case BLOCK:
+        enqueue(data);
+        return;
+      case DROP_NEWEST:
+        if (numOverflowed.get() == 0) {
+          if (!tryEnqueue(data)) {
+            globalMetrics.getNumDroppedSourceEventsMetric().add(1);
+          }
+          return;
+        }
+        // The data follow the overflowed watermarks or checkpoints
+        break;
+      case PAUSE:
+        if (numOverflowed.get() == 0 && tryEnqueue(data)) {
+          return;
+        }
+        if (dataGenerator != null && paused.compareAndSet(false, true)) {
+          dataGenerator.pause();
+        }
+        break;
+      default:
+        throw new RuntimeException("Invalid overflow policy: " + overflowPolicy);
+    }
+    if (numOverflowed.get() > mask) {
+      globalMetrics.getNumDroppedSourceEventsMetric().add(1);
+      return;
+    }
+    addOverflow(data);
+  }
+
+  /**
+   * Enqueue the watermark or checkpoint without waiting for the consumer.
+   * @param event event
+   */
+  private void enqueueControl(final MistEvent event) {
+    if (numOverflowed.get() == 0 && tryEnqueue(event)) {
+      return;
+    }
+    addOverflow(event);
+  }
+
+  /**
+   * Add the event to the overflow queue, and insert this source to the query if it is not active.
+   * @param event event
+   */
+  private void addOverflow(final MistEvent event) {
+    numOverflowed.incrementAndGet();
+    globalMetrics.getNumQueuedSourceEventsMetric().add(1);
+    overflow.add(event);
+    if (!scheduled.get() && scheduled.compareAndSet(false, true)) {
+      query.insert(this);
+    }
+  }
+
+  /**
+   * Claim a slot only if the ring buffer is not full.
+   * @param event event
+   * @return true if the event is enqueued
+   */
+  private boolean tryEnqueue(final MistEvent event) {
+    long sequence;
+    do {
+      sequence = tail.get();
+      if (sequence - head > mask) {
+        return false;
+      }
+    } while (!tail.compareAndSet(sequence, sequence + 1));
+    publish(sequence, event);
+    return true;
+  }
+
+  /**
+   * Claim a slot and wait until the consumer frees the slot if the ring buffer is full.
+   * The producer also waits until the overflowed events are consumed, in order to keep the order of events.
+   * @param event event
+   */
+  private void enqueue(final MistEvent event) {
+    while (numOverflowed.get() > 0) {
+      LockSupport.parkNanos(WAIT_NANOS);
+    }
+    final long sequence = tail.getAndIncrement();
+    while (sequence - head > mask) {
+      LockSupport.parkNanos(WAIT_NANOS);
+    }
+    publish(sequence, event);
+  }
+
+  /**
+   * Publish the event to the claimed slot, and insert this source to the query if it is not active.
+   * @param sequence the sequence of the claimed slot, which is free
+   * @param event event
+   */
+  private void publish(final long sequence, final MistEvent event) {
+    // Count the event before publishing it, so that the consumer does not make the metric negative
+    globalMetrics.getNumQueuedSourceEventsMetric().add(1);
+    // The volatile write is ordered before reading the flag, so that it is seen by the deactivating consumer
+    buffer.set((int) sequence & mask, event);
+    if (!scheduled.get() && scheduled.compareAndSet(false, true)) {
+      query.insert(this);
+    }
+  }
+
+  @Override
+  public int numberOfEvents() {
+    return (int) (tail.get() - head) + numOverflowed.get();
+  }
+
+  @Override
+  public Query getQuery() {
+    return query;
+  }
+
+  @Override
+  public void emitData(final MistDataEvent data) {
+    enqueueData(data);
+  }
+
+  @Override
+  public void emitData(final MistDataEvent data, final int index) {
+    // source output emitter does not emit data according to the index
+    enqueueData(data);
+  }
+
+  @Override
+  public void emitWatermark(final MistWatermarkEvent watermark) {
+    enqueueControl(watermark);
+  }
+
+  @Override
+  public void emitCheckpoint(final MistCheckpointEvent mistCheckpointEvent) {
+    enqueueControl(mistCheckpointEvent);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.parameters.SourceEventBatchSize;
+import edu.snu.mist.core.parameters.SourceQueueCapacity;
+import edu.snu.mist.core.parameters.SourceQueueOverflowPolicy;
+import edu.snu.mist.core.task.metrics.GlobalMetrics;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.Map;
+
+/**
+ * Ring buffer source output emitter factory.
+ * As the ring buffer is preallocated, the default capacity is used if the source queue capacity is not given.
+ * The DROP_OLDEST overflow policy is rejected, because the ring buffer does not support it.
+ */
+public final class RingBufferSourceOutputEmitterFactory implements SourceOutputEmitterFactory {
+
+  /**
+   * The default capacity of the ring buffer.
+   */
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  /**
+   * The capacity of the ring buffer.
+   */
+  private final int capacity;
+
+  /**
+   * The policy applied when the ring buffer is full.
+   */
+  private final QueueOverflowPolicy overflowPolicy;
+
+  /**
+   * The maximum number of data events dispatched at once.
+   */
+  private final int batchSize;
+
+  /**
+   * The global metrics.
+   */
+  private final GlobalMetrics globalMetrics;
+
+  @Inject
+  private RingBufferSourceOutputEmitterFactory(
+      @Parameter(SourceQueueCapacity.class) final int capacity,
+      @Parameter(SourceQueueOverflowPolicy.class) final String overflowPolicy,
+      @Parameter(SourceEventBatchSize.class) final int batchSize,
+      final GlobalMetrics globalMetrics) {
+    this.capacity = capacity > 0 ? capacity : DEFAULT_CAPACITY;
+    this.overflowPolicy = QueueOverflowPolicy.valueOf(overflowPolicy);
+    if (this.overflowPolicy == QueueOverflowPolicy.DROP_OLDEST) {
+      throw new IllegalArgumentException("The ring buffer source queue does not support " + overflowPolicy);
+    }
+    this.batchSize = batchSize;
+    this.globalMetrics = globalMetrics;
+  }
+
+  @Override
+  public SourceOutputEmitter newInstance(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                                         final Query query,
+                                         final PhysicalSource source) {
+    return new RingBufferSourceOutputEmitter<>(nextOperators, query, capacity, overflowPolicy,
+        source.getDataGenerator(), batchSize, globalMetrics);
+  }
+}
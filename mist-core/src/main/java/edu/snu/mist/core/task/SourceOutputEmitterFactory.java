@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import org.apache.reef.tang.annotations.DefaultImplementation;
+
+import java.util.Map;
+
+/**
+ * This is a factory class for SourceOutputEmitter.
+ */
+@DefaultImplementation(NonBlockingQueueSourceOutputEmitterFactory.class)
+public interface SourceOutputEmitterFactory {
+  /**
+   * Creates a new source output emitter.
+   * @param nextOperators next operators of the source
+   * @param query query that contains the source
+   * @param source the source which emits events to the emitter
+   * @return source output emitter
+   */
+  SourceOutputEmitter newInstance(Map<ExecutionVertex, MISTEdge> nextOperators,
+                                  Query query,
+                                  PhysicalSource source);
+}
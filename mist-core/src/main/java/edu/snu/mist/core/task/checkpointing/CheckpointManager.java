@@ -16,6 +16,7 @@
 package edu.snu.mist.core.task.checkpointing;
 
 import edu.snu.mist.core.task.groupaware.ApplicationInfo;
+import edu.snu.mist.formats.avro.ApplicationInfoCheckpoint;
 import org.apache.reef.tang.annotations.DefaultImplementation;
 
 import java.io.IOException;
@@ -34,6 +35,14 @@ public interface CheckpointManager {
    */
   void recoverApplication(String appId) throws IOException;
 
+  /**
+   * Restore an app from the given checkpoint, which can be taken in another MIST Task.
+   * The partially restored app is deleted if any query fails to be restored.
+   * @param checkpoint checkpoint of the app
+   * @return true if all the queries of the app are restored
+   */
+  boolean restoreApplication(ApplicationInfoCheckpoint checkpoint);
+
   /**
    * Checkpoint a single app.
    * @param appId
@@ -15,9 +15,13 @@
  */
 package edu.snu.mist.core.task.checkpointing;
 
+import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.graph.AdjacentListDAG;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.shared.DeserializationCache;
+import edu.snu.mist.core.parameters.CheckpointCompactionInterval;
+import edu.snu.mist.core.parameters.IncrementalCheckpoint;
 import edu.snu.mist.core.task.ConfigVertex;
 import edu.snu.mist.core.task.ExecutionVertex;
 import edu.snu.mist.core.task.QueryManager;
@@ -28,12 +32,22 @@ import edu.snu.mist.core.task.groupaware.WritingEvent;
 import edu.snu.mist.core.task.stores.AppInfoCheckpointStore;
 import edu.snu.mist.formats.avro.*;
 import org.apache.reef.io.Tuple;
+import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -61,19 +75,63 @@ public final class DefaultCheckpointManagerImpl implements CheckpointManager {
    */
   private final QueryManager queryManager;
 
+  /**
+   * The cache of the deserialized configurations and udfs.
+   */
+  private final DeserializationCache deserializationCache;
+
+  /**
+   * True if the apps are checkpointed incrementally.
+   */
+  private final boolean incrementalCheckpoint;
+
+  /**
+   * The number of incremental checkpoints between full checkpoints.
+   */
+  private final int compactionInterval;
+
+  /**
+   * The number of checkpoint deltas since the latest full checkpoint of each app.
+   * An app that has no entry is fully checkpointed next time.
+   */
+  private final ConcurrentMap<String, Integer> numCheckpointDeltas;
+
+  /**
+   * The apps whose checkpoints failed to be stored after their latest full checkpoints.
+   */
+  private final Set<String> failedCheckpoints;
+
+  /**
+   * The background writer of the incremental checkpoints, which stores the checkpoints in order.
+   */
+  private final ExecutorService checkpointWriter;
+
   @Inject
   private DefaultCheckpointManagerImpl(final ApplicationMap applicationMap,
                                        final AppInfoCheckpointStore appInfoCheckpointStore,
                                        final GroupAllocationTableModifier groupAllocationTableModifier,
-                                       final QueryManager queryManager) {
+                                       final QueryManager queryManager,
+                                       final DeserializationCache deserializationCache,
+                                       @Parameter(IncrementalCheckpoint.class) final boolean incrementalCheckpoint,
+                                       @Parameter(CheckpointCompactionInterval.class)
+                                       final int compactionInterval) {
     this.applicationMap = applicationMap;
     this.checkpointStore = appInfoCheckpointStore;
     this.groupAllocationTableModifier = groupAllocationTableModifier;
     this.queryManager = queryManager;
+    this.deserializationCache = deserializationCache;
+    this.incrementalCheckpoint = incrementalCheckpoint;
+    this.compactionInterval = compactionInterval;
+    this.numCheckpointDeltas = new ConcurrentHashMap<>();
+    this.failedCheckpoints = ConcurrentHashMap.newKeySet();
+    this.checkpointWriter = incrementalCheckpoint ? Executors.newSingleThreadExecutor() : null;
   }
 
   @Override
   public void recoverApplication(final String appId) throws IOException {
+    if (incrementalCheckpoint) {
+      waitForCheckpointWriter();
+    }
     final ApplicationInfoCheckpoint checkpoint;
     try {
       checkpoint = checkpointStore.loadAppInfoCheckpoint(appId);
@@ -83,27 +141,78 @@ public final class DefaultCheckpointManagerImpl implements CheckpointManager {
       return;
     }
 
+    // Replay the checkpoint deltas on the checkpoint.
+    final Map<String, AvroConfigDag> avroConfigDags = new HashMap<>(checkpoint.getAvroConfigDags());
+    final Map<String, Map<String, List<Map<String, Object>>>> stateDeltas = new HashMap<>();
+    for (final ApplicationInfoCheckpointDelta delta : checkpointStore.loadAppInfoCheckpointDeltas(appId)) {
+      replayCheckpointDelta(delta, avroConfigDags, stateDeltas);
+    }
+
+    restore(appId, avroConfigDags, stateDeltas, checkpoint.getJarFilePaths());
+  }
+
+  @Override
+  public boolean restoreApplication(final ApplicationInfoCheckpoint checkpoint) {
+    final String appId = checkpoint.getApplicationId();
+    if (applicationMap.get(appId) != null) {
+      LOG.log(Level.WARNING, "App {0} already exists.", new Object[]{appId});
+      return false;
+    }
+    if (restore(appId, checkpoint.getAvroConfigDags(), new HashMap<>(), checkpoint.getJarFilePaths()) == 0) {
+      return true;
+    }
+    // Release the partially restored app
+    deleteApplication(appId);
+    return false;
+  }
+
+  /**
+   * Create the app and submit its queries with the checkpointed states.
+   * @param appId app id
+   * @param avroConfigDags the query dags
+   * @param stateDeltas the state deltas of the vertices for each query
+   * @param jarFilePaths the jar file paths of the app
+   * @return the number of the queries that failed to be submitted
+   */
+  private int restore(final String appId,
+                      final Map<String, AvroConfigDag> avroConfigDags,
+                      final Map<String, Map<String, List<Map<String, Object>>>> stateDeltas,
+                      final List<String> jarFilePaths) {
+    // Add the app info to the queryManager.
+    final ApplicationInfo applicationInfo;
+    try {
+      applicationInfo = queryManager.createApplication(appId, jarFilePaths);
+    } catch (final Exception e) {
+      LOG.log(Level.SEVERE, "An exception occurred while creating app {0}: {1}",
+          new Object[] {appId, e.toString()});
+      return avroConfigDags.size();
+    }
+
     // Construct a ConfigDag for each query and submit it.
     // The submission process is almost the same to create(), except that it uses a ConfigDag instead of an AvroDag.
-    for (final Map.Entry<String, AvroConfigDag> entry : checkpoint.getAvroConfigDags().entrySet()) {
+    int numFailures = 0;
+    for (final Map.Entry<String, AvroConfigDag> entry : avroConfigDags.entrySet()) {
       final String queryId = entry.getKey();
       LOG.log(Level.INFO, "Query with id {0} is being submitted during recovery of app id {1}",
           new Object[]{queryId, appId});
       final AvroConfigDag dag = entry.getValue();
       final List<AvroConfigVertex> vertexList = dag.getAvroConfigVertices();
       final List<AvroConfigMISTEdge> edgeList = dag.getAvroConfigMISTEdges();
+      final Map<String, List<Map<String, Object>>> queryStateDeltas =
+          stateDeltas.getOrDefault(queryId, new HashMap<>());
 
       // Construct a ConfigDag(DAG<ConfigVertex, MISTEdge>) from an AvroConfigDag.
       final DAG<ConfigVertex, MISTEdge> configDag = new AdjacentListDAG<>();
 
       for (final AvroConfigVertex vertex : vertexList) {
-        configDag.addVertex(convertToConfigVertex(vertex));
+        configDag.addVertex(convertToConfigVertex(vertex, queryStateDeltas));
       }
 
       for (final AvroConfigMISTEdge edge : edgeList) {
         final AvroConfigVertex fromVertex = vertexList.get(edge.getFromVertexIndex());
         final AvroConfigVertex toVertex = vertexList.get(edge.getToVertexIndex());
-        configDag.addEdge(convertToConfigVertex(fromVertex), convertToConfigVertex(toVertex),
+        configDag.addEdge(convertToConfigVertex(fromVertex, queryStateDeltas),
+            convertToConfigVertex(toVertex, queryStateDeltas),
             new MISTEdge(edge.getDirection(), edge.getIndex()));
       }
 
@@ -113,22 +222,63 @@ public final class DefaultCheckpointManagerImpl implements CheckpointManager {
           LOG.log(Level.FINE, "Recover Query [appId: {0}, qid: {1}]",
               new Object[]{appId, queryId});
         }
-
-        // Add the query info to the queryManager.
-        final List<String> jarFilePaths = checkpoint.getJarFilePaths();
-        final ApplicationInfo applicationInfo = queryManager.createApplication(appId, jarFilePaths);
         // Start the submitted dag
         queryManager.createAndStartQuery(queryId, applicationInfo, configDag);
       } catch (final Exception e) {
         e.printStackTrace();
+        numFailures += 1;
         // [MIST-345] We need to release all of the information that is required for the query when it fails.
         LOG.log(Level.SEVERE, "An exception occurred while recovering {0} query: {1}",
             new Object[] {appId, e.toString()});
       }
     }
+    return numFailures;
+  }
+
+  /**
+   * Replay a checkpoint delta on the query dags.
+   * The whole states replace the states of the vertices,
+   * and the other deltas are collected in order to be applied to the states when the operators are created.
+   * @param delta checkpoint delta
+   * @param avroConfigDags the query dags, which are updated by the delta
+   * @param stateDeltas the collected state deltas of the vertices for each query
+   */
+  private void replayCheckpointDelta(final ApplicationInfoCheckpointDelta delta,
+                                     final Map<String, AvroConfigDag> avroConfigDags,
+                                     final Map<String, Map<String, List<Map<String, Object>>>> stateDeltas) {
+    for (final String queryId : delta.getRemovedQueryIds()) {
+      avroConfigDags.remove(queryId);
+      stateDeltas.remove(queryId);
+    }
+    for (final Map.Entry<String, AvroConfigDag> entry : delta.getAddedAvroConfigDags().entrySet()) {
+      avroConfigDags.put(entry.getKey(), entry.getValue());
+      stateDeltas.remove(entry.getKey());
+    }
+    for (final Map.Entry<String, Map<String, AvroStateDelta>> entry : delta.getStateDeltas().entrySet()) {
+      final AvroConfigDag dag = avroConfigDags.get(entry.getKey());
+      if (dag == null) {
+        continue;
+      }
+      final Map<String, List<Map<String, Object>>> queryStateDeltas =
+          stateDeltas.computeIfAbsent(entry.getKey(), key -> new HashMap<>());
+      for (final AvroConfigVertex vertex : dag.getAvroConfigVertices()) {
+        final AvroStateDelta stateDelta = entry.getValue().get(vertex.getId());
+        if (stateDelta == null) {
+          continue;
+        }
+        vertex.setLatestCheckpointTimestamp(stateDelta.getLatestCheckpointTimestamp());
+        if (stateDelta.getIsFullState()) {
+          vertex.setState(stateDelta.getState());
+          queryStateDeltas.remove(vertex.getId());
+        } else {
+          queryStateDeltas.computeIfAbsent(vertex.getId(), key -> new ArrayList<>()).add(stateDelta.getState());
+        }
+      }
+    }
   }
 
-  private ConfigVertex convertToConfigVertex(final AvroConfigVertex vertex) {
+  private ConfigVertex convertToConfigVertex(final AvroConfigVertex vertex,
+                                             final Map<String, List<Map<String, Object>>> stateDeltas) {
     final ExecutionVertex.Type type;
     if (vertex.getType() == AvroConfigVertexType.SOURCE) {
       type = ExecutionVertex.Type.SOURCE;
@@ -137,8 +287,8 @@ public final class DefaultCheckpointManagerImpl implements CheckpointManager {
     } else {
       type = ExecutionVertex.Type.SINK;
     }
-    return new ConfigVertex(vertex.getId(), type,
-        vertex.getConfiguration(), vertex.getState(), vertex.getLatestCheckpointTimestamp());
+    return new ConfigVertex(vertex.getId(), type, vertex.getConfiguration(), vertex.getState(),
+        stateDeltas.get(vertex.getId()), vertex.getLatestCheckpointTimestamp());
   }
 
   @Override
@@ -150,7 +300,60 @@ public final class DefaultCheckpointManagerImpl implements CheckpointManager {
           new Object[] {appId});
       return;
     }
-    checkpointStore.saveAppInfoCheckpoint(new Tuple<>(appId, applicationInfo.checkpoint()));
+    if (!incrementalCheckpoint) {
+      checkpointStore.saveAppInfoCheckpoint(new Tuple<>(appId, applicationInfo.checkpoint()));
+      return;
+    }
+
+    // The checkpoint is taken here, and stored by the background writer in the order of taking.
+    synchronized (applicationInfo) {
+      final Integer numDeltas = numCheckpointDeltas.get(appId);
+      if (numDeltas == null || numDeltas >= compactionInterval) {
+        final ApplicationInfoCheckpoint checkpoint = applicationInfo.checkpoint();
+        numCheckpointDeltas.put(appId, 0);
+        checkpointWriter.submit(() -> {
+          if (checkpointStore.saveAppInfoCheckpoint(new Tuple<>(appId, checkpoint)).getIsSuccess()) {
+            failedCheckpoints.remove(appId);
+          } else {
+            markCheckpointFailed(appId, applicationInfo);
+          }
+        });
+      } else {
+        final ApplicationInfoCheckpointDelta delta = applicationInfo.checkpointDelta();
+        numCheckpointDeltas.put(appId, numDeltas + 1);
+        checkpointWriter.submit(() -> {
+          // The deltas after a failure are dropped, because they cannot be replayed on the stored checkpoint
+          if (failedCheckpoints.contains(appId)
+              || !checkpointStore.saveAppInfoCheckpointDelta(new Tuple<>(appId, delta)).getIsSuccess()) {
+            markCheckpointFailed(appId, applicationInfo);
+          }
+        });
+      }
+    }
+  }
+
+  /**
+   * Mark the failure of storing a checkpoint, so that the app is fully checkpointed next time.
+   */
+  private void markCheckpointFailed(final String appId, final ApplicationInfo applicationInfo) {
+    synchronized (applicationInfo) {
+      failedCheckpoints.add(appId);
+      numCheckpointDeltas.remove(appId);
+    }
+  }
+
+  /**
+   * Wait until the background writer stores all of the taken checkpoints.
+   */
+  private void waitForCheckpointWriter() throws IOException {
+    try {
+      checkpointWriter.submit(() -> { }).get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the checkpoint writer", e);
+    } catch (final ExecutionException e) {
+      throw new IOException(e);
+    }
   }
 
   @Override
@@ -163,8 +366,17 @@ public final class DefaultCheckpointManagerImpl implements CheckpointManager {
     }
     applicationInfo.getQueryRemover().deleteAllQueries();
     applicationMap.remove(appId);
+    numCheckpointDeltas.remove(appId);
+    failedCheckpoints.remove(appId);
     groupAllocationTableModifier.addEvent(
         new WritingEvent(WritingEvent.EventType.GROUP_REMOVE_ALL, null));
+    // Evict the cached configurations and udfs of the application
+    try {
+      deserializationCache.evict(SerializeUtils.getJarFileURLs(applicationInfo.getJarFilePath()));
+    } catch (final MalformedURLException e) {
+      LOG.log(Level.WARNING, "Failed to evict the cached udfs of the app {0}: {1}",
+          new Object[] {appId, e.getMessage()});
+    }
   }
 
   @Override
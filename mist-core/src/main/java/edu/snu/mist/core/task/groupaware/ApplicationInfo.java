@@ -19,6 +19,7 @@ import edu.snu.mist.core.task.ExecutionDags;
 import edu.snu.mist.core.task.QueryRemover;
 import edu.snu.mist.core.task.QueryStarter;
 import edu.snu.mist.formats.avro.ApplicationInfoCheckpoint;
+import edu.snu.mist.formats.avro.ApplicationInfoCheckpointDelta;
 import org.apache.reef.tang.annotations.DefaultImplementation;
 
 import java.util.List;
@@ -76,8 +77,19 @@ public interface ApplicationInfo {
    */
   List<String> getJarFilePath();
 
+  /**
+   * The number of queries of the application.
+   */
+  int numQueries();
+
   /**
    * Return a checkpoint of this app.
+   * It also starts tracking the changes of the states for the following checkpoint deltas.
    */
   ApplicationInfoCheckpoint checkpoint();
+
+  /**
+   * Return the changes of this app since the previous checkpoint or checkpoint delta.
+   */
+  ApplicationInfoCheckpointDelta checkpointDelta();
 }
\ No newline at end of file
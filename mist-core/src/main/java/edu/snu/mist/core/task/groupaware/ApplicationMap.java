@@ -16,6 +16,7 @@
 package edu.snu.mist.core.task.groupaware;
 
 import javax.inject.Inject;
+import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -48,4 +49,8 @@ public final class ApplicationMap {
   public int size() {
     return map.size();
   }
+
+  public Collection<ApplicationInfo> values() {
+    return map.values();
+  }
 }
@@ -17,6 +17,7 @@ package edu.snu.mist.core.task.groupaware;
 
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.operators.IncrementalStateHandler;
 import edu.snu.mist.common.operators.Operator;
 import edu.snu.mist.common.operators.StateHandler;
 import edu.snu.mist.core.task.*;
@@ -46,6 +47,11 @@ public final class DefaultApplicationInfoImpl implements ApplicationInfo {
 
   private final AtomicInteger numGroups = new AtomicInteger(0);
 
+  /**
+   * The queries that are stored in the previous checkpoint or checkpoint delta.
+   */
+  private final Set<String> checkpointedQueryIds = new HashSet<>();
+
   /**
    * The jar file path.
    */
@@ -117,7 +123,12 @@ public final class DefaultApplicationInfoImpl implements ApplicationInfo {
   }
 
   @Override
-  public ApplicationInfoCheckpoint checkpoint() {
+  public int numQueries() {
+    return queryIdConfigDagMap.getKeys().size();
+  }
+
+  @Override
+  public synchronized ApplicationInfoCheckpoint checkpoint() {
     final Map<String, AvroConfigDag> avroConfigDagMap = new HashMap<>();
     final GroupMinimumLatestWatermarkTimeStamp groupTimestamp = new GroupMinimumLatestWatermarkTimeStamp();
 
@@ -126,8 +137,10 @@ public final class DefaultApplicationInfoImpl implements ApplicationInfo {
     }
     for (final String queryId : queryIdConfigDagMap.getKeys()) {
       LOG.log(Level.INFO, "query with id {0} is being checkpointed", new Object[]{queryId});
-      avroConfigDagMap.put(queryId, convertToAvroConfigDag(queryIdConfigDagMap.get(queryId), groupTimestamp));
+      avroConfigDagMap.put(queryId, convertToAvroConfigDag(queryIdConfigDagMap.get(queryId), groupTimestamp, null));
     }
+    checkpointedQueryIds.clear();
+    checkpointedQueryIds.addAll(avroConfigDagMap.keySet());
 
     return ApplicationInfoCheckpoint.newBuilder()
         .setAvroConfigDags(avroConfigDagMap)
@@ -137,11 +150,92 @@ public final class DefaultApplicationInfoImpl implements ApplicationInfo {
         .build();
   }
 
+  @Override
+  public synchronized ApplicationInfoCheckpointDelta checkpointDelta() {
+    final Map<String, AvroConfigDag> addedAvroConfigDags = new HashMap<>();
+    final Map<String, Map<String, AvroStateDelta>> stateDeltas = new HashMap<>();
+    final GroupMinimumLatestWatermarkTimeStamp groupTimestamp = new GroupMinimumLatestWatermarkTimeStamp();
+    // The state delta of an execution vertex is taken once, even though it is shared by multiple queries
+    final Map<ExecutionVertex, AvroStateDelta> takenDeltas = new HashMap<>();
+
+    final Set<String> queryIds = new HashSet<>(queryIdConfigDagMap.getKeys());
+    for (final String queryId : queryIds) {
+      final DAG<ConfigVertex, MISTEdge> configDag = queryIdConfigDagMap.get(queryId);
+      if (!checkpointedQueryIds.contains(queryId)) {
+        // The query is submitted after the previous checkpoint, so its whole state is stored
+        addedAvroConfigDags.put(queryId, convertToAvroConfigDag(configDag, groupTimestamp, takenDeltas));
+        continue;
+      }
+      final Map<String, AvroStateDelta> vertexDeltas = new HashMap<>();
+      for (final ConfigVertex cv : configDag.getVertices()) {
+        final ExecutionVertex ev = configExecutionVertexMap.get(cv);
+        AvroStateDelta stateDelta = takenDeltas.get(ev);
+        if (stateDelta == null) {
+          stateDelta = takeStateDelta(ev);
+          if (stateDelta == null) {
+            continue;
+          }
+          takenDeltas.put(ev, stateDelta);
+        }
+        vertexDeltas.put(cv.getId(), stateDelta);
+        groupTimestamp.compareAndSetValue(stateDelta.getLatestCheckpointTimestamp());
+      }
+      if (!vertexDeltas.isEmpty()) {
+        stateDeltas.put(queryId, vertexDeltas);
+      }
+    }
+
+    final List<String> removedQueryIds = new ArrayList<>();
+    for (final String queryId : checkpointedQueryIds) {
+      if (!queryIds.contains(queryId)) {
+        removedQueryIds.add(queryId);
+      }
+    }
+    checkpointedQueryIds.clear();
+    checkpointedQueryIds.addAll(queryIds);
+
+    return ApplicationInfoCheckpointDelta.newBuilder()
+        .setAddedAvroConfigDags(addedAvroConfigDags)
+        .setRemovedQueryIds(removedQueryIds)
+        .setStateDeltas(stateDeltas)
+        .setMinimumLatestCheckpointTimestamp(groupTimestamp.getValue())
+        .setApplicationId(appId)
+        .build();
+  }
+
+  /**
+   * Take the state delta of the execution vertex.
+   * The operators that cannot report their changes store the whole state.
+   * @return the state delta, or null if the vertex is stateless
+   */
+  private AvroStateDelta takeStateDelta(final ExecutionVertex ev) {
+    if (ev.getType() != ExecutionVertex.Type.OPERATOR) {
+      return null;
+    }
+    final Operator op = ((DefaultPhysicalOperatorImpl) ev).getOperator();
+    if (!(op instanceof StateHandler)) {
+      return null;
+    }
+    final StateHandler stateHandler = (StateHandler) op;
+    final boolean isFullState = !(op instanceof IncrementalStateHandler);
+    final Map<String, Object> state = isFullState
+        ? stateHandler.getOperatorState() : ((IncrementalStateHandler) op).getStateDelta();
+    return AvroStateDelta.newBuilder()
+        .setState(StateSerializer.serializeStateMap(state))
+        .setIsFullState(isFullState)
+        .setLatestCheckpointTimestamp(stateHandler.getLatestCheckpointTimestamp())
+        .build();
+  }
+
   /**
    * Convert a ConfigDag to an AvroConfigDag.
+   * The incremental operators start tracking the changes of their states before their states are taken,
+   * so no change is missed by the next delta.
+   * @param takenDeltas the state deltas taken by the current checkpoint delta, or null for a full checkpoint
    */
   private AvroConfigDag convertToAvroConfigDag(final DAG<ConfigVertex, MISTEdge> configDag,
-                                               final GroupMinimumLatestWatermarkTimeStamp groupTimestamp) {
+                                               final GroupMinimumLatestWatermarkTimeStamp groupTimestamp,
+                                               final Map<ExecutionVertex, AvroStateDelta> takenDeltas) {
     final Map<ConfigVertex, Integer> indexMap = new HashMap<>();
     final List<AvroConfigVertex> avroConfigVertexList = new ArrayList<>();
     final List<AvroConfigMISTEdge> avroConfigMISTEdgeList = new ArrayList<>();
@@ -154,6 +248,14 @@ public final class DefaultApplicationInfoImpl implements ApplicationInfo {
         final Operator op = ((DefaultPhysicalOperatorImpl) ev).getOperator();
         if (op instanceof StateHandler) {
           final StateHandler stateHandler = (StateHandler) op;
+          if (op instanceof IncrementalStateHandler) {
+            if (takenDeltas == null) {
+              ((IncrementalStateHandler) op).getStateDelta();
+            } else if (!takenDeltas.containsKey(ev)) {
+              // The delta is kept for the other queries that share the operator
+              takenDeltas.put(ev, takeStateDelta(ev));
+            }
+          }
           state = StateSerializer.serializeStateMap(stateHandler.getOperatorState());
           latestWatermarkTimestamp = stateHandler.getLatestCheckpointTimestamp();
           groupTimestamp.compareAndSetValue(latestWatermarkTimestamp);
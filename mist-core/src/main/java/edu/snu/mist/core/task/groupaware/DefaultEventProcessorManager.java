@@ -19,13 +19,11 @@ import edu.snu.mist.core.task.groupaware.parameters.DefaultGroupLoad;
 import edu.snu.mist.core.task.groupaware.eventprocessor.*;
 import edu.snu.mist.core.task.groupaware.groupassigner.GroupAssigner;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.*;
-import edu.snu.mist.core.task.groupaware.rebalancer.GroupRebalancer;
+import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
-import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -35,12 +33,18 @@ import java.util.logging.Logger;
 
 /**
  * This is a default implementation that can adjust the number of event processors.
- * This will remove event processors randomly when it will decrease the number of event processors.
+ * The event processors are added or removed by the group allocation table modifier,
+ * which removes the least loaded event processors and moves their groups to the other event processors.
  */
 public final class DefaultEventProcessorManager implements EventProcessorManager {
 
   private static final Logger LOG = Logger.getLogger(DefaultEventProcessorManager.class.getName());
 
+  /**
+   * The maximum time (s) to wait until the single writer adds or removes the event processors.
+   */
+  private static final long MODIFICATION_TIMEOUT = 60;
+
   /**
    * The lowest number of event processors.
    */
@@ -51,11 +55,6 @@ public final class DefaultEventProcessorManager implements EventProcessorManager
    */
   private final int eventProcessorUpperBound;
 
-  /**
-   * Event processor factory.
-   */
-  private final EventProcessorFactory eventProcessorFactory;
-
   /**
    * Grace period that prevents the adjustment of the number of event processors.
    */
@@ -96,11 +95,6 @@ public final class DefaultEventProcessorManager implements EventProcessorManager
    */
   private final GroupAssigner groupAssigner;
 
-  /**
-   * Group rebalancer that reassigns groups from an event processor to other event processors.
-   */
-  private final GroupRebalancer groupRebalancer;
-
   /**
    * True if this class is closed.
    */
@@ -120,16 +114,12 @@ public final class DefaultEventProcessorManager implements EventProcessorManager
                                        @Parameter(DefaultGroupLoad.class) final double defaultGroupLoad,
                                        final GroupAllocationTable groupAllocationTable,
                                        final GroupAssigner groupAssigner,
-                                       final GroupRebalancer groupRebalancer,
-                                       final GroupAllocationTableModifier groupAllocationTableModifier,
-                                       final EventProcessorFactory eventProcessorFactory) {
+                                       final GroupAllocationTableModifier groupAllocationTableModifier) {
     this.eventProcessorLowerBound = eventProcessorLowerBound;
     this.eventProcessorUpperBound = eventProcessorUpperBound;
     this.groupAssigner = groupAssigner;
-    this.groupRebalancer = groupRebalancer;
     this.groupAllocationTable = groupAllocationTable;
     this.groupAllocationTableModifier = groupAllocationTableModifier;
-    this.eventProcessorFactory = eventProcessorFactory;
     this.gracePeriod = gracePeriod;
     this.defaultGroupLoad = defaultGroupLoad;
     this.groupRebalancerService = Executors.newSingleThreadScheduledExecutor();
@@ -179,14 +169,8 @@ public final class DefaultEventProcessorManager implements EventProcessorManager
               new Object[]{currNum, currNum + increaseNum});
         }
 
-        for (int i = 0; i < increaseNum; i++) {
-          final EventProcessor eventProcessor = eventProcessorFactory.newEventProcessor();
-          groupAllocationTable.put(eventProcessor);
-          eventProcessor.start();
-        }
-
-        // Rebalance
-        groupRebalancer.triggerRebalancing();
+        // The event processors are added and the groups are rebalanced in the single writer thread
+        modifyEventProcessors(WritingEvent.EventType.EP_ADD, increaseNum);
         prevAdjustTime = System.nanoTime();
       }
     }
@@ -209,26 +193,33 @@ public final class DefaultEventProcessorManager implements EventProcessorManager
               new Object[]{currNum, currNum - decreaseNum});
         }
 
-        final List<EventProcessor> eventProcessors = groupAllocationTable.getKeys();
-        final List<EventProcessor> removedEventProcessors = new LinkedList<>();
-        final EventProcessor lastEventProcessor = eventProcessors.get(eventProcessors.size() - 1);
-        for (int i = 0; i < decreaseNum; i++) {
-          final EventProcessor ep = eventProcessors.get(i);
-          final Collection<Group> srcGroups = groupAllocationTable.getValue(ep);
-          final Collection<Group> dstGroups = groupAllocationTable.getValue(lastEventProcessor);
-          dstGroups.addAll(srcGroups);
-          srcGroups.clear();
-          removedEventProcessors.add(eventProcessors.get(i));
-        }
-
-        groupAllocationTable.getKeys().removeAll(removedEventProcessors);
-        groupRebalancer.triggerRebalancing();
-
+        // The event processors are removed and their groups are moved in the single writer thread
+        modifyEventProcessors(WritingEvent.EventType.EP_REMOVE, decreaseNum);
         prevAdjustTime = System.nanoTime();
       }
     }
   }
 
+  /**
+   * Add an event that adds or removes event processors to the single writer, and wait until it is applied.
+   * It stops waiting after the timeout, so the caller is not blocked forever if the writer fails.
+   * @param eventType EP_ADD or EP_REMOVE
+   * @param num the number of event processors to add or remove
+   */
+  private void modifyEventProcessors(final WritingEvent.EventType eventType, final int num) {
+    final CountDownLatch applied = new CountDownLatch(1);
+    groupAllocationTableModifier.addEvent(new WritingEvent<>(eventType, new Tuple<>(num, applied)));
+    try {
+      if (!applied.await(MODIFICATION_TIMEOUT, TimeUnit.SECONDS)) {
+        LOG.log(Level.SEVERE, "The single writer did not apply {0} of {1} event processors in {2} seconds",
+            new Object[]{eventType, num, MODIFICATION_TIMEOUT});
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+
   @Override
   public void adjustEventProcessorNum(final int adjustNum) {
     if (adjustNum < 0) {
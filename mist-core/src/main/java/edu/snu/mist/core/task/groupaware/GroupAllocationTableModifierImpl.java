@@ -17,15 +17,19 @@ package edu.snu.mist.core.task.groupaware;
 
 import edu.snu.mist.core.task.Query;
 import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
+import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessorFactory;
 import edu.snu.mist.core.task.groupaware.groupassigner.GroupAssigner;
 import edu.snu.mist.core.task.groupaware.rebalancer.*;
 import org.apache.reef.io.Tuple;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -92,6 +96,16 @@ public final class GroupAllocationTableModifierImpl implements GroupAllocationTa
    */
   private final GroupSplitter groupSplitter;
 
+  /**
+   * Event processor factory.
+   */
+  private final EventProcessorFactory eventProcessorFactory;
+
+  /**
+   * Autoscaler that decides the number of event processors to add or remove.
+   */
+  private final EventProcessorAutoscaler eventProcessorAutoscaler;
+
   /**
    * A random variable.
    */
@@ -104,7 +118,9 @@ public final class GroupAllocationTableModifierImpl implements GroupAllocationTa
                                            final LoadUpdater loadUpdater,
                                            final GroupIsolator groupIsolator,
                                            final GroupMerger groupMerger,
-                                           final GroupSplitter groupSplitter) {
+                                           final GroupSplitter groupSplitter,
+                                           final EventProcessorFactory eventProcessorFactory,
+                                           final EventProcessorAutoscaler eventProcessorAutoscaler) {
     this.groupAllocationTable = groupAllocationTable;
     this.groupAssigner = groupAssigner;
     this.groupRebalancer = groupRebalancer;
@@ -114,6 +130,8 @@ public final class GroupAllocationTableModifierImpl implements GroupAllocationTa
     this.groupIsolator = groupIsolator;
     this.groupMerger = groupMerger;
     this.groupSplitter = groupSplitter;
+    this.eventProcessorFactory = eventProcessorFactory;
+    this.eventProcessorAutoscaler = eventProcessorAutoscaler;
     // Create a writer thread
     singleWriter.submit(new SingleWriterThread());
   }
@@ -130,6 +148,92 @@ public final class GroupAllocationTableModifierImpl implements GroupAllocationTa
     }
   }
 
+  /**
+   * Create new event processors and add them to the group allocation table.
+   * @param num the number of event processors to add
+   */
+  private void addEventProcessorsInWriterThread(final int num) {
+    for (int i = 0; i < num; i++) {
+      final EventProcessor eventProcessor = eventProcessorFactory.newEventProcessor();
+      groupAllocationTable.put(eventProcessor);
+      eventProcessor.start();
+    }
+  }
+
+  /**
+   * Remove the least loaded event processors from the group allocation table,
+   * after moving their groups to the other event processors.
+   * At least one event processor that does not run isolated groups remains.
+   * @param num the number of event processors to remove
+   */
+  private void removeEventProcessorsInWriterThread(final int num) {
+    final List<EventProcessor> candidates =
+        new ArrayList<>(groupAllocationTable.getEventProcessorsNotRunningIsolatedGroup());
+    candidates.sort(Comparator.comparingDouble(EventProcessor::getLoad));
+    final int removeNum = Math.min(num, candidates.size() - 1);
+    for (int i = 0; i < removeNum; i++) {
+      final EventProcessor removedEventProcessor = candidates.get(i);
+      final Collection<Group> groups = groupAllocationTable.remove(removedEventProcessor);
+      for (final Group group : groups) {
+        moveGroupInWriterThread(group, removedEventProcessor);
+      }
+
+      try {
+        removedEventProcessor.close();
+      } catch (final Exception e) {
+        e.printStackTrace();
+      }
+
+      if (LOG.isLoggable(Level.FINE)) {
+        LOG.log(Level.FINE, "{0} is removed and its {1} groups are moved",
+            new Object[]{removedEventProcessor, groups.size()});
+      }
+    }
+  }
+
+  /**
+   * Move the group of the removed event processor to the least loaded event processor.
+   * Events inserted after the event processor of the group is changed are dispatched to the new event processor.
+   * The group is processed by a single event processor at a time, because it is only processed
+   * when it is changed from ready to processing.
+   * @param group group
+   * @param src removed event processor
+   */
+  private void moveGroupInWriterThread(final Group group, final EventProcessor src) {
+    EventProcessor dst = null;
+    for (final EventProcessor eventProcessor : groupAllocationTable.getEventProcessorsNotRunningIsolatedGroup()) {
+      if (dst == null || eventProcessor.getLoad() < dst.getLoad()) {
+        dst = eventProcessor;
+      }
+    }
+
+    groupAllocationTable.getValue(dst).add(group);
+    group.setEventProcessor(dst);
+
+    while (src.removeActiveGroup(group)) {
+      // remove all elements
+    }
+
+    src.setLoad(src.getLoad() - group.getLoad());
+    dst.setLoad(dst.getLoad() + group.getLoad());
+
+    if (group.isActive()) {
+      dst.addActiveGroup(group);
+    }
+  }
+
+  /**
+   * Add or remove the event processors according to the autoscaler.
+   */
+  private void autoscaleInWriterThread() {
+    final int adjustment = eventProcessorAutoscaler.getAdjustment();
+    if (adjustment > 0) {
+      addEventProcessorsInWriterThread(adjustment);
+    } else if (adjustment < 0) {
+      removeEventProcessorsInWriterThread(-adjustment);
+    }
+  }
+
   /**
    * Add an event that modifies the group allocation table.
    */
@@ -171,6 +275,28 @@ public final class GroupAllocationTableModifierImpl implements GroupAllocationTa
               minGroup.addQuery(query);
               break;
             }
+            case QUERY_ADD_BATCH: {
+              final List<Tuple<ApplicationInfo, Query>> tuples =
+                  (List<Tuple<ApplicationInfo, Query>>) event.getValue();
+              for (final Tuple<ApplicationInfo, Query> tuple : tuples) {
+                final List<Group> groups = tuple.getKey().getGroups();
+                final Group group = groups.get(random.nextInt(groups.size()));
+                tuple.getValue().setGroup(group);
+                group.addQuery(tuple.getValue());
+              }
+              break;
+            }
+            case QUERY_REMOVE_BATCH: {
+              // The queries are removed after they are added by the preceding QUERY_ADD_BATCH event
+              final List<Query> queries = (List<Query>) event.getValue();
+              for (final Query query : queries) {
+                final Group group = query.getGroup();
+                if (group != null) {
+                  group.delete(query);
+                }
+              }
+              break;
+            }
             case GROUP_REMOVE: {
               final Group group = (Group) event.getValue();
               removeGroupInWriterThread(group);
@@ -180,16 +306,33 @@ public final class GroupAllocationTableModifierImpl implements GroupAllocationTa
               removeAllGroupsInWriterThread();
               break;
             }
-            case EP_ADD:
-              // TODO
+            case EP_ADD: {
+              final Tuple<Integer, CountDownLatch> tuple = (Tuple<Integer, CountDownLatch>) event.getValue();
+              try {
+                addEventProcessorsInWriterThread(tuple.getKey());
+                groupRebalancer.triggerRebalancing();
+              } finally {
+                tuple.getValue().countDown();
+              }
               break;
-            case EP_REMOVE:
-              // TODO
+            }
+            case EP_REMOVE: {
+              final Tuple<Integer, CountDownLatch> tuple = (Tuple<Integer, CountDownLatch>) event.getValue();
+              try {
+                removeEventProcessorsInWriterThread(tuple.getKey());
+                groupRebalancer.triggerRebalancing();
+              } finally {
+                tuple.getValue().countDown();
+              }
               break;
+            }
             case REBALANCE:
               loadUpdater.update();
               //isolatedGroupReassigner.reassignIsolatedGroups();
 
+              // 0. scale the event processors according to the updated load
+              autoscaleInWriterThread();
+
               // 1. merging first
               groupMerger.groupMerging();
 
@@ -208,8 +351,8 @@ public final class GroupAllocationTableModifierImpl implements GroupAllocationTa
         } catch (final InterruptedException e) {
           e.printStackTrace();
         } catch (final Exception e) {
-          e.printStackTrace();
-          throw new RuntimeException(e);
+          // Keep the single writer alive, because the table cannot be changed without it
+          LOG.log(Level.SEVERE, "Failed to apply a writing event: {0}", e.toString());
         }
       }
     }
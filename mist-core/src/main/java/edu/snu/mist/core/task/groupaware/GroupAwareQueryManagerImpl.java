@@ -18,6 +18,7 @@ package edu.snu.mist.core.task.groupaware;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.common.parameters.GroupId;
+import edu.snu.mist.common.shared.DeserializationCache;
 import edu.snu.mist.common.shared.KafkaSharedResource;
 import edu.snu.mist.common.shared.MQTTResource;
 import edu.snu.mist.common.shared.NettySharedResource;
@@ -36,11 +37,17 @@ import org.apache.reef.tang.exceptions.InjectionException;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 
 /**
  * This QueryManager is aware of the group and manages queries per group.
@@ -92,6 +99,11 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
    */
   private final NettySharedResource nettySharedResource;
 
+  /**
+   * A globally shared cache of the deserialized configurations and udfs.
+   */
+  private final DeserializationCache deserializationCache;
+
   private final DagGenerator dagGenerator;
 
   private final GroupAllocationTableModifier groupAllocationTableModifier;
@@ -112,6 +124,7 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
                                      final MQTTResource mqttSharedResource,
                                      final KafkaSharedResource kafkaSharedResource,
                                      final NettySharedResource nettySharedResource,
+                                     final DeserializationCache deserializationCache,
                                      final DagGenerator dagGenerator,
                                      final GroupAllocationTableModifier groupAllocationTableModifier,
                                      final ApplicationMap applicationMap) {
@@ -122,6 +135,7 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
     this.mqttSharedResource = mqttSharedResource;
     this.kafkaSharedResource = kafkaSharedResource;
     this.nettySharedResource = nettySharedResource;
+    this.deserializationCache = deserializationCache;
     this.dagGenerator = dagGenerator;
     this.groupAllocationTableModifier = groupAllocationTableModifier;
     this.applicationMap = applicationMap;
@@ -174,6 +188,122 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
     }
   }
 
+  /**
+   * Start the queries of a batch.
+   * It generates the configuration dags in parallel, assigns the queries to the groups with a single writing event,
+   * and starts the queries of each application at once.
+   * After that, it removes the failed queries from their groups, and saves the avro dags of the started queries
+   * at once, so the failed queries are not recovered.
+   * @param tuples the query ids and the avro dags
+   * @return submission results in the order of the queries
+   */
+  @Override
+  public List<QueryControlResult> createBatch(final List<Tuple<String, AvroDag>> tuples) {
+    final int numQueries = tuples.size();
+    final List<QueryControlResult> results = new ArrayList<>(numQueries);
+    for (final Tuple<String, AvroDag> tuple : tuples) {
+      final QueryControlResult queryControlResult = new QueryControlResult();
+      queryControlResult.setQueryId(tuple.getKey());
+      queryControlResult.setIsSuccess(true);
+      queryControlResult.setMsg(ResultMessage.submitSuccess(tuple.getKey()));
+      results.add(queryControlResult);
+    }
+
+    // Generate the configuration dags in parallel
+    final List<DAG<ConfigVertex, MISTEdge>> configDags = new ArrayList<>(Collections.nCopies(numQueries, null));
+    IntStream.range(0, numQueries).parallel().forEach(i -> {
+      try {
+        configDags.set(i, configDagGenerator.generate(tuples.get(i).getValue()));
+      } catch (final Exception e) {
+        setFailure(results.get(i), e);
+      }
+    });
+
+    // Group the queries by the application
+    final Map<String, List<Integer>> appQueries = new LinkedHashMap<>();
+    for (int i = 0; i < numQueries; i++) {
+      if (configDags.get(i) != null) {
+        appQueries.computeIfAbsent(tuples.get(i).getValue().getAppId(), k -> new ArrayList<>()).add(i);
+      }
+    }
+
+    final List<Tuple<ApplicationInfo, Query>> assignments = new ArrayList<>(numQueries);
+    final Map<String, List<Tuple<Query, DAG<ConfigVertex, MISTEdge>>>> appBatches = new LinkedHashMap<>();
+    for (final Map.Entry<String, List<Integer>> entry : appQueries.entrySet()) {
+      final ApplicationInfo applicationInfo = applicationMap.get(entry.getKey());
+      final List<Tuple<Query, DAG<ConfigVertex, MISTEdge>>> batch = new ArrayList<>(entry.getValue().size());
+      for (final int i : entry.getValue()) {
+        if (applicationInfo == null) {
+          setFailure(results.get(i), new IllegalArgumentException("Unknown application: " + entry.getKey()));
+          continue;
+        }
+        final Query query = new DefaultQueryImpl(tuples.get(i).getKey());
+        assignments.add(new Tuple<>(applicationInfo, query));
+        batch.add(new Tuple<>(query, configDags.get(i)));
+      }
+      if (!batch.isEmpty()) {
+        appBatches.put(entry.getKey(), batch);
+      }
+    }
+
+    if (!assignments.isEmpty()) {
+      groupAllocationTableModifier.addEvent(
+          new WritingEvent(WritingEvent.EventType.QUERY_ADD_BATCH, assignments));
+    }
+
+    final List<Query> failedQueries = new ArrayList<>();
+    for (final Map.Entry<String, List<Tuple<Query, DAG<ConfigVertex, MISTEdge>>>> entry : appBatches.entrySet()) {
+      final ApplicationInfo applicationInfo = applicationMap.get(entry.getKey());
+      Map<String, Exception> failures;
+      try {
+        failures = applicationInfo.getQueryStarter().startBatch(entry.getValue(), applicationInfo.getJarFilePath());
+      } catch (final Exception e) {
+        // None of the queries of the application is started
+        failures = new HashMap<>();
+        for (final Tuple<Query, DAG<ConfigVertex, MISTEdge>> tuple : entry.getValue()) {
+          failures.put(tuple.getKey().getId(), e);
+        }
+      }
+      for (final Tuple<Query, DAG<ConfigVertex, MISTEdge>> tuple : entry.getValue()) {
+        if (failures.containsKey(tuple.getKey().getId())) {
+          failedQueries.add(tuple.getKey());
+        }
+      }
+      for (final int i : appQueries.get(entry.getKey())) {
+        final Exception failure = failures.get(tuples.get(i).getKey());
+        if (failure != null) {
+          setFailure(results.get(i), failure);
+        }
+      }
+    }
+
+    // Release the failed queries, which were assigned to the groups by the QUERY_ADD_BATCH event
+    if (!failedQueries.isEmpty()) {
+      groupAllocationTableModifier.addEvent(
+          new WritingEvent(WritingEvent.EventType.QUERY_REMOVE_BATCH, failedQueries));
+    }
+
+    // Save the avro dags of the started queries only, instead of deleting the failed ones afterwards,
+    // because QueryInfoStore.delete also deletes the jar files of the application that the started queries use.
+    final List<Tuple<String, AvroDag>> startedQueries = new ArrayList<>(numQueries);
+    for (int i = 0; i < numQueries; i++) {
+      if (results.get(i).getIsSuccess()) {
+        startedQueries.add(tuples.get(i));
+      }
+    }
+    if (!startedQueries.isEmpty()) {
+      planStore.saveAvroDags(startedQueries);
+    }
+    return results;
+  }
+
+  private void setFailure(final QueryControlResult queryControlResult, final Exception e) {
+    LOG.log(Level.SEVERE, "An exception occurred while starting {0} query: {1}",
+        new Object[] {queryControlResult.getQueryId(), e.toString()});
+    queryControlResult.setIsSuccess(false);
+    queryControlResult.setMsg(e.getMessage());
+  }
+
   @Override
   public Query createAndStartQuery(final String queryId,
                                    final ApplicationInfo applicationInfo,
@@ -187,10 +317,20 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
     return query;
   }
 
+  @Override
+  public String generateApplicationId() {
+    // The ids of the recovered apps are skipped.
+    String appId = Long.toString(applicationNum.getAndIncrement());
+    while (applicationMap.get(appId) != null) {
+      appId = Long.toString(applicationNum.getAndIncrement());
+    }
+    return appId;
+  }
+
   @Override
   public String uploadJarFile(final List<ByteBuffer> jars) throws IOException, InjectionException {
-    // Create an app info
-    final String appId = Long.toString(applicationNum.getAndIncrement());
+    // Create an app info.
+    final String appId = generateApplicationId();
     final List<String> paths = planStore.saveJar(jars);
     createApplication(appId, paths);
     return appId;
@@ -209,6 +349,7 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
     injector.bindVolatileInstance(MQTTResource.class, mqttSharedResource);
     injector.bindVolatileInstance(KafkaSharedResource.class, kafkaSharedResource);
     injector.bindVolatileInstance(NettySharedResource.class, nettySharedResource);
+    injector.bindVolatileInstance(DeserializationCache.class, deserializationCache);
     injector.bindVolatileInstance(QueryInfoStore.class, planStore);
 
     final ApplicationInfo applicationInfo = injector.getInstance(ApplicationInfo.class);
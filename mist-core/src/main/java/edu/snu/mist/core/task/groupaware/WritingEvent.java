@@ -25,6 +25,8 @@ public final class WritingEvent<V> {
   public enum EventType {
     GROUP_ADD,
     QUERY_ADD,
+    QUERY_ADD_BATCH,
+    QUERY_REMOVE_BATCH,
     GROUP_REMOVE,
     GROUP_REMOVE_ALL,
     EP_ADD,
@@ -51,6 +51,8 @@ public final class AffinityEventProcessor implements EventProcessor {
 
   public void close() throws Exception {
     runnable.close();
+    // Wake up the thread if it is waiting for the next group
+    thread.interrupt();
   }
 
   @Override
@@ -79,14 +79,21 @@ public final class AffinityRunnable implements Runnable {
         // Pick an active group
         final Group groupInfo = nextGroupSelector.getNextExecutableGroup();
         final long startTime = System.nanoTime();
-        numProcessedEvents = groupInfo.processAllEvent();
-        final long endTime = System.nanoTime();
-        groupInfo.getProcessingEvent().addAndGet(numProcessedEvents);
-        groupInfo.getProcessingTime().getAndAdd(endTime - startTime);
-
-        groupInfo.setReady();
+        try {
+          numProcessedEvents = groupInfo.processAllEvent();
+          final long endTime = System.nanoTime();
+          groupInfo.getProcessingEvent().addAndGet(numProcessedEvents);
+          groupInfo.getProcessingTime().getAndAdd(endTime - startTime);
+        } finally {
+          // Release the group even if the processing is interrupted by close, so that it can be rescheduled
+          groupInfo.setReady();
+        }
       }
     } catch (final Exception e) {
+      if (closed) {
+        // The event processor is interrupted while waiting for the next group after it is closed
+        return;
+      }
       e.printStackTrace();
       throw new RuntimeException(e + ", OperatorChainManager should not return null");
     }
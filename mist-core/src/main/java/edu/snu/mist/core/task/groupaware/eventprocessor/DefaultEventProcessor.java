@@ -92,12 +92,15 @@ public final class DefaultEventProcessor extends Thread implements EventProcesso
         // Pick an active group
         final Group groupInfo = nextGroupSelector.getNextExecutableGroup();
         final long startTime = System.nanoTime();
-        numProcessedEvents = groupInfo.processAllEvent(timeout);
-        final long endTime = System.nanoTime();
-        groupInfo.getProcessingEvent().addAndGet(numProcessedEvents);
-        groupInfo.getProcessingTime().getAndAdd(endTime - startTime);
-
-        groupInfo.setReady();
+        try {
+          numProcessedEvents = groupInfo.processAllEvent(timeout);
+          final long endTime = System.nanoTime();
+          groupInfo.getProcessingEvent().addAndGet(numProcessedEvents);
+          groupInfo.getProcessingTime().getAndAdd(endTime - startTime);
+        } finally {
+          // Release the group even if the processing is interrupted by close, so that it can be rescheduled
+          groupInfo.setReady();
+        }
         /*
         if (LOG.isLoggable(Level.INFO)) {
           LOG.log(Level.INFO, "{0} Process Group {1}, # Processed Events: {2}",
@@ -106,6 +109,10 @@ public final class DefaultEventProcessor extends Thread implements EventProcesso
         */
       }
     } catch (final Exception e) {
+      if (closed) {
+        // The event processor is interrupted while waiting for the next group after it is closed
+        return;
+      }
       e.printStackTrace();
       throw new RuntimeException(e + ", OperatorChainManager should not return null");
     }
@@ -114,6 +121,8 @@ public final class DefaultEventProcessor extends Thread implements EventProcesso
   public void close() throws Exception {
     closed = true;
     nextGroupSelector.close();
+    // Wake up the thread if it is waiting for the next group
+    interrupt();
   }
 
   @Override
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware.eventprocessor;
+
+import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.groupaware.GroupEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This schedules groups by using a deque per event processor.
+ * The event processor takes the active groups from the head of its own deque.
+ * When its deque is empty, it steals an active group from the tail of another event processor's deque,
+ * so the idle event processor immediately takes the backlog of the loaded ones
+ * without waiting for the group rebalancer.
+ * A stolen group is still assigned to the original event processor,
+ * and Group.setProcessingFromReady guarantees that a group is processed by a single event processor at a time.
+ */
+public final class WorkStealingGroupSelector implements NextGroupSelector {
+
+  private static final Logger LOG = Logger.getLogger(WorkStealingGroupSelector.class.getName());
+
+  /**
+   * The maximum time to park when there are no active groups to process or steal.
+   */
+  private static final long MAX_PARK_NANOS = 1000000L;
+
+  /**
+   * The deque of the active groups.
+   */
+  private final ConcurrentLinkedDeque<Group> deque;
+
+  /**
+   * The selectors of the event processors including this selector.
+   */
+  private final List<WorkStealingGroupSelector> selectors;
+
+  /**
+   * The thread that waits for active groups, or null if the selector is not idle.
+   */
+  private volatile Thread waiter;
+
+  WorkStealingGroupSelector(final List<WorkStealingGroupSelector> selectors) {
+    this.deque = new ConcurrentLinkedDeque<>();
+    this.selectors = selectors;
+  }
+
+  @Override
+  public Group getNextExecutableGroup() {
+    while (true) {
+      Group group = deque.pollFirst();
+      if (group != null) {
+        if (group.setProcessingFromReady()) {
+          return group;
+        } else {
+          deque.addLast(group);
+        }
+      }
+
+      group = steal();
+      if (group != null) {
+        return group;
+      }
+
+      if (deque.isEmpty()) {
+        waitForActiveGroups();
+      }
+    }
+  }
+
+  /**
+   * Steal an active group from another selector, starting from a random selector to spread the thieves.
+   * @return the stolen group, or null if there is no group to steal
+   */
+  private Group steal() {
+    final Object[] peers = selectors.toArray();
+    if (peers.length <= 1) {
+      return null;
+    }
+    final int start = ThreadLocalRandom.current().nextInt(peers.length);
+    for (int i = 0; i < peers.length; i++) {
+      final WorkStealingGroupSelector victim = (WorkStealingGroupSelector) peers[(start + i) % peers.length];
+      if (victim == this) {
+        continue;
+      }
+      final Group group = victim.deque.pollLast();
+      if (group != null) {
+        if (group.setProcessingFromReady()) {
+          if (LOG.isLoggable(Level.FINE)) {
+            LOG.log(Level.FINE, "{0} stole group {1}",
+                new Object[]{Thread.currentThread().getName(), group.getGroupId()});
+          }
+          return group;
+        } else {
+          // The group is being processed, so give it back to the victim
+          victim.deque.addLast(group);
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Park the current thread until an active group is added to this selector or a peer has a backlog.
+   */
+  private void waitForActiveGroups() {
+    if (Thread.interrupted()) {
+      throw new RuntimeException(new InterruptedException());
+    }
+    waiter = Thread.currentThread();
+    // Re-check after publishing the waiter, in order not to miss the groups added before publishing it
+    if (deque.isEmpty()) {
+      LockSupport.parkNanos(this, MAX_PARK_NANOS);
+    }
+    waiter = null;
+  }
+
+  /**
+   * Wake up this selector if it is idle.
+   * @return true if an idle thread is woken up
+   */
+  private boolean wakeUp() {
+    final Thread thread = waiter;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Reschedule the group if it is not miss.
+   * If the event processor of this selector is busy, an idle event processor is woken up to steal the group.
+   */
+  @Override
+  public void reschedule(final Group groupInfo, final boolean miss) {
+    if (!miss) {
+      deque.addLast(groupInfo);
+      if (!wakeUp()) {
+        for (final WorkStealingGroupSelector selector : selectors) {
+          if (selector != this && selector.wakeUp()) {
+            break;
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public void reschedule(final Collection<Group> groupInfos) {
+    for (final Group group : groupInfos) {
+      reschedule(group, false);
+    }
+  }
+
+  @Override
+  public boolean removeDispatchedGroup(final Group group) {
+    return deque.remove(group);
+  }
+
+  @Override
+  public void onNext(final GroupEvent groupEvent) {
+  }
+
+  @Override
+  public void close() throws Exception {
+    selectors.remove(this);
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware.eventprocessor;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Work-stealing group selector factory.
+ * The selectors created by this factory steal the active groups from each other.
+ */
+public final class WorkStealingGroupSelectorFactory implements NextGroupSelectorFactory {
+
+  /**
+   * The selectors created by this factory.
+   */
+  private final List<WorkStealingGroupSelector> selectors;
+
+  @Inject
+  private WorkStealingGroupSelectorFactory() {
+    this.selectors = new CopyOnWriteArrayList<>();
+  }
+
+  @Override
+  public NextGroupSelector newInstance() {
+    final WorkStealingGroupSelector selector = new WorkStealingGroupSelector(selectors);
+    selectors.add(selector);
+    return selector;
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware.rebalancer;
+
+import org.apache.reef.tang.annotations.DefaultImplementation;
+
+/**
+ * This class decides how many event processors should be added or removed according to the load.
+ * The decision is applied by the group allocation table modifier in the single writer thread.
+ */
+@DefaultImplementation(NoEventProcessorAutoscaler.class)
+public interface EventProcessorAutoscaler {
+
+  /**
+   * Get the number of event processors to adjust.
+   * This is called after the load of the event processors and groups are updated.
+   * @return the number of event processors to add if it is positive,
+   * or the number of event processors to remove if it is negative
+   */
+  int getAdjustment();
+}
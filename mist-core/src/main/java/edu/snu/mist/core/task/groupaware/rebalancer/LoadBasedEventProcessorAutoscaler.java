@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware.rebalancer;
+
+import edu.snu.mist.core.task.groupaware.GroupAllocationTable;
+import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.*;
+import edu.snu.mist.core.task.groupaware.parameters.CpuUtilHighThreshold;
+import edu.snu.mist.core.task.metrics.GlobalMetrics;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This autoscaler scales the event processors according to the load of event processors,
+ * the number of queued source events, and the CPU utilization.
+ * It scales up when the average load or the queued events are high, unless the CPU is saturated,
+ * and scales down when the average load is low.
+ * In order to avoid oscillation, the scale-up and scale-down thresholds are separated,
+ * and the condition should hold during the consecutive rebalancing periods.
+ * The number of event processors is adjusted so that the average load becomes
+ * the middle of the scale-up and scale-down thresholds.
+ */
+public final class LoadBasedEventProcessorAutoscaler implements EventProcessorAutoscaler {
+
+  private static final Logger LOG = Logger.getLogger(LoadBasedEventProcessorAutoscaler.class.getName());
+
+  /**
+   * Group allocation table.
+   */
+  private final GroupAllocationTable groupAllocationTable;
+
+  /**
+   * Global metrics.
+   */
+  private final GlobalMetrics globalMetrics;
+
+  /**
+   * The average load above which the event processors are scaled up.
+   */
+  private final double scaleUpLoadThreshold;
+
+  /**
+   * The average load below which the event processors are scaled down.
+   */
+  private final double scaleDownLoadThreshold;
+
+  /**
+   * The number of queued events per event processor above which the event processors are scaled up.
+   */
+  private final long queuedEventsThreshold;
+
+  /**
+   * The CPU utilization above which the event processors are not scaled up.
+   */
+  private final double cpuUtilHighThreshold;
+
+  /**
+   * The number of consecutive periods that should satisfy the scaling condition.
+   */
+  private final int scalingPatience;
+
+  /**
+   * The lowest number of event processors.
+   */
+  private final int eventProcessorLowerBound;
+
+  /**
+   * The highest number of event processors.
+   */
+  private final int eventProcessorUpperBound;
+
+  /**
+   * The number of consecutive periods that satisfy the scale-up condition.
+   */
+  private int numScaleUpSignals;
+
+  /**
+   * The number of consecutive periods that satisfy the scale-down condition.
+   */
+  private int numScaleDownSignals;
+
+  @Inject
+  private LoadBasedEventProcessorAutoscaler(
+      final GroupAllocationTable groupAllocationTable,
+      final GlobalMetrics globalMetrics,
+      @Parameter(ScaleUpLoadThreshold.class) final double scaleUpLoadThreshold,
+      @Parameter(ScaleDownLoadThreshold.class) final double scaleDownLoadThreshold,
+      @Parameter(QueuedEventsThreshold.class) final long queuedEventsThreshold,
+      @Parameter(CpuUtilHighThreshold.class) final double cpuUtilHighThreshold,
+      @Parameter(ScalingPatience.class) final int scalingPatience,
+      @Parameter(EventProcessorLowerBound.class) final int eventProcessorLowerBound,
+      @Parameter(EventProcessorUpperBound.class) final int eventProcessorUpperBound) {
+    if (scaleDownLoadThreshold >= scaleUpLoadThreshold) {
+      throw new IllegalArgumentException("The scale-down threshold " + scaleDownLoadThreshold
+          + " should be lower than the scale-up threshold " + scaleUpLoadThreshold);
+    }
+    this.groupAllocationTable = groupAllocationTable;
+    this.globalMetrics = globalMetrics;
+    this.scaleUpLoadThreshold = scaleUpLoadThreshold;
+    this.scaleDownLoadThreshold = scaleDownLoadThreshold;
+    this.queuedEventsThreshold = queuedEventsThreshold;
+    this.cpuUtilHighThreshold = cpuUtilHighThreshold;
+    this.scalingPatience = scalingPatience;
+    this.eventProcessorLowerBound = eventProcessorLowerBound;
+    this.eventProcessorUpperBound = eventProcessorUpperBound;
+    this.numScaleUpSignals = 0;
+    this.numScaleDownSignals = 0;
+  }
+
+  @Override
+  public int getAdjustment() {
+    final List<EventProcessor> eventProcessors = groupAllocationTable.getEventProcessorsNotRunningIsolatedGroup();
+    final int currNum = eventProcessors.size();
+    if (currNum == 0) {
+      return 0;
+    }
+
+    double totalLoad = 0.0;
+    for (final EventProcessor eventProcessor : eventProcessors) {
+      totalLoad += eventProcessor.getLoad();
+    }
+    final double avgLoad = totalLoad / currNum;
+    final long queuedEvents = globalMetrics.getNumQueuedSourceEventsMetric().getValue();
+    final double cpuUtil = globalMetrics.getCpuSysUtilMetric().getEwmaValue();
+    final double targetLoad = (scaleUpLoadThreshold + scaleDownLoadThreshold) / 2;
+
+    if ((avgLoad > scaleUpLoadThreshold || queuedEvents > queuedEventsThreshold * currNum)
+        && cpuUtil < cpuUtilHighThreshold) {
+      numScaleDownSignals = 0;
+      numScaleUpSignals += 1;
+      if (numScaleUpSignals >= scalingPatience) {
+        numScaleUpSignals = 0;
+        final int targetNum = Math.max(currNum + 1, (int) Math.ceil(totalLoad / targetLoad));
+        final int increaseNum = Math.min(targetNum - currNum,
+            eventProcessorUpperBound - groupAllocationTable.size());
+        if (LOG.isLoggable(Level.FINE)) {
+          LOG.log(Level.FINE, "Scale up {0} event processors, avg load: {1}, queued events: {2}",
+              new Object[]{increaseNum, avgLoad, queuedEvents});
+        }
+        return Math.max(increaseNum, 0);
+      }
+    } else if (avgLoad < scaleDownLoadThreshold && queuedEvents < queuedEventsThreshold * (currNum - 1)) {
+      numScaleUpSignals = 0;
+      numScaleDownSignals += 1;
+      if (numScaleDownSignals >= scalingPatience) {
+        numScaleDownSignals = 0;
+        final int targetNum = Math.min(currNum - 1, Math.max(1, (int) Math.ceil(totalLoad / targetLoad)));
+        final int decreaseNum = Math.min(currNum - targetNum,
+            groupAllocationTable.size() - eventProcessorLowerBound);
+        if (LOG.isLoggable(Level.FINE)) {
+          LOG.log(Level.FINE, "Scale down {0} event processors, avg load: {1}, queued events: {2}",
+              new Object[]{decreaseNum, avgLoad, queuedEvents});
+        }
+        return -Math.max(decreaseNum, 0);
+      }
+    } else {
+      numScaleUpSignals = 0;
+      numScaleDownSignals = 0;
+    }
+    return 0;
+  }
+}
@@ -15,7 +15,9 @@
  */
 package edu.snu.mist.core.task.merging;
 
+import edu.snu.mist.common.operators.IncrementalStateHandler;
 import edu.snu.mist.common.operators.StateHandler;
+import edu.snu.mist.common.shared.DeserializationCache;
 import edu.snu.mist.common.sources.DataGenerator;
 import edu.snu.mist.common.sources.EventGenerator;
 import edu.snu.mist.core.task.*;
@@ -27,6 +29,7 @@ import org.apache.reef.tang.implementation.java.ClassHierarchyImpl;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -39,14 +42,36 @@ final class DefaultExecutionVertexGeneratorImpl implements ExecutionVertexGenera
   private final IdGenerator idGenerator;
   private final PhysicalObjectGenerator physicalObjectGenerator;
   private final AvroConfigurationSerializer avroConfigurationSerializer;
+  private final DeserializationCache deserializationCache;
 
   @Inject
   private DefaultExecutionVertexGeneratorImpl(final IdGenerator idGenerator,
                                               final AvroConfigurationSerializer avroConfigurationSerializer,
-                                              final PhysicalObjectGenerator physicalObjectGenerator) {
+                                              final PhysicalObjectGenerator physicalObjectGenerator,
+                                              final DeserializationCache deserializationCache) {
     this.idGenerator = idGenerator;
     this.avroConfigurationSerializer = avroConfigurationSerializer;
     this.physicalObjectGenerator = physicalObjectGenerator;
+    this.deserializationCache = deserializationCache;
+  }
+
+  /**
+   * Get the configuration from the cache, or parse it with the class hierarchy of the jar files.
+   */
+  private Configuration getConfiguration(final String strConf,
+                                         final URL[] urls,
+                                         final ClassLoader classLoader) throws IOException {
+    try {
+      return deserializationCache.getConfiguration(strConf, classLoader, s -> {
+        try {
+          return avroConfigurationSerializer.fromString(s, new ClassHierarchyImpl(urls));
+        } catch (final Exception e) {
+          throw new IOException("Failed to parse the configuration", e);
+        }
+      });
+    } catch (final ClassNotFoundException e) {
+      throw new IOException(e);
+    }
   }
 
   @Override
@@ -56,7 +81,7 @@ final class DefaultExecutionVertexGeneratorImpl implements ExecutionVertexGenera
     switch (configVertex.getType()) {
       case SOURCE: {
         final String strConf = configVertex.getConfiguration();
-        final Configuration conf = avroConfigurationSerializer.fromString(strConf, new ClassHierarchyImpl(urls));
+        final Configuration conf = getConfiguration(strConf, urls, classLoader);
         // Create an event generator
         final EventGenerator eventGenerator = physicalObjectGenerator.newEventGenerator(conf, classLoader);
         // Create a data generator
@@ -67,20 +92,23 @@ final class DefaultExecutionVertexGeneratorImpl implements ExecutionVertexGenera
       }
       case OPERATOR: {
         final String operatorId = idGenerator.generateOperatorId();
-        final Configuration conf = avroConfigurationSerializer.fromString(
-            configVertex.getConfiguration(), new ClassHierarchyImpl(urls));
+        final Configuration conf = getConfiguration(configVertex.getConfiguration(), urls, classLoader);
         final PhysicalOperator operator = new DefaultPhysicalOperatorImpl(operatorId, configVertex.getConfiguration(),
             physicalObjectGenerator.newOperator(conf, classLoader));
         if (configVertex.getState().size() != 0) {
-          ((StateHandler) operator.getOperator()).setState(
-              StateSerializer.deserializeStateMap(configVertex.getState()));
+          final StateHandler stateHandler = (StateHandler) operator.getOperator();
+          stateHandler.setState(StateSerializer.deserializeStateMap(configVertex.getState()));
+          // Replay the deltas of the incremental checkpoints on the base state
+          for (final Map<String, Object> stateDelta : configVertex.getStateDeltas()) {
+            ((IncrementalStateHandler) stateHandler).applyStateDelta(
+                StateSerializer.deserializeStateMap(stateDelta));
+          }
         }
         return operator;
       }
       case SINK:
         final String strConf = configVertex.getConfiguration();
-        final Configuration conf = avroConfigurationSerializer.fromString(strConf,
-            new ClassHierarchyImpl(urls));
+        final Configuration conf = getConfiguration(strConf, urls, classLoader);
         final String id = idGenerator.generateSinkId();
         final PhysicalSink sink = new PhysicalSinkImpl<>(id, strConf,
             physicalObjectGenerator.newSink(conf, classLoader));
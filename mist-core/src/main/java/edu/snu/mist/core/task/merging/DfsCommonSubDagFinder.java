@@ -15,6 +15,7 @@
  */
 package edu.snu.mist.core.task.merging;
 
+import edu.snu.mist.common.ConfigFingerprint;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.core.task.*;
@@ -24,6 +25,8 @@ import java.util.*;
 
 /**
  * This algorithm finds the common sub-dag between submitted dag and execution dag in DFS order.
+ * If the execution dag is indexed by the fingerprints of the configurations,
+ * it finds the same vertex with a hash lookup instead of scanning the children.
  */
 final class DfsCommonSubDagFinder implements CommonSubDagFinder {
 
@@ -45,9 +48,14 @@ final class DfsCommonSubDagFinder implements CommonSubDagFinder {
     final Set<ConfigVertex> visited = new HashSet<>(submittedDag.numberOfVertices());
     final Set<ConfigVertex> markedVertices = new HashSet<>();
 
-    final Set<ExecutionVertex> sourcesInExecutionDag = executionDag.getDag().getRootVertices();
+    final DAG<ExecutionVertex, MISTEdge> dag = executionDag.getDag();
+    final Set<ExecutionVertex> sourcesInExecutionDag =
+        dag instanceof FingerprintIndexedDag ? null : dag.getRootVertices();
     for (final ConfigVertex submitVertex : submittedDag.getRootVertices()) {
-      final ExecutionVertex sameVertex = findSameVertex(sourcesInExecutionDag, submitVertex);
+      final ExecutionVertex sameVertex = sourcesInExecutionDag == null
+          ? ((FingerprintIndexedDag) dag).findSource(submitVertex,
+              ConfigFingerprint.of(submitVertex.getConfiguration()))
+          : findSameVertex(sourcesInExecutionDag, submitVertex);
       if (sameVertex != null) {
         // do dfs search
         dfsSearch(executionDag, submittedDag, markedVertices, sameVertex, submitVertex, vertexMap, visited);
@@ -90,12 +98,19 @@ final class DfsCommonSubDagFinder implements CommonSubDagFinder {
 
     // traverse edges of the submitted dag
     // We should compare each child node with the child nodes of the execution dag
+    final DAG<ExecutionVertex, MISTEdge> dag = executionDag.getDag();
     for (final Map.Entry<ConfigVertex, MISTEdge> entry :
         submittedDag.getEdges(currSubmitDagVertex).entrySet()) {
-      final Map<ExecutionVertex, MISTEdge> childNodesOfExecutionDag =
-          executionDag.getDag().getEdges(currExecutionDagVertex);
-      final ExecutionVertex sameVertex =
-          findSameVertex(childNodesOfExecutionDag.keySet(), entry.getKey());
+      final ExecutionVertex sameVertex;
+      if (dag instanceof FingerprintIndexedDag) {
+        sameVertex = entry.getKey().getType() == ExecutionVertex.Type.OPERATOR
+            ? ((FingerprintIndexedDag) dag).findChild(currExecutionDagVertex, entry.getKey(),
+                ConfigFingerprint.of(entry.getKey().getConfiguration()))
+            : null;
+      } else {
+        final Map<ExecutionVertex, MISTEdge> childNodesOfExecutionDag = dag.getEdges(currExecutionDagVertex);
+        sameVertex = findSameVertex(childNodesOfExecutionDag.keySet(), entry.getKey());
+      }
       if (sameVertex != null) {
         // First, we need to check if the vertex has union or join operator
         // dfs search
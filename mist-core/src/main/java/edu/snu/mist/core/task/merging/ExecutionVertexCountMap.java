@@ -18,8 +18,8 @@ package edu.snu.mist.core.task.merging;
 import edu.snu.mist.core.task.ExecutionVertex;
 
 import javax.inject.Inject;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This contains an execution vertex as a key and the reference count number as a value.
@@ -31,7 +31,7 @@ public final class ExecutionVertexCountMap {
 
   @Inject
   private ExecutionVertexCountMap() {
-    this.map = new HashMap<>();
+    this.map = new ConcurrentHashMap<>();
   }
 
   public Integer get(final ExecutionVertex executionVertex) {
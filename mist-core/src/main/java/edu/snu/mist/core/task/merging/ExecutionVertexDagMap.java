@@ -19,8 +19,8 @@ import edu.snu.mist.core.task.ExecutionDag;
 import edu.snu.mist.core.task.ExecutionVertex;
 
 import javax.inject.Inject;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This contains an execution vertex as a key and the dag that contains the vertex as a value.
@@ -32,7 +32,7 @@ public final class ExecutionVertexDagMap {
 
   @Inject
   private ExecutionVertexDagMap() {
-    this.map = new HashMap<>();
+    this.map = new ConcurrentHashMap<>();
   }
 
   public ExecutionDag get(final ExecutionVertex executionVertex) {
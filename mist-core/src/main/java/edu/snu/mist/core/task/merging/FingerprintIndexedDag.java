@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.merging;
+
+import edu.snu.mist.common.ConfigFingerprint;
+import edu.snu.mist.common.graph.DAG;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.task.ConfigVertex;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.PhysicalOperator;
+import edu.snu.mist.core.task.PhysicalSource;
+
+import java.util.*;
+
+/**
+ * This is an execution dag that indexes the sources and the operators by the fingerprints of their configurations.
+ * The sources are indexed by their fingerprints, and the operators are indexed by their parent vertex
+ * and their fingerprints, so finding a mergeable vertex is a hash lookup per level of the dag
+ * instead of comparing the configuration with all the children.
+ * The index of a parent is built lazily when it is looked up first, and updated when the edges are changed.
+ * Like AdjacentListConcurrentMapDAG, it supports a single writer at a time.
+ */
+final class FingerprintIndexedDag implements DAG<ExecutionVertex, MISTEdge> {
+
+  /**
+   * The actual dag.
+   */
+  private final DAG<ExecutionVertex, MISTEdge> dag;
+
+  /**
+   * The fingerprints of the vertices' configurations.
+   */
+  private final Map<ExecutionVertex, ConfigFingerprint> fingerprints;
+
+  /**
+   * The index of the operators, which has the parent vertex as a key.
+   */
+  private final Map<ExecutionVertex, Map<ConfigFingerprint, ExecutionVertex>> childIndex;
+
+  /**
+   * The index of the sources. It is null until it is looked up first.
+   */
+  private Map<ConfigFingerprint, ExecutionVertex> sourceIndex;
+
+  FingerprintIndexedDag(final DAG<ExecutionVertex, MISTEdge> dag) {
+    this.dag = dag;
+    this.fingerprints = new HashMap<>();
+    this.childIndex = new HashMap<>();
+    this.sourceIndex = null;
+  }
+
+  /**
+   * Find the source that has the same configuration with the vertex.
+   * @param v config vertex of a source
+   * @param fingerprint fingerprint of the configuration of v
+   * @return the same source, or null if it does not exist
+   */
+  ExecutionVertex findSource(final ConfigVertex v, final ConfigFingerprint fingerprint) {
+    if (sourceIndex == null) {
+      sourceIndex = new HashMap<>();
+      for (final ExecutionVertex root : dag.getRootVertices()) {
+        if (root.getType() == ExecutionVertex.Type.SOURCE) {
+          sourceIndex.putIfAbsent(getFingerprint(root), root);
+        }
+      }
+    }
+    return verify(sourceIndex.get(fingerprint), v);
+  }
+
+  /**
+   * Find the child operator of the parent that has the same configuration with the vertex.
+   * @param parent parent vertex
+   * @param v config vertex of an operator
+   * @param fingerprint fingerprint of the configuration of v
+   * @return the same operator, or null if it does not exist
+   */
+  ExecutionVertex findChild(final ExecutionVertex parent,
+                            final ConfigVertex v,
+                            final ConfigFingerprint fingerprint) {
+    Map<ConfigFingerprint, ExecutionVertex> children = childIndex.get(parent);
+    if (children == null) {
+      children = new HashMap<>();
+      for (final ExecutionVertex child : dag.getEdges(parent).keySet()) {
+        if (child.getType() == ExecutionVertex.Type.OPERATOR) {
+          children.putIfAbsent(getFingerprint(child), child);
+        }
+      }
+      childIndex.put(parent, children);
+    }
+    return verify(children.get(fingerprint), v);
+  }
+
+  /**
+   * Check the configuration of the indexed vertex to guard against fingerprint collisions.
+   */
+  private ExecutionVertex verify(final ExecutionVertex candidate, final ConfigVertex v) {
+    if (candidate != null && candidate.getType() == v.getType()
+        && getConfiguration(candidate).equals(v.getConfiguration())) {
+      return candidate;
+    }
+    return null;
+  }
+
+  private ConfigFingerprint getFingerprint(final ExecutionVertex v) {
+    return fingerprints.computeIfAbsent(v, ev -> ConfigFingerprint.of(getConfiguration(ev)));
+  }
+
+  private static String getConfiguration(final ExecutionVertex v) {
+    if (v.getType() == ExecutionVertex.Type.SOURCE) {
+      return ((PhysicalSource) v).getConfiguration();
+    } else {
+      return ((PhysicalOperator) v).getConfiguration();
+    }
+  }
+
+  /**
+   * Remove the child from the index of the parent.
+   * Another child having the same fingerprint is indexed instead, if it exists.
+   */
+  private void unindexChild(final ExecutionVertex parent,
+                            final Map<ConfigFingerprint, ExecutionVertex> children,
+                            final ExecutionVertex child) {
+    final ConfigFingerprint fingerprint = fingerprints.get(child);
+    if (fingerprint == null || children.get(fingerprint) != child) {
+      return;
+    }
+    children.remove(fingerprint);
+    if (dag.hasVertex(parent)) {
+      for (final ExecutionVertex sibling : dag.getEdges(parent).keySet()) {
+        if (sibling.getType() == ExecutionVertex.Type.OPERATOR && fingerprint.equals(getFingerprint(sibling))) {
+          children.put(fingerprint, sibling);
+          return;
+        }
+      }
+    }
+  }
+
+  @Override
+  public int numberOfVertices() {
+    return dag.numberOfVertices();
+  }
+
+  @Override
+  public int numberOfEdges() {
+    return dag.numberOfEdges();
+  }
+
+  @Override
+  public Set<ExecutionVertex> getRootVertices() {
+    return dag.getRootVertices();
+  }
+
+  @Override
+  public Collection<ExecutionVertex> getVertices() {
+    return dag.getVertices();
+  }
+
+  @Override
+  public boolean hasVertex(final ExecutionVertex v) {
+    return dag.hasVertex(v);
+  }
+
+  @Override
+  public boolean isAdjacent(final ExecutionVertex v, final ExecutionVertex w) {
+    return dag.isAdjacent(v, w);
+  }
+
+  @Override
+  public Map<ExecutionVertex, MISTEdge> getEdges(final ExecutionVertex v) {
+    return dag.getEdges(v);
+  }
+
+  @Override
+  public boolean addVertex(final ExecutionVertex v) {
+    final boolean added = dag.addVertex(v);
+    if (added && sourceIndex != null && v.getType() == ExecutionVertex.Type.SOURCE) {
+      sourceIndex.putIfAbsent(getFingerprint(v), v);
+    }
+    return added;
+  }
+
+  @Override
+  public boolean removeVertex(final ExecutionVertex v) {
+    final boolean removed = dag.removeVertex(v);
+    if (removed) {
+      childIndex.remove(v);
+      for (final Map.Entry<ExecutionVertex, Map<ConfigFingerprint, ExecutionVertex>> entry
+          : childIndex.entrySet()) {
+        unindexChild(entry.getKey(), entry.getValue(), v);
+      }
+      final ConfigFingerprint fingerprint = fingerprints.remove(v);
+      if (sourceIndex != null && fingerprint != null && sourceIndex.get(fingerprint) == v) {
+        sourceIndex.remove(fingerprint);
+      }
+    }
+    return removed;
+  }
+
+  @Override
+  public boolean addEdge(final ExecutionVertex v, final ExecutionVertex w, final MISTEdge i) {
+    final boolean added = dag.addEdge(v, w, i);
+    if (added && w.getType() == ExecutionVertex.Type.OPERATOR) {
+      final Map<ConfigFingerprint, ExecutionVertex> children = childIndex.get(v);
+      if (children != null) {
+        children.putIfAbsent(getFingerprint(w), w);
+      }
+    }
+    return added;
+  }
+
+  @Override
+  public boolean removeEdge(final ExecutionVertex v, final ExecutionVertex w) {
+    final boolean removed = dag.removeEdge(v, w);
+    if (removed) {
+      final Map<ConfigFingerprint, ExecutionVertex> children = childIndex.get(v);
+      if (children != null) {
+        unindexChild(v, children, w);
+      }
+    }
+    return removed;
+  }
+
+  @Override
+  public int getInDegree(final ExecutionVertex v) {
+    return dag.getInDegree(v);
+  }
+}
@@ -19,8 +19,12 @@ import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.GraphUtils;
 import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.parameters.OperatorFusion;
+import edu.snu.mist.core.parameters.PredicateIndex;
 import edu.snu.mist.core.task.*;
 import edu.snu.mist.core.task.codeshare.ClassLoaderProvider;
+import org.apache.reef.io.Tuple;
+import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.InjectionException;
 
 import javax.inject.Inject;
@@ -28,6 +32,7 @@ import java.io.IOException;
 import java.net.URL;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This starter tries to merges the submitted dag with the currently running dag.
@@ -87,6 +92,26 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
    */
   private final List<String> groupJarFilePaths;
 
+  /**
+   * The factory of source output emitters.
+   */
+  private final SourceOutputEmitterFactory sourceOutputEmitterFactory;
+
+  /**
+   * True if the linear chains of stateless operators are fused.
+   */
+  private final boolean operatorFusion;
+
+  /**
+   * True if the rule-based comparison filters are indexed.
+   */
+  private final boolean predicateIndex;
+
+  /**
+   * The locks for merging the queries.
+   */
+  private final MergingLocks mergingLocks;
+
   @Inject
   private ImmediateQueryMergingStarter(final CommonSubDagFinder commonSubDagFinder,
                                        final SrcAndDagMap<String> srcAndDagMap,
@@ -96,7 +121,11 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
                                        final ExecutionVertexCountMap executionVertexCountMap,
                                        final ClassLoaderProvider classLoaderProvider,
                                        final ExecutionVertexGenerator executionVertexGenerator,
-                                       final ExecutionVertexDagMap executionVertexDagMap) {
+                                       final ExecutionVertexDagMap executionVertexDagMap,
+                                       final SourceOutputEmitterFactory sourceOutputEmitterFactory,
+                                       final MergingLocks mergingLocks,
+                                       @Parameter(OperatorFusion.class) final boolean operatorFusion,
+                                       @Parameter(PredicateIndex.class) final boolean predicateIndex) {
     this.commonSubDagFinder = commonSubDagFinder;
     this.srcAndDagMap = srcAndDagMap;
     this.queryIdConfigDagMap = queryIdConfigDagMap;
@@ -107,110 +136,204 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
     this.executionVertexCountMap = executionVertexCountMap;
     this.executionVertexDagMap = executionVertexDagMap;
     this.groupJarFilePaths = new CopyOnWriteArrayList<>();
+    this.sourceOutputEmitterFactory = sourceOutputEmitterFactory;
+    this.operatorFusion = operatorFusion;
+    this.predicateIndex = predicateIndex;
+    this.mergingLocks = mergingLocks;
   }
 
   @Override
-  public synchronized void start(final String queryId,
-                                 final Query query,
-                                 final DAG<ConfigVertex, MISTEdge> submittedDag,
-                                 final List<String> jarFilePaths)
+  public void start(final String queryId,
+                    final Query query,
+                    final DAG<ConfigVertex, MISTEdge> submittedDag,
+                    final List<String> jarFilePaths)
       throws InjectionException, IOException, ClassNotFoundException {
 
     queryIdConfigDagMap.put(queryId, submittedDag);
     // Get a class loader
     final URL[] urls = SerializeUtils.getJarFileURLs(jarFilePaths);
     final ClassLoader classLoader = classLoaderProvider.newInstance(urls);
+    addGroupJarFilePaths(jarFilePaths);
+
+    // Lock the sources of the submitted dag first, and then the execution dags that contain the sources,
+    // so the queries that do not share any source or execution dag are merged concurrently
+    final List<ReentrantLock> sourceLocks = mergingLocks.lockSources(getSourceConfs(submittedDag));
+    try {
+      lockAndMerge(query, submittedDag, jarFilePaths, urls, classLoader);
+    } finally {
+      mergingLocks.unlock(sourceLocks);
+    }
+  }
+
+  /**
+   * Start the queries of a batch.
+   * It creates the class loader once, and locks the sources of all the queries at once,
+   * so the batch is merged in one pass without being interleaved with the other submissions on the same sources.
+   * A query that fails to be merged is reported, and the next queries of the batch are still merged.
+   */
+  @Override
+  public Map<String, Exception> startBatch(final List<Tuple<Query, DAG<ConfigVertex, MISTEdge>>> queries,
+                                           final List<String> jarFilePaths)
+      throws InjectionException, IOException, ClassNotFoundException {
+    final URL[] urls = SerializeUtils.getJarFileURLs(jarFilePaths);
+    final ClassLoader classLoader = classLoaderProvider.newInstance(urls);
+    addGroupJarFilePaths(jarFilePaths);
+
+    final List<String> sourceConfs = new ArrayList<>();
+    for (final Tuple<Query, DAG<ConfigVertex, MISTEdge>> tuple : queries) {
+      queryIdConfigDagMap.put(tuple.getKey().getId(), tuple.getValue());
+      sourceConfs.addAll(getSourceConfs(tuple.getValue()));
+    }
+
+    final Map<String, Exception> failures = new HashMap<>();
+    final List<ReentrantLock> sourceLocks = mergingLocks.lockSources(sourceConfs);
+    try {
+      for (final Tuple<Query, DAG<ConfigVertex, MISTEdge>> tuple : queries) {
+        try {
+          lockAndMerge(tuple.getKey(), tuple.getValue(), jarFilePaths, urls, classLoader);
+        } catch (final InjectionException | IOException | ClassNotFoundException | RuntimeException e) {
+          // [MIST-345] We need to release all of the information that is required for the query when it fails.
+          queryIdConfigDagMap.remove(tuple.getKey().getId());
+          failures.put(tuple.getKey().getId(), e);
+        }
+      }
+    } finally {
+      mergingLocks.unlock(sourceLocks);
+    }
+    return failures;
+  }
 
+  private void addGroupJarFilePaths(final List<String> jarFilePaths) {
     synchronized (groupJarFilePaths) {
       if (jarFilePaths != null && jarFilePaths.size() != 0) {
         groupJarFilePaths.addAll(jarFilePaths);
       }
     }
+  }
+
+  private List<String> getSourceConfs(final DAG<ConfigVertex, MISTEdge> submittedDag) {
+    final List<String> sourceConfs = new ArrayList<>();
+    for (final ConfigVertex source : submittedDag.getRootVertices()) {
+      sourceConfs.add(source.getConfiguration());
+    }
+    return sourceConfs;
+  }
 
-    // Synchronize the execution dags to evade concurrent modifications
-    // TODO:[MIST-590] We need to improve this code for concurrent modification
-    synchronized (srcAndDagMap) {
+  /**
+   * Lock the mergeable execution dags and merge the submitted dag with them.
+   * The sources of the submitted dag should be locked.
+   */
+  private void lockAndMerge(final Query query,
+                            final DAG<ConfigVertex, MISTEdge> submittedDag,
+                            final List<String> jarFilePaths,
+                            final URL[] urls,
+                            final ClassLoader classLoader)
+      throws InjectionException, IOException, ClassNotFoundException {
+    while (true) {
       // Find mergeable DAGs from the execution dags
       final Map<String, ExecutionDag> mergeableDags = findMergeableDags(submittedDag);
+      final List<ReentrantLock> dagLocks = mergingLocks.lockDags(mergeableDags.values());
+      try {
+        // Retry if the mergeable dags were merged into another dag before they are locked
+        if (mergeableDags.equals(findMergeableDags(submittedDag))) {
+          merge(query, submittedDag, mergeableDags, jarFilePaths, urls, classLoader);
+          return;
+        }
+      } finally {
+        mergingLocks.unlock(dagLocks);
+      }
+    }
+  }
+
+  /**
+   * Merge the submitted dag with the mergeable execution dags.
+   * The sources of the submitted dag and the mergeable dags should be locked.
+   */
+  private void merge(final Query query,
+                     final DAG<ConfigVertex, MISTEdge> submittedDag,
+                     final Map<String, ExecutionDag> mergeableDags,
+                     final List<String> jarFilePaths,
+                     final URL[] urls,
+                     final ClassLoader classLoader)
+      throws InjectionException, IOException, ClassNotFoundException {
+    // Exit the merging process if there is no mergeable dag
+    if (mergeableDags.size() == 0) {
+      final ExecutionDag executionDag = generate(submittedDag, jarFilePaths);
+      // Set up the output emitters of the submitted DAG
+      QueryStarterUtils.setUpOutputEmitters(executionDag, query, sourceOutputEmitterFactory,
+          operatorFusion, predicateIndex);
+
+      for (final ExecutionVertex source : executionDag.getDag().getRootVertices()) {
+        // Start the source
+        final PhysicalSource src = (PhysicalSource) source;
+        srcAndDagMap.put(src.getConfiguration(), executionDag);
+        src.start();
+      }
 
-      // Exit the merging process if there is no mergeable dag
-      if (mergeableDags.size() == 0) {
-        final ExecutionDag executionDag = generate(submittedDag, jarFilePaths);
-        // Set up the output emitters of the submitted DAG
-        QueryStarterUtils.setUpOutputEmitters(executionDag, query);
+      // Update the execution dag of the execution vertex
+      for (final ExecutionVertex ev : executionDag.getDag().getVertices()) {
+        executionVertexDagMap.put(ev, executionDag);
+      }
 
+      executionDags.add(executionDag);
+      return;
+    }
+
+    // If there exist mergeable execution dags,
+    // Select the DAG that has the largest number of vertices and merge all of the DAG to the largest DAG
+    final ExecutionDag sharableExecutionDag = selectLargestDag(mergeableDags.values());
+    // Merge all dag into one execution dag
+    // We suppose that all of the dags has no same vertices
+    for (final ExecutionDag executionDag : mergeableDags.values()) {
+      if (executionDag != sharableExecutionDag) {
+        GraphUtils.copy(executionDag.getDag(), sharableExecutionDag.getDag());
+        // Remove the execution dag
+        executionDags.remove(executionDag);
+
+        // Update all of the sources in the execution Dag
         for (final ExecutionVertex source : executionDag.getDag().getRootVertices()) {
-          // Start the source
-          final PhysicalSource src = (PhysicalSource) source;
-          srcAndDagMap.put(src.getConfiguration(), executionDag);
-          src.start();
+          srcAndDagMap.replace(((PhysicalSource) source).getConfiguration(), sharableExecutionDag);
         }
 
         // Update the execution dag of the execution vertex
         for (final ExecutionVertex ev : executionDag.getDag().getVertices()) {
-          executionVertexDagMap.put(ev, executionDag);
+          executionVertexDagMap.put(ev, sharableExecutionDag);
         }
-
-        executionDags.add(executionDag);
-        return;
       }
+    }
 
-      // If there exist mergeable execution dags,
-      // Select the DAG that has the largest number of vertices and merge all of the DAG to the largest DAG
-      final ExecutionDag sharableExecutionDag = selectLargestDag(mergeableDags.values());
-      // Merge all dag into one execution dag
-      // We suppose that all of the dags has no same vertices
-      for (final ExecutionDag executionDag : mergeableDags.values()) {
-        if (executionDag != sharableExecutionDag) {
-          GraphUtils.copy(executionDag.getDag(), sharableExecutionDag.getDag());
-          // Remove the execution dag
-          executionDags.remove(executionDag);
-
-          // Update all of the sources in the execution Dag
-          for (final ExecutionVertex source : executionDag.getDag().getRootVertices()) {
-            srcAndDagMap.replace(((PhysicalSource) source).getConfiguration(), sharableExecutionDag);
-          }
-
-          // Update the execution dag of the execution vertex
-          for (final ExecutionVertex ev : executionDag.getDag().getVertices()) {
-            executionVertexDagMap.put(ev, sharableExecutionDag);
-          }
-        }
+    // After that, find the sub-dag between the sharableDAG and the submitted dag
+    final Map<ConfigVertex, ExecutionVertex> subDagMap =
+        commonSubDagFinder.findSubDag(sharableExecutionDag, submittedDag);
+
+    // After that, we should merge the sharable dag with the submitted dag
+    // and update the output emitters of the sharable dag
+    final Set<ConfigVertex> visited = new HashSet<>(submittedDag.numberOfVertices());
+    for (final ConfigVertex source : submittedDag.getRootVertices()) {
+      // dfs search
+      ExecutionVertex executionVertex;
+      if (subDagMap.get(source) == null) {
+        executionVertex = executionVertexGenerator.generate(source, urls, classLoader);
+        sharableExecutionDag.getDag().addVertex(executionVertex);
+        executionVertexCountMap.put(executionVertex, 1);
+        executionVertexDagMap.put(executionVertex, sharableExecutionDag);
+      } else {
+        executionVertex = subDagMap.get(source);
+        executionVertexCountMap.put(executionVertex, executionVertexCountMap.get(executionVertex) + 1);
       }
+      configExecutionVertexMap.put(source, executionVertex);
 
-      // After that, find the sub-dag between the sharableDAG and the submitted dag
-      final Map<ConfigVertex, ExecutionVertex> subDagMap =
-          commonSubDagFinder.findSubDag(sharableExecutionDag, submittedDag);
-
-      // After that, we should merge the sharable dag with the submitted dag
-      // and update the output emitters of the sharable dag
-      final Set<ConfigVertex> visited = new HashSet<>(submittedDag.numberOfVertices());
-      for (final ConfigVertex source : submittedDag.getRootVertices()) {
-        // dfs search
-        ExecutionVertex executionVertex;
-        if (subDagMap.get(source) == null) {
-          executionVertex = executionVertexGenerator.generate(source, urls, classLoader);
-          sharableExecutionDag.getDag().addVertex(executionVertex);
-          executionVertexCountMap.put(executionVertex, 1);
-          executionVertexDagMap.put(executionVertex, sharableExecutionDag);
-        } else {
-          executionVertex = subDagMap.get(source);
-          executionVertexCountMap.put(executionVertex, executionVertexCountMap.get(executionVertex) + 1);
-        }
-        configExecutionVertexMap.put(source, executionVertex);
-
-        for (final Map.Entry<ConfigVertex, MISTEdge> child : submittedDag.getEdges(source).entrySet()) {
-          dfsMerge(subDagMap, visited, executionVertex,
-              child.getValue(), child.getKey(), sharableExecutionDag, submittedDag, urls, classLoader);
-        }
+      for (final Map.Entry<ConfigVertex, MISTEdge> child : submittedDag.getEdges(source).entrySet()) {
+        dfsMerge(subDagMap, visited, executionVertex,
+            child.getValue(), child.getKey(), sharableExecutionDag, submittedDag, urls, classLoader);
       }
+    }
 
-      // If there are sources that are not shared, start them
-      for (final ConfigVertex source : submittedDag.getRootVertices()) {
-        if (!subDagMap.containsKey(source)) {
-          srcAndDagMap.put(source.getConfiguration(), sharableExecutionDag);
-          ((PhysicalSource)configExecutionVertexMap.get(source)).start();
-        }
+    // If there are sources that are not shared, start them
+    for (final ConfigVertex source : submittedDag.getRootVertices()) {
+      if (!subDagMap.containsKey(source)) {
+        srcAndDagMap.put(source.getConfiguration(), sharableExecutionDag);
+        ((PhysicalSource)configExecutionVertexMap.get(source)).start();
       }
     }
   }
@@ -253,7 +376,8 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
                                                   final List<String> jarFilePaths)
       throws IOException, ClassNotFoundException, InjectionException {
     // For execution dag
-    final ExecutionDag executionDag = new ExecutionDag(new AdjacentListConcurrentMapDAG<>());
+    final ExecutionDag executionDag =
+        new ExecutionDag(new FingerprintIndexedDag(new AdjacentListConcurrentMapDAG<>()));
 
     // Get a class loader
     final URL[] urls = SerializeUtils.getJarFileURLs(jarFilePaths);
@@ -341,11 +465,12 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
       if (correspondingVertex.getType() == ExecutionVertex.Type.SOURCE) {
         final PhysicalSource s = (PhysicalSource) correspondingVertex;
         final SourceOutputEmitter sourceOutputEmitter = s.getSourceOutputEmitter();
-        s.setOutputEmitter(new NonBlockingQueueSourceOutputEmitter<>(
-            executionDag.getDag().getEdges(correspondingVertex), sourceOutputEmitter.getQuery()));
+        s.setOutputEmitter(sourceOutputEmitterFactory.newInstance(
+            executionDag.getDag().getEdges(correspondingVertex), sourceOutputEmitter.getQuery(), s));
       } else if (correspondingVertex.getType() == ExecutionVertex.Type.OPERATOR) {
         ((PhysicalOperator)correspondingVertex).getOperator().setOutputEmitter(
-            new OperatorOutputEmitter(executionDag.getDag().getEdges(correspondingVertex)));
+            QueryStarterUtils.newOperatorOutputEmitter(
+                executionDag.getDag().getEdges(correspondingVertex), predicateIndex));
       }
     }
 
@@ -16,18 +16,25 @@
 package edu.snu.mist.core.task.merging;
 
 import edu.snu.mist.common.graph.DAG;
+import edu.snu.mist.common.graph.GraphUtils;
 import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.parameters.OperatorFusion;
+import edu.snu.mist.core.parameters.PredicateIndex;
 import edu.snu.mist.core.task.*;
 import edu.snu.mist.core.task.QueryRemover;
+import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
-import java.util.Collection;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This removes the query from MIST.
  * It considers the queries are merged and vertices have their reference count.
  * So, this remover will decrease the reference count of the execution vertices
  * and delete them when it becomes zero.
+ * As the merged execution dags are not connected anymore after the shared vertices are deleted,
+ * it splits the execution dags into the connected components.
  */
 public final class MergeAwareQueryRemover implements QueryRemover {
 
@@ -62,19 +69,47 @@ public final class MergeAwareQueryRemover implements QueryRemover {
    */
   private final ExecutionVertexDagMap executionVertexDagMap;
 
+  /**
+   * The locks for merging and deleting the queries.
+   */
+  private final MergingLocks mergingLocks;
+
+  /**
+   * The factory of source output emitters.
+   */
+  private final SourceOutputEmitterFactory sourceOutputEmitterFactory;
+
+  /**
+   * True if the linear chains of stateless operators are fused.
+   */
+  private final boolean operatorFusion;
+
+  /**
+   * True if the rule-based comparison filters are indexed.
+   */
+  private final boolean predicateIndex;
+
   @Inject
   private MergeAwareQueryRemover(final QueryIdConfigDagMap queryIdConfigDagMap,
                                  final SrcAndDagMap<String> srcAndDagMap,
                                  final ExecutionDags executionDags,
                                  final ExecutionVertexCountMap executionVertexCountMap,
                                  final ConfigExecutionVertexMap configExecutionVertexMap,
-                                 final ExecutionVertexDagMap executionVertexDagMap) {
+                                 final ExecutionVertexDagMap executionVertexDagMap,
+                                 final MergingLocks mergingLocks,
+                                 final SourceOutputEmitterFactory sourceOutputEmitterFactory,
+                                 @Parameter(OperatorFusion.class) final boolean operatorFusion,
+                                 @Parameter(PredicateIndex.class) final boolean predicateIndex) {
     this.srcAndDagMap = srcAndDagMap;
     this.queryIdConfigDagMap = queryIdConfigDagMap;
     this.configExecutionVertexMap = configExecutionVertexMap;
     this.executionVertexCountMap = executionVertexCountMap;
     this.executionDags = executionDags;
     this.executionVertexDagMap = executionVertexDagMap;
+    this.mergingLocks = mergingLocks;
+    this.sourceOutputEmitterFactory = sourceOutputEmitterFactory;
+    this.operatorFusion = operatorFusion;
+    this.predicateIndex = predicateIndex;
   }
 
   /**
@@ -82,43 +117,254 @@ public final class MergeAwareQueryRemover implements QueryRemover {
    * @param queryId query id
    */
   @Override
-  public synchronized void deleteQuery(final String queryId) {
-    // Synchronize the execution dags to evade concurrent modifications
-    // TODO:[MIST-590] We need to improve this code for concurrent modification
-    synchronized (srcAndDagMap) {
-      // Delete the query plan from queryIdConfigDagMap
-      final DAG<ConfigVertex, MISTEdge> configDag = queryIdConfigDagMap.remove(queryId);
-      // Delete vertices
-      final Collection<ConfigVertex> vertices = configDag.getVertices();
-      for (final ConfigVertex vertex : vertices) {
-        final ExecutionVertex executionVertex = configExecutionVertexMap.remove(vertex);
-        final int refCount = executionVertexCountMap.get(executionVertex);
-        if (refCount == 1) {
-          // Delete it from the execution dag
-          final ExecutionDag executionDag = executionVertexDagMap.remove(executionVertex);
-          executionDag.getDag().removeVertex(executionVertex);
-          executionVertexCountMap.remove(executionVertex);
-
-          // Stop if it is source
-          if (executionVertex.getType() == ExecutionVertex.Type.SOURCE) {
-            final PhysicalSource src = (PhysicalSource)executionVertex;
-            srcAndDagMap.remove(src.getConfiguration());
-            try {
-              src.close();
-            } catch (Exception e) {
-              e.printStackTrace();
-            }
+  public void deleteQuery(final String queryId) {
+    final DAG<ConfigVertex, MISTEdge> configDag = queryIdConfigDagMap.get(queryId);
+    if (configDag == null) {
+      return;
+    }
+
+    // Lock the sources of the query first, and then the execution dags that contain the query
+    final List<String> sourceConfs = new ArrayList<>();
+    for (final ConfigVertex source : configDag.getRootVertices()) {
+      sourceConfs.add(source.getConfiguration());
+    }
+    final List<ReentrantLock> sourceLocks = mergingLocks.lockSources(sourceConfs);
+    try {
+      while (true) {
+        final Set<ExecutionDag> dags = findExecutionDags(configDag);
+        final List<ReentrantLock> dagLocks = mergingLocks.lockDags(dags);
+        try {
+          // Retry if the execution dags were merged into another dag before they are locked
+          if (dags.equals(findExecutionDags(configDag))) {
+            delete(queryId);
+            return;
           }
+        } finally {
+          mergingLocks.unlock(dagLocks);
+        }
+      }
+    } finally {
+      mergingLocks.unlock(sourceLocks);
+    }
+  }
+
+  /**
+   * Find the execution dags that contain the vertices of the query.
+   * @param configDag the configuration dag of the query
+   * @return execution dags
+   */
+  private Set<ExecutionDag> findExecutionDags(final DAG<ConfigVertex, MISTEdge> configDag) {
+    final Set<ExecutionDag> dags = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (final ConfigVertex vertex : configDag.getVertices()) {
+      final ExecutionVertex executionVertex = configExecutionVertexMap.get(vertex);
+      if (executionVertex != null) {
+        final ExecutionDag executionDag = executionVertexDagMap.get(executionVertex);
+        if (executionDag != null) {
+          dags.add(executionDag);
+        }
+      }
+    }
+    return dags;
+  }
 
-          // Remove the executionDag if the size is 0
-          if (executionDag.getDag().numberOfVertices() == 0) {
-            executionDags.remove(executionDag);
+  /**
+   * Delete the query.
+   * The sources of the query and the execution dags that contain the query should be locked.
+   * @param queryId query id
+   */
+  private void delete(final String queryId) {
+    // Delete the query plan from queryIdConfigDagMap
+    final DAG<ConfigVertex, MISTEdge> configDag = queryIdConfigDagMap.remove(queryId);
+    if (configDag == null) {
+      return;
+    }
+    // The predicate indices of the remaining operators should not refer to the deleted vertices,
+    // and the remaining operators can be fused with the next operator after the other next vertices are deleted
+    final Set<ExecutionVertex> updatedOperators = predicateIndex || operatorFusion
+        ? findOperatorsLosingNextVertices(configDag) : Collections.emptySet();
+
+    // The new execution dags split from the shrunk dags are locked until the output emitters are updated
+    final List<ReentrantLock> newDagLocks = new ArrayList<>();
+    try {
+      deleteVertices(configDag, newDagLocks);
+      for (final ExecutionVertex operator : updatedOperators) {
+        final DAG<ExecutionVertex, MISTEdge> dag = executionVertexDagMap.get(operator).getDag();
+        ((PhysicalOperator) operator).getOperator().setOutputEmitter(QueryStarterUtils.newOperatorOutputEmitter(
+            dag, (PhysicalOperator) operator, operatorFusion, predicateIndex));
+      }
+    } finally {
+      mergingLocks.unlock(newDagLocks);
+    }
+  }
+
+  /**
+   * Delete the vertices of the query whose reference counts become zero, and split the shrunk execution dags.
+   * @param configDag the configuration dag of the query
+   * @param newDagLocks the list to which the locks of the new execution dags are added
+   */
+  private void deleteVertices(final DAG<ConfigVertex, MISTEdge> configDag,
+                              final List<ReentrantLock> newDagLocks) {
+    // Delete vertices
+    final Set<ExecutionDag> shrunkDags = Collections.newSetFromMap(new IdentityHashMap<>());
+    final Collection<ConfigVertex> vertices = configDag.getVertices();
+    for (final ConfigVertex vertex : vertices) {
+      final ExecutionVertex executionVertex = configExecutionVertexMap.remove(vertex);
+      final int refCount = executionVertexCountMap.get(executionVertex);
+      if (refCount == 1) {
+        // Delete it from the execution dag
+        final ExecutionDag executionDag = executionVertexDagMap.remove(executionVertex);
+        executionDag.getDag().removeVertex(executionVertex);
+        executionVertexCountMap.remove(executionVertex);
+
+        // Stop if it is source
+        if (executionVertex.getType() == ExecutionVertex.Type.SOURCE) {
+          final PhysicalSource src = (PhysicalSource)executionVertex;
+          srcAndDagMap.remove(src.getConfiguration());
+          try {
+            src.close();
+          } catch (Exception e) {
+            e.printStackTrace();
           }
+        }
 
+        // Remove the executionDag if the size is 0
+        if (executionDag.getDag().numberOfVertices() == 0) {
+          executionDags.remove(executionDag);
+          shrunkDags.remove(executionDag);
         } else {
-          // Decrease the reference count
-          executionVertexCountMap.put(executionVertex, refCount - 1);
+          shrunkDags.add(executionDag);
+        }
+
+      } else {
+        // Decrease the reference count
+        executionVertexCountMap.put(executionVertex, refCount - 1);
+      }
+    }
+
+    for (final ExecutionDag executionDag : shrunkDags) {
+      split(executionDag, newDagLocks);
+    }
+  }
+
+  /**
+   * Find the shared operators of the query whose next vertices are deleted with the query.
+   * @param configDag the configuration dag of the query
+   * @return the execution vertices of the operators
+   */
+  private Set<ExecutionVertex> findOperatorsLosingNextVertices(final DAG<ConfigVertex, MISTEdge> configDag) {
+    final Set<ExecutionVertex> operators = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (final ConfigVertex vertex : configDag.getVertices()) {
+      final ExecutionVertex executionVertex = configExecutionVertexMap.get(vertex);
+      if (executionVertex.getType() != ExecutionVertex.Type.OPERATOR
+          || executionVertexCountMap.get(executionVertex) == 1) {
+        continue;
+      }
+      for (final ConfigVertex child : configDag.getEdges(vertex).keySet()) {
+        if (executionVertexCountMap.get(configExecutionVertexMap.get(child)) == 1) {
+          operators.add(executionVertex);
+          break;
+        }
+      }
+    }
+    return operators;
+  }
+
+  /**
+   * Split the execution dag if it consists of multiple connected components.
+   * The largest component remains in the execution dag, and each of the others is moved to a new execution dag,
+   * so the later merging and deletion do not traverse the vertices of the unrelated queries.
+   * The execution dag should be locked. Each new dag is locked before it is published,
+   * and srcAndDagMap is updated last, so the other threads that find the new dag wait until it is unlocked.
+   * @param executionDag execution dag
+   * @param newDagLocks the list to which the locks of the new execution dags are added
+   */
+  private void split(final ExecutionDag executionDag, final List<ReentrantLock> newDagLocks) {
+    final DAG<ExecutionVertex, MISTEdge> dag = executionDag.getDag();
+    final List<Set<ExecutionVertex>> components = GraphUtils.getConnectedComponents(dag);
+    if (components.size() <= 1) {
+      return;
+    }
+
+    final Set<ExecutionVertex> largest = Collections.max(components, Comparator.comparingInt(Set::size));
+    for (final Set<ExecutionVertex> component : components) {
+      if (component == largest) {
+        continue;
+      }
+      final ExecutionDag newExecutionDag = newLockedExecutionDag(newDagLocks);
+      final DAG<ExecutionVertex, MISTEdge> newDag = newExecutionDag.getDag();
+      for (final ExecutionVertex vertex : component) {
+        newDag.addVertex(vertex);
+      }
+      for (final ExecutionVertex vertex : component) {
+        for (final Map.Entry<ExecutionVertex, MISTEdge> edge : dag.getEdges(vertex).entrySet()) {
+          newDag.addEdge(vertex, edge.getKey(), edge.getValue());
+        }
+      }
+      rebindOutputEmitters(component, newDag);
+
+      // Remove the sources first, so the edges of the previous output emitters are kept for the queued events
+      for (final ExecutionVertex vertex : component) {
+        if (vertex.getType() == ExecutionVertex.Type.SOURCE) {
+          dag.removeVertex(vertex);
+        }
+      }
+      for (final ExecutionVertex vertex : component) {
+        if (vertex.getType() != ExecutionVertex.Type.SOURCE) {
+          dag.removeVertex(vertex);
+        }
+      }
+
+      executionDags.add(newExecutionDag);
+      for (final ExecutionVertex vertex : component) {
+        executionVertexDagMap.put(vertex, newExecutionDag);
+      }
+      for (final ExecutionVertex vertex : component) {
+        if (vertex.getType() == ExecutionVertex.Type.SOURCE) {
+          srcAndDagMap.replace(((PhysicalSource) vertex).getConfiguration(), newExecutionDag);
+        }
+      }
+    }
+  }
+
+  /**
+   * Create a new execution dag and lock it.
+   * As the locks of the shrunk dags are held, it does not wait for the lock of the new dag to avoid deadlocks,
+   * but creates another dag, which is likely to be in another stripe.
+   * @param newDagLocks the list to which the lock of the new execution dag is added
+   * @return the locked execution dag
+   */
+  private ExecutionDag newLockedExecutionDag(final List<ReentrantLock> newDagLocks) {
+    while (true) {
+      final ExecutionDag newExecutionDag =
+          new ExecutionDag(new FingerprintIndexedDag(new AdjacentListConcurrentMapDAG<>()));
+      final ReentrantLock newDagLock = mergingLocks.tryLockDag(newExecutionDag);
+      if (newDagLock != null) {
+        newDagLocks.add(newDagLock);
+        return newExecutionDag;
+      }
+    }
+  }
+
+  /**
+   * Update the output emitters of the moved vertices, which refer to the edges of the previous dag.
+   * [TODO:MIST-527] Integrate ExecutionVertex and PhysicalVertex
+   * @param vertices moved vertices
+   * @param newDag the dag that contains the vertices
+   */
+  private void rebindOutputEmitters(final Set<ExecutionVertex> vertices,
+                                    final DAG<ExecutionVertex, MISTEdge> newDag) {
+    for (final ExecutionVertex vertex : vertices) {
+      if (vertex.getType() == ExecutionVertex.Type.SOURCE) {
+        final PhysicalSource src = (PhysicalSource) vertex;
+        final SourceOutputEmitter sourceOutputEmitter = src.getSourceOutputEmitter();
+        if (sourceOutputEmitter != null) {
+          src.setOutputEmitter(sourceOutputEmitterFactory.newInstance(
+              newDag.getEdges(src), sourceOutputEmitter.getQuery(), src));
         }
+      } else if (vertex.getType() == ExecutionVertex.Type.OPERATOR) {
+        final PhysicalOperator operator = (PhysicalOperator) vertex;
+        operator.getOperator().setOutputEmitter(
+            QueryStarterUtils.newOperatorOutputEmitter(newDag, operator, operatorFusion, predicateIndex));
       }
     }
   }
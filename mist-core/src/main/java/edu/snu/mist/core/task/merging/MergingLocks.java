@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.merging;
+
+import edu.snu.mist.core.task.ExecutionDag;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class has the striped locks for merging and deleting queries.
+ * A query first locks its source configurations, and then locks the execution dags that it modifies,
+ * so the queries that do not share sources or execution dags are merged and deleted concurrently.
+ * The locks of each stripe set are acquired in the order of the stripe index to avoid deadlocks,
+ * and no source lock is acquired while holding a dag lock.
+ */
+public final class MergingLocks {
+
+  /**
+   * The number of stripes.
+   */
+  private static final int NUM_STRIPES = 1024;
+
+  /**
+   * The locks of the source configurations.
+   */
+  private final ReentrantLock[] sourceLocks;
+
+  /**
+   * The locks of the execution dags.
+   */
+  private final ReentrantLock[] dagLocks;
+
+  @Inject
+  private MergingLocks() {
+    this.sourceLocks = new ReentrantLock[NUM_STRIPES];
+    this.dagLocks = new ReentrantLock[NUM_STRIPES];
+    for (int i = 0; i < NUM_STRIPES; i++) {
+      sourceLocks[i] = new ReentrantLock();
+      dagLocks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Lock the source configurations.
+   * @param sourceConfs source configurations
+   * @return the acquired locks, which should be released by unlock
+   */
+  public List<ReentrantLock> lockSources(final Collection<String> sourceConfs) {
+    final TreeSet<Integer> stripes = new TreeSet<>();
+    for (final String sourceConf : sourceConfs) {
+      stripes.add(Math.floorMod(sourceConf.hashCode(), NUM_STRIPES));
+    }
+    return lock(sourceLocks, stripes);
+  }
+
+  /**
+   * Lock the execution dags.
+   * @param executionDags execution dags
+   * @return the acquired locks, which should be released by unlock
+   */
+  public List<ReentrantLock> lockDags(final Collection<ExecutionDag> executionDags) {
+    final TreeSet<Integer> stripes = new TreeSet<>();
+    for (final ExecutionDag executionDag : executionDags) {
+      stripes.add(Math.floorMod(System.identityHashCode(executionDag), NUM_STRIPES));
+    }
+    return lock(dagLocks, stripes);
+  }
+
+  /**
+   * Try to lock a new execution dag, which is not published yet, while holding the locks of other execution dags.
+   * It does not wait for the lock, because the stripe of the new dag is not ordered with the held stripes.
+   * @param executionDag new execution dag
+   * @return the acquired lock, which should be released by unlock, or null if another thread holds the stripe
+   */
+  public ReentrantLock tryLockDag(final ExecutionDag executionDag) {
+    final ReentrantLock dagLock = dagLocks[Math.floorMod(System.identityHashCode(executionDag), NUM_STRIPES)];
+    return dagLock.tryLock() ? dagLock : null;
+  }
+
+  private List<ReentrantLock> lock(final ReentrantLock[] locks, final TreeSet<Integer> stripes) {
+    final List<ReentrantLock> acquired = new ArrayList<>(stripes.size());
+    for (final int stripe : stripes) {
+      locks[stripe].lock();
+      acquired.add(locks[stripe]);
+    }
+    return acquired;
+  }
+
+  /**
+   * Release the locks in the reverse order.
+   * @param locks acquired locks
+   */
+  public void unlock(final List<ReentrantLock> locks) {
+    for (int i = locks.size() - 1; i >= 0; i--) {
+      locks.get(i).unlock();
+    }
+  }
+}
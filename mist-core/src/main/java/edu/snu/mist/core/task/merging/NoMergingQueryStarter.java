@@ -17,7 +17,10 @@ package edu.snu.mist.core.task.merging;
 
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.parameters.OperatorFusion;
+import edu.snu.mist.core.parameters.PredicateIndex;
 import edu.snu.mist.core.task.*;
+import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.InjectionException;
 
 import javax.inject.Inject;
@@ -40,11 +43,32 @@ public final class NoMergingQueryStarter implements QueryStarter {
    */
   private final DagGenerator dagGenerator;
 
+  /**
+   * The factory of source output emitters.
+   */
+  private final SourceOutputEmitterFactory sourceOutputEmitterFactory;
+
+  /**
+   * True if the linear chains of stateless operators are fused.
+   */
+  private final boolean operatorFusion;
+
+  /**
+   * True if the rule-based comparison filters are indexed.
+   */
+  private final boolean predicateIndex;
+
   @Inject
   private NoMergingQueryStarter(final ExecutionPlanDagMap executionPlanDagMap,
-                                final DagGenerator dagGenerator) {
+                                final DagGenerator dagGenerator,
+                                final SourceOutputEmitterFactory sourceOutputEmitterFactory,
+                                @Parameter(OperatorFusion.class) final boolean operatorFusion,
+                                @Parameter(PredicateIndex.class) final boolean predicateIndex) {
     this.executionPlanDagMap = executionPlanDagMap;
     this.dagGenerator = dagGenerator;
+    this.sourceOutputEmitterFactory = sourceOutputEmitterFactory;
+    this.operatorFusion = operatorFusion;
+    this.predicateIndex = predicateIndex;
   }
 
   /**
@@ -60,7 +84,8 @@ public final class NoMergingQueryStarter implements QueryStarter {
 
     final ExecutionDag submittedExecutionDag = dagGenerator.generate(configDag, jarFilePaths);
     executionPlanDagMap.put(queryId, submittedExecutionDag);
-    QueryStarterUtils.setUpOutputEmitters(submittedExecutionDag, query);
+    QueryStarterUtils.setUpOutputEmitters(submittedExecutionDag, query, sourceOutputEmitterFactory,
+        operatorFusion, predicateIndex);
     // starts to receive input data stream from the sources
     final DAG<ExecutionVertex, MISTEdge> dag = submittedExecutionDag.getDag();
     for (final ExecutionVertex source : dag.getRootVertices()) {
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A class represents a metric which is concurrently counted by many threads,
+ * such as the number of queued events.
+ * As the value keeps changing, it uses the identity equality, so that it can be safely kept in hash-based collections.
+ */
+public final class CounterMetric {
+
+  /**
+   * The counter of this metric.
+   */
+  private final LongAdder counter;
+
+  public CounterMetric() {
+    this.counter = new LongAdder();
+  }
+
+  /**
+   * @return the value of this metric
+   */
+  public long getValue() {
+    return counter.sum();
+  }
+
+  /**
+   * Add the given delta to this metric.
+   * @param delta the delta to add
+   */
+  public void add(final long delta) {
+    counter.add(delta);
+  }
+}
@@ -61,6 +61,21 @@ public final class GlobalMetrics {
    */
   private final NormalMetric<Double> weightMetric;
 
+  /**
+   * The number of events queued in the sources.
+   */
+  private final CounterMetric numQueuedSourceEventsMetric;
+
+  /**
+   * The number of data events dropped by the bounded source queues.
+   */
+  private final CounterMetric numDroppedSourceEventsMetric;
+
+  /**
+   * The number of events processed from the sources.
+   */
+  private final CounterMetric numProcessedSourceEventsMetric;
+
   @Inject
   private GlobalMetrics(@Parameter(NumEventAlpha.class) final double numEventAlpha,
                         @Parameter(SysCpuUtilAlpha.class) final double sysCpuUtilAlpha,
@@ -74,6 +89,9 @@ public final class GlobalMetrics {
     this.numGroupsMetric = new NormalMetric<>(0);
     this.numEventsMetric = new EWMAMetric(0.0, numEventAlpha);
     this.weightMetric = new NormalMetric<>(1.0);
+    this.numQueuedSourceEventsMetric = new CounterMetric();
+    this.numDroppedSourceEventsMetric = new CounterMetric();
+    this.numProcessedSourceEventsMetric = new CounterMetric();
   }
 
   /**
@@ -125,6 +143,27 @@ public final class GlobalMetrics {
     return weightMetric;
   }
 
+  /**
+   * @return the number of events queued in the sources
+   */
+  public CounterMetric getNumQueuedSourceEventsMetric() {
+    return numQueuedSourceEventsMetric;
+  }
+
+  /**
+   * @return the number of data events dropped by the bounded source queues
+   */
+  public CounterMetric getNumDroppedSourceEventsMetric() {
+    return numDroppedSourceEventsMetric;
+  }
+
+  /**
+   * @return the number of events processed from the sources
+   */
+  public CounterMetric getNumProcessedSourceEventsMetric() {
+    return numProcessedSourceEventsMetric;
+  }
+
 
   @Override
   public boolean equals(final Object o) {
@@ -155,6 +194,7 @@ public final class GlobalMetrics {
     if (!getNumEventsMetric().equals(that.getNumEventsMetric())) {
       return false;
     }
+    // The counter metrics are live counters compared by identity, so they are not compared here
     return getWeightMetric().equals(that.getWeightMetric());
   }
 
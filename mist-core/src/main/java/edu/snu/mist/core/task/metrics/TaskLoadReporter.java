@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import edu.snu.mist.common.ConfigFingerprint;
+import edu.snu.mist.core.driver.DriverTaskMessage;
+import edu.snu.mist.core.driver.DriverTaskMessageCodec;
+import edu.snu.mist.core.driver.MistDriver;
+import edu.snu.mist.core.driver.TaskLoadMessage;
+import edu.snu.mist.core.parameters.TaskLoadReportPeriod;
+import edu.snu.mist.core.task.ExecutionDag;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.PhysicalSource;
+import edu.snu.mist.core.task.groupaware.ApplicationInfo;
+import edu.snu.mist.core.task.groupaware.ApplicationMap;
+import edu.snu.mist.core.task.metrics.parameters.NumEventAlpha;
+import edu.snu.mist.formats.avro.TaskLoadSummary;
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.io.network.Connection;
+import org.apache.reef.io.network.ConnectionFactory;
+import org.apache.reef.io.network.NetworkConnectionService;
+import org.apache.reef.io.network.util.StringIdentifierFactory;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class reports the load summary of the task to MistDriver periodically via REEF NCS.
+ * The summary has the rate of the events processed from the sources, the CPU utilization,
+ * the number of resident queries, and the fingerprints of the source configurations,
+ * so that the driver places a new application to the task that can merge its sources with the resident queries.
+ */
+public final class TaskLoadReporter implements AutoCloseable {
+  private static final Logger LOG = Logger.getLogger(TaskLoadReporter.class.getName());
+
+  /**
+   * The id of this task.
+   */
+  private final String taskId;
+
+  /**
+   * The period of the report in milliseconds.
+   */
+  private final long reportPeriod;
+
+  /**
+   * The global metrics.
+   */
+  private final GlobalMetrics globalMetrics;
+
+  /**
+   * The handler that updates the CPU utilization metrics.
+   */
+  private final CpuUtilMetricEventHandler cpuUtilMetricEventHandler;
+
+  /**
+   * The map of the applications running in this task.
+   */
+  private final ApplicationMap applicationMap;
+
+  /**
+   * The connection factory for MistDriver.
+   */
+  private final ConnectionFactory<DriverTaskMessage> connFactory;
+
+  /**
+   * The identifier factory.
+   */
+  private final StringIdentifierFactory idFactory;
+
+  /**
+   * The rate of the processed source events with EWMA.
+   */
+  private final EWMAMetric eventRateMetric;
+
+  /**
+   * The fingerprints of the source configurations, which are cached per source.
+   */
+  private final Map<ExecutionVertex, String> fingerprintCache;
+
+  /**
+   * The executor that reports the load.
+   */
+  private final ScheduledExecutorService executorService;
+
+  /**
+   * The connection to MistDriver. It is opened by the first report.
+   */
+  private Connection<DriverTaskMessage> connection;
+
+  /**
+   * The number of processed source events at the last report.
+   */
+  private long lastNumProcessedEvents;
+
+  /**
+   * The time of the last report in nanoseconds.
+   */
+  private long lastReportTime;
+
+  @Inject
+  private TaskLoadReporter(@Parameter(TaskConfigurationOptions.Identifier.class) final String taskId,
+                           @Parameter(TaskLoadReportPeriod.class) final long reportPeriod,
+                           @Parameter(NumEventAlpha.class) final double numEventAlpha,
+                           final GlobalMetrics globalMetrics,
+                           final CpuUtilMetricEventHandler cpuUtilMetricEventHandler,
+                           final ApplicationMap applicationMap,
+                           final NetworkConnectionService ncs,
+                           final StringIdentifierFactory idFactory,
+                           final DriverTaskMessageCodec messageCodec) {
+    this.taskId = taskId;
+    this.reportPeriod = reportPeriod;
+    this.globalMetrics = globalMetrics;
+    this.cpuUtilMetricEventHandler = cpuUtilMetricEventHandler;
+    this.applicationMap = applicationMap;
+    this.idFactory = idFactory;
+    this.connFactory = ncs.registerConnectionFactory(idFactory.getNewInstance(MistDriver.MIST_CONN_FACTORY_ID),
+        messageCodec, message -> LOG.log(Level.WARNING, "Unexpected message {0} from {1}",
+            new Object[] {message.getData(), message.getSrcId()}),
+        null, idFactory.getNewInstance(taskId));
+    this.eventRateMetric = new EWMAMetric(0.0, numEventAlpha);
+    this.fingerprintCache = new HashMap<>();
+    this.executorService = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  /**
+   * Start reporting the load periodically.
+   */
+  public void start() {
+    lastNumProcessedEvents = globalMetrics.getNumProcessedSourceEventsMetric().getValue();
+    lastReportTime = System.nanoTime();
+    executorService.scheduleWithFixedDelay(() -> {
+      try {
+        report();
+      } catch (final Exception e) {
+        LOG.log(Level.WARNING, "Failed to report the task load", e);
+      }
+    }, reportPeriod, reportPeriod, TimeUnit.MILLISECONDS);
+  }
+
+  private void report() throws Exception {
+    // Update the metrics
+    cpuUtilMetricEventHandler.onNext(new MetricTrackEvent());
+    final long numProcessedEvents = globalMetrics.getNumProcessedSourceEventsMetric().getValue();
+    final long now = System.nanoTime();
+    final long elapsed = Math.max(now - lastReportTime, 1);
+    eventRateMetric.updateValue((numProcessedEvents - lastNumProcessedEvents) * 1e9 / elapsed);
+    lastNumProcessedEvents = numProcessedEvents;
+    lastReportTime = now;
+
+    int numQueries = 0;
+    final Set<String> fingerprints = new HashSet<>();
+    final Map<ExecutionVertex, String> liveSources = new HashMap<>();
+    for (final ApplicationInfo applicationInfo : applicationMap.values()) {
+      numQueries += applicationInfo.numQueries();
+      for (final ExecutionDag executionDag : applicationInfo.getExecutionDags().values()) {
+        for (final ExecutionVertex root : executionDag.getDag().getRootVertices()) {
+          if (root.getType() == ExecutionVertex.Type.SOURCE) {
+            String fingerprint = fingerprintCache.get(root);
+            if (fingerprint == null) {
+              fingerprint = ConfigFingerprint.of(((PhysicalSource) root).getConfiguration()).toString();
+            }
+            liveSources.put(root, fingerprint);
+            fingerprints.add(fingerprint);
+          }
+        }
+      }
+    }
+    // Keep the fingerprints of the live sources only
+    fingerprintCache.clear();
+    fingerprintCache.putAll(liveSources);
+
+    final TaskLoadSummary summary = TaskLoadSummary.newBuilder()
+        .setTaskId(taskId)
+        .setEventRate(eventRateMetric.getEwmaValue())
+        .setCpuUtil(globalMetrics.getCpuSysUtilMetric().getEwmaValue())
+        .setNumQueries(numQueries)
+        .setSourceFingerprints(new ArrayList<>(fingerprints))
+        .build();
+    if (connection == null) {
+      final Connection<DriverTaskMessage> conn =
+          connFactory.newConnection(idFactory.getNewInstance(MistDriver.MIST_DRIVER_ID));
+      conn.open();
+      connection = conn;
+    }
+    connection.write(new TaskLoadMessage(summary));
+  }
+
+  @Override
+  public void close() throws Exception {
+    executorService.shutdown();
+    executorService.awaitTermination(reportPeriod, TimeUnit.MILLISECONDS);
+    if (connection != null) {
+      connection.close();
+    }
+  }
+}
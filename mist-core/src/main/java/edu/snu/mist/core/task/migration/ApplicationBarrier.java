@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.migration;
+
+import edu.snu.mist.core.task.ExecutionDag;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.PhysicalSource;
+import edu.snu.mist.core.task.Query;
+import edu.snu.mist.core.task.SourceOutputEmitter;
+import edu.snu.mist.core.task.groupaware.ApplicationInfo;
+import edu.snu.mist.core.task.groupaware.Group;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class quiesces an app for migration.
+ * It closes the sources of the app, waits until the queued events are processed,
+ * and holds the queries of the app so that the event processors do not change the operator states.
+ */
+final class ApplicationBarrier {
+  private static final Logger LOG = Logger.getLogger(ApplicationBarrier.class.getName());
+
+  /**
+   * The interval (ms) of checking whether the app is drained.
+   */
+  private static final long RETRY_INTERVAL = 1;
+
+  /**
+   * The sources of the app.
+   */
+  private final List<PhysicalSource> sources;
+
+  /**
+   * The queries of the app.
+   */
+  private final List<Query> queries;
+
+  /**
+   * The queries that are held by this barrier.
+   */
+  private final List<Query> heldQueries;
+
+  ApplicationBarrier(final ApplicationInfo applicationInfo) {
+    this.sources = new ArrayList<>();
+    for (final ExecutionDag executionDag : applicationInfo.getExecutionDags().values()) {
+      for (final ExecutionVertex root : executionDag.getDag().getRootVertices()) {
+        if (root.getType() == ExecutionVertex.Type.SOURCE) {
+          sources.add((PhysicalSource) root);
+        }
+      }
+    }
+    this.queries = new ArrayList<>();
+    for (final Group group : applicationInfo.getGroups()) {
+      queries.addAll(group.getQueries());
+    }
+    this.heldQueries = new ArrayList<>(queries.size());
+  }
+
+  /**
+   * Close the sources, so that no more event is queued.
+   */
+  void closeSources() {
+    for (final PhysicalSource source : sources) {
+      try {
+        source.close();
+      } catch (final Exception e) {
+        LOG.log(Level.WARNING, "Failed to close the source {0}: {1}", new Object[] {source.getId(), e});
+      }
+    }
+  }
+
+  /**
+   * Wait until the queued events are processed, and hold the queries.
+   * If the events are not processed within the timeout, the queries are held with the remaining events.
+   * @param timeout timeout in milliseconds
+   * @return the number of the remaining events
+   */
+  long drain(final long timeout) {
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+    while (true) {
+      final boolean timedOut = System.nanoTime() - deadline > 0;
+      if (hold()) {
+        final long remaining = numQueuedEvents();
+        if (remaining == 0 || timedOut) {
+          return remaining;
+        }
+        release();
+      }
+      try {
+        Thread.sleep(RETRY_INTERVAL);
+      } catch (final InterruptedException e) {
+        // Stop waiting for the events, and just hold the queries
+        Thread.currentThread().interrupt();
+        while (!hold()) {
+          Thread.yield();
+        }
+        return numQueuedEvents();
+      }
+    }
+  }
+
+  /**
+   * Hold all the queries, or none of them if any query is being processed.
+   * @return true if all the queries are held
+   */
+  private boolean hold() {
+    for (final Query query : queries) {
+      if (!query.setProcessingFromReady()) {
+        release();
+        return false;
+      }
+      heldQueries.add(query);
+    }
+    return true;
+  }
+
+  /**
+   * Release the held queries.
+   */
+  void release() {
+    for (final Query query : heldQueries) {
+      query.setReady();
+    }
+    heldQueries.clear();
+  }
+
+  private long numQueuedEvents() {
+    long sum = 0;
+    for (final PhysicalSource source : sources) {
+      final SourceOutputEmitter emitter = source.getSourceOutputEmitter();
+      if (emitter != null) {
+        sum += emitter.numberOfEvents();
+      }
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.migration;
+
+import edu.snu.mist.formats.avro.JarUploadResult;
+import edu.snu.mist.formats.avro.MigrationReport;
+import org.apache.reef.tang.annotations.DefaultImplementation;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * This interface migrates applications between MIST tasks.
+ * The source task quiesces the app at a barrier, and sends the checkpoint and the jar files of the app
+ * to the target task, which restores the app with the operator states and starts its sources.
+ */
+@DefaultImplementation(DefaultApplicationMigratorImpl.class)
+public interface ApplicationMigrator {
+
+  /**
+   * Migrate the app to the target task.
+   * The app is restored in this task if the target task fails to restore it.
+   * @param appId app id
+   * @param targetHost host address of the target task
+   * @param targetPort rpc port of the target task
+   * @return migration report
+   */
+  MigrationReport migrate(String appId, String targetHost, int targetPort);
+
+  /**
+   * Restore the app migrated from another task with a new app id of this task.
+   * @param checkpoint checkpoint of the app serialized with avro
+   * @param jarFiles jar files of the app
+   * @return the result that has the new app id
+   */
+  JarUploadResult restore(ByteBuffer checkpoint, List<ByteBuffer> jarFiles);
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.migration;
+
+import edu.snu.mist.core.parameters.MigrationDrainTimeout;
+import edu.snu.mist.core.task.QueryManager;
+import edu.snu.mist.core.task.checkpointing.CheckpointManager;
+import edu.snu.mist.core.task.groupaware.ApplicationInfo;
+import edu.snu.mist.core.task.groupaware.ApplicationMap;
+import edu.snu.mist.core.task.stores.QueryInfoStore;
+import edu.snu.mist.formats.avro.ApplicationInfoCheckpoint;
+import edu.snu.mist.formats.avro.ClientToTaskMessage;
+import edu.snu.mist.formats.avro.JarUploadResult;
+import edu.snu.mist.formats.avro.MigrationReport;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.ipc.NettyTransceiver;
+import org.apache.avro.ipc.specific.SpecificRequestor;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The default implementation of ApplicationMigrator.
+ * The migration pauses the app from closing its sources until the target task starts the sources,
+ * while the queued events are drained, the checkpoint is taken, and the checkpoint and the jar files are sent.
+ * The events that the sources receive during the pause are not processed,
+ * because the sources cannot hand over their connections.
+ * The target task restores the app with a new app id, because the app ids are only unique in a task.
+ * If the migration fails before the target restores the app, the app is restored in this task.
+ * Note that if the request to the target fails after the target restored the app, e.g., by a timeout,
+ * the app is also restored in this task, so it may run in both tasks.
+ */
+public final class DefaultApplicationMigratorImpl implements ApplicationMigrator {
+  private static final Logger LOG = Logger.getLogger(DefaultApplicationMigratorImpl.class.getName());
+
+  /**
+   * A map containing information about each application.
+   */
+  private final ApplicationMap applicationMap;
+
+  /**
+   * The checkpoint manager that restores the apps.
+   */
+  private final CheckpointManager checkpointManager;
+
+  /**
+   * The store of the jar files.
+   */
+  private final QueryInfoStore planStore;
+
+  /**
+   * The query manager that generates the ids of the restored apps.
+   */
+  private final QueryManager queryManager;
+
+  /**
+   * The maximum time (ms) to drain the queued events.
+   */
+  private final long drainTimeout;
+
+  @Inject
+  private DefaultApplicationMigratorImpl(final ApplicationMap applicationMap,
+                                         final CheckpointManager checkpointManager,
+                                         final QueryInfoStore planStore,
+                                         final QueryManager queryManager,
+                                         @Parameter(MigrationDrainTimeout.class) final long drainTimeout) {
+    this.applicationMap = applicationMap;
+    this.checkpointManager = checkpointManager;
+    this.planStore = planStore;
+    this.queryManager = queryManager;
+    this.drainTimeout = drainTimeout;
+  }
+
+  @Override
+  public MigrationReport migrate(final String appId, final String targetHost, final int targetPort) {
+    final MigrationReport report = MigrationReport.newBuilder()
+        .setIsSuccess(false)
+        .setMsg("")
+        .setNumQueries(0)
+        .setCheckpointSize(0)
+        .setDrainTime(0)
+        .setPauseTime(0)
+        .setNumDroppedEvents(0)
+        .build();
+    final ApplicationInfo applicationInfo = applicationMap.get(appId);
+    if (applicationInfo == null) {
+      report.setMsg("There is no such app: " + appId);
+      return report;
+    }
+
+    // Read the jar files and connect to the target before pausing the app
+    final List<ByteBuffer> jarFiles = new ArrayList<>();
+    final NettyTransceiver transceiver;
+    try {
+      for (final String jarFilePath : applicationInfo.getJarFilePath()) {
+        jarFiles.add(ByteBuffer.wrap(Files.readAllBytes(Paths.get(jarFilePath))));
+      }
+      transceiver = new NettyTransceiver(new InetSocketAddress(targetHost, targetPort));
+    } catch (final IOException e) {
+      report.setMsg("Failed to prepare the migration: " + e.getMessage());
+      return report;
+    }
+
+    try {
+      final ClientToTaskMessage proxyToTarget;
+      try {
+        proxyToTarget = SpecificRequestor.getClient(ClientToTaskMessage.class, transceiver);
+      } catch (final IOException e) {
+        report.setMsg("Failed to connect to the target: " + e.getMessage());
+        return report;
+      }
+
+      // Quiesce the app, and take the checkpoint
+      final long pauseStartTime = System.nanoTime();
+      final ApplicationBarrier barrier = new ApplicationBarrier(applicationInfo);
+      barrier.closeSources();
+      ApplicationInfoCheckpoint checkpoint = null;
+      final ByteBuffer serializedCheckpoint;
+      try {
+        report.setNumDroppedEvents(barrier.drain(drainTimeout));
+        report.setDrainTime(elapsedMillis(pauseStartTime));
+        try {
+          checkpoint = applicationInfo.checkpoint();
+        } finally {
+          barrier.release();
+        }
+        serializedCheckpoint = serialize(checkpoint);
+      } catch (final IOException | RuntimeException e) {
+        // The sources are closed, so the app should be restored in this task
+        final boolean restored = restoreLocally(appId, checkpoint);
+        report.setMsg("Failed to take the checkpoint of app " + appId
+            + (restored ? ", so it is restored in this task: " : ", and failed to restore it in this task: ")
+            + e.getMessage());
+        report.setPauseTime(elapsedMillis(pauseStartTime));
+        LOG.log(Level.WARNING, "Migration of app {0}: {1}", new Object[] {appId, report});
+        return report;
+      }
+      report.setNumQueries(checkpoint.getAvroConfigDags().size());
+      report.setCheckpointSize((long) serializedCheckpoint.remaining());
+
+      // Restore the app in the target task
+      JarUploadResult result;
+      try {
+        result = proxyToTarget.restoreApplication(serializedCheckpoint, jarFiles);
+      } catch (final Exception e) {
+        // The target may have restored the app if the request timed out
+        result = JarUploadResult.newBuilder()
+            .setIsSuccess(false)
+            .setMsg("The request to the target failed, and the target may have restored the app: "
+                + e.getMessage())
+            .setIdentifier("")
+            .build();
+      }
+
+      if (result.getIsSuccess()) {
+        checkpointManager.deleteApplication(appId);
+        report.setIsSuccess(true);
+        report.setMsg("App " + appId + " is migrated to " + targetHost + ":" + targetPort
+            + " as app " + result.getIdentifier());
+      } else if (restoreLocally(appId, checkpoint)) {
+        report.setMsg("The target failed to restore app " + appId + ", so it is restored in this task: "
+            + result.getMsg());
+      } else {
+        report.setMsg("Both the target and this task failed to restore app " + appId + ": " + result.getMsg());
+      }
+      report.setPauseTime(elapsedMillis(pauseStartTime));
+      LOG.log(Level.INFO, "Migration of app {0}: {1}", new Object[] {appId, report});
+      return report;
+    } finally {
+      transceiver.close();
+    }
+  }
+
+  /**
+   * Restore the app in this task, whose sources are closed by the failed migration.
+   * @param appId app id
+   * @param checkpoint the checkpoint taken for the migration, or null if it was not taken
+   * @return true if the app is restored
+   */
+  private boolean restoreLocally(final String appId, final ApplicationInfoCheckpoint checkpoint) {
+    checkpointManager.deleteApplication(appId);
+    if (checkpoint != null) {
+      return checkpointManager.restoreApplication(checkpoint);
+    }
+    // Restore the app from the latest stored checkpoint
+    try {
+      checkpointManager.recoverApplication(appId);
+    } catch (final IOException e) {
+      LOG.log(Level.SEVERE, "Failed to recover app {0}: {1}", new Object[] {appId, e.getMessage()});
+      return false;
+    }
+    return checkpointManager.getApplication(appId) != null;
+  }
+
+  @Override
+  public JarUploadResult restore(final ByteBuffer checkpoint, final List<ByteBuffer> jarFiles) {
+    final ApplicationInfoCheckpoint appCheckpoint;
+    try {
+      appCheckpoint = deserialize(checkpoint);
+      // The jar files are stored in this task
+      appCheckpoint.setJarFilePaths(planStore.saveJar(jarFiles));
+    } catch (final IOException e) {
+      LOG.log(Level.SEVERE, "An exception occurred while restoring a migrated app: {0}", e.getMessage());
+      return JarUploadResult.newBuilder()
+          .setIsSuccess(false)
+          .setMsg(e.getMessage())
+          .setIdentifier("")
+          .build();
+    }
+    // The app id of the source task may be used by another app in this task
+    final String sourceAppId = appCheckpoint.getApplicationId();
+    final String appId = queryManager.generateApplicationId();
+    appCheckpoint.setApplicationId(appId);
+    if (checkpointManager.restoreApplication(appCheckpoint)) {
+      return JarUploadResult.newBuilder()
+          .setIsSuccess(true)
+          .setMsg("Success")
+          .setIdentifier(appId)
+          .build();
+    } else {
+      try {
+        planStore.deleteJar(appCheckpoint.getJarFilePaths());
+      } catch (final IOException e) {
+        LOG.log(Level.WARNING, "Failed to delete the jar files of app {0}: {1}",
+            new Object[] {sourceAppId, e.getMessage()});
+      }
+      return JarUploadResult.newBuilder()
+          .setIsSuccess(false)
+          .setMsg("Failed to restore app " + sourceAppId)
+          .setIdentifier("")
+          .build();
+    }
+  }
+
+  private static long elapsedMillis(final long startTime) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+  }
+
+  private static ByteBuffer serialize(final ApplicationInfoCheckpoint checkpoint) throws IOException {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(bos, null);
+    new SpecificDatumWriter<>(ApplicationInfoCheckpoint.class).write(checkpoint, encoder);
+    encoder.flush();
+    return ByteBuffer.wrap(bos.toByteArray());
+  }
+
+  private static ApplicationInfoCheckpoint deserialize(final ByteBuffer buffer) throws IOException {
+    final byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return new SpecificDatumReader<>(ApplicationInfoCheckpoint.class)
+        .read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+  }
+}
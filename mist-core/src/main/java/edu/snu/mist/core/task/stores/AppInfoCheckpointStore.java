@@ -16,25 +16,41 @@
 package edu.snu.mist.core.task.stores;
 
 import edu.snu.mist.formats.avro.ApplicationInfoCheckpoint;
+import edu.snu.mist.formats.avro.ApplicationInfoCheckpointDelta;
 import edu.snu.mist.formats.avro.CheckpointResult;
 import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.annotations.DefaultImplementation;
 
 import java.io.IOException;
+import java.util.List;
 
 @DefaultImplementation(DefaultAppInfoCheckpointStore.class)
 public interface AppInfoCheckpointStore {
 
   /**
    * Saves a ApplicationInfoCheckpoint.
+   * It replaces the previous checkpoint and the checkpoint deltas of the app.
    * @param tuple the appId and ApplicationInfoCheckpoint
    */
   CheckpointResult saveAppInfoCheckpoint(Tuple<String, ApplicationInfoCheckpoint> tuple);
 
+  /**
+   * Appends a ApplicationInfoCheckpointDelta to the deltas of the latest checkpoint.
+   * @param tuple the appId and ApplicationInfoCheckpointDelta
+   */
+  CheckpointResult saveAppInfoCheckpointDelta(Tuple<String, ApplicationInfoCheckpointDelta> tuple);
+
   /**
    * Loads a ApplicationInfoCheckpoint with the given appId.
    * @param appId
    * @return
    */
   ApplicationInfoCheckpoint loadAppInfoCheckpoint(String appId) throws IOException;
+
+  /**
+   * Loads the ApplicationInfoCheckpointDeltas of the latest checkpoint in the order of saving.
+   * @param appId
+   * @return the deltas, which are empty if no delta is saved
+   */
+  List<ApplicationInfoCheckpointDelta> loadAppInfoCheckpointDeltas(String appId) throws IOException;
 }
@@ -15,16 +15,12 @@
  */
 package edu.snu.mist.core.task.stores;
 
+import edu.snu.mist.core.parameters.PlanCompactionPeriod;
+import edu.snu.mist.core.parameters.PlanSegmentSize;
+import edu.snu.mist.core.parameters.PlanStorePath;
 import edu.snu.mist.core.parameters.TempFolderPath;
 import edu.snu.mist.core.task.groupaware.ApplicationMap;
 import edu.snu.mist.formats.avro.AvroDag;
-import io.netty.util.internal.ConcurrentSet;
-import org.apache.avro.file.DataFileReader;
-import org.apache.avro.file.DataFileWriter;
-import org.apache.avro.io.DatumReader;
-import org.apache.avro.io.DatumWriter;
-import org.apache.avro.specific.SpecificDatumReader;
-import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.annotations.Parameter;
 
@@ -34,6 +30,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
@@ -43,7 +40,12 @@ import java.util.logging.Logger;
 
 /**
  * It saves the information of a query (operator chain dag, jar files) into the disk.
- * The store request is done by separated thread asynchronously.
+ * The dags are appended to the segmented plan log by separated thread asynchronously,
+ * and the thread compacts the plan log periodically.
+ * The stored dags are recovered from the plan log when the store is created.
+ * The recovered dags are kept for the queries that are recovered from the checkpoints,
+ * and the query id generator skips their ids, so a new query does not read the dag of a previous query.
+ * If the thread fails to store the plans, the plans are dropped and isStored returns false for them.
  */
 final class AsyncDiskQueryInfoStore implements QueryInfoStore {
 
@@ -54,14 +56,19 @@ final class AsyncDiskQueryInfoStore implements QueryInfoStore {
   private final String tmpFolderPath;
 
   /**
-   * A writer that stores the dag.
+   * The minimum ratio of live records of a segment that is not compacted.
    */
-  private final DatumWriter<AvroDag> datumWriter;
+  private static final double MIN_LIVE_RATIO = 0.5;
 
   /**
-   * A reader that reads stored the dag.
+   * The log that stores the dags.
    */
-  private final DatumReader<AvroDag> datumReader;
+  private final PlanLog planLog;
+
+  /**
+   * True if the store is closed.
+   */
+  private volatile boolean closed;
 
   /**
    * A file name generator that generates jar file's names.
@@ -75,13 +82,9 @@ final class AsyncDiskQueryInfoStore implements QueryInfoStore {
 
   /**
    * A blocking queue that contains the plans to be stored.
+   * The plans of a query batch are stored as a single element.
    */
-  private final BlockingQueue<Tuple<String, AvroDag>> planQueue;
-
-  /**
-   * A set that contains the query ids that were stored properly.
-   */
-  private final Set<String> storedQuerySet;
+  private final BlockingQueue<List<Tuple<String, AvroDag>>> planQueue;
 
   /**
    * A map that contains the SHA-256 hash value (which is a byte array) converted to a ByteBuffer as the key,
@@ -96,72 +99,95 @@ final class AsyncDiskQueryInfoStore implements QueryInfoStore {
 
   @Inject
   private AsyncDiskQueryInfoStore(@Parameter(TempFolderPath.class) final String tmpFolderPath,
+                                  @Parameter(PlanStorePath.class) final String planStorePath,
+                                  @Parameter(PlanSegmentSize.class) final long planSegmentSize,
+                                  @Parameter(PlanCompactionPeriod.class) final long planCompactionPeriod,
                                   final ApplicationMap metaApplicationMap,
-                                  final FileNameGenerator fileNameGenerator) {
+                                  final FileNameGenerator fileNameGenerator) throws IOException {
     this.tmpFolderPath = tmpFolderPath;
     this.fileNameGenerator = fileNameGenerator;
-    this.datumWriter = new SpecificDatumWriter<>(AvroDag.class);
-    this.datumReader = new SpecificDatumReader<>(AvroDag.class);
     this.hashInfoMap = new ConcurrentHashMap<>();
     this.metaApplicationMap = metaApplicationMap;
-    // Create a folder that stores the dags and jar files
+    // Create a folder that stores the jar files
     final File folder = new File(tmpFolderPath);
     if (!folder.exists()) {
-      folder.mkdir();
-    } else {
-      final File[] destroy = folder.listFiles();
-      for (final File des : destroy) {
-        des.delete();
-      }
+      folder.mkdirs();
     }
+    // Recover the stored dags
+    this.planLog = new PlanLog(new File(planStorePath), planSegmentSize);
 
+    this.closed = false;
     this.planQueue = new LinkedBlockingQueue<>();
     this.planStoreExecutorService = Executors.newSingleThreadExecutor();
-    this.storedQuerySet = new ConcurrentSet<>();
 
     planStoreExecutorService.submit(new Runnable() {
       @Override
       public void run() {
-        try {
-          while (true) {
-            final Tuple<String, AvroDag> tuple = planQueue.take();
-            final String queryId = tuple.getKey();
-            final AvroDag dag = tuple.getValue();
-            final File storedFile = getAvroOperatorChainDagFile(queryId);
-            if (!storedFile.exists()) {
-              final DataFileWriter<AvroDag> dataFileWriter = new DataFileWriter<>(datumWriter);
-              dataFileWriter.create(dag.getSchema(), storedFile);
-              dataFileWriter.append(dag);
-              dataFileWriter.close();
-              storedQuerySet.add(queryId);
+        long nextCompaction = System.currentTimeMillis() + planCompactionPeriod;
+        while (!closed) {
+          try {
+            final List<Tuple<String, AvroDag>> tuples =
+                planQueue.poll(Math.max(0, nextCompaction - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            if (tuples != null) {
+              appendQueuedPlans(tuples);
             }
+            if (System.currentTimeMillis() >= nextCompaction) {
+              nextCompaction = System.currentTimeMillis() + planCompactionPeriod;
+              planLog.compact(MIN_LIVE_RATIO);
+            }
+          } catch (final InterruptedException e) {
+            LOG.log(Level.WARNING, "The plan store thread is interrupted");
+            Thread.currentThread().interrupt();
+            return;
+          } catch (final IOException | RuntimeException e) {
+            // Keep the thread alive for the next plans
+            LOG.log(Level.SEVERE, "Failed to store the plans: {0}", e.toString());
           }
-        } catch (final Exception e) {
-          e.printStackTrace();
+        }
+        // Store the remaining plans
+        try {
+          appendQueuedPlans(new ArrayList<>());
+        } catch (final IOException e) {
+          LOG.log(Level.SEVERE, "Failed to store the remaining plans: {0}", e.toString());
         }
       }
     });
   }
 
   /**
-   * Gets a file of the stored the dag corresponding to the queryId.
-   * @param queryId query id
-   * @return file of the stored dag
+   * Append the queued plans to the plan log at once.
+   * @param first the first batch of the plans
    */
-  private File getAvroOperatorChainDagFile(final String queryId) {
-    final StringBuilder sb = new StringBuilder(queryId);
-    sb.append(".plan");
-    return new File(tmpFolderPath, sb.toString());
+  private void appendQueuedPlans(final List<Tuple<String, AvroDag>> first) throws IOException {
+    final List<Tuple<String, AvroDag>> tuples = new ArrayList<>(first);
+    final List<List<Tuple<String, AvroDag>>> batches = new ArrayList<>();
+    planQueue.drainTo(batches);
+    for (final List<Tuple<String, AvroDag>> batch : batches) {
+      tuples.addAll(batch);
+    }
+    if (!tuples.isEmpty()) {
+      planLog.append(tuples);
+    }
   }
 
   /**
-   * Saves the dag as queryId.plan to disk asynchronously.
+   * Saves the dag to the plan log asynchronously.
    * @param tuple the tuple to save
    */
   @Override
   public void saveAvroDag(final Tuple<String, AvroDag> tuple) {
+    saveAvroDags(Collections.singletonList(tuple));
+  }
+
+  /**
+   * Saves the dags of a query batch to disk asynchronously.
+   * The batch is enqueued at once, so the store thread writes it without being woken up per query.
+   * @param tuples the tuples to save
+   */
+  @Override
+  public void saveAvroDags(final List<Tuple<String, AvroDag>> tuples) {
     try {
-      planQueue.put(tuple);
+      planQueue.put(tuples);
     } catch (final InterruptedException ie) {
       ie.printStackTrace();
     }
@@ -174,7 +200,12 @@ final class AsyncDiskQueryInfoStore implements QueryInfoStore {
    */
   @Override
   public boolean isStored(final String queryId) {
-    return storedQuerySet.contains(queryId);
+    return planLog.contains(queryId);
+  }
+
+  @Override
+  public Set<String> getStoredQueryIds() {
+    return new HashSet<>(planLog.getQueryIds());
   }
 
   /**
@@ -230,8 +261,12 @@ final class AsyncDiskQueryInfoStore implements QueryInfoStore {
   public List<String> saveJar(final List<ByteBuffer> jarFiles) throws IOException {
     final List<String> paths = new LinkedList<>();
     for (final ByteBuffer jarFileBytes : jarFiles) {
-      final String path = String.format("submitted-%s.jar", fileNameGenerator.generate());
-      final Path jarFilePath = Paths.get(tmpFolderPath, path);
+      // The jar files of the previous run are not removed, so skip the names of the existing files
+      Path jarFilePath;
+      do {
+        final String path = String.format("submitted-%s.jar", fileNameGenerator.generate());
+        jarFilePath = Paths.get(tmpFolderPath, path);
+      } while (jarFilePath.toFile().exists());
       createJarFile(jarFileBytes, jarFilePath, paths);
       /** TODO: re-implement this codes
       final byte[] byteBufferHash = HashUtils.getByteBufferHash(jarFileBytes);
@@ -276,30 +311,22 @@ final class AsyncDiskQueryInfoStore implements QueryInfoStore {
     return paths;
   }
 
-  /**
-   * Load the stored dag from File.
-   * @param storedPlanFile file
-   * @return chained dag
-   * @throws IOException
-   */
-  private AvroDag loadFromFile(final File storedPlanFile) throws IOException {
-    final DataFileReader<AvroDag> dataFileReader =
-        new DataFileReader<AvroDag>(storedPlanFile, datumReader);
-    AvroDag dag = null;
-    dag = dataFileReader.next(dag);
-    return dag;
+  @Override
+  public void deleteJar(final List<String> jarFilePaths) throws IOException {
+    for (final String jarFilePath : jarFilePaths) {
+      Files.deleteIfExists(Paths.get(jarFilePath));
+    }
   }
 
   /**
-   * Loads the dag, queryId.plan, from disk.
+   * Loads the dag from the plan log.
    * @param queryId
    * @return the dag corresponding to queryId
    * @throws IOException
    */
   @Override
   public AvroDag load(final String queryId) throws IOException {
-    final File storedFile = getAvroOperatorChainDagFile(queryId);
-    return loadFromFile(storedFile);
+    return planLog.read(queryId);
   }
 
   /**
@@ -309,9 +336,8 @@ final class AsyncDiskQueryInfoStore implements QueryInfoStore {
    */
   @Override
   public void delete(final String queryId) throws IOException {
-    storedQuerySet.remove(queryId);
-    final File storedFile = getAvroOperatorChainDagFile(queryId);
-    final AvroDag logicalPlan = loadFromFile(storedFile);
+    final AvroDag logicalPlan = planLog.read(queryId);
+    planLog.delete(queryId);
     final String appId = logicalPlan.getAppId();
     final List<String> paths = metaApplicationMap.get(appId).getJarFilePath();
 
@@ -325,15 +351,15 @@ final class AsyncDiskQueryInfoStore implements QueryInfoStore {
         }
       }
     }
-
-    // Delete the logical plan
-    if (storedFile.exists()) {
-      storedFile.delete();
-    }
   }
 
   @Override
-  public void close() {
+  public void close() throws Exception {
+    // Wake up the store thread without interrupting it, because an interrupt closes the file channels
+    closed = true;
+    planQueue.put(new ArrayList<>());
     planStoreExecutorService.shutdown();
+    planStoreExecutorService.awaitTermination(10, TimeUnit.SECONDS);
+    planLog.close();
   }
 }
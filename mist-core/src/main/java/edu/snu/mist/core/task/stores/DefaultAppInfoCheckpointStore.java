@@ -17,7 +17,9 @@ package edu.snu.mist.core.task.stores;
 
 import edu.snu.mist.core.parameters.TempFolderPath;
 import edu.snu.mist.formats.avro.ApplicationInfoCheckpoint;
+import edu.snu.mist.formats.avro.ApplicationInfoCheckpointDelta;
 import edu.snu.mist.formats.avro.CheckpointResult;
+import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.file.DataFileReader;
 import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.io.DatumReader;
@@ -30,9 +32,19 @@ import org.apache.reef.tang.annotations.Parameter;
 import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * This store keeps the latest checkpoint of an app in a file, and appends the checkpoint deltas
+ * to another Avro container file, where each delta is written as a separate block.
+ * A new checkpoint replaces the previous checkpoint atomically and drops the deltas,
+ * so the deltas are compacted into a full checkpoint whenever the app is fully checkpointed.
+ */
 public final class DefaultAppInfoCheckpointStore implements AppInfoCheckpointStore {
 
   private static final Logger LOG = Logger.getLogger(DefaultAppInfoCheckpointStore.class.getName());
@@ -49,21 +61,29 @@ public final class DefaultAppInfoCheckpointStore implements AppInfoCheckpointSto
    */
   private final DatumReader<ApplicationInfoCheckpoint> datumReader;
 
+  /**
+   * A writer that stores ApplicationInfoCheckpointDelta.
+   */
+  private final DatumWriter<ApplicationInfoCheckpointDelta> deltaDatumWriter;
+
+  /**
+   * A reader that reads stored ApplicationInfoCheckpointDelta.
+   */
+  private final DatumReader<ApplicationInfoCheckpointDelta> deltaDatumReader;
+
   @Inject
   private DefaultAppInfoCheckpointStore(@Parameter(TempFolderPath.class) final String tmpFolderpath) {
     this.tmpFolderPath = tmpFolderpath;
     this.datumWriter = new SpecificDatumWriter<>(ApplicationInfoCheckpoint.class);
     this.datumReader = new SpecificDatumReader<>(ApplicationInfoCheckpoint.class);
-    // Create a folder that stores the dags and jar files
+    this.deltaDatumWriter = new SpecificDatumWriter<>(ApplicationInfoCheckpointDelta.class);
+    this.deltaDatumReader = new SpecificDatumReader<>(ApplicationInfoCheckpointDelta.class);
+    // Create a folder that stores the checkpoints.
+    // The existing files are kept, because the folder is shared with the jar files and the stored plans,
+    // which should survive a restart.
     final File folder = new File(tmpFolderPath);
     if (!folder.exists()) {
-      folder.mkdir();
-    } else {
-      // TODO : Should not delete other checkpoints.
-      final File[] destroy = folder.listFiles();
-      for (final File des : destroy) {
-        des.delete();
-      }
+      folder.mkdirs();
     }
   }
 
@@ -73,6 +93,12 @@ public final class DefaultAppInfoCheckpointStore implements AppInfoCheckpointSto
     return new File(tmpFolderPath, sb.toString());
   }
 
+  private File getAppInfoCheckpointDeltaFile(final String groupId) {
+    final StringBuilder sb = new StringBuilder(groupId);
+    sb.append(".groupcpdelta");
+    return new File(tmpFolderPath, sb.toString());
+  }
+
 
   @Override
   public CheckpointResult saveAppInfoCheckpoint(final Tuple<String, ApplicationInfoCheckpoint> tuple) {
@@ -80,20 +106,23 @@ public final class DefaultAppInfoCheckpointStore implements AppInfoCheckpointSto
       final String groupId = tuple.getKey();
       final ApplicationInfoCheckpoint gmc = tuple.getValue();
 
-      // Write the file.
+      // Write a temporary file, and replace the previous checkpoint with it.
+      // The deltas of the previous checkpoint are deleted before the replacement,
+      // so a failure in the middle leaves the previous checkpoint without its deltas, which is still consistent.
       final File storedFile = getAppInfoCheckpointFile(groupId);
-      if (storedFile.exists()) {
-        storedFile.delete();
-        LOG.log(Level.INFO, "Checkpoint deleted for groupId: {0}", groupId);
-      }
-      if (!storedFile.exists()) {
-        storedFile.getParentFile().mkdirs();
-        final DataFileWriter<ApplicationInfoCheckpoint> dataFileWriter = new DataFileWriter<>(datumWriter);
-        dataFileWriter.create(gmc.getSchema(), storedFile);
-        dataFileWriter.append(gmc);
-        dataFileWriter.close();
-        LOG.log(Level.INFO, "Checkpoint completed for groupId: {0}", groupId);
+      final File tmpFile = new File(storedFile.getPath() + ".tmp");
+      tmpFile.getParentFile().mkdirs();
+      final DataFileWriter<ApplicationInfoCheckpoint> dataFileWriter = new DataFileWriter<>(datumWriter);
+      dataFileWriter.create(gmc.getSchema(), tmpFile);
+      dataFileWriter.append(gmc);
+      dataFileWriter.close();
+      final File deltaFile = getAppInfoCheckpointDeltaFile(groupId);
+      if (deltaFile.exists()) {
+        deltaFile.delete();
       }
+      Files.move(tmpFile.toPath(), storedFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      LOG.log(Level.INFO, "Checkpoint completed for groupId: {0}", groupId);
     } catch (final Exception e) {
       e.printStackTrace();
       return CheckpointResult.newBuilder()
@@ -109,6 +138,37 @@ public final class DefaultAppInfoCheckpointStore implements AppInfoCheckpointSto
         .build();
   }
 
+  @Override
+  public CheckpointResult saveAppInfoCheckpointDelta(final Tuple<String, ApplicationInfoCheckpointDelta> tuple) {
+    try {
+      final String groupId = tuple.getKey();
+      final ApplicationInfoCheckpointDelta delta = tuple.getValue();
+      final File deltaFile = getAppInfoCheckpointDeltaFile(groupId);
+      final DataFileWriter<ApplicationInfoCheckpointDelta> dataFileWriter = new DataFileWriter<>(deltaDatumWriter);
+      if (deltaFile.exists()) {
+        dataFileWriter.appendTo(deltaFile);
+      } else {
+        deltaFile.getParentFile().mkdirs();
+        dataFileWriter.create(delta.getSchema(), deltaFile);
+      }
+      dataFileWriter.append(delta);
+      dataFileWriter.close();
+      LOG.log(Level.FINE, "Checkpoint delta completed for groupId: {0}", groupId);
+    } catch (final Exception e) {
+      e.printStackTrace();
+      return CheckpointResult.newBuilder()
+          .setIsSuccess(false)
+          .setMsg("Unsuccessful in checkpointing the delta of group " + tuple.getKey())
+          .setPathToCheckpoint("")
+          .build();
+    }
+    return CheckpointResult.newBuilder()
+        .setIsSuccess(true)
+        .setMsg("Successfully checkpointed the delta of group " + tuple.getKey())
+        .setPathToCheckpoint(tmpFolderPath + "/" + tuple.getKey() + ".groupcpdelta")
+        .build();
+  }
+
   @Override
   public ApplicationInfoCheckpoint loadAppInfoCheckpoint(final String groupId) throws IOException {
     // Load the file.
@@ -124,4 +184,25 @@ public final class DefaultAppInfoCheckpointStore implements AppInfoCheckpointSto
     }
     return mgc;
   }
+
+  @Override
+  public List<ApplicationInfoCheckpointDelta> loadAppInfoCheckpointDeltas(final String groupId)
+      throws IOException {
+    final List<ApplicationInfoCheckpointDelta> deltas = new ArrayList<>();
+    final File deltaFile = getAppInfoCheckpointDeltaFile(groupId);
+    if (!deltaFile.exists()) {
+      return deltas;
+    }
+    try (final DataFileReader<ApplicationInfoCheckpointDelta> dataFileReader =
+             new DataFileReader<>(deltaFile, deltaDatumReader)) {
+      while (dataFileReader.hasNext()) {
+        deltas.add(dataFileReader.next());
+      }
+    } catch (final AvroRuntimeException e) {
+      // The last block is torn by a failure while appending it, so the previous deltas are recovered
+      LOG.log(Level.WARNING, "Stopped loading the checkpoint deltas of groupId {0} at {1}: {2}",
+          new Object[]{groupId, deltas.size(), e.getMessage()});
+    }
+    return deltas;
+  }
 }
@@ -0,0 +1,536 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.stores;
+
+import edu.snu.mist.formats.avro.AvroDag;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.reef.io.Tuple;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * This is an append-only log of the avro dags of the queries.
+ * The log consists of the segment files, and a segment file has the length-prefixed records.
+ * A record has a header (the length and the CRC32 of its body) and a body,
+ * which is a put record (query id and the avro dag) or a delete record (query id and the segment of the put record).
+ * The location of the latest put record of each query is indexed in memory, so a dag is loaded with a single read.
+ * When the log is opened, it scans the segment files in order to rebuild the index,
+ * and truncates the torn record at the end of a segment.
+ * The segments that have few live records are compacted by copying the live records to the active segment.
+ * The records are appended under the lock of the log, while the dags are read without the lock.
+ */
+final class PlanLog implements AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(PlanLog.class.getName());
+
+  private static final byte PUT = 0;
+  private static final byte DELETE = 1;
+
+  /**
+   * The size of a record header (length and CRC32).
+   */
+  private static final int HEADER_SIZE = 8;
+
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  /**
+   * The folder that has the segment files.
+   */
+  private final File folder;
+
+  /**
+   * The maximum size of a segment file.
+   */
+  private final long maxSegmentSize;
+
+  /**
+   * A writer that serializes the dags.
+   */
+  private final DatumWriter<AvroDag> datumWriter;
+
+  /**
+   * The locations of the latest put records of the queries.
+   */
+  private final ConcurrentMap<String, Location> index;
+
+  /**
+   * The segments in the order of their ids.
+   */
+  private final ConcurrentSkipListMap<Integer, Segment> segments;
+
+  /**
+   * The segment where the records are appended.
+   */
+  private Segment active;
+
+  PlanLog(final File folder, final long maxSegmentSize) throws IOException {
+    this.folder = folder;
+    this.maxSegmentSize = maxSegmentSize;
+    this.datumWriter = new SpecificDatumWriter<>(AvroDag.class);
+    this.index = new ConcurrentHashMap<>();
+    this.segments = new ConcurrentSkipListMap<>();
+    if (!folder.exists() && !folder.mkdirs()) {
+      throw new IOException("Cannot create the plan store folder " + folder);
+    }
+    recover();
+  }
+
+  /**
+   * Scan the segment files in order, and rebuild the index.
+   */
+  private void recover() throws IOException {
+    final TreeMap<Integer, File> files = new TreeMap<>();
+    final File[] listed = folder.listFiles();
+    if (listed != null) {
+      for (final File file : listed) {
+        final String name = file.getName();
+        if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+          try {
+            files.put(Integer.parseInt(
+                name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), file);
+          } catch (final NumberFormatException e) {
+            LOG.log(Level.WARNING, "Skip an unknown file {0} in the plan store", name);
+          }
+        }
+      }
+    }
+
+    for (final Map.Entry<Integer, File> entry : files.entrySet()) {
+      final Segment segment = new Segment(entry.getKey(), entry.getValue());
+      segments.put(segment.id, segment);
+      final long validSize = scan(segment, (record, offset, length) -> {
+        final Location location = new Location(segment.id, offset, length);
+        final Location prev;
+        if (record.type == PUT) {
+          prev = index.put(record.queryId, location);
+          segment.liveBytes.addAndGet(length);
+        } else {
+          prev = index.remove(record.queryId);
+        }
+        if (prev != null) {
+          segments.get(prev.segmentId).liveBytes.addAndGet(-prev.length);
+        }
+      });
+      if (validSize < segment.channel.size()) {
+        LOG.log(Level.WARNING, "Truncate the torn records of the plan segment {0} at {1}",
+            new Object[]{segment.file, validSize});
+        segment.channel.truncate(validSize);
+      }
+      segment.size = validSize;
+    }
+
+    if (segments.isEmpty() || segments.lastEntry().getValue().size >= maxSegmentSize) {
+      roll();
+    } else {
+      active = segments.lastEntry().getValue();
+    }
+    LOG.log(Level.INFO, "Recovered {0} plans from {1} segments", new Object[]{index.size(), files.size()});
+  }
+
+  /**
+   * Scan the records of the segment sequentially.
+   * @return the size of the valid records
+   */
+  private long scan(final Segment segment, final RecordVisitor visitor) throws IOException {
+    final DataInputStream in = new DataInputStream(new BufferedInputStream(
+        Channels.newInputStream(segment.channel.position(0))));
+    final long end = segment.channel.size();
+    long offset = 0;
+    while (offset + HEADER_SIZE <= end) {
+      final int bodyLength = in.readInt();
+      final int crc = in.readInt();
+      if (bodyLength <= 0 || offset + HEADER_SIZE + bodyLength > end) {
+        break;
+      }
+      final byte[] body = new byte[bodyLength];
+      in.readFully(body);
+      if (crc != crc32(body)) {
+        break;
+      }
+      final int length = HEADER_SIZE + bodyLength;
+      visitor.visit(PlanRecord.decodeHeader(body), offset, length);
+      offset += length;
+    }
+    return offset;
+  }
+
+  /**
+   * Append the put records of the dags, and index them after they are forced to the disk.
+   * @param tuples query ids and the dags
+   */
+  synchronized void append(final List<Tuple<String, AvroDag>> tuples) throws IOException {
+    final List<byte[]> records = new ArrayList<>(tuples.size());
+    final List<String> queryIds = new ArrayList<>(tuples.size());
+    for (final Tuple<String, AvroDag> tuple : tuples) {
+      records.add(encodePut(tuple.getKey(), tuple.getValue()));
+      queryIds.add(tuple.getKey());
+    }
+    final List<Location> locations = write(records);
+    for (int i = 0; i < locations.size(); i++) {
+      index(queryIds.get(i), locations.get(i));
+    }
+  }
+
+  /**
+   * Remove the dag of the query, and append the delete record.
+   * @param queryId query id
+   * @return true if the query was stored
+   */
+  synchronized boolean delete(final String queryId) throws IOException {
+    final Location location = index.remove(queryId);
+    if (location == null) {
+      return false;
+    }
+    segments.get(location.segmentId).liveBytes.addAndGet(-location.length);
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(bos);
+    out.writeByte(DELETE);
+    out.writeUTF(queryId);
+    out.writeInt(location.segmentId);
+    out.flush();
+    final List<byte[]> records = new ArrayList<>(1);
+    records.add(frame(bos.toByteArray()));
+    write(records);
+    return true;
+  }
+
+  /**
+   * Compact the segments whose ratio of live records is lower than the threshold.
+   * The live put records and the delete records whose put records still exist are copied to the active segment,
+   * and the compacted segment file is removed.
+   * @param minLiveRatio the threshold of the ratio of live records
+   */
+  synchronized void compact(final double minLiveRatio) throws IOException {
+    for (final Segment segment : new ArrayList<>(segments.values())) {
+      if (segment == active || segment.liveBytes.get() >= segment.size * minLiveRatio) {
+        continue;
+      }
+      final List<byte[]> records = new ArrayList<>();
+      final List<String> queryIds = new ArrayList<>();
+      final List<Location> prevLocations = new ArrayList<>();
+      scan(segment, (record, offset, length) -> {
+        final Location location = new Location(segment.id, offset, length);
+        final boolean live = record.type == PUT
+            ? location.equals(index.get(record.queryId))
+            : record.putSegmentId != segment.id && segments.containsKey(record.putSegmentId);
+        if (live) {
+          final ByteBuffer buf = ByteBuffer.allocate(length);
+          readFully(segment.channel, buf, offset);
+          records.add(buf.array());
+          if (record.type == PUT) {
+            queryIds.add(record.queryId);
+            prevLocations.add(location);
+          }
+        }
+      });
+
+      final List<Location> locations = write(records);
+      int putIndex = 0;
+      for (int i = 0; i < records.size(); i++) {
+        if (records.get(i)[HEADER_SIZE] == PUT) {
+          final String queryId = queryIds.get(putIndex);
+          if (index.replace(queryId, prevLocations.get(putIndex), locations.get(i))) {
+            segment.liveBytes.addAndGet(-locations.get(i).length);
+            segments.get(locations.get(i).segmentId).liveBytes.addAndGet(locations.get(i).length);
+          }
+          putIndex += 1;
+        }
+      }
+
+      segments.remove(segment.id);
+      segment.channel.close();
+      if (!segment.file.delete()) {
+        LOG.log(Level.WARNING, "Cannot delete the compacted plan segment {0}", segment.file);
+      }
+      LOG.log(Level.FINE, "Compacted the plan segment {0} ({1} live records)",
+          new Object[]{segment.file, queryIds.size()});
+    }
+  }
+
+  /**
+   * Check whether the dag of the query is stored.
+   */
+  boolean contains(final String queryId) {
+    return index.containsKey(queryId);
+  }
+
+  /**
+   * Get the ids of the stored queries.
+   */
+  Set<String> getQueryIds() {
+    return index.keySet();
+  }
+
+  /**
+   * Read the dag of the query.
+   * It retries if the record is moved by compaction while it is read.
+   * @param queryId query id
+   * @return avro dag
+   */
+  AvroDag read(final String queryId) throws IOException {
+    while (true) {
+      final Location location = index.get(queryId);
+      if (location == null) {
+        throw new FileNotFoundException("There is no stored plan of the query " + queryId);
+      }
+      final Segment segment = segments.get(location.segmentId);
+      try {
+        if (segment == null) {
+          throw new FileNotFoundException("The plan segment " + location.segmentId + " is removed");
+        }
+        final ByteBuffer buf = ByteBuffer.allocate(location.length);
+        readFully(segment.channel, buf, location.offset);
+        final byte[] record = buf.array();
+        final byte[] body = new byte[location.length - HEADER_SIZE];
+        System.arraycopy(record, HEADER_SIZE, body, 0, body.length);
+        if (buf.getInt(4) != crc32(body)) {
+          throw new IOException("The stored plan of the query " + queryId + " is corrupted");
+        }
+        return PlanRecord.decodeDag(body);
+      } catch (final IOException e) {
+        if (location.equals(index.get(queryId))) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  private void index(final String queryId, final Location location) {
+    final Location prev = index.put(queryId, location);
+    segments.get(location.segmentId).liveBytes.addAndGet(location.length);
+    if (prev != null) {
+      segments.get(prev.segmentId).liveBytes.addAndGet(-prev.length);
+    }
+  }
+
+  private byte[] encodePut(final String queryId, final AvroDag dag) throws IOException {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(bos);
+    out.writeByte(PUT);
+    out.writeUTF(queryId);
+    out.flush();
+    final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(bos, null);
+    datumWriter.write(dag, encoder);
+    encoder.flush();
+    return frame(bos.toByteArray());
+  }
+
+  private static byte[] frame(final byte[] body) {
+    final ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + body.length);
+    buf.putInt(body.length);
+    buf.putInt(crc32(body));
+    buf.put(body);
+    return buf.array();
+  }
+
+  private static int crc32(final byte[] body) {
+    final CRC32 crc = new CRC32();
+    crc.update(body);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Write the records to the active segment, and force them to the disk at once.
+   * A new segment is created when the active segment is full.
+   * @return the locations of the records
+   */
+  private List<Location> write(final List<byte[]> records) throws IOException {
+    final List<Location> locations = new ArrayList<>(records.size());
+    final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    for (final byte[] record : records) {
+      if (active.size + pending.size() + record.length > maxSegmentSize && active.size + pending.size() > 0) {
+        flush(pending);
+        roll();
+      }
+      locations.add(new Location(active.id, active.size + pending.size(), record.length));
+      pending.write(record);
+    }
+    flush(pending);
+    return locations;
+  }
+
+  private void flush(final ByteArrayOutputStream pending) throws IOException {
+    if (pending.size() == 0) {
+      return;
+    }
+    final ByteBuffer buf = ByteBuffer.wrap(pending.toByteArray());
+    while (buf.hasRemaining()) {
+      active.channel.write(buf, active.size + buf.position());
+    }
+    active.channel.force(false);
+    active.size += pending.size();
+    pending.reset();
+  }
+
+  /**
+   * Create a new active segment.
+   */
+  private void roll() throws IOException {
+    final int id = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+    final Segment segment = new Segment(id, new File(folder, SEGMENT_PREFIX + id + SEGMENT_SUFFIX));
+    segments.put(id, segment);
+    active = segment;
+  }
+
+  private static void readFully(final FileChannel channel, final ByteBuffer buf, final long offset)
+      throws IOException {
+    while (buf.hasRemaining()) {
+      if (channel.read(buf, offset + buf.position()) < 0) {
+        throw new EOFException("Unexpected end of the plan segment");
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    for (final Segment segment : segments.values()) {
+      segment.channel.close();
+    }
+  }
+
+  /**
+   * The location of a record.
+   */
+  private static final class Location {
+    private final int segmentId;
+    private final long offset;
+    private final int length;
+
+    Location(final int segmentId, final long offset, final int length) {
+      this.segmentId = segmentId;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Location that = (Location) o;
+      return segmentId == that.segmentId && offset == that.offset && length == that.length;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * segmentId + Long.hashCode(offset)) + length;
+    }
+  }
+
+  /**
+   * A segment file.
+   */
+  private static final class Segment {
+    private final int id;
+    private final File file;
+    private final FileChannel channel;
+
+    /**
+     * The total size of the live put records.
+     */
+    private final AtomicLong liveBytes;
+
+    /**
+     * The size of the written records. It is modified under the lock of the log.
+     */
+    private volatile long size;
+
+    Segment(final int id, final File file) throws IOException {
+      this.id = id;
+      this.file = file;
+      this.channel = FileChannel.open(file.toPath(),
+          StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      this.liveBytes = new AtomicLong();
+      this.size = 0;
+    }
+  }
+
+  /**
+   * The decoded body of a record.
+   */
+  private static final class PlanRecord {
+    private final byte type;
+    private final String queryId;
+
+    /**
+     * The segment of the deleted put record. It is only valid for the delete record.
+     */
+    private final int putSegmentId;
+
+    private PlanRecord(final byte type, final String queryId, final int putSegmentId) {
+      this.type = type;
+      this.queryId = queryId;
+      this.putSegmentId = putSegmentId;
+    }
+
+    /**
+     * Decode the type and the query id of the record, without decoding the dag.
+     */
+    static PlanRecord decodeHeader(final byte[] body) throws IOException {
+      final DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+      final byte type = in.readByte();
+      final String queryId = in.readUTF();
+      return new PlanRecord(type, queryId, type == DELETE ? in.readInt() : -1);
+    }
+
+    /**
+     * Decode the dag of the put record.
+     */
+    static AvroDag decodeDag(final byte[] body) throws IOException {
+      final ByteArrayInputStream bis = new ByteArrayInputStream(body);
+      final DataInputStream in = new DataInputStream(bis);
+      in.readByte();
+      in.readUTF();
+      final int start = body.length - bis.available();
+      final DatumReader<AvroDag> datumReader = new SpecificDatumReader<>(AvroDag.class);
+      return datumReader.read(null, DecoderFactory.get().binaryDecoder(body, start, body.length - start, null));
+    }
+  }
+
+  /**
+   * A visitor of the scanned records.
+   */
+  @FunctionalInterface
+  private interface RecordVisitor {
+    void visit(PlanRecord record, long offset, int length) throws IOException;
+  }
+}
@@ -22,6 +22,7 @@ import org.apache.reef.tang.annotations.DefaultImplementation;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Set;
 
 /**
  * This interface saves the information related to a query (the operator chain dag of a query and jar files).
@@ -36,6 +37,12 @@ public interface QueryInfoStore extends AutoCloseable {
    */
   void saveAvroDag(Tuple<String, AvroDag> tuple);
 
+  /**
+   * Saves the avro dags of a query batch at once.
+   * @param tuples the query ids and the avro dags
+   */
+  void saveAvroDags(List<Tuple<String, AvroDag>> tuples);
+
   /**
    * Check whether the query is stored properly or not.
    * @param queryId the query id to check
@@ -43,6 +50,12 @@ public interface QueryInfoStore extends AutoCloseable {
    */
   boolean isStored(String queryId);
 
+  /**
+   * Gets the ids of the queries whose dags are stored, including the dags recovered from the previous run.
+   * @return query ids
+   */
+  Set<String> getStoredQueryIds();
+
   /**
    * Saves the jar files and returns paths of the stored jar files.
    * @param jarFiles jar files
@@ -51,6 +64,13 @@ public interface QueryInfoStore extends AutoCloseable {
    */
   List<String> saveJar(List<ByteBuffer> jarFiles) throws IOException;
 
+  /**
+   * Deletes the jar files saved by saveJar.
+   * @param jarFilePaths paths of the jar files
+   * @throws IOException throws an exception when the jar file is not able to be deleted.
+   */
+  void deleteJar(List<String> jarFilePaths) throws IOException;
+
   /**
    * Loads the operator chain dag corresponding to the queryId.
    * @param queryId
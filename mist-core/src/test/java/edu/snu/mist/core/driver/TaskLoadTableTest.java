@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.driver;
+
+import edu.snu.mist.formats.avro.TaskLoadSummary;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test whether TaskLoadTable ranks the tasks by the source affinity and the load.
+ */
+public final class TaskLoadTableTest {
+
+  private static final List<String> TASK_IDS = Arrays.asList("task-0", "task-1", "task-2");
+
+  private TaskLoadTable taskLoadTable;
+
+  @Before
+  public void setUp() throws InjectionException {
+    taskLoadTable = Tang.Factory.getTang().newInjector().getInstance(TaskLoadTable.class);
+  }
+
+  private static TaskLoadSummary summary(final String taskId,
+                                         final double eventRate,
+                                         final double cpuUtil,
+                                         final int numQueries,
+                                         final List<String> fingerprints) {
+    return TaskLoadSummary.newBuilder()
+        .setTaskId(taskId)
+        .setEventRate(eventRate)
+        .setCpuUtil(cpuUtil)
+        .setNumQueries(numQueries)
+        .setSourceFingerprints(fingerprints)
+        .build();
+  }
+
+  /**
+   * Test whether the tasks having more sources of the application come first even if they are loaded.
+   */
+  @Test
+  public void testSourceAffinity() {
+    taskLoadTable.update(summary("task-0", 100.0, 0.1, 1, Collections.emptyList()));
+    taskLoadTable.update(summary("task-1", 1000.0, 0.9, 10, Arrays.asList("src-a")));
+    taskLoadTable.update(summary("task-2", 1000.0, 0.8, 10, Arrays.asList("src-a", "src-b")));
+
+    Assert.assertEquals(Arrays.asList("task-2", "task-1", "task-0"),
+        taskLoadTable.rank(TASK_IDS, Arrays.asList("src-a", "src-b")));
+  }
+
+  /**
+   * Test whether the ties are broken by the load, and the placements are counted until the next report.
+   */
+  @Test
+  public void testLoad() {
+    taskLoadTable.update(summary("task-0", 1000.0, 0.5, 10, Collections.emptyList()));
+    taskLoadTable.update(summary("task-1", 100.0, 0.1, 1, Collections.emptyList()));
+    taskLoadTable.update(summary("task-2", 500.0, 0.3, 5, Collections.emptyList()));
+
+    Assert.assertEquals(Arrays.asList("task-1", "task-2", "task-0"),
+        taskLoadTable.rank(TASK_IDS, Collections.emptyList()));
+    // task-1 becomes more loaded than task-2 with the placements that are not reported yet
+    for (int i = 0; i < 11; i++) {
+      Assert.assertEquals("task-1", taskLoadTable.rank(TASK_IDS, Collections.emptyList()).get(0));
+    }
+    Assert.assertEquals("task-2", taskLoadTable.rank(TASK_IDS, Collections.emptyList()).get(0));
+
+    // The report of task-1 resets its placements
+    taskLoadTable.update(summary("task-1", 100.0, 0.1, 1, Collections.emptyList()));
+    Assert.assertEquals("task-1", taskLoadTable.rank(TASK_IDS, Collections.emptyList()).get(0));
+
+    // The task that has not reported its load is regarded as idle
+    taskLoadTable.remove("task-2");
+    Assert.assertEquals("task-2", taskLoadTable.rank(TASK_IDS, Collections.emptyList()).get(0));
+  }
+}
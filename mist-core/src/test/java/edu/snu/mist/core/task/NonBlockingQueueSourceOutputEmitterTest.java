@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.MistDataEvent;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.operators.Operator;
+import edu.snu.mist.formats.avro.Direction;
+import edu.snu.mist.common.MistWatermarkEvent;
+import edu.snu.mist.common.sources.DataGenerator;
+import edu.snu.mist.core.task.metrics.GlobalMetrics;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test the overflow policies and the batch dispatch of the NonBlockingQueueSourceOutputEmitter.
+ */
+public final class NonBlockingQueueSourceOutputEmitterTest {
+
+  private static final int CAPACITY = 4;
+
+  private GlobalMetrics globalMetrics;
+  private Query query;
+  private DataGenerator dataGenerator;
+
+  @Before
+  public void setUp() throws InjectionException {
+    globalMetrics = Tang.Factory.getTang().newInjector().getInstance(GlobalMetrics.class);
+    query = mock(Query.class);
+    dataGenerator = mock(DataGenerator.class);
+  }
+
+  private NonBlockingQueueSourceOutputEmitter<Integer> newEmitter(final QueueOverflowPolicy policy) {
+    return new NonBlockingQueueSourceOutputEmitter<>(
+        new HashMap<>(), query, CAPACITY, policy, dataGenerator, globalMetrics, 1);
+  }
+
+  /**
+   * Test whether the data events arriving at the full queue are dropped, but watermarks are not.
+   */
+  @Test
+  public void testDropPolicy() {
+    for (final QueueOverflowPolicy policy :
+        new QueueOverflowPolicy[]{QueueOverflowPolicy.DROP_NEWEST, QueueOverflowPolicy.DROP_OLDEST}) {
+      final NonBlockingQueueSourceOutputEmitter<Integer> emitter = newEmitter(policy);
+      for (int i = 0; i < CAPACITY + 2; i++) {
+        emitter.emitData(new MistDataEvent(i, i));
+      }
+      Assert.assertEquals(CAPACITY, emitter.numberOfEvents());
+      emitter.emitWatermark(new MistWatermarkEvent(CAPACITY + 2));
+      Assert.assertEquals(CAPACITY + 1, emitter.numberOfEvents());
+      Assert.assertEquals(CAPACITY + 1, emitter.processAllEvent());
+      Assert.assertEquals(0, emitter.numberOfEvents());
+    }
+    Assert.assertEquals(4, globalMetrics.getNumDroppedSourceEventsMetric().getValue());
+    Assert.assertEquals(0, globalMetrics.getNumQueuedSourceEventsMetric().getValue());
+  }
+
+  /**
+   * Test whether the oldest data events are the ones dropped by the DROP_OLDEST policy.
+   */
+  @Test
+  public void testDropOldestOrder() {
+    final List<Integer> values = new ArrayList<>();
+    final Operator operator = mock(Operator.class);
+    doAnswer(invocation -> {
+      values.add((Integer) ((MistDataEvent) invocation.getArguments()[0]).getValue());
+      return null;
+    }).when(operator).processLeftData(any());
+    final PhysicalOperator physicalOperator = mock(PhysicalOperator.class);
+    when(physicalOperator.getOperator()).thenReturn(operator);
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new HashMap<>();
+    nextOperators.put(physicalOperator, new MISTEdge(Direction.LEFT));
+
+    final NonBlockingQueueSourceOutputEmitter<Integer> emitter = new NonBlockingQueueSourceOutputEmitter<>(
+        nextOperators, query, CAPACITY, QueueOverflowPolicy.DROP_OLDEST, dataGenerator, globalMetrics, 1);
+    for (int i = 0; i < CAPACITY + 2; i++) {
+      emitter.emitData(new MistDataEvent(i, i));
+    }
+    Assert.assertEquals(CAPACITY, emitter.processAllEvent());
+    Assert.assertEquals(Arrays.asList(2, 3, 4, 5), values);
+    Assert.assertEquals(2, globalMetrics.getNumDroppedSourceEventsMetric().getValue());
+    Assert.assertEquals(0, globalMetrics.getNumQueuedSourceEventsMetric().getValue());
+  }
+
+  /**
+   * Test whether the data generator is paused when the queue is full,
+   * and resumed when the queue is drained.
+   */
+  @Test
+  public void testPausePolicy() {
+    final NonBlockingQueueSourceOutputEmitter<Integer> emitter = newEmitter(QueueOverflowPolicy.PAUSE);
+    for (int i = 0; i < CAPACITY + 2; i++) {
+      emitter.emitData(new MistDataEvent(i, i));
+    }
+    // The events received after the pause are not dropped
+    Assert.assertEquals(CAPACITY + 2, emitter.numberOfEvents());
+    verify(dataGenerator, times(1)).pause();
+    emitter.processAllEvent();
+    verify(dataGenerator, times(1)).resume();
+  }
+
+  /**
+   * Test whether the data events are bounded by twice the capacity,
+   * if the data generator keeps emitting the data after it is paused.
+   */
+  @Test
+  public void testPausePolicyWithUnpausableGenerator() {
+    // The pause of the mocked data generator does nothing
+    final NonBlockingQueueSourceOutputEmitter<Integer> emitter = newEmitter(QueueOverflowPolicy.PAUSE);
+    for (int i = 0; i < 3 * CAPACITY; i++) {
+      emitter.emitData(new MistDataEvent(i, i));
+    }
+    verify(dataGenerator, times(1)).pause();
+    Assert.assertEquals(2 * CAPACITY, emitter.numberOfEvents());
+    Assert.assertEquals(CAPACITY, globalMetrics.getNumDroppedSourceEventsMetric().getValue());
+    Assert.assertEquals(2 * CAPACITY, emitter.processAllEvent());
+    Assert.assertEquals(0, globalMetrics.getNumQueuedSourceEventsMetric().getValue());
+  }
+
+  /**
+   * Test whether the producer is blocked when the queue is full, and released when the events are processed.
+   */
+  @Test(timeout = 5000)
+  public void testBlockPolicy() throws InterruptedException {
+    final NonBlockingQueueSourceOutputEmitter<Integer> emitter = newEmitter(QueueOverflowPolicy.BLOCK);
+    for (int i = 0; i < CAPACITY; i++) {
+      emitter.emitData(new MistDataEvent(i, i));
+    }
+    final CountDownLatch emitted = new CountDownLatch(1);
+    final Thread producer = new Thread(() -> {
+      emitter.emitData(new MistDataEvent(CAPACITY, CAPACITY));
+      emitted.countDown();
+    });
+    producer.start();
+    Assert.assertFalse(emitted.await(100, TimeUnit.MILLISECONDS));
+    // The released producer can enqueue the event before or after the drain finishes
+    int numProcessedEvent = emitter.processAllEvent();
+    emitted.await();
+    numProcessedEvent += emitter.processAllEvent();
+    Assert.assertEquals(CAPACITY + 1, numProcessedEvent);
+  }
+
+  /**
+   * Test whether the BLOCK policy pauses the data generator instead of blocking,
+   * if the data generator emits the data in a shared I/O thread.
+   */
+  @Test(timeout = 5000)
+  public void testBlockPolicyOnSharedThread() {
+    when(dataGenerator.isSharedThread()).thenReturn(true);
+    final NonBlockingQueueSourceOutputEmitter<Integer> emitter = newEmitter(QueueOverflowPolicy.BLOCK);
+    for (int i = 0; i < CAPACITY + 2; i++) {
+      emitter.emitData(new MistDataEvent(i, i));
+    }
+    Assert.assertEquals(CAPACITY + 2, emitter.numberOfEvents());
+    verify(dataGenerator, times(1)).pause();
+    Assert.assertEquals(CAPACITY + 2, emitter.processAllEvent());
+    verify(dataGenerator, times(1)).resume();
+  }
+
+  /**
+   * Test whether the data events are dispatched in batches of the batch size,
+   * and a watermark closes the current batch.
+   */
+  @Test
+  public void testBatchDispatch() {
+    final List<Integer> batchSizes = new ArrayList<>();
+    final Operator operator = mock(Operator.class);
+    doAnswer(invocation -> {
+      batchSizes.add(((List) invocation.getArguments()[0]).size());
+      return null;
+    }).when(operator).processLeftDataBatch(any());
+    final PhysicalOperator physicalOperator = mock(PhysicalOperator.class);
+    when(physicalOperator.getOperator()).thenReturn(operator);
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new HashMap<>();
+    nextOperators.put(physicalOperator, new MISTEdge(Direction.LEFT));
+
+    final NonBlockingQueueSourceOutputEmitter<Integer> emitter = new NonBlockingQueueSourceOutputEmitter<>(
+        nextOperators, query, 0, QueueOverflowPolicy.BLOCK, dataGenerator, globalMetrics, 3);
+    for (int i = 0; i < 5; i++) {
+      emitter.emitData(new MistDataEvent(i, i));
+    }
+    final MistWatermarkEvent watermark = new MistWatermarkEvent(5);
+    emitter.emitWatermark(watermark);
+    emitter.emitData(new MistDataEvent(6, 6));
+
+    Assert.assertEquals(7, emitter.processAllEvent());
+    Assert.assertEquals(Arrays.asList(3, 2, 1), batchSizes);
+    verify(operator, times(1)).processLeftWatermark(watermark);
+    verify(physicalOperator, times(1)).setLatestDataTimestamp(6);
+  }
+}
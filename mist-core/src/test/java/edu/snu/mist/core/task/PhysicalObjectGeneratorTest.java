@@ -25,6 +25,7 @@ import edu.snu.mist.common.sinks.MqttSink;
 import edu.snu.mist.common.sinks.NettyTextSink;
 import edu.snu.mist.common.sinks.Sink;
 import edu.snu.mist.common.sources.*;
+import edu.snu.mist.core.parameters.TimerWheelWatermark;
 import edu.snu.mist.core.utils.MqttUtils;
 import edu.snu.mist.core.utils.UDFTestUtils;
 import io.moquette.server.Server;
@@ -164,6 +165,20 @@ public final class PhysicalObjectGeneratorTest {
     Assert.assertTrue(eg instanceof PeriodicEventGenerator);
   }
 
+  @Test
+  public void testSuccessOfTimerWheelEventGenerator() throws Exception {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(TimerWheelWatermark.class, true);
+    try (final PhysicalObjectGenerator timerWheelGenerator = injector.getInstance(PhysicalObjectGenerator.class)) {
+      final Configuration conf = PeriodicWatermarkConfiguration.newBuilder()
+          .setExpectedDelay(10)
+          .setWatermarkPeriod(10)
+          .build().getConfiguration();
+      final EventGenerator eg = timerWheelGenerator.newEventGenerator(conf, classLoader);
+      Assert.assertTrue(eg instanceof TimerWheelEventGenerator);
+    }
+  }
+
   @Test
   public void testSuccessOfPunctuatedEventGenerator() throws IOException, InjectionException {
     final Configuration conf = PunctuatedWatermarkConfiguration.newBuilder()
@@ -16,6 +16,7 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.parameters.QueryIdPrefix;
+import edu.snu.mist.core.task.stores.QueryInfoStore;
 import edu.snu.mist.formats.avro.AvroDag;
 import junit.framework.Assert;
 import org.apache.reef.tang.Injector;
@@ -23,8 +24,24 @@ import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 public final class QueryIdGeneratorTest {
 
+  private Injector newInjector(final Set<String> storedQueryIds) {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    final QueryInfoStore planStore = mock(QueryInfoStore.class);
+    when(planStore.getStoredQueryIds()).thenReturn(storedQueryIds);
+    injector.bindVolatileInstance(QueryInfoStore.class, planStore);
+    return injector;
+  }
+
   /**
    * Test whether QueryIdGenerator generates query ids correctly.
    * It creates 10,000 query ids and checks the ids.
@@ -32,7 +49,7 @@ public final class QueryIdGeneratorTest {
    */
   @Test
   public void testQueryIdGenerate() throws InjectionException {
-    final Injector injector = Tang.Factory.getTang().newInjector();
+    final Injector injector = newInjector(Collections.emptySet());
     final QueryIdGenerator queryIdGenerator = injector.getInstance(QueryIdGenerator.class);
     final String prefix = injector.getNamedInstance(QueryIdPrefix.class);
     final AvroDag avroDag = new AvroDag();
@@ -43,4 +60,17 @@ public final class QueryIdGeneratorTest {
       submittedQueryNum++;
     }
   }
+
+  /**
+   * Test whether QueryIdGenerator skips the ids of the queries whose dags are recovered from the previous run.
+   * @throws org.apache.reef.tang.exceptions.InjectionException
+   */
+  @Test
+  public void testQueryIdGenerateAfterRecovery() throws InjectionException {
+    final Injector injector = newInjector(new HashSet<>(Arrays.asList("query-3", "query-17", "other-99", "query-x")));
+    final QueryIdGenerator queryIdGenerator = injector.getInstance(QueryIdGenerator.class);
+    final String prefix = injector.getNamedInstance(QueryIdPrefix.class);
+    Assert.assertEquals(prefix + 18, queryIdGenerator.generate(new AvroDag()));
+    Assert.assertEquals(prefix + 19, queryIdGenerator.generate(new AvroDag()));
+  }
 }
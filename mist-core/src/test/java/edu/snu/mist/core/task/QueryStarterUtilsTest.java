@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.MistDataEvent;
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.graph.DAG;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.operators.FilterOperator;
+import edu.snu.mist.common.operators.MapOperator;
+import edu.snu.mist.common.operators.Operator;
+import edu.snu.mist.common.operators.predicates.RuleBasedEQPredicate;
+import edu.snu.mist.common.operators.predicates.RuleBasedGTPredicate;
+import edu.snu.mist.common.operators.predicates.RuleBasedLEPredicate;
+import edu.snu.mist.common.sinks.Sink;
+import edu.snu.mist.formats.avro.Direction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test whether QueryStarterUtils fuses the linear chains of stateless operators,
+ * and indexes the rule-based filters.
+ */
+public final class QueryStarterUtilsTest {
+
+  private final MISTFunction<String, String> toUpperCase = String::toUpperCase;
+  private final MISTPredicate<String> startsWithA = (input) -> input.startsWith("A");
+  private final MISTFunction<String, String> addSuffix = (input) -> input + "!";
+
+  private PhysicalOperator newOperator(final String id, final Operator operator) {
+    return new DefaultPhysicalOperatorImpl(id, "conf", operator);
+  }
+
+  /**
+   * Test whether the map -> filter -> map chain is fused and produces the same outputs.
+   */
+  @Test
+  public void testLinearChainFusion() {
+    final DAG<ExecutionVertex, MISTEdge> dag = new AdjacentListConcurrentMapDAG<>();
+    final PhysicalOperator map1 = newOperator("map1", new MapOperator<>(toUpperCase));
+    final PhysicalOperator filter = newOperator("filter", new FilterOperator<>(startsWithA));
+    final PhysicalOperator map2 = newOperator("map2", new MapOperator<>(addSuffix));
+    final Sink<String> sink = mock(Sink.class);
+    final PhysicalSink<String> physicalSink = new PhysicalSinkImpl<>("sink", "conf", sink);
+    for (final ExecutionVertex vertex : Arrays.asList(map1, filter, map2, physicalSink)) {
+      dag.addVertex(vertex);
+    }
+    dag.addEdge(map1, filter, new MISTEdge(Direction.LEFT));
+    dag.addEdge(filter, map2, new MISTEdge(Direction.LEFT));
+    dag.addEdge(map2, physicalSink, new MISTEdge(Direction.LEFT));
+
+    Assert.assertEquals(filter, QueryStarterUtils.getFusibleNextOperator(dag, map1));
+    Assert.assertEquals(map2, QueryStarterUtils.getFusibleNextOperator(dag, filter));
+    // The operator is not fused with the sink
+    Assert.assertNull(QueryStarterUtils.getFusibleNextOperator(dag, map2));
+
+    QueryStarterUtils.setUpOutputEmitters(new ExecutionDag(dag), mock(Query.class),
+        mock(SourceOutputEmitterFactory.class), true, false);
+    final List<String> inputs = Arrays.asList("apple", "banana", "avocado");
+    for (final String input : inputs) {
+      map1.getOperator().processLeftData(new MistDataEvent(input, 1L));
+    }
+    verify(sink, times(1)).handle("APPLE!");
+    verify(sink, times(1)).handle("AVOCADO!");
+    verify(sink, times(2)).handle((String) any());
+  }
+
+  /**
+   * Test whether the operators are not fused if the upstream operator has multiple downstream vertices,
+   * or the downstream operator has multiple upstream vertices.
+   */
+  @Test
+  public void testNoFusionOnBranchAndMerge() {
+    final DAG<ExecutionVertex, MISTEdge> dag = new AdjacentListConcurrentMapDAG<>();
+    final PhysicalOperator map1 = newOperator("map1", new MapOperator<>(toUpperCase));
+    final PhysicalOperator map2 = newOperator("map2", new MapOperator<>(addSuffix));
+    final PhysicalOperator filter1 = newOperator("filter1", new FilterOperator<>(startsWithA));
+    final PhysicalOperator filter2 = newOperator("filter2", new FilterOperator<>(startsWithA));
+    final PhysicalOperator stateful = newOperator("stateful", mock(Operator.class));
+    for (final ExecutionVertex vertex : Arrays.asList(map1, map2, filter1, filter2, stateful)) {
+      dag.addVertex(vertex);
+    }
+    // map1 branches to filter1 and filter2
+    dag.addEdge(map1, filter1, new MISTEdge(Direction.LEFT));
+    dag.addEdge(map1, filter2, new MISTEdge(Direction.LEFT));
+    // map2 is also connected to filter2
+    dag.addEdge(map2, filter2, new MISTEdge(Direction.LEFT));
+    // filter1 sends the outputs to an operator that is not stateless
+    dag.addEdge(filter1, stateful, new MISTEdge(Direction.LEFT));
+
+    Assert.assertNull(QueryStarterUtils.getFusibleNextOperator(dag, map1));
+    Assert.assertNull(QueryStarterUtils.getFusibleNextOperator(dag, map2));
+    Assert.assertNull(QueryStarterUtils.getFusibleNextOperator(dag, filter1));
+  }
+
+  private Map<String, Object> newEvent(final int temperature, final String location) {
+    final Map<String, Object> event = new HashMap<>();
+    event.put("temperature", temperature);
+    event.put("location", location);
+    return event;
+  }
+
+  /**
+   * Test whether the rule-based filters that share the upstream operator are indexed,
+   * and the outputs are the same as the filters without the index.
+   */
+  @Test
+  public void testPredicateIndex() {
+    final DAG<ExecutionVertex, MISTEdge> dag = new AdjacentListConcurrentMapDAG<>();
+    final PhysicalOperator map = newOperator("map", new MapOperator<Map<String, Object>, Map<String, Object>>(
+        (input) -> input));
+    final PhysicalOperator gtFilter = newOperator("gt",
+        new FilterOperator<>(new RuleBasedGTPredicate("temperature", 30)));
+    final PhysicalOperator leFilter = newOperator("le",
+        new FilterOperator<>(new RuleBasedLEPredicate("temperature", 10)));
+    final PhysicalOperator eqFilter = newOperator("eq",
+        new FilterOperator<>(new RuleBasedEQPredicate("location", "Seoul")));
+    final PhysicalOperator lambdaFilter = newOperator("lambda",
+        new FilterOperator<Map<String, Object>>((input) -> input.get("location").equals("Busan")));
+    final List<PhysicalOperator> filters = Arrays.asList(gtFilter, leFilter, eqFilter, lambdaFilter);
+    final Map<PhysicalOperator, Sink<Map<String, Object>>> sinks = new HashMap<>();
+    dag.addVertex(map);
+    for (final PhysicalOperator filter : filters) {
+      final Sink<Map<String, Object>> sink = mock(Sink.class);
+      final PhysicalSink<Map<String, Object>> physicalSink =
+          new PhysicalSinkImpl<>(filter.getIdentifier() + "-sink", "conf", sink);
+      sinks.put(filter, sink);
+      dag.addVertex(filter);
+      dag.addVertex(physicalSink);
+      dag.addEdge(map, filter, new MISTEdge(Direction.LEFT));
+      dag.addEdge(filter, physicalSink, new MISTEdge(Direction.LEFT));
+    }
+
+    QueryStarterUtils.setUpOutputEmitters(new ExecutionDag(dag), mock(Query.class),
+        mock(SourceOutputEmitterFactory.class), false, true);
+    Assert.assertTrue(QueryStarterUtils.newOperatorOutputEmitter(dag.getEdges(map), true)
+        instanceof PredicateIndexOutputEmitter);
+    // The index is not used for a single indexable filter
+    Assert.assertTrue(QueryStarterUtils.newOperatorOutputEmitter(dag.getEdges(gtFilter), true)
+        instanceof OperatorOutputEmitter);
+
+    final Map<String, Object> hotSeoul = newEvent(35, "Seoul");
+    final Map<String, Object> coldBusan = newEvent(5, "Busan");
+    final Map<String, Object> mildDaegu = newEvent(20, "Daegu");
+    for (final Map<String, Object> event : Arrays.asList(hotSeoul, coldBusan, mildDaegu)) {
+      map.getOperator().processLeftData(new MistDataEvent(event, 1L));
+    }
+    verify(sinks.get(gtFilter), times(1)).handle(hotSeoul);
+    verify(sinks.get(gtFilter), times(1)).handle(any());
+    verify(sinks.get(leFilter), times(1)).handle(coldBusan);
+    verify(sinks.get(leFilter), times(1)).handle(any());
+    verify(sinks.get(eqFilter), times(1)).handle(hotSeoul);
+    verify(sinks.get(eqFilter), times(1)).handle(any());
+    verify(sinks.get(lambdaFilter), times(1)).handle(coldBusan);
+    verify(sinks.get(lambdaFilter), times(1)).handle(any());
+  }
+}
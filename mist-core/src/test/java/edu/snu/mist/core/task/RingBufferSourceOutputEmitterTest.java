@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.MistDataEvent;
+import edu.snu.mist.common.MistWatermarkEvent;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.operators.MapOperator;
+import edu.snu.mist.common.operators.Operator;
+import edu.snu.mist.common.sources.DataGenerator;
+import edu.snu.mist.core.task.metrics.GlobalMetrics;
+import edu.snu.mist.formats.avro.Direction;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test the RingBufferSourceOutputEmitter.
+ */
+public final class RingBufferSourceOutputEmitterTest {
+
+  /**
+   * Test whether the source is inserted to the query only when it becomes active.
+   */
+  @Test
+  public void testActivation() throws InjectionException {
+    final Query query = mock(Query.class);
+    final GlobalMetrics globalMetrics = Tang.Factory.getTang().newInjector().getInstance(GlobalMetrics.class);
+    final RingBufferSourceOutputEmitter<Integer> emitter =
+        new RingBufferSourceOutputEmitter<>(new HashMap<>(), query, 4, QueueOverflowPolicy.BLOCK, null, 1,
+            globalMetrics);
+    for (int i = 0; i < 3; i++) {
+      emitter.emitData(new MistDataEvent(i, i));
+    }
+    verify(query, times(1)).insert(emitter);
+    Assert.assertEquals(3, emitter.numberOfEvents());
+    Assert.assertEquals(3, emitter.processAllEvent());
+    Assert.assertEquals(0, emitter.numberOfEvents());
+    Assert.assertEquals(3, globalMetrics.getNumProcessedSourceEventsMetric().getValue());
+    Assert.assertEquals(0, globalMetrics.getNumQueuedSourceEventsMetric().getValue());
+
+    emitter.emitData(new MistDataEvent(3, 3));
+    verify(query, times(2)).insert(emitter);
+  }
+
+  /**
+   * Test whether the data events arriving at the full ring buffer are dropped and counted, but watermarks are not.
+   */
+  @Test
+  public void testDropNewestPolicy() throws InjectionException {
+    final GlobalMetrics globalMetrics = Tang.Factory.getTang().newInjector().getInstance(GlobalMetrics.class);
+    final RingBufferSourceOutputEmitter<Integer> emitter =
+        new RingBufferSourceOutputEmitter<>(new HashMap<>(), mock(Query.class), 4, QueueOverflowPolicy.DROP_NEWEST,
+            null, 1, globalMetrics);
+    for (int i = 0; i < 6; i++) {
+      emitter.emitData(new MistDataEvent(i, i));
+    }
+    Assert.assertEquals(4, emitter.numberOfEvents());
+    Assert.assertEquals(4, globalMetrics.getNumQueuedSourceEventsMetric().getValue());
+    Assert.assertEquals(2, globalMetrics.getNumDroppedSourceEventsMetric().getValue());
+
+    Assert.assertEquals(4, emitter.processAllEvent());
+    emitter.emitWatermark(new MistWatermarkEvent(10L));
+    Assert.assertEquals(1, emitter.numberOfEvents());
+    Assert.assertEquals(1, globalMetrics.getNumQueuedSourceEventsMetric().getValue());
+  }
+
+  /**
+   * Test whether the data generator is paused when the ring buffer is full, and resumed when it is drained.
+   * The producer does not wait for the consumer, and the overflowed data events are bounded by the capacity
+   * in case the data generator cannot be paused.
+   */
+  @Test(timeout = 5000)
+  public void testPausePolicy() throws InjectionException {
+    final DataGenerator dataGenerator = mock(DataGenerator.class);
+    final GlobalMetrics globalMetrics = Tang.Factory.getTang().newInjector().getInstance(GlobalMetrics.class);
+    final RingBufferSourceOutputEmitter<Integer> emitter =
+        new RingBufferSourceOutputEmitter<>(new HashMap<>(), mock(Query.class), 4, QueueOverflowPolicy.PAUSE,
+            dataGenerator, 1, globalMetrics);
+    for (int i = 0; i < 4; i++) {
+      emitter.emitData(new MistDataEvent(i, i));
+    }
+    verify(dataGenerator, times(0)).pause();
+
+    // The data generator is paused, but keeps emitting the data
+    for (int i = 4; i < 10; i++) {
+      emitter.emitData(new MistDataEvent(i, i));
+    }
+    verify(dataGenerator, times(1)).pause();
+    Assert.assertEquals(8, emitter.numberOfEvents());
+    Assert.assertEquals(2, globalMetrics.getNumDroppedSourceEventsMetric().getValue());
+
+    Assert.assertEquals(8, emitter.processAllEvent());
+    verify(dataGenerator, times(1)).resume();
+    Assert.assertEquals(0, globalMetrics.getNumQueuedSourceEventsMetric().getValue());
+  }
+
+  /**
+   * Test whether the watermarks arriving at the full ring buffer are enqueued without waiting,
+   * and dispatched after the data events in the ring buffer.
+   */
+  @Test(timeout = 5000)
+  public void testWatermarkOnFullRingBuffer() throws InjectionException {
+    final Operator operator = mock(Operator.class);
+    final PhysicalOperator physicalOperator = mock(PhysicalOperator.class);
+    when(physicalOperator.getOperator()).thenReturn(operator);
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new HashMap<>();
+    nextOperators.put(physicalOperator, new MISTEdge(Direction.LEFT));
+
+    final RingBufferSourceOutputEmitter<Integer> emitter =
+        new RingBufferSourceOutputEmitter<>(nextOperators, mock(Query.class), 4, QueueOverflowPolicy.BLOCK, null, 1,
+            Tang.Factory.getTang().newInjector().getInstance(GlobalMetrics.class));
+    for (int i = 0; i < 4; i++) {
+      emitter.emitData(new MistDataEvent(i, i));
+    }
+    final MistWatermarkEvent watermark = new MistWatermarkEvent(4L);
+    emitter.emitWatermark(watermark);
+    Assert.assertEquals(5, emitter.numberOfEvents());
+
+    Assert.assertEquals(5, emitter.processAllEvent());
+    final InOrder inOrder = inOrder(operator);
+    inOrder.verify(operator, times(4)).processLeftData(any(MistDataEvent.class));
+    inOrder.verify(operator, times(1)).processLeftWatermark(watermark);
+  }
+
+  /**
+   * Test whether the ring buffer rejects DROP_OLDEST, which it does not support.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testDropOldestRejected() throws InjectionException {
+    new RingBufferSourceOutputEmitter<>(new HashMap<>(), mock(Query.class), 4, QueueOverflowPolicy.DROP_OLDEST,
+        null, 1, Tang.Factory.getTang().newInjector().getInstance(GlobalMetrics.class));
+  }
+
+  /**
+   * Test whether the events of multiple producers are delivered without loss through a small ring buffer,
+   * and the events of each producer keep their order.
+   */
+  @Test(timeout = 30000)
+  public void testMultipleProducers() throws InterruptedException, InjectionException {
+    final int numProducers = 4;
+    final int numEventsPerProducer = 50000;
+    final List<Integer> received = new ArrayList<>();
+    final MapOperator<Integer, Integer> operator = new MapOperator<>(i -> {
+      received.add(i);
+      return i;
+    });
+    operator.setOutputEmitter(new OperatorOutputEmitter(new HashMap<>()));
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new HashMap<>();
+    nextOperators.put(new DefaultPhysicalOperatorImpl("op", "conf", operator), new MISTEdge(Direction.LEFT));
+
+    final RingBufferSourceOutputEmitter<Integer> emitter =
+        new RingBufferSourceOutputEmitter<>(nextOperators, mock(Query.class), 64, QueueOverflowPolicy.BLOCK, null, 1,
+            Tang.Factory.getTang().newInjector().getInstance(GlobalMetrics.class));
+    final List<Thread> producers = new ArrayList<>();
+    for (int p = 0; p < numProducers; p++) {
+      final int base = p * numEventsPerProducer;
+      final Thread producer = new Thread(() -> {
+        for (int i = 0; i < numEventsPerProducer; i++) {
+          emitter.emitData(new MistDataEvent(base + i, i));
+        }
+      });
+      producers.add(producer);
+      producer.start();
+    }
+
+    // Consume the events in this thread
+    int numProcessed = 0;
+    while (numProcessed < numProducers * numEventsPerProducer) {
+      numProcessed += emitter.processAllEvent();
+    }
+    for (final Thread producer : producers) {
+      producer.join();
+    }
+
+    Assert.assertEquals(numProducers * numEventsPerProducer, received.size());
+    final int[] last = new int[numProducers];
+    for (int p = 0; p < numProducers; p++) {
+      last[p] = -1;
+    }
+    for (final int value : received) {
+      final int p = value / numEventsPerProducer;
+      Assert.assertEquals(last[p] + 1, value % numEventsPerProducer);
+      last[p] = value % numEventsPerProducer;
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware;
+
+import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.EventProcessorLowerBound;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.EventProcessorUpperBound;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.ScalingPatience;
+import edu.snu.mist.core.task.groupaware.rebalancer.EventProcessorAutoscaler;
+import edu.snu.mist.core.task.groupaware.rebalancer.LoadBasedEventProcessorAutoscaler;
+import edu.snu.mist.core.task.metrics.GlobalMetrics;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test whether LoadBasedEventProcessorAutoscaler scales the event processors with hysteresis.
+ */
+public final class EventProcessorAutoscalerTest {
+
+  private static final int NUM_EVENT_PROCESSORS = 4;
+  private static final int PATIENCE = 2;
+
+  private List<EventProcessor> eventProcessors;
+  private GlobalMetrics globalMetrics;
+  private EventProcessorAutoscaler autoscaler;
+
+  @Before
+  public void setUp() throws InjectionException {
+    eventProcessors = new ArrayList<>();
+    for (int i = 0; i < NUM_EVENT_PROCESSORS; i++) {
+      eventProcessors.add(mock(EventProcessor.class));
+    }
+    final GroupAllocationTable groupAllocationTable = mock(GroupAllocationTable.class);
+    when(groupAllocationTable.getEventProcessorsNotRunningIsolatedGroup()).thenReturn(eventProcessors);
+    when(groupAllocationTable.size()).thenReturn(NUM_EVENT_PROCESSORS);
+
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(ScalingPatience.class, Integer.toString(PATIENCE));
+    jcb.bindNamedParameter(EventProcessorLowerBound.class, "2");
+    jcb.bindNamedParameter(EventProcessorUpperBound.class, "6");
+    final Injector injector = Tang.Factory.getTang().newInjector(jcb.build());
+    injector.bindVolatileInstance(GroupAllocationTable.class, groupAllocationTable);
+    globalMetrics = injector.getInstance(GlobalMetrics.class);
+    autoscaler = injector.getInstance(LoadBasedEventProcessorAutoscaler.class);
+  }
+
+  private void setLoad(final double load) {
+    for (final EventProcessor eventProcessor : eventProcessors) {
+      when(eventProcessor.getLoad()).thenReturn(load);
+    }
+  }
+
+  /**
+   * Test whether the event processors are scaled up only after the overload lasts during the patience,
+   * and the number of event processors does not exceed the upper bound.
+   */
+  @Test
+  public void testScaleUp() {
+    setLoad(1.0);
+    Assert.assertEquals(0, autoscaler.getAdjustment());
+    // The load within the thresholds resets the signals
+    setLoad(0.5);
+    Assert.assertEquals(0, autoscaler.getAdjustment());
+    setLoad(1.0);
+    Assert.assertEquals(0, autoscaler.getAdjustment());
+    // The target number is 4.0 / 0.55 = 8, but the upper bound is 6
+    Assert.assertEquals(2, autoscaler.getAdjustment());
+  }
+
+  /**
+   * Test whether the queued events scale up the event processors, unless the CPU is saturated.
+   */
+  @Test
+  public void testScaleUpByQueuedEvents() {
+    setLoad(0.5);
+    globalMetrics.getNumQueuedSourceEventsMetric().add(1000000);
+    for (int i = 0; i < 3; i++) {
+      globalMetrics.getCpuSysUtilMetric().updateValue(1.0);
+    }
+    Assert.assertEquals(0, autoscaler.getAdjustment());
+    Assert.assertEquals(0, autoscaler.getAdjustment());
+
+    for (int i = 0; i < 3; i++) {
+      globalMetrics.getCpuSysUtilMetric().updateValue(0.0);
+    }
+    Assert.assertEquals(0, autoscaler.getAdjustment());
+    Assert.assertEquals(1, autoscaler.getAdjustment());
+  }
+
+  /**
+   * Test whether the event processors are scaled down to the lower bound when they are underloaded.
+   */
+  @Test
+  public void testScaleDown() {
+    setLoad(0.05);
+    Assert.assertEquals(0, autoscaler.getAdjustment());
+    // The target number is 0.2 / 0.55 = 1, but the lower bound is 2
+    Assert.assertEquals(-2, autoscaler.getAdjustment());
+  }
+}
@@ -33,6 +33,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -119,6 +121,42 @@ public class EventProcessorManagerTest {
     Assert.assertEquals(MIN_NUM_THREADS, eventProcessorManager.size());
   }
 
+  /**
+   * Test whether the groups of the removed event processors are moved to the remaining event processors.
+   */
+  @Test
+  public void testGroupMigrationOnDecrease() throws Exception {
+    final GroupAllocationTable groupAllocationTable = eventProcessorManager.getGroupAllocationTable();
+    final List<Group> groups = new ArrayList<>();
+    for (final EventProcessor eventProcessor : groupAllocationTable.getKeys()) {
+      final Group group = mock(Group.class);
+      when(group.isActive()).thenReturn(true);
+      groupAllocationTable.getValue(eventProcessor).add(group);
+      groups.add(group);
+    }
+
+    eventProcessorManager.decreaseEventProcessors(DEFAULT_NUM_THREADS - MIN_NUM_THREADS);
+    Assert.assertEquals(MIN_NUM_THREADS, eventProcessorManager.size());
+
+    int numGroups = 0;
+    for (final EventProcessor eventProcessor : groupAllocationTable.getKeys()) {
+      numGroups += groupAllocationTable.getValue(eventProcessor).size();
+    }
+    Assert.assertEquals(DEFAULT_NUM_THREADS, numGroups);
+    for (final Group group : groups) {
+      Assert.assertTrue(groupAllocationTable.getKeys().contains(findEventProcessor(groupAllocationTable, group)));
+    }
+  }
+
+  private EventProcessor findEventProcessor(final GroupAllocationTable groupAllocationTable, final Group group) {
+    for (final EventProcessor eventProcessor : groupAllocationTable.getKeys()) {
+      if (groupAllocationTable.getValue(eventProcessor).contains(group)) {
+        return eventProcessor;
+      }
+    }
+    return null;
+  }
+
   /**
    * Test whether EventProcessorManager adjusts the number of event processors correctly.
    */
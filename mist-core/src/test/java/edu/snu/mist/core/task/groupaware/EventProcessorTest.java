@@ -22,20 +22,25 @@ import edu.snu.mist.core.task.SourceOutputEmitter;
 import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
 import edu.snu.mist.core.task.groupaware.eventprocessor.DefaultEventProcessor;
 import edu.snu.mist.core.task.groupaware.eventprocessor.NextGroupSelector;
+import edu.snu.mist.core.task.groupaware.eventprocessor.NextGroupSelectorFactory;
+import edu.snu.mist.core.task.groupaware.eventprocessor.WorkStealingGroupSelectorFactory;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.JavaConfigurationBuilder;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Collection;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public final class EventProcessorTest {
@@ -134,6 +139,82 @@ public final class EventProcessorTest {
     countDownLatch.await();
   }
 
+  /**
+   * Test whether an idle event processor steals the active group of a busy event processor.
+   */
+  @Test(timeout = 10000)
+  public void workStealingTest() throws Exception {
+    final NextGroupSelectorFactory selectorFactory =
+        Tang.Factory.getTang().newInjector().getInstance(WorkStealingGroupSelectorFactory.class);
+    final DefaultEventProcessor busyProcessor =
+        new DefaultEventProcessor(selectorFactory.newInstance(), 1, Long.MAX_VALUE);
+    final DefaultEventProcessor idleProcessor =
+        new DefaultEventProcessor(selectorFactory.newInstance(), 2, Long.MAX_VALUE);
+
+    final CountDownLatch busyStarted = new CountDownLatch(1);
+    final CountDownLatch busyReleased = new CountDownLatch(1);
+    final CountDownLatch stolenProcessed = new CountDownLatch(1);
+    final SourceOutputEmitter blockingSource = mock(SourceOutputEmitter.class);
+    when(blockingSource.processAllEvent()).thenAnswer((icm) -> {
+      busyStarted.countDown();
+      busyReleased.await();
+      return 1;
+    });
+    final SourceOutputEmitter source = mock(SourceOutputEmitter.class);
+    when(source.processAllEvent()).thenAnswer((icm) -> {
+      stolenProcessed.countDown();
+      return 1;
+    });
+
+    // Both groups are assigned to the busy event processor
+    final Group group1 = createGroup("group1");
+    final Group group2 = createGroup("group2");
+    group1.setEventProcessor(busyProcessor);
+    group2.setEventProcessor(busyProcessor);
+
+    busyProcessor.start();
+    final Query query1 = new DefaultQueryImpl("q1");
+    group1.addQuery(query1);
+    query1.insert(blockingSource);
+    busyStarted.await();
+
+    idleProcessor.start();
+    final Query query2 = new DefaultQueryImpl("q2");
+    group2.addQuery(query2);
+    query2.insert(source);
+
+    // The idle event processor processes the second group while the busy one is blocked
+    Assert.assertTrue(stolenProcessed.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals(busyProcessor, group2.getEventProcessor());
+
+    busyReleased.countDown();
+    busyProcessor.close();
+    idleProcessor.close();
+  }
+
+  /**
+   * Test whether the event processor releases the group when the processing fails after it is closed.
+   */
+  @Test(timeout = 10000)
+  public void closeWhileProcessingTest() throws Exception {
+    final BlockingQueue<Group> queue = new LinkedBlockingQueue<>();
+    final DefaultEventProcessor eventProcessor =
+        new DefaultEventProcessor(new TestNextGroupSelector(queue), 1, Long.MAX_VALUE);
+
+    final Group group = mock(Group.class);
+    when(group.processAllEvent(Long.MAX_VALUE)).thenAnswer((icm) -> {
+      // The event processor is closed while the operators process the events
+      eventProcessor.close();
+      throw new RuntimeException("Interrupted while processing the events");
+    });
+
+    eventProcessor.start();
+    queue.add(group);
+    eventProcessor.join();
+
+    verify(group).setReady();
+  }
+
   /**
    * Test next group selector.
    */
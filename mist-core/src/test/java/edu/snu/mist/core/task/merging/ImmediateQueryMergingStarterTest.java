@@ -23,6 +23,7 @@ import edu.snu.mist.common.graph.GraphUtils;
 import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.common.operators.FilterOperator;
 import edu.snu.mist.common.sinks.Sink;
+import edu.snu.mist.common.sources.DataGenerator;
 import edu.snu.mist.common.sources.EventGenerator;
 import edu.snu.mist.core.task.*;
 import edu.snu.mist.core.task.utils.IdAndConfGenerator;
@@ -39,6 +40,10 @@ import org.junit.Test;
 import java.io.IOException;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.mockito.Matchers.any;
@@ -642,6 +647,124 @@ public final class ImmediateQueryMergingStarterTest {
     Assert.assertEquals(1, (int)executionVertexCountMap.get(sink2));
   }
 
+  /**
+   * Test if a query of a batch that fails to start is reported,
+   * while the other queries of the batch are still started.
+   */
+  @Test
+  public void batchPartialFailureTest() throws InjectionException, IOException, ClassNotFoundException {
+    final List<String> result1 = new LinkedList<>();
+    final TestSource src1 = generateSource(idAndConfGenerator.generateConf());
+    final PhysicalOperator physicalOp1 = generateFilterOperator(idAndConfGenerator.generateConf(), (s) -> true);
+    final PhysicalSink<String> sink1 = generateSink(idAndConfGenerator.generateConf(), result1);
+    final ConfigVertex srcVertex1 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SOURCE, src1.getConfiguration());
+    final ConfigVertex ocVertex1 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.OPERATOR, physicalOp1.getConfiguration());
+    final ConfigVertex sinkVertex1 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SINK, sink1.getConfiguration());
+    final Tuple<DAG<ConfigVertex, MISTEdge>, ExecutionDag> dagTuple1 =
+        generateSimpleDag(src1, physicalOp1, sink1, srcVertex1, ocVertex1, sinkVertex1);
+
+    // The operator of the second query cannot be generated
+    final TestSource src2 = generateSource(idAndConfGenerator.generateConf());
+    final PhysicalOperator physicalOp2 = generateFilterOperator(idAndConfGenerator.generateConf(), (s) -> true);
+    final PhysicalSink<String> sink2 = generateSink(idAndConfGenerator.generateConf(), new LinkedList<>());
+    final ConfigVertex srcVertex2 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SOURCE, src2.getConfiguration());
+    final ConfigVertex ocVertex2 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.OPERATOR, physicalOp2.getConfiguration());
+    final ConfigVertex sinkVertex2 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SINK, sink2.getConfiguration());
+    final Tuple<DAG<ConfigVertex, MISTEdge>, ExecutionDag> dagTuple2 =
+        generateSimpleDag(src2, physicalOp2, sink2, srcVertex2, ocVertex2, sinkVertex2);
+    when(executionVertexGenerator.generate(eq(ocVertex2), any(URL[].class), any(ClassLoader.class)))
+        .thenThrow(new InjectionException("Cannot generate the operator"));
+
+    final Query query1 = mock(Query.class);
+    when(query1.getId()).thenReturn("q1");
+    final Query query2 = mock(Query.class);
+    when(query2.getId()).thenReturn("q2");
+    final Map<String, Exception> failures = queryStarter.startBatch(
+        Arrays.asList(new Tuple<>(query2, dagTuple2.getKey()), new Tuple<>(query1, dagTuple1.getKey())),
+        new LinkedList<>());
+
+    Assert.assertEquals(Collections.singleton("q2"), failures.keySet());
+    Assert.assertTrue(failures.get("q2") instanceof InjectionException);
+    Assert.assertNull(queryIdConfigDagMap.get("q2"));
+    Assert.assertEquals(dagTuple1.getKey(), queryIdConfigDagMap.get("q1"));
+
+    // The first query is running
+    final String data = "Hello";
+    src1.send(data);
+    Assert.assertEquals(1, src1.getSourceOutputEmitter().processAllEvent());
+    Assert.assertEquals(Arrays.asList(data), result1);
+  }
+
+  /**
+   * Test if the queries submitted concurrently are merged correctly.
+   * The queries that share a source are merged into one execution dag, and share the same filter.
+   */
+  @Test(timeout = 10000L)
+  public void concurrentQueryMergingTest() throws Exception {
+    final int numSources = 4;
+    final int numQueries = 200;
+    final Map<String, ExecutionVertex> sharedVertices = new ConcurrentHashMap<>();
+    when(executionVertexGenerator.generate(any(ConfigVertex.class), any(URL[].class), any(ClassLoader.class)))
+        .thenAnswer(invocation -> {
+          final ConfigVertex configVertex = (ConfigVertex) invocation.getArguments()[0];
+          switch (configVertex.getType()) {
+            case SOURCE:
+              return new TestSource(configVertex.getId(), configVertex.getConfiguration());
+            case OPERATOR:
+              final ExecutionVertex filter = new DefaultPhysicalOperatorImpl(configVertex.getId(),
+                  configVertex.getConfiguration(), new FilterOperator<>((s) -> true));
+              sharedVertices.put(configVertex.getConfiguration(), filter);
+              return filter;
+            default:
+              return new PhysicalSinkImpl<>(configVertex.getId(), configVertex.getConfiguration(),
+                  new TestSink<>(new LinkedList<>()));
+          }
+        });
+
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    final List<Future<?>> futures = new LinkedList<>();
+    for (int i = 0; i < numQueries; i++) {
+      final int queryNum = i;
+      futures.add(executor.submit(() -> {
+        final DAG<ConfigVertex, MISTEdge> dag = new AdjacentListConcurrentMapDAG<>();
+        final ConfigVertex srcVertex = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+            ExecutionVertex.Type.SOURCE, "src-" + queryNum % numSources);
+        final ConfigVertex ocVertex = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+            ExecutionVertex.Type.OPERATOR, "filter-" + queryNum % numSources);
+        final ConfigVertex sinkVertex = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+            ExecutionVertex.Type.SINK, "sink-" + queryNum);
+        dag.addVertex(srcVertex);
+        dag.addVertex(ocVertex);
+        dag.addVertex(sinkVertex);
+        dag.addEdge(srcVertex, ocVertex, new MISTEdge(Direction.LEFT));
+        dag.addEdge(ocVertex, sinkVertex, new MISTEdge(Direction.LEFT));
+        queryStarter.start("q" + queryNum, mock(Query.class), dag, new LinkedList<>());
+        return null;
+      }));
+    }
+    for (final Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    Assert.assertEquals(numSources, executionDags.values().size());
+    Assert.assertEquals(numSources, srcAndDagMap.size());
+    for (final ExecutionDag executionDag : executionDags.values()) {
+      // source, filter, and the sinks of the queries
+      Assert.assertEquals(2 + numQueries / numSources, executionDag.getDag().numberOfVertices());
+    }
+    for (int i = 0; i < numSources; i++) {
+      Assert.assertEquals(numQueries / numSources,
+          (int) executionVertexCountMap.get(sharedVertices.get("filter-" + i)));
+    }
+  }
+
   /**
    * Test source that sends data to next operator chains.
    */
@@ -666,6 +789,11 @@ public final class ImmediateQueryMergingStarterTest {
       return null;
     }
 
+    @Override
+    public DataGenerator getDataGenerator() {
+      return null;
+    }
+
     @Override
     public SourceOutputEmitter getSourceOutputEmitter() {
       return outputEmitter;
@@ -24,7 +24,9 @@ import edu.snu.mist.common.graph.GraphUtils;
 import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.common.operators.FilterOperator;
 import edu.snu.mist.common.sinks.Sink;
+import edu.snu.mist.common.sources.DataGenerator;
 import edu.snu.mist.common.sources.EventGenerator;
+import edu.snu.mist.core.parameters.OperatorFusion;
 import edu.snu.mist.core.task.*;
 import edu.snu.mist.core.task.utils.IdAndConfGenerator;
 import edu.snu.mist.formats.avro.Direction;
@@ -38,12 +40,21 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Test whether MergeAwareQueryRemover removes queries correctly.
@@ -69,7 +80,12 @@ public final class MergeAwareQueryRemoverTest {
   /**
    * The map that has the query id as a key and its execution dag as a value.
    */
-  private SrcAndDagMap<String> srcAndDagMap;
+  private PausingSrcAndDagMap srcAndDagMap;
+
+  /**
+   * The locks for merging and deleting the queries.
+   */
+  private MergingLocks mergingLocks;
 
   /**
    * The physical execution dags.
@@ -101,9 +117,12 @@ public final class MergeAwareQueryRemoverTest {
   public void setUp() throws InjectionException, IOException {
     final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
     jcb.bindImplementation(ExecutionDags.class, MergingExecutionDags.class);
+    jcb.bindNamedParameter(OperatorFusion.class, "true");
     final Injector injector = Tang.Factory.getTang().newInjector(jcb.build());
+    srcAndDagMap = new PausingSrcAndDagMap();
+    injector.bindVolatileInstance(SrcAndDagMap.class, srcAndDagMap);
     queryRemover = injector.getInstance(MergeAwareQueryRemover.class);
-    srcAndDagMap = injector.getInstance(SrcAndDagMap.class);
+    mergingLocks = injector.getInstance(MergingLocks.class);
     executionVertexCountMap = injector.getInstance(ExecutionVertexCountMap.class);
     executionDags = injector.getInstance(ExecutionDags.class);
     executionVertexDagMap = injector.getInstance(ExecutionVertexDagMap.class);
@@ -540,6 +559,246 @@ public final class MergeAwareQueryRemoverTest {
     Assert.assertEquals(sink1, oc1Edges.keySet().iterator().next());
   }
 
+  /**
+   * Case 4: Remove a query that connects two queries in a merged dag.
+   * Query1: src1 -> oc1 -> sink1
+   * Query2: src2 -> oc2 -> sink2
+   * Query3: src1, src2 -> oc3 -> sink3
+   * Merged: src1 -> oc1 -> sink1
+   *              -> oc3 -> sink3
+   *         src2 -> oc2 -> sink2
+   *              -> oc3
+   * After removing query3, the merged dag is split into two dags:
+   *         src1 -> oc1 -> sink1
+   *         src2 -> oc2 -> sink2
+   */
+  @Test
+  public void removeQueryAndSplitMergedExecutionDagTest() throws InjectionException, IOException {
+    final List<String> result = new LinkedList<>();
+    final String sourceConf1 = idAndConfGenerator.generateConf();
+    final String sourceConf2 = idAndConfGenerator.generateConf();
+
+    // Physical vertices
+    final TestSource src1 = generateSource(sourceConf1);
+    final PhysicalOperator physicalOp1 = generateFilterOperator(idAndConfGenerator.generateConf(), (s) -> true);
+    final PhysicalSink<String> sink1 = generateSink(idAndConfGenerator.generateConf(), result);
+    final TestSource src2 = generateSource(sourceConf2);
+    final PhysicalOperator physicalOp2 = generateFilterOperator(idAndConfGenerator.generateConf(), (s) -> true);
+    final PhysicalSink<String> sink2 = generateSink(idAndConfGenerator.generateConf(), result);
+    final PhysicalOperator physicalOp3 = generateFilterOperator(idAndConfGenerator.generateConf(), (s) -> true);
+    final PhysicalSink<String> sink3 = generateSink(idAndConfGenerator.generateConf(), result);
+
+    // Config vertices
+    final ConfigVertex srcVertex1 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SOURCE, sourceConf1);
+    final ConfigVertex ocVertex1 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.OPERATOR, physicalOp1.getConfiguration());
+    final ConfigVertex sinkVertex1 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SINK, sink1.getConfiguration());
+    final ConfigVertex srcVertex2 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SOURCE, sourceConf2);
+    final ConfigVertex ocVertex2 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.OPERATOR, physicalOp2.getConfiguration());
+    final ConfigVertex sinkVertex2 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SINK, sink2.getConfiguration());
+    final ConfigVertex srcVertex31 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SOURCE, sourceConf1);
+    final ConfigVertex srcVertex32 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SOURCE, sourceConf2);
+    final ConfigVertex ocVertex3 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.OPERATOR, physicalOp3.getConfiguration());
+    final ConfigVertex sinkVertex3 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SINK, sink3.getConfiguration());
+
+    // Create dags
+    final Tuple<DAG<ConfigVertex, MISTEdge>, ExecutionDag> dagTuple1 =
+        generateSimpleDag(src1, physicalOp1, sink1, srcVertex1, ocVertex1, sinkVertex1);
+    final Tuple<DAG<ConfigVertex, MISTEdge>, ExecutionDag> dagTuple2 =
+        generateSimpleDag(src2, physicalOp2, sink2, srcVertex2, ocVertex2, sinkVertex2);
+    final DAG<ConfigVertex, MISTEdge> configDag3 = new AdjacentListDAG<>();
+    configDag3.addVertex(srcVertex31);
+    configDag3.addVertex(srcVertex32);
+    configDag3.addVertex(ocVertex3);
+    configDag3.addVertex(sinkVertex3);
+    configDag3.addEdge(srcVertex31, ocVertex3, new MISTEdge(Direction.LEFT));
+    configDag3.addEdge(srcVertex32, ocVertex3, new MISTEdge(Direction.RIGHT));
+    configDag3.addEdge(ocVertex3, sinkVertex3, new MISTEdge(Direction.LEFT));
+
+    // Merged dag
+    final ExecutionDag mergedExecutionDag =
+        generateSimpleDag(src1, physicalOp1, sink1, srcVertex1, ocVertex1, sinkVertex1).getValue();
+    final DAG<ExecutionVertex, MISTEdge> dag = mergedExecutionDag.getDag();
+    GraphUtils.copy(dagTuple2.getValue().getDag(), dag);
+    dag.addVertex(physicalOp3);
+    dag.addVertex(sink3);
+    dag.addEdge(src1, physicalOp3, new MISTEdge(Direction.LEFT));
+    dag.addEdge(src2, physicalOp3, new MISTEdge(Direction.RIGHT));
+    dag.addEdge(physicalOp3, sink3, new MISTEdge(Direction.LEFT));
+    physicalOp1.getOperator().setOutputEmitter(new OperatorOutputEmitter(dag.getEdges(physicalOp1)));
+    physicalOp2.getOperator().setOutputEmitter(new OperatorOutputEmitter(dag.getEdges(physicalOp2)));
+
+    // Add execution dag to srcAndDagMap
+    srcAndDagMap.put(sourceConf1, mergedExecutionDag);
+    srcAndDagMap.put(sourceConf2, mergedExecutionDag);
+    // Add execution dag to queryIdConfigDagMap
+    queryIdConfigDagMap.put("q1", dagTuple1.getKey());
+    queryIdConfigDagMap.put("q2", dagTuple2.getKey());
+    queryIdConfigDagMap.put("q3", configDag3);
+    // ConfigExecutionVertexMap
+    configExecutionVertexMap.put(srcVertex1, src1);
+    configExecutionVertexMap.put(ocVertex1, physicalOp1);
+    configExecutionVertexMap.put(sinkVertex1, sink1);
+    configExecutionVertexMap.put(srcVertex2, src2);
+    configExecutionVertexMap.put(ocVertex2, physicalOp2);
+    configExecutionVertexMap.put(sinkVertex2, sink2);
+    configExecutionVertexMap.put(srcVertex31, src1);
+    configExecutionVertexMap.put(srcVertex32, src2);
+    configExecutionVertexMap.put(ocVertex3, physicalOp3);
+    configExecutionVertexMap.put(sinkVertex3, sink3);
+    // ExecutionDags
+    executionDags.add(mergedExecutionDag);
+    // ExecutionVertexCountMap and ExecutionVertexDagMap
+    for (final ExecutionVertex executionVertex : dag.getVertices()) {
+      executionVertexCountMap.put(executionVertex, 1);
+      executionVertexDagMap.put(executionVertex, mergedExecutionDag);
+    }
+    executionVertexCountMap.put(src1, 2);
+    executionVertexCountMap.put(src2, 2);
+
+    // Remove query3
+    queryRemover.deleteQuery("q3");
+
+    // Check srcAndDagMap and ExecutionDags
+    final ExecutionDag execDag1 = srcAndDagMap.get(sourceConf1);
+    final ExecutionDag execDag2 = srcAndDagMap.get(sourceConf2);
+    Assert.assertNotEquals(execDag1, execDag2);
+    Assert.assertEquals(2, executionDags.values().size());
+    Assert.assertTrue(executionDags.values().contains(execDag1));
+    Assert.assertTrue(executionDags.values().contains(execDag2));
+    // Check if the merged dag is split correctly
+    Assert.assertTrue(GraphUtils.compareTwoDag(dagTuple1.getValue().getDag(), execDag1.getDag()));
+    Assert.assertTrue(GraphUtils.compareTwoDag(dagTuple2.getValue().getDag(), execDag2.getDag()));
+    // Check ExecutionVertexDagMap
+    Assert.assertEquals(execDag1, executionVertexDagMap.get(src1));
+    Assert.assertEquals(execDag1, executionVertexDagMap.get(physicalOp1));
+    Assert.assertEquals(execDag1, executionVertexDagMap.get(sink1));
+    Assert.assertEquals(execDag2, executionVertexDagMap.get(src2));
+    Assert.assertEquals(execDag2, executionVertexDagMap.get(physicalOp2));
+    Assert.assertEquals(execDag2, executionVertexDagMap.get(sink2));
+    Assert.assertNull(executionVertexDagMap.get(physicalOp3));
+    Assert.assertNull(executionVertexDagMap.get(sink3));
+    // Check ExecutionVertexCountMap
+    Assert.assertEquals(1, (int)executionVertexCountMap.get(src1));
+    Assert.assertEquals(1, (int)executionVertexCountMap.get(src2));
+    Assert.assertNull(executionVertexCountMap.get(physicalOp3));
+    Assert.assertNull(executionVertexCountMap.get(sink3));
+
+    // Check if the output emitters forward the events in the split dags
+    physicalOp1.getOperator().processLeftData(new MistDataEvent("data1"));
+    physicalOp2.getOperator().processLeftData(new MistDataEvent("data2"));
+    Assert.assertEquals(Arrays.asList("data1", "data2"), result);
+  }
+
+  /**
+   * Case 5: Remove a query that shares a stateless operator, so the operator can be fused with the next operator.
+   * Query1: src1 -> oc1 -> oc2 -> sink1
+   * Query2: src1 -> oc1 -> sink2
+   * Merged: src1 -> oc1 -> oc2 -> sink1
+   *                     -> sink2
+   * After removing query2, oc1 forwards the outputs directly to oc2:
+   *         src1 -> oc1 -> oc2 -> sink1
+   */
+  @Test
+  public void removeQueryAndFuseOperatorsTest() throws InjectionException, IOException {
+    final List<String> result = new LinkedList<>();
+    final String sourceConf = idAndConfGenerator.generateConf();
+
+    // Physical vertices
+    final TestSource src1 = generateSource(sourceConf);
+    final PhysicalOperator physicalOp1 = generateFilterOperator(idAndConfGenerator.generateConf(), (s) -> true);
+    // The next operator is looked up for each event only if the operators are not fused
+    final FilterOperator<String> filterOp2 = new FilterOperator<>((s) -> true);
+    final PhysicalOperator physicalOp2 = mock(PhysicalOperator.class);
+    when(physicalOp2.getType()).thenReturn(ExecutionVertex.Type.OPERATOR);
+    when(physicalOp2.getOperator()).thenReturn(filterOp2);
+    final PhysicalSink<String> sink1 = generateSink(idAndConfGenerator.generateConf(), result);
+    final PhysicalSink<String> sink2 = generateSink(idAndConfGenerator.generateConf(), result);
+
+    // Config vertices
+    final ConfigVertex srcVertex1 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SOURCE, sourceConf);
+    final ConfigVertex ocVertex1 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.OPERATOR, physicalOp1.getConfiguration());
+    final ConfigVertex ocVertex2 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.OPERATOR, idAndConfGenerator.generateConf());
+    final ConfigVertex sinkVertex1 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SINK, sink1.getConfiguration());
+    final ConfigVertex srcVertex2 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SOURCE, sourceConf);
+    final ConfigVertex ocVertex21 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.OPERATOR, physicalOp1.getConfiguration());
+    final ConfigVertex sinkVertex2 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SINK, sink2.getConfiguration());
+
+    // Config dags
+    final DAG<ConfigVertex, MISTEdge> configDag1 = new AdjacentListDAG<>();
+    configDag1.addVertex(srcVertex1);
+    configDag1.addVertex(ocVertex1);
+    configDag1.addVertex(ocVertex2);
+    configDag1.addVertex(sinkVertex1);
+    configDag1.addEdge(srcVertex1, ocVertex1, new MISTEdge(Direction.LEFT));
+    configDag1.addEdge(ocVertex1, ocVertex2, new MISTEdge(Direction.LEFT));
+    configDag1.addEdge(ocVertex2, sinkVertex1, new MISTEdge(Direction.LEFT));
+    final DAG<ConfigVertex, MISTEdge> configDag2 = new AdjacentListDAG<>();
+    configDag2.addVertex(srcVertex2);
+    configDag2.addVertex(ocVertex21);
+    configDag2.addVertex(sinkVertex2);
+    configDag2.addEdge(srcVertex2, ocVertex21, new MISTEdge(Direction.LEFT));
+    configDag2.addEdge(ocVertex21, sinkVertex2, new MISTEdge(Direction.LEFT));
+
+    // Merged dag
+    final DAG<ExecutionVertex, MISTEdge> dag = new AdjacentListDAG<>();
+    dag.addVertex(src1);
+    dag.addVertex(physicalOp1);
+    dag.addVertex(physicalOp2);
+    dag.addVertex(sink1);
+    dag.addVertex(sink2);
+    dag.addEdge(src1, physicalOp1, new MISTEdge(Direction.LEFT));
+    dag.addEdge(physicalOp1, physicalOp2, new MISTEdge(Direction.LEFT));
+    dag.addEdge(physicalOp2, sink1, new MISTEdge(Direction.LEFT));
+    dag.addEdge(physicalOp1, sink2, new MISTEdge(Direction.LEFT));
+    final ExecutionDag mergedExecutionDag = new ExecutionDag(dag);
+    physicalOp1.getOperator().setOutputEmitter(new OperatorOutputEmitter(dag.getEdges(physicalOp1)));
+    filterOp2.setOutputEmitter(new OperatorOutputEmitter(dag.getEdges(physicalOp2)));
+
+    srcAndDagMap.put(sourceConf, mergedExecutionDag);
+    queryIdConfigDagMap.put("q1", configDag1);
+    queryIdConfigDagMap.put("q2", configDag2);
+    configExecutionVertexMap.put(srcVertex1, src1);
+    configExecutionVertexMap.put(ocVertex1, physicalOp1);
+    configExecutionVertexMap.put(ocVertex2, physicalOp2);
+    configExecutionVertexMap.put(sinkVertex1, sink1);
+    configExecutionVertexMap.put(srcVertex2, src1);
+    configExecutionVertexMap.put(ocVertex21, physicalOp1);
+    configExecutionVertexMap.put(sinkVertex2, sink2);
+    executionDags.add(mergedExecutionDag);
+    for (final ExecutionVertex executionVertex : dag.getVertices()) {
+      executionVertexCountMap.put(executionVertex, 1);
+      executionVertexDagMap.put(executionVertex, mergedExecutionDag);
+    }
+    executionVertexCountMap.put(src1, 2);
+    executionVertexCountMap.put(physicalOp1, 2);
+
+    // Remove query2
+    queryRemover.deleteQuery("q2");
+
+    // Check if the shared operator forwards the outputs directly to the next operator
+    reset(physicalOp2);
+    physicalOp1.getOperator().processLeftData(new MistDataEvent("data"));
+    verify(physicalOp2, never()).getOperator();
+    Assert.assertEquals(Arrays.asList("data"), result);
+  }
+
   /**
    * An exception for deleting test.
    */
@@ -549,6 +808,160 @@ public final class MergeAwareQueryRemoverTest {
     }
   }
 
+  /**
+   * Case 6: Remove a query and split the merged execution dag, while another thread tries to merge a query.
+   * The merged dag is the same as Case 4, and the removal of query3 is paused after it publishes a split dag.
+   * The other thread finds the split dag, but should not be able to lock it until the removal finishes.
+   */
+  @Test(timeout = 10000)
+  public void lockSplitExecutionDagTest() throws Exception {
+    final List<String> result = new LinkedList<>();
+    final String sourceConf1 = idAndConfGenerator.generateConf();
+    final String sourceConf2 = idAndConfGenerator.generateConf();
+
+    // Merged dag
+    final TestSource src1 = generateSource(sourceConf1);
+    final TestSource src2 = generateSource(sourceConf2);
+    final PhysicalOperator physicalOp1 = generateFilterOperator(idAndConfGenerator.generateConf(), (s) -> true);
+    final PhysicalOperator physicalOp2 = generateFilterOperator(idAndConfGenerator.generateConf(), (s) -> true);
+    final PhysicalOperator physicalOp3 = generateFilterOperator(idAndConfGenerator.generateConf(), (s) -> true);
+    final PhysicalSink<String> sink1 = generateSink(idAndConfGenerator.generateConf(), result);
+    final PhysicalSink<String> sink2 = generateSink(idAndConfGenerator.generateConf(), result);
+    final PhysicalSink<String> sink3 = generateSink(idAndConfGenerator.generateConf(), result);
+    final ExecutionDag mergedExecutionDag = new ExecutionDag(new AdjacentListDAG<>());
+    final DAG<ExecutionVertex, MISTEdge> dag = mergedExecutionDag.getDag();
+    final List<ExecutionVertex> vertices =
+        Arrays.asList(src1, src2, physicalOp1, physicalOp2, physicalOp3, sink1, sink2, sink3);
+    for (final ExecutionVertex vertex : vertices) {
+      dag.addVertex(vertex);
+      executionVertexCountMap.put(vertex, 1);
+      executionVertexDagMap.put(vertex, mergedExecutionDag);
+    }
+    dag.addEdge(src1, physicalOp1, new MISTEdge(Direction.LEFT));
+    dag.addEdge(physicalOp1, sink1, new MISTEdge(Direction.LEFT));
+    dag.addEdge(src2, physicalOp2, new MISTEdge(Direction.LEFT));
+    dag.addEdge(physicalOp2, sink2, new MISTEdge(Direction.LEFT));
+    dag.addEdge(src1, physicalOp3, new MISTEdge(Direction.LEFT));
+    dag.addEdge(src2, physicalOp3, new MISTEdge(Direction.RIGHT));
+    dag.addEdge(physicalOp3, sink3, new MISTEdge(Direction.LEFT));
+    executionVertexCountMap.put(src1, 2);
+    executionVertexCountMap.put(src2, 2);
+    executionDags.add(mergedExecutionDag);
+    srcAndDagMap.put(sourceConf1, mergedExecutionDag);
+    srcAndDagMap.put(sourceConf2, mergedExecutionDag);
+
+    // Query3: src1, src2 -> oc3 -> sink3
+    final ConfigVertex srcVertex31 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SOURCE, sourceConf1);
+    final ConfigVertex srcVertex32 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SOURCE, sourceConf2);
+    final ConfigVertex ocVertex3 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.OPERATOR, physicalOp3.getConfiguration());
+    final ConfigVertex sinkVertex3 = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+        ExecutionVertex.Type.SINK, sink3.getConfiguration());
+    final DAG<ConfigVertex, MISTEdge> configDag3 = new AdjacentListDAG<>();
+    configDag3.addVertex(srcVertex31);
+    configDag3.addVertex(srcVertex32);
+    configDag3.addVertex(ocVertex3);
+    configDag3.addVertex(sinkVertex3);
+    configDag3.addEdge(srcVertex31, ocVertex3, new MISTEdge(Direction.LEFT));
+    configDag3.addEdge(srcVertex32, ocVertex3, new MISTEdge(Direction.RIGHT));
+    configDag3.addEdge(ocVertex3, sinkVertex3, new MISTEdge(Direction.LEFT));
+    queryIdConfigDagMap.put("q3", configDag3);
+    configExecutionVertexMap.put(srcVertex31, src1);
+    configExecutionVertexMap.put(srcVertex32, src2);
+    configExecutionVertexMap.put(ocVertex3, physicalOp3);
+    configExecutionVertexMap.put(sinkVertex3, sink3);
+
+    // Remove query3 in another thread, which is paused after it publishes the split dag
+    srcAndDagMap.pauseOnReplace();
+    final Thread removerThread = new Thread(() -> queryRemover.deleteQuery("q3"));
+    removerThread.start();
+    final ExecutionDag splitExecutionDag = srcAndDagMap.awaitReplacedDag();
+
+    // The vertices of the split dag are published before the source
+    for (final ExecutionVertex vertex : splitExecutionDag.getDag().getVertices()) {
+      Assert.assertEquals(splitExecutionDag, executionVertexDagMap.get(vertex));
+    }
+    // A merging thread cannot lock the split dag until the removal finishes
+    Assert.assertNull(mergingLocks.tryLockDag(splitExecutionDag));
+    srcAndDagMap.resume();
+    removerThread.join();
+    final ReentrantLock splitDagLock = mergingLocks.tryLockDag(splitExecutionDag);
+    Assert.assertNotNull(splitDagLock);
+    splitDagLock.unlock();
+    Assert.assertEquals(2, executionDags.values().size());
+    Assert.assertTrue(executionDags.values().contains(splitExecutionDag));
+  }
+
+  /**
+   * A source and dag map that can pause the thread replacing the dag of a source, until it is resumed.
+   */
+  static final class PausingSrcAndDagMap implements SrcAndDagMap<String> {
+    private final Map<String, ExecutionDag> map = new ConcurrentHashMap<>();
+    private final AtomicBoolean pausing = new AtomicBoolean(false);
+    private final CountDownLatch replaced = new CountDownLatch(1);
+    private final CountDownLatch resumed = new CountDownLatch(1);
+    private volatile ExecutionDag replacedDag;
+
+    /**
+     * Pause the next replacement.
+     */
+    void pauseOnReplace() {
+      pausing.set(true);
+    }
+
+    /**
+     * Wait until the paused replacement.
+     * @return the replaced execution dag
+     */
+    ExecutionDag awaitReplacedDag() throws InterruptedException {
+      replaced.await();
+      return replacedDag;
+    }
+
+    /**
+     * Resume the paused replacement.
+     */
+    void resume() {
+      resumed.countDown();
+    }
+
+    @Override
+    public ExecutionDag get(final String conf) {
+      return map.get(conf);
+    }
+
+    @Override
+    public void put(final String conf, final ExecutionDag executionDag) {
+      map.put(conf, executionDag);
+    }
+
+    @Override
+    public void replace(final String conf, final ExecutionDag executionDag) {
+      map.replace(conf, executionDag);
+      if (pausing.compareAndSet(true, false)) {
+        replacedDag = executionDag;
+        replaced.countDown();
+        try {
+          resumed.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
+    @Override
+    public ExecutionDag remove(final String conf) {
+      return map.remove(conf);
+    }
+
+    @Override
+    public int size() {
+      return map.size();
+    }
+  }
+
   /**
    * Test source that sends data to next operator chains.
    */
@@ -574,6 +987,11 @@ public final class MergeAwareQueryRemoverTest {
       return null;
     }
 
+    @Override
+    public DataGenerator getDataGenerator() {
+      return null;
+    }
+
     @Override
     public SourceOutputEmitter getSourceOutputEmitter() {
       return outputEmitter;
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.merging;
+
+import edu.snu.mist.common.OutputEmitter;
+import edu.snu.mist.common.graph.DAG;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.operators.FilterOperator;
+import edu.snu.mist.common.sinks.Sink;
+import edu.snu.mist.common.sources.DataGenerator;
+import edu.snu.mist.common.sources.EventGenerator;
+import edu.snu.mist.core.task.*;
+import edu.snu.mist.formats.avro.Direction;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * This benchmark measures the query submission throughput of ImmediateQueryMergingStarter
+ * according to the number of resident queries.
+ * Each query is src -> filter -> map -> sink. The queries share the sources and the filters,
+ * and each query has its own map and sink, so the merged execution dags grow as the queries are submitted.
+ * It is not a unit test, and runs with the main method:
+ * QueryMergingBenchmark [max resident queries] [queries per measurement] [submitting threads]
+ */
+public final class QueryMergingBenchmark {
+  private static final Logger LOG = Logger.getLogger(QueryMergingBenchmark.class.getName());
+
+  /**
+   * The number of distinct sources.
+   */
+  private static final int NUM_SOURCES = 16;
+
+  /**
+   * The number of distinct filters per source.
+   */
+  private static final int NUM_FILTERS = 4;
+
+  /**
+   * The prefix of configurations, which mimics the long serialized Tang configurations.
+   */
+  private static final String CONF_PREFIX = String.join("", Collections.nCopies(32,
+      "edu.snu.mist.common.operators.FilterOperator="));
+
+  private final QueryStarter queryStarter;
+  private final AtomicLong idCount;
+  private final AtomicLong queryCount;
+
+  private QueryMergingBenchmark() throws Exception {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindImplementation(ExecutionDags.class, MergingExecutionDags.class);
+    jcb.bindImplementation(QueryStarter.class, ImmediateQueryMergingStarter.class);
+    final Injector injector = Tang.Factory.getTang().newInjector(jcb.build());
+    injector.bindVolatileInstance(ExecutionVertexGenerator.class, new BenchmarkVertexGenerator());
+    this.queryStarter = injector.getInstance(QueryStarter.class);
+    this.idCount = new AtomicLong();
+    this.queryCount = new AtomicLong();
+  }
+
+  private ConfigVertex newConfigVertex(final ExecutionVertex.Type type, final String conf) {
+    return new ConfigVertex(Long.toString(idCount.getAndIncrement()), type, CONF_PREFIX + conf);
+  }
+
+  /**
+   * Submit a new query.
+   */
+  private void submit() throws Exception {
+    final long q = queryCount.getAndIncrement();
+    final long src = q % NUM_SOURCES;
+    final DAG<ConfigVertex, MISTEdge> dag = new AdjacentListConcurrentMapDAG<>();
+    final ConfigVertex srcVertex = newConfigVertex(ExecutionVertex.Type.SOURCE, "src-" + src);
+    final ConfigVertex filterVertex = newConfigVertex(ExecutionVertex.Type.OPERATOR,
+        "filter-" + src + "-" + (q / NUM_SOURCES) % NUM_FILTERS);
+    final ConfigVertex mapVertex = newConfigVertex(ExecutionVertex.Type.OPERATOR, "map-" + q);
+    final ConfigVertex sinkVertex = newConfigVertex(ExecutionVertex.Type.SINK, "sink-" + q);
+    dag.addVertex(srcVertex);
+    dag.addVertex(filterVertex);
+    dag.addVertex(mapVertex);
+    dag.addVertex(sinkVertex);
+    dag.addEdge(srcVertex, filterVertex, new MISTEdge(Direction.LEFT));
+    dag.addEdge(filterVertex, mapVertex, new MISTEdge(Direction.LEFT));
+    dag.addEdge(mapVertex, sinkVertex, new MISTEdge(Direction.LEFT));
+    queryStarter.start("q" + q, mock(Query.class), dag, new ArrayList<>());
+  }
+
+  /**
+   * Submit the queries with the threads.
+   * @return submitted queries per second
+   */
+  private double measure(final int numQueries, final int numThreads) throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    final List<Future<?>> futures = new ArrayList<>(numQueries);
+    final long start = System.nanoTime();
+    for (int i = 0; i < numQueries; i++) {
+      futures.add(executor.submit(() -> {
+        submit();
+        return null;
+      }));
+    }
+    for (final Future<?> future : futures) {
+      future.get();
+    }
+    final long elapsed = System.nanoTime() - start;
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+    return numQueries * 1e9 / elapsed;
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final int maxResidentQueries = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+    final int queriesPerMeasurement = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    final int numThreads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+    final QueryMergingBenchmark benchmark = new QueryMergingBenchmark();
+    while (benchmark.queryCount.get() < maxResidentQueries) {
+      final long resident = benchmark.queryCount.get();
+      final double throughput = benchmark.measure(queriesPerMeasurement, numThreads);
+      LOG.log(Level.INFO, "Resident queries: {0}, submission throughput: {1} queries/s",
+          new Object[]{resident, String.format("%.1f", throughput)});
+    }
+  }
+
+  /**
+   * Generates light-weight execution vertices without deserializing the configurations.
+   */
+  private static final class BenchmarkVertexGenerator implements ExecutionVertexGenerator {
+    @Override
+    public ExecutionVertex generate(final ConfigVertex configVertex,
+                                    final URL[] urls,
+                                    final ClassLoader classLoader) {
+      switch (configVertex.getType()) {
+        case SOURCE:
+          return new BenchmarkSource(configVertex.getId(), configVertex.getConfiguration());
+        case OPERATOR:
+          return new DefaultPhysicalOperatorImpl(configVertex.getId(), configVertex.getConfiguration(),
+              new FilterOperator<>((s) -> true));
+        case SINK:
+          return new PhysicalSinkImpl<>(configVertex.getId(), configVertex.getConfiguration(),
+              new BenchmarkSink<>());
+        default:
+          throw new IllegalArgumentException("Invalid vertex type: " + configVertex.getType());
+      }
+    }
+  }
+
+  /**
+   * Source that does not generate any event.
+   */
+  private static final class BenchmarkSource implements PhysicalSource {
+    private final String id;
+    private final String conf;
+    private SourceOutputEmitter outputEmitter;
+
+    BenchmarkSource(final String id, final String conf) {
+      this.id = id;
+      this.conf = conf;
+    }
+
+    @Override
+    public void start() {
+      // do nothing
+    }
+
+    @Override
+    public EventGenerator getEventGenerator() {
+      return null;
+    }
+
+    @Override
+    public DataGenerator getDataGenerator() {
+      return null;
+    }
+
+    @Override
+    public SourceOutputEmitter getSourceOutputEmitter() {
+      return outputEmitter;
+    }
+
+    @Override
+    public void close() throws Exception {
+      // do nothing
+    }
+
+    @Override
+    public Type getType() {
+      return Type.SOURCE;
+    }
+
+    @Override
+    public String getIdentifier() {
+      return id;
+    }
+
+    @Override
+    public void setOutputEmitter(final OutputEmitter emitter) {
+      outputEmitter = (SourceOutputEmitter) emitter;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public String getConfiguration() {
+      return conf;
+    }
+  }
+
+  /**
+   * Sink that drops the outputs.
+   */
+  private static final class BenchmarkSink<T> implements Sink<T> {
+    @Override
+    public void close() throws Exception {
+      // do nothing
+    }
+
+    @Override
+    public void handle(final T input) {
+      // do nothing
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.migration;
+
+import edu.snu.mist.common.graph.DAG;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.task.*;
+import edu.snu.mist.core.task.groupaware.ApplicationInfo;
+import edu.snu.mist.core.task.groupaware.Group;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test whether ApplicationBarrier quiesces the app.
+ */
+public final class ApplicationBarrierTest {
+
+  private PhysicalSource source1;
+  private PhysicalSource source2;
+  private SourceOutputEmitter emitter;
+  private Query query1;
+  private Query query2;
+  private ApplicationBarrier barrier;
+
+  @Before
+  public void setUp() {
+    emitter = mock(SourceOutputEmitter.class);
+    source1 = mockSource();
+    source2 = mockSource();
+    final DAG<ExecutionVertex, MISTEdge> dag = new AdjacentListConcurrentMapDAG<>();
+    dag.addVertex(source1);
+    dag.addVertex(source2);
+    final ExecutionDags executionDags = mock(ExecutionDags.class);
+    when(executionDags.values()).thenReturn(Collections.singletonList(new ExecutionDag(dag)));
+
+    query1 = new DefaultQueryImpl("q1");
+    query2 = new DefaultQueryImpl("q2");
+    final Group group = mock(Group.class);
+    when(group.getQueries()).thenReturn(Arrays.asList(query1, query2));
+
+    final ApplicationInfo applicationInfo = mock(ApplicationInfo.class);
+    when(applicationInfo.getExecutionDags()).thenReturn(executionDags);
+    when(applicationInfo.getGroups()).thenReturn(Collections.singletonList(group));
+    barrier = new ApplicationBarrier(applicationInfo);
+  }
+
+  private PhysicalSource mockSource() {
+    final PhysicalSource source = mock(PhysicalSource.class);
+    when(source.getType()).thenReturn(ExecutionVertex.Type.SOURCE);
+    when(source.getSourceOutputEmitter()).thenReturn(emitter);
+    return source;
+  }
+
+  /**
+   * Test whether the barrier closes all the sources of the app.
+   */
+  @Test
+  public void testCloseSources() throws Exception {
+    barrier.closeSources();
+    verify(source1).close();
+    verify(source2).close();
+  }
+
+  /**
+   * Test whether the barrier holds the queries after the events are drained, and releases them.
+   */
+  @Test(timeout = 5000L)
+  public void testDrainAndRelease() throws InterruptedException {
+    when(emitter.numberOfEvents()).thenReturn(1, 1, 0);
+    // The query is being processed by an event processor
+    Assert.assertTrue(query2.setProcessingFromReady());
+    final Thread eventProcessor = new Thread(() -> {
+      try {
+        Thread.sleep(50);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      query2.setReady();
+    });
+    eventProcessor.start();
+
+    Assert.assertEquals(0L, barrier.drain(4000));
+    eventProcessor.join();
+    // The event processors cannot process the held queries
+    Assert.assertFalse(query1.setProcessingFromReady());
+    Assert.assertFalse(query2.setProcessingFromReady());
+
+    barrier.release();
+    Assert.assertTrue(query1.setProcessingFromReady());
+    Assert.assertTrue(query2.setProcessingFromReady());
+  }
+
+  /**
+   * Test whether the barrier holds the queries with the remaining events after the timeout.
+   */
+  @Test(timeout = 5000L)
+  public void testDrainTimeout() {
+    when(emitter.numberOfEvents()).thenReturn(3);
+    Assert.assertEquals(6L, barrier.drain(20));
+    Assert.assertFalse(query1.setProcessingFromReady());
+    barrier.release();
+    Assert.assertTrue(query1.setProcessingFromReady());
+  }
+}
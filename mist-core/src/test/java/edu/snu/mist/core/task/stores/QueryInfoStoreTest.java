@@ -19,15 +19,19 @@ package edu.snu.mist.core.task.stores;
 import edu.snu.mist.client.MISTQuery;
 import edu.snu.mist.client.MISTQueryBuilder;
 import edu.snu.mist.common.types.Tuple2;
+import edu.snu.mist.core.parameters.PlanSegmentSize;
+import edu.snu.mist.core.parameters.PlanStorePath;
 import edu.snu.mist.core.parameters.TempFolderPath;
 import edu.snu.mist.core.task.groupaware.ApplicationMap;
 import edu.snu.mist.core.task.groupaware.ApplicationInfo;
 import edu.snu.mist.core.utils.TestParameters;
+import edu.snu.mist.formats.avro.ApplicationInfoCheckpoint;
 import edu.snu.mist.formats.avro.AvroDag;
 import edu.snu.mist.formats.avro.AvroVertex;
 import edu.snu.mist.formats.avro.Edge;
 import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.junit.Assert;
@@ -38,7 +42,10 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -70,7 +77,8 @@ public class QueryInfoStoreTest {
     final ByteBuffer byteBuffer1 = ByteBuffer.wrap(new byte[]{0, 1, 0, 1, 1, 1});
     jarFiles.add(byteBuffer1);
 
-    final Injector injector = Tang.Factory.getTang().newInjector();
+    final File planFolder = Files.createTempDirectory("plan").toFile();
+    final Injector injector = newInjector(planFolder, 1024 * 1024);
     final QueryInfoStore store = injector.getInstance(QueryInfoStore.class);
     final ApplicationMap applicationMap = injector.getInstance(ApplicationMap.class);
 
@@ -96,18 +104,8 @@ public class QueryInfoStoreTest {
     applicationMap.putIfAbsent(TestParameters.SUPER_GROUP_ID, applicationInfo);
 
     // Generate logical plan
-    final Tuple<List<AvroVertex>, List<Edge>> serializedDag = query.getAvroOperatorDag();
-    final AvroDag.Builder avroDagBuilder = AvroDag.newBuilder();
-    final AvroDag avroDag1 = avroDagBuilder
-        .setAppId(TestParameters.SUPER_GROUP_ID)
-        .setAvroVertices(serializedDag.getKey())
-        .setEdges(serializedDag.getValue())
-        .build();
-    final AvroDag avroDag2 = avroDagBuilder
-        .setAppId(TestParameters.SUPER_GROUP_ID)
-        .setAvroVertices(serializedDag.getKey())
-        .setEdges(serializedDag.getValue())
-        .build();
+    final AvroDag avroDag1 = newAvroDag(query);
+    final AvroDag avroDag2 = newAvroDag(query);
 
     // Store the chained dag
     store.saveAvroDag(new Tuple<>(queryId1, avroDag1));
@@ -115,8 +113,6 @@ public class QueryInfoStoreTest {
     while (!(store.isStored(queryId1) && store.isStored(queryId2))) {
       // Wait until the plan is stored
     }
-    Assert.assertTrue(new File(tmpFolderPath, queryId1 + ".plan").exists());
-    Assert.assertTrue(new File(tmpFolderPath, queryId2 + ".plan").exists());
 
     // Test stored file
     final AvroDag loadedDag1 = store.load(queryId1);
@@ -133,13 +129,160 @@ public class QueryInfoStoreTest {
     store.delete(queryId1);
     store.delete(queryId2);
     Assert.assertFalse(store.isStored(queryId1));
-    Assert.assertFalse(new File(tmpFolderPath, queryId1 + ".plan").exists());
     Assert.assertFalse(store.isStored(queryId2));
-    Assert.assertFalse(new File(tmpFolderPath, queryId2 + ".plan").exists());
     for (final String path : paths) {
       Assert.assertFalse(new File(path).exists());
     }
     folder.delete();
+    deleteFolder(planFolder);
+  }
+
+  /**
+   * Tests whether the plan log recovers the stored dags except the deleted ones,
+   * and keeps them after compacting the segments.
+   */
+  @Test(timeout = 10000)
+  public void planLogRecoveryTest() throws IOException {
+    final MISTQueryBuilder queryBuilder = new MISTQueryBuilder();
+    queryBuilder.setApplicationId(TestParameters.SUPER_GROUP_ID);
+    queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF)
+        .filter(s -> s.startsWith("A"))
+        .textSocketOutput(TestParameters.HOST, TestParameters.SINK_PORT);
+    final AvroDag avroDag = newAvroDag(queryBuilder.build());
+
+    final File planFolder = Files.createTempDirectory("plan").toFile();
+    final int numQueries = 100;
+    // Small segments, so the plans are written to multiple segments
+    final long segmentSize = 4096;
+    final PlanLog planLog = new PlanLog(planFolder, segmentSize);
+    final List<Tuple<String, AvroDag>> tuples = new ArrayList<>(numQueries);
+    for (int i = 0; i < numQueries; i++) {
+      tuples.add(new Tuple<>("q" + i, avroDag));
+    }
+    planLog.append(tuples);
+    // Delete the even queries
+    for (int i = 0; i < numQueries; i += 2) {
+      Assert.assertTrue(planLog.delete("q" + i));
+    }
+    planLog.close();
+
+    // Recover the plans
+    final PlanLog recoveredLog = new PlanLog(planFolder, segmentSize);
+    checkRecoveredPlans(recoveredLog, numQueries, avroDag);
+
+    // Compact the segments, and recover the plans again
+    final int numSegments = planFolder.listFiles().length;
+    recoveredLog.compact(1.0);
+    Assert.assertTrue(planFolder.listFiles().length < numSegments);
+    checkRecoveredPlans(recoveredLog, numQueries, avroDag);
+    recoveredLog.close();
+
+    final PlanLog compactedLog = new PlanLog(planFolder, segmentSize);
+    checkRecoveredPlans(compactedLog, numQueries, avroDag);
+    compactedLog.close();
+    deleteFolder(planFolder);
+  }
+
+  /**
+   * Tests whether a plan and the jar file of its application are reloaded after a restart,
+   * which creates the stores on the same folders again.
+   */
+  @Test(timeout = 10000)
+  public void restartTest() throws Exception {
+    final MISTQueryBuilder queryBuilder = new MISTQueryBuilder();
+    queryBuilder.setApplicationId(TestParameters.SUPER_GROUP_ID);
+    queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF)
+        .filter(s -> s.startsWith("A"))
+        .textSocketOutput(TestParameters.HOST, TestParameters.SINK_PORT);
+    final AvroDag avroDag = newAvroDag(queryBuilder.build());
+    final byte[] jarFile = new byte[]{0, 1, 0, 1, 1, 1};
+
+    final File tmpFolder = Files.createTempDirectory("tmp").toFile();
+    final File planFolder = Files.createTempDirectory("plan").toFile();
+    final String queryId = "testQuery";
+
+    // Store the jar file, the checkpoint of the application and the plan
+    final Injector injector = newInjector(tmpFolder, planFolder);
+    final AppInfoCheckpointStore checkpointStore = injector.getInstance(AppInfoCheckpointStore.class);
+    final QueryInfoStore store = injector.getInstance(QueryInfoStore.class);
+    final List<String> paths = store.saveJar(Arrays.asList(ByteBuffer.wrap(jarFile)));
+    checkpointStore.saveAppInfoCheckpoint(new Tuple<>(TestParameters.SUPER_GROUP_ID,
+        ApplicationInfoCheckpoint.newBuilder()
+            .setApplicationId(TestParameters.SUPER_GROUP_ID)
+            .setAvroConfigDags(new HashMap<>())
+            .setJarFilePaths(paths)
+            .build()));
+    store.saveAvroDag(new Tuple<>(queryId, avroDag));
+    while (!store.isStored(queryId)) {
+      // Wait until the plan is stored
+    }
+    store.close();
+
+    // Restart the stores on the same folders
+    final Injector restartedInjector = newInjector(tmpFolder, planFolder);
+    final AppInfoCheckpointStore restartedCheckpointStore =
+        restartedInjector.getInstance(AppInfoCheckpointStore.class);
+    final QueryInfoStore restartedStore = restartedInjector.getInstance(QueryInfoStore.class);
+
+    final ApplicationInfoCheckpoint checkpoint =
+        restartedCheckpointStore.loadAppInfoCheckpoint(TestParameters.SUPER_GROUP_ID);
+    Assert.assertEquals(paths, checkpoint.getJarFilePaths());
+    for (final String path : paths) {
+      Assert.assertArrayEquals(jarFile, Files.readAllBytes(new File(path).toPath()));
+    }
+    final AvroDag loadedDag = restartedStore.load(queryId);
+    Assert.assertEquals(avroDag.getEdges(), loadedDag.getEdges());
+    testVerticesEqual(avroDag.getAvroVertices(), loadedDag.getAvroVertices());
+
+    restartedStore.close();
+    deleteFolder(tmpFolder);
+    deleteFolder(planFolder);
+  }
+
+  private void checkRecoveredPlans(final PlanLog planLog, final int numQueries, final AvroDag avroDag)
+      throws IOException {
+    Assert.assertEquals(numQueries / 2, planLog.getQueryIds().size());
+    for (int i = 0; i < numQueries; i++) {
+      Assert.assertEquals(i % 2 == 1, planLog.contains("q" + i));
+    }
+    for (int i = 1; i < numQueries; i += 2) {
+      final AvroDag loadedDag = planLog.read("q" + i);
+      Assert.assertEquals(avroDag.getEdges(), loadedDag.getEdges());
+      testVerticesEqual(avroDag.getAvroVertices(), loadedDag.getAvroVertices());
+    }
+  }
+
+  private Injector newInjector(final File planFolder, final long segmentSize) {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(PlanStorePath.class, planFolder.getAbsolutePath());
+    jcb.bindNamedParameter(PlanSegmentSize.class, Long.toString(segmentSize));
+    return Tang.Factory.getTang().newInjector(jcb.build());
+  }
+
+  private Injector newInjector(final File tmpFolder, final File planFolder) {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(TempFolderPath.class, tmpFolder.getAbsolutePath());
+    jcb.bindNamedParameter(PlanStorePath.class, planFolder.getAbsolutePath());
+    return Tang.Factory.getTang().newInjector(jcb.build());
+  }
+
+  private AvroDag newAvroDag(final MISTQuery query) {
+    final Tuple<List<AvroVertex>, List<Edge>> serializedDag = query.getAvroOperatorDag();
+    return AvroDag.newBuilder()
+        .setAppId(TestParameters.SUPER_GROUP_ID)
+        .setAvroVertices(serializedDag.getKey())
+        .setEdges(serializedDag.getValue())
+        .build();
+  }
+
+  private void deleteFolder(final File folder) {
+    final File[] files = folder.listFiles();
+    if (files != null) {
+      for (final File file : files) {
+        file.delete();
+      }
+    }
+    folder.delete();
   }
 
   //@Test(timeout = 1000)
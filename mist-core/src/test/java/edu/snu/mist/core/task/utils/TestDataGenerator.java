@@ -86,6 +86,16 @@ public final class TestDataGenerator<String> implements DataGenerator<String> {
     }
   }
 
+  @Override
+  public void pause() {
+    // do nothing
+  }
+
+  @Override
+  public void resume() {
+    // do nothing
+  }
+
   @Override
   public void close() throws Exception {
     if (closed.compareAndSet(false, true)) {